@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.benchmark.core;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.dynatrace.types.DynatraceDistributionSummary;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares recording into a Dynatrace distribution summary from several threads, while
+ * another one periodically takes snapshots and resets it, with recording into the
+ * summary statistics as they were kept before, under a lock.
+ */
+@Fork(1)
+@Measurement(iterations = 2)
+@Warmup(iterations = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Group)
+public class DynatraceSummaryBenchmark {
+
+    private static final int RECORDING_THREADS = 7;
+
+    private DynatraceDistributionSummary lockFreeSummary;
+
+    private SynchronizedSummary synchronizedSummary;
+
+    @Setup
+    public void setup() {
+        lockFreeSummary = new DynatraceDistributionSummary(
+                new Meter.Id("response.size", Tags.empty(), "bytes", null, Meter.Type.DISTRIBUTION_SUMMARY),
+                Clock.SYSTEM, DistributionStatisticConfig.DEFAULT, 1.0);
+        synchronizedSummary = new SynchronizedSummary();
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(RECORDING_THREADS)
+    public void lockFreeRecord() {
+        lockFreeSummary.record(ThreadLocalRandom.current().nextDouble(1000));
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(1)
+    public Object lockFreeSnapshotAndReset() {
+        return lockFreeSummary.takeSummarySnapshotAndReset();
+    }
+
+    @Benchmark
+    @Group("synchronized")
+    @GroupThreads(RECORDING_THREADS)
+    public void synchronizedRecord() {
+        synchronizedSummary.recordNonNegative(ThreadLocalRandom.current().nextDouble(1000));
+    }
+
+    @Benchmark
+    @Group("synchronized")
+    @GroupThreads(1)
+    public double synchronizedSnapshotAndReset() {
+        return synchronizedSummary.takeSnapshotAndReset();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(DynatraceSummaryBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+
+    /**
+     * The statistics the Dynatrace registry kept before recording stopped taking a lock.
+     */
+    static final class SynchronizedSummary {
+
+        private final LongAdder count = new LongAdder();
+
+        private final DoubleAdder total = new DoubleAdder();
+
+        private final AtomicLong min = new AtomicLong();
+
+        private final AtomicLong max = new AtomicLong();
+
+        void recordNonNegative(double amount) {
+            long longBits = Double.doubleToLongBits(amount);
+            synchronized (this) {
+                max.getAndUpdate(prev -> Math.max(prev, longBits));
+                min.getAndUpdate(prev -> count.longValue() > 0 ? Math.min(prev, longBits) : longBits);
+
+                total.add(amount);
+                count.increment();
+            }
+        }
+
+        synchronized double takeSnapshotAndReset() {
+            double snapshot = Double.longBitsToDouble(min.get()) + Double.longBitsToDouble(max.get())
+                    + total.doubleValue() + count.longValue();
+            min.set(0);
+            max.set(0);
+            total.reset();
+            count.reset();
+            return snapshot;
+        }
+
+    }
+
+}
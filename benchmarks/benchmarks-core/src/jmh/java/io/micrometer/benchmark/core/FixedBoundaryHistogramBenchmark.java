@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.benchmark.core;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.TimeWindowFixedBoundaryHistogram;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares recording into percentile histogram buckets, whose indices are computed, with
+ * recording into the same buckets plus a service level objective, whose indices are
+ * searched for.
+ */
+@Fork(1)
+@Measurement(iterations = 2)
+@Warmup(iterations = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class FixedBoundaryHistogramBenchmark {
+
+    private static final DistributionStatisticConfig PERCENTILE_HISTOGRAM = DistributionStatisticConfig.builder()
+            .percentilesHistogram(true).minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+            .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos()).bufferLength(1).build()
+            .merge(DistributionStatisticConfig.DEFAULT);
+
+    private TimeWindowFixedBoundaryHistogram computedIndexHistogram;
+
+    private TimeWindowFixedBoundaryHistogram searchedIndexHistogram;
+
+    private final long[] values = new long[1024];
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        computedIndexHistogram = new TimeWindowFixedBoundaryHistogram(Clock.SYSTEM, PERCENTILE_HISTOGRAM, true);
+        searchedIndexHistogram = new TimeWindowFixedBoundaryHistogram(Clock.SYSTEM,
+                DistributionStatisticConfig.builder().serviceLevelObjectives((double) Duration.ofMillis(100).toNanos() + 1)
+                        .build().merge(PERCENTILE_HISTOGRAM),
+                true);
+
+        Random random = new Random(42);
+        for (int i = 0; i < values.length; i++) {
+            // log-uniformly distributed between 1ms and 30s
+            values[i] = (long) Math.exp(Math.log(1e6) + random.nextDouble() * (Math.log(3e10) - Math.log(1e6)));
+        }
+    }
+
+    private long nextValue() {
+        return values[next++ & (values.length - 1)];
+    }
+
+    @Benchmark
+    public void computedIndex() {
+        computedIndexHistogram.recordLong(nextValue());
+    }
+
+    @Benchmark
+    public void searchedIndex() {
+        searchedIndexHistogram.recordLong(nextValue());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(FixedBoundaryHistogramBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package io.micrometer.benchmark.core;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.openjdk.jmh.annotations.*;
@@ -24,6 +25,7 @@ import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @State(Scope.Benchmark)
 @OutputTimeUnit(TimeUnit.MICROSECONDS)
@@ -62,4 +64,58 @@ public class MeterRegistrationBenchmark {
         return x + y;
     }
 
+    /**
+     * A registry shared by all benchmark threads, every call registering a new meter so
+     * that each one goes through the registration path.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedRegistry {
+
+        @Param({ "false", "true" })
+        boolean concurrentRegistration;
+
+        MeterRegistry registry;
+
+        final AtomicInteger sequence = new AtomicInteger();
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            registry = new SimpleMeterRegistry();
+            registry.config().concurrentRegistration(concurrentRegistration);
+        }
+
+        Counter registerNew() {
+            return registry.counter("my.counter", "k", Integer.toString(sequence.incrementAndGet()));
+        }
+
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.Throughput)
+    public Counter registerNew_1Thread(SharedRegistry shared) {
+        return shared.registerNew();
+    }
+
+    @Benchmark
+    @Threads(4)
+    @BenchmarkMode(Mode.Throughput)
+    public Counter registerNew_4Threads(SharedRegistry shared) {
+        return shared.registerNew();
+    }
+
+    @Benchmark
+    @Threads(16)
+    @BenchmarkMode(Mode.Throughput)
+    public Counter registerNew_16Threads(SharedRegistry shared) {
+        return shared.registerNew();
+    }
+
+    @Benchmark
+    @Threads(64)
+    @BenchmarkMode(Mode.Throughput)
+    public Counter registerNew_64Threads(SharedRegistry shared) {
+        return shared.registerNew();
+    }
+
 }
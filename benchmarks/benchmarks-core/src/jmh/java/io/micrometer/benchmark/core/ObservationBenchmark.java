@@ -17,20 +17,28 @@ package io.micrometer.benchmark.core;
 
 import java.util.concurrent.TimeUnit;
 
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
 import io.micrometer.core.instrument.LongTaskTimer;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.CachingMeterObservationHandler;
 import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
 import io.micrometer.core.instrument.observation.ObservationOrTimerCompatibleInstrumentation;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+/**
+ * Measures creating and stopping observations. {@link #main} runs with the GC profiler,
+ * whose {@code gc.alloc.rate.norm} shows the bytes allocated per observation.
+ */
 @Fork(1)
 @Threads(4)
 @State(Scope.Benchmark)
@@ -42,6 +50,8 @@ public class ObservationBenchmark {
 
     ObservationRegistry observationRegistry;
 
+    ObservationRegistry cachingObservationRegistry;
+
     ObservationRegistry noopRegistry;
 
     Timer timer;
@@ -53,6 +63,9 @@ public class ObservationBenchmark {
         this.observationRegistry = ObservationRegistry.create();
         this.observationRegistry.observationConfig()
                 .observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        this.cachingObservationRegistry = ObservationRegistry.create();
+        this.cachingObservationRegistry.observationConfig()
+                .observationHandler(new CachingMeterObservationHandler(meterRegistry));
         this.noopRegistry = ObservationRegistry.create();
     }
 
@@ -119,6 +132,26 @@ public class ObservationBenchmark {
         return observation;
     }
 
+    @Benchmark
+    public Observation cachingObservation() {
+        Observation observation = Observation.createNotStarted("test.cached.obs", cachingObservationRegistry)
+                .lowCardinalityKeyValue("abc", "123").start();
+        observation.stop();
+
+        return observation;
+    }
+
+    @Benchmark
+    public void context(Blackhole blackhole) {
+        Observation.Context context = new Observation.Context().put(Timer.Sample.class, timer)
+                .put(LongTaskTimer.Sample.class, timer);
+        context.addLowCardinalityKeyValues(KeyValues.of("method", "GET", "status", "200"));
+        context.addHighCardinalityKeyValue(KeyValue.of("uri", "/orders/42"));
+        blackhole.consume(context.getRequired(Timer.Sample.class));
+        blackhole.consume(context.getLowCardinalityKeyValues());
+        blackhole.consume(context.getHighCardinalityKeyValues());
+    }
+
     @Benchmark
     public ObservationOrTimerCompatibleInstrumentation<Observation.Context> observationOrTimer() {
         ObservationOrTimerCompatibleInstrumentation<Observation.Context> instrumentation = ObservationOrTimerCompatibleInstrumentation
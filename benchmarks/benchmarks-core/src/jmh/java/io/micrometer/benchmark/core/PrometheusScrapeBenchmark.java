@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.benchmark.core;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scraping through the samples collected by the Prometheus client with writing
+ * them straight to an output stream. Run with the GC profiler to compare allocations.
+ */
+@Fork(1)
+@Measurement(iterations = 5)
+@Warmup(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class PrometheusScrapeBenchmark {
+
+    @Param({ "1000", "10000" })
+    int series;
+
+    private PrometheusMeterRegistry registry;
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setup() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        for (int i = 0; i < series; i++) {
+            String uri = "/api/resource/" + i;
+            registry.counter("http.client.requests.bytes", "uri", uri, "method", "GET").increment(i);
+            registry.gauge("queue.size", Tags.of("queue", "q" + i), i);
+            if (i % 10 == 0) {
+                Timer.builder("http.server.requests").tag("uri", uri).tag("status", "200")
+                        .publishPercentileHistogram().register(registry).record(i, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Benchmark
+    public String scrapeToString() {
+        return registry.scrape();
+    }
+
+    @Benchmark
+    public int scrapeToWriter() throws IOException {
+        StringWriter writer = new StringWriter();
+        registry.scrape(writer, TextFormat.CONTENT_TYPE_004);
+        return writer.getBuffer().length();
+    }
+
+    @Benchmark
+    public int scrapeToOutputStream() throws IOException {
+        outputStream.reset();
+        registry.scrape(outputStream, TextFormat.CONTENT_TYPE_004);
+        return outputStream.size();
+    }
+
+    @Benchmark
+    public int scrapeOpenMetricsToOutputStream() throws IOException {
+        outputStream.reset();
+        registry.scrape(outputStream, TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+        return outputStream.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(PrometheusScrapeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build();
+        new Runner(opt).run();
+    }
+
+}
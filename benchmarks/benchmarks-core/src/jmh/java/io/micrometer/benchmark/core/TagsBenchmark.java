@@ -43,6 +43,50 @@ public class TagsBenchmark {
         Tags.of("key", "value").and("key2", "value2", "key3", "value3", "key4", "value4", "key5", "value5");
     }
 
+    @State(Scope.Thread)
+    public static class CommonTagsMerge {
+
+        @Param({ "2", "8", "32" })
+        int tagCount;
+
+        Tags tags;
+
+        String[] keyValues;
+
+        Tags commonTags = Tags.of("application", "app", "region", "us-east-1", "instance", "i-1");
+
+        @Setup
+        public void setup() {
+            keyValues = new String[tagCount * 2];
+            for (int i = 0; i < tagCount; i++) {
+                keyValues[i * 2] = "key" + i;
+                keyValues[i * 2 + 1] = "value" + i;
+            }
+            tags = Tags.of(keyValues);
+        }
+
+    }
+
+    @Benchmark
+    public Tags andCommonTags(CommonTagsMerge state) {
+        return state.tags.and(state.commonTags);
+    }
+
+    @Benchmark
+    public Tags concatCommonTags(CommonTagsMerge state) {
+        return Tags.concat(state.commonTags, state.tags);
+    }
+
+    @Benchmark
+    public Tags ofKeyValuesAndCommonTags(CommonTagsMerge state) {
+        return Tags.of(state.keyValues).and(state.commonTags);
+    }
+
+    @Benchmark
+    public Tags builderWithCommonTags(CommonTagsMerge state) {
+        return Tags.builder().tags(state.keyValues).tags(state.commonTags).build();
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder().include(TagsBenchmark.class.getSimpleName()).build();
         new Runner(opt).run();
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.benchmark.core;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.TimeWindowFixedBoundaryHistogram;
+import io.micrometer.core.instrument.distribution.TimeWindowMax;
+import io.micrometer.core.instrument.distribution.TimeWindowPercentileHistogram;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records into time window histograms and maxes while another thread of the same group
+ * keeps taking snapshots. The windows rotate every 10ms, so recording threads regularly
+ * trigger a rotation while a snapshot is in progress.
+ */
+@Fork(1)
+@Measurement(iterations = 2)
+@Warmup(iterations = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Group)
+public class TimeWindowRotationBenchmark {
+
+    private static final DistributionStatisticConfig CONFIG = DistributionStatisticConfig.builder()
+            .percentiles(0.5, 0.99).percentilesHistogram(true).minimumExpectedValue(1.0)
+            .maximumExpectedValue((double) Duration.ofSeconds(1).toNanos()).expiry(Duration.ofMillis(30))
+            .bufferLength(3).build().merge(DistributionStatisticConfig.DEFAULT);
+
+    private TimeWindowFixedBoundaryHistogram fixedBoundaryHistogram;
+
+    private TimeWindowPercentileHistogram percentileHistogram;
+
+    private TimeWindowMax max;
+
+    @Setup
+    public void setup() {
+        fixedBoundaryHistogram = new TimeWindowFixedBoundaryHistogram(Clock.SYSTEM, CONFIG, true);
+        percentileHistogram = new TimeWindowPercentileHistogram(Clock.SYSTEM, CONFIG, true);
+        max = new TimeWindowMax(Clock.SYSTEM, 10, 3);
+    }
+
+    private static long nextValue() {
+        return ThreadLocalRandom.current().nextLong(1, Duration.ofSeconds(1).toNanos());
+    }
+
+    @Benchmark
+    @Group("fixedBoundary")
+    @GroupThreads(3)
+    public void fixedBoundaryRecord() {
+        fixedBoundaryHistogram.recordLong(nextValue());
+    }
+
+    @Benchmark
+    @Group("fixedBoundary")
+    @GroupThreads(1)
+    public HistogramSnapshot fixedBoundarySnapshot() {
+        return fixedBoundaryHistogram.takeSnapshot(0, 0, 0);
+    }
+
+    @Benchmark
+    @Group("percentile")
+    @GroupThreads(3)
+    public void percentileRecord() {
+        percentileHistogram.recordLong(nextValue());
+    }
+
+    @Benchmark
+    @Group("percentile")
+    @GroupThreads(1)
+    public HistogramSnapshot percentileSnapshot() {
+        return percentileHistogram.takeSnapshot(0, 0, 0);
+    }
+
+    @Benchmark
+    @Group("max")
+    @GroupThreads(3)
+    public void maxRecord() {
+        max.record(nextValue(), TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    @Group("max")
+    @GroupThreads(1)
+    public double maxPoll() {
+        return max.poll(TimeUnit.NANOSECONDS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(TimeWindowRotationBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+
+}
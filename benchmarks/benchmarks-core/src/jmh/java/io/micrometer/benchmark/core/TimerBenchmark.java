@@ -25,6 +25,7 @@ import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @State(Scope.Benchmark)
@@ -49,6 +50,8 @@ public class TimerBenchmark {
 
     private Timer timer;
 
+    private Timer histogramTimer;
+
     int x = 923;
 
     int y = 123;
@@ -57,6 +60,8 @@ public class TimerBenchmark {
     public void setup() {
         registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
         timer = registry.timer("timer");
+        histogramTimer = Timer.builder("timer.histogram").publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofMillis(10), Duration.ofMillis(100)).register(registry);
     }
 
     @Benchmark
@@ -77,6 +82,17 @@ public class TimerBenchmark {
         return registry.timer("timer").record(this::sum);
     }
 
+    @Benchmark
+    public int sumTimedWithPercentileHistogram() {
+        return histogramTimer.record(this::sum);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int sumTimedWithPercentileHistogram_16Threads() {
+        return histogramTimer.record(this::sum);
+    }
+
     @Benchmark
     public int sum() {
         return x + y;
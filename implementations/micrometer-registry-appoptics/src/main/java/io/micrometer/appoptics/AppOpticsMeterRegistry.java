@@ -20,7 +20,6 @@ import io.micrometer.core.instrument.*;
 import io.micrometer.core.instrument.config.MeterFilter;
 import io.micrometer.core.instrument.distribution.HistogramSnapshot;
 import io.micrometer.core.instrument.step.StepMeterRegistry;
-import io.micrometer.core.instrument.util.MeterPartition;
 import io.micrometer.core.instrument.util.NamedThreadFactory;
 import io.micrometer.core.ipc.http.HttpSender;
 import io.micrometer.core.ipc.http.HttpUrlConnectionSender;
@@ -76,7 +75,7 @@ public class AppOpticsMeterRegistry extends StepMeterRegistry {
         config().namingConvention(new AppOpticsNamingConvention());
 
         this.config = config;
-        this.httpClient = httpClient;
+        this.httpClient = getPushRegistryMetrics().instrument(httpClient);
 
         config().meterFilter(new MeterFilter() {
             @Override
@@ -97,9 +96,10 @@ public class AppOpticsMeterRegistry extends StepMeterRegistry {
 
     @Override
     protected void publish() {
-        try {
-            String bodyMeasurementsPrefix = getBodyMeasurementsPrefix();
-            for (List<Meter> batch : MeterPartition.partition(this, config.batchSize())) {
+        String bodyMeasurementsPrefix = getBodyMeasurementsPrefix();
+        forEachBatch(batch -> {
+            HttpSender.Response response;
+            try {
                 final List<String> meters = batch.stream()
                 // @formatter:off
                         .map(meter -> meter.match(
@@ -117,28 +117,28 @@ public class AppOpticsMeterRegistry extends StepMeterRegistry {
                         .map(Optional::get)
                         .collect(Collectors.toList());
                 if (meters.isEmpty()) {
-                    continue;
+                    return;
                 }
-                httpClient.post(config.uri())
+                response = httpClient.post(config.uri())
                         .withBasicAuthentication(config.apiToken(), "")
                         .withJsonContent(
                                 meters.stream().collect(joining(",", bodyMeasurementsPrefix, BODY_MEASUREMENTS_SUFFIX)))
-                        .send()
-                        .onSuccess(response -> {
-                            if (!response.body().contains("\"failed\":0")) {
-                                logger.error("failed to send at least some metrics to appoptics: {}", response.body());
-                            }
-                            else {
-                                logger.debug("successfully sent {} metrics to appoptics", batch.size());
-                            }
-                        })
-                        .onError(response -> logger.error("failed to send metrics to appoptics: {}", response.body()));
+                        .send();
                 // @formatter:on
             }
-        }
-        catch (Throwable t) {
-            logger.warn("failed to send metrics to appoptics", t);
-        }
+            catch (Throwable t) {
+                throw new IllegalStateException("failed to send metrics to appoptics", t);
+            }
+            if (!response.isSuccessful()) {
+                throw new IllegalStateException("failed to send metrics to appoptics: " + response.body());
+            }
+            if (!response.body().contains("\"failed\":0")) {
+                logger.error("failed to send at least some metrics to appoptics: {}", response.body());
+            }
+            else {
+                logger.debug("successfully sent {} metrics to appoptics", batch.size());
+            }
+        });
     }
 
     /**
@@ -25,6 +25,7 @@ import java.time.Duration;
 import java.util.function.Predicate;
 
 import static io.micrometer.core.instrument.config.MeterRegistryConfigValidator.*;
+import static io.micrometer.core.instrument.config.validate.PropertyValidator.getBoolean;
 import static io.micrometer.core.instrument.config.validate.PropertyValidator.getInteger;
 import static io.micrometer.core.instrument.config.validate.PropertyValidator.getString;
 
@@ -74,12 +75,41 @@ public interface CloudWatchConfig extends StepRegistryConfig {
         return step().compareTo(Duration.ofMinutes(1)) < 0;
     }
 
+    /**
+     * The maximum number of PutMetricData requests in flight at once while publishing.
+     * Publishing sends the next batch as soon as fewer requests are in flight, and waits
+     * for all of them to complete for at most the step.
+     * @return The maximum number of requests in flight at once.
+     * @since 1.11.0
+     */
+    default int maxInFlightRequests() {
+        return getInteger(this, "maxInFlightRequests").orElse(4);
+    }
+
+    /**
+     * Whether to send timers and distribution summaries that publish a histogram, with
+     * {@link io.micrometer.core.instrument.Timer.Builder#publishPercentileHistogram()} or
+     * service level objectives, as a single metric named after the meter whose values and
+     * counts are the histogram buckets of the step. CloudWatch computes the sample count,
+     * sum, average, maximum and percentiles from them, instead of separate sum, count, avg
+     * and max metrics being sent. This takes fewer datums, and so fewer PutMetricData
+     * requests, but values are only as accurate as the buckets: a value is sent as the
+     * upper bound of its bucket, and values above the highest bucket as the maximum.
+     * @return Whether to send histograms as values and counts.
+     * @since 1.11.0
+     */
+    default boolean valuesAndCounts() {
+        return getBoolean(this, "valuesAndCounts").orElse(false);
+    }
+
     @Override
     default Validated<?> validate() {
         return checkAll(this, (CloudWatchConfig c) -> StepRegistryConfig.validate(c),
                 checkRequired("namespace", CloudWatchConfig::namespace),
                 check("batchSize", CloudWatchConfig::batchSize).andThen(v -> v.invalidateWhen(b -> b > MAX_BATCH_SIZE,
-                        "cannot be greater than " + MAX_BATCH_SIZE, InvalidReason.MALFORMED)));
+                        "cannot be greater than " + MAX_BATCH_SIZE, InvalidReason.MALFORMED)),
+                check("maxInFlightRequests", CloudWatchConfig::maxInFlightRequests).andThen(
+                        v -> v.invalidateWhen(m -> m < 1, "must be at least 1", InvalidReason.MALFORMED)));
     }
 
 }
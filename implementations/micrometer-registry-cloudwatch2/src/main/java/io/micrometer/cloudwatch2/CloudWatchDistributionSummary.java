@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.cloudwatch2;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.step.StepBucketCounts;
+import io.micrometer.core.instrument.step.StepDistributionSummary;
+
+/**
+ * A step distribution summary whose histogram buckets are counted per step, to be sent
+ * as values and counts.
+ */
+class CloudWatchDistributionSummary extends StepDistributionSummary implements CloudWatchHistogramSupport {
+
+    private final StepBucketCounts bucketCounts;
+
+    CloudWatchDistributionSummary(Id id, Clock clock, DistributionStatisticConfig distributionStatisticConfig,
+            double scale, long stepMillis) {
+        // buckets are counted here rather than by a histogram of the super class
+        super(id, clock,
+                DistributionStatisticConfig.builder().percentilesHistogram(false).serviceLevelObjectives().build()
+                        .merge(distributionStatisticConfig),
+                scale, stepMillis, false);
+        this.bucketCounts = new StepBucketCounts(clock, stepMillis, distributionStatisticConfig);
+    }
+
+    @Override
+    protected void recordNonNegative(double amount) {
+        super.recordNonNegative(amount);
+        this.bucketCounts.recordDouble(amount);
+    }
+
+    @Override
+    public CountAtBucket[] stepBucketCounts() {
+        return this.bucketCounts.poll();
+    }
+
+}
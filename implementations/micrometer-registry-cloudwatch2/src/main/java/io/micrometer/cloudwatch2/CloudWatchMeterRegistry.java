@@ -20,6 +20,10 @@ import io.micrometer.common.util.StringUtils;
 import io.micrometer.common.util.internal.logging.WarnThenDebugLogger;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramGauges;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
 import io.micrometer.core.instrument.step.StepMeterRegistry;
 import io.micrometer.core.instrument.util.NamedThreadFactory;
 import org.slf4j.Logger;
@@ -33,9 +37,10 @@ import software.amazon.awssdk.services.cloudwatch.model.StandardUnit;
 
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
@@ -57,6 +62,9 @@ public class CloudWatchMeterRegistry extends StepMeterRegistry {
     // https://docs.aws.amazon.com/AmazonCloudWatch/latest/APIReference/API_Dimension.html
     private static final int MAX_DIMENSIONS_SIZE = 30;
 
+    // https://docs.aws.amazon.com/AmazonCloudWatch/latest/APIReference/API_MetricDatum.html
+    private static final int MAX_VALUES_SIZE = 150;
+
     static {
         Map<String, StandardUnit> standardUnitByLowercaseValue = new HashMap<>();
         for (StandardUnit standardUnit : StandardUnit.values()) {
@@ -71,6 +79,10 @@ public class CloudWatchMeterRegistry extends StepMeterRegistry {
 
     private final CloudWatchAsyncClient cloudWatchAsyncClient;
 
+    private final int maxInFlightRequests;
+
+    private final Semaphore inFlightRequests;
+
     private final Logger logger = LoggerFactory.getLogger(CloudWatchMeterRegistry.class);
 
     private static final WarnThenDebugLogger blankTagValueLogger = new WarnThenDebugLogger(
@@ -87,13 +99,40 @@ public class CloudWatchMeterRegistry extends StepMeterRegistry {
         super(config, clock);
         this.cloudWatchAsyncClient = cloudWatchAsyncClient;
         this.config = config;
+        this.maxInFlightRequests = config.maxInFlightRequests();
+        this.inFlightRequests = new Semaphore(maxInFlightRequests);
 
         config().namingConvention(new CloudWatchNamingConvention());
         start(threadFactory);
     }
 
+    @Override
+    protected Timer newTimer(Meter.Id id, DistributionStatisticConfig distributionStatisticConfig,
+            PauseDetector pauseDetector) {
+        if (!config.valuesAndCounts() || !distributionStatisticConfig.isPublishingHistogram()) {
+            return super.newTimer(id, distributionStatisticConfig, pauseDetector);
+        }
+        Timer timer = new CloudWatchTimer(id, clock, distributionStatisticConfig, pauseDetector, getBaseTimeUnit(),
+                config.step().toMillis());
+        HistogramGauges.registerWithCommonFormat(timer, this);
+        return timer;
+    }
+
+    @Override
+    protected DistributionSummary newDistributionSummary(Meter.Id id,
+            DistributionStatisticConfig distributionStatisticConfig, double scale) {
+        if (!config.valuesAndCounts() || !distributionStatisticConfig.isPublishingHistogram()) {
+            return super.newDistributionSummary(id, distributionStatisticConfig, scale);
+        }
+        DistributionSummary summary = new CloudWatchDistributionSummary(id, clock, distributionStatisticConfig, scale,
+                config.step().toMillis());
+        HistogramGauges.registerWithCommonFormat(summary, this);
+        return summary;
+    }
+
     @Override
     protected void publish() {
+        long deadline = System.nanoTime() + config.step().toNanos();
         boolean interrupted = false;
         try {
             for (List<MetricDatum> batch : MetricDatumPartition.partition(metricData(), config.batchSize())) {
@@ -104,6 +143,12 @@ public class CloudWatchMeterRegistry extends StepMeterRegistry {
                     interrupted = true;
                 }
             }
+            try {
+                awaitInFlightRequests(deadline);
+            }
+            catch (InterruptedException ex) {
+                interrupted = true;
+            }
         }
         finally {
             if (interrupted) {
@@ -112,30 +157,59 @@ public class CloudWatchMeterRegistry extends StepMeterRegistry {
         }
     }
 
+    /**
+     * Send a batch without waiting for the response, once fewer than
+     * {@link CloudWatchConfig#maxInFlightRequests()} requests are in flight.
+     */
     // VisibleForTesting
     void sendMetricData(List<MetricDatum> metricData) throws InterruptedException {
         PutMetricDataRequest putMetricDataRequest = PutMetricDataRequest.builder().namespace(config.namespace())
                 .metricData(metricData).build();
-        CountDownLatch latch = new CountDownLatch(1);
-        cloudWatchAsyncClient.putMetricData(putMetricDataRequest).whenComplete((response, t) -> {
-            if (t != null) {
-                if (t instanceof AbortedException) {
-                    logger.warn("sending metric data was aborted: {}", t.getMessage());
+        try {
+            @SuppressWarnings("deprecation")
+            long readTimeoutMillis = config.readTimeout().toMillis();
+            if (!inFlightRequests.tryAcquire(readTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warn("metrics push to cloudwatch took longer than expected, dropping {} metrics",
+                        metricData.size());
+                return;
+            }
+        }
+        catch (InterruptedException e) {
+            logger.warn("metrics push to cloudwatch took longer than expected");
+            throw e;
+        }
+        try {
+            cloudWatchAsyncClient.putMetricData(putMetricDataRequest).whenComplete((response, t) -> {
+                inFlightRequests.release();
+                if (t != null) {
+                    if (t instanceof AbortedException) {
+                        logger.warn("sending metric data was aborted: {}", t.getMessage());
+                    }
+                    else {
+                        logger.error("error sending metric data.", t);
+                    }
                 }
                 else {
-                    logger.error("error sending metric data.", t);
+                    logger.debug("published {} metrics with namespace:{}", metricData.size(),
+                            putMetricDataRequest.namespace());
                 }
+            });
+        }
+        catch (RuntimeException e) {
+            inFlightRequests.release();
+            throw e;
+        }
+    }
+
+    private void awaitInFlightRequests(long deadline) throws InterruptedException {
+        try {
+            if (inFlightRequests.tryAcquire(maxInFlightRequests, deadline - System.nanoTime(),
+                    TimeUnit.NANOSECONDS)) {
+                inFlightRequests.release(maxInFlightRequests);
             }
             else {
-                logger.debug("published {} metrics with namespace:{}", metricData.size(),
-                        putMetricDataRequest.namespace());
+                logger.warn("metrics push to cloudwatch took longer than expected");
             }
-            latch.countDown();
-        });
-        try {
-            @SuppressWarnings("deprecation")
-            long readTimeoutMillis = config.readTimeout().toMillis();
-            latch.await(readTimeoutMillis, TimeUnit.MILLISECONDS);
         }
         catch (InterruptedException e) {
             logger.warn("metrics push to cloudwatch took longer than expected");
@@ -180,6 +254,11 @@ public class CloudWatchMeterRegistry extends StepMeterRegistry {
 
         // VisibleForTesting
         Stream<MetricDatum> timerData(Timer timer) {
+            if (timer instanceof CloudWatchHistogramSupport) {
+                return histogramData(timer.getId(), ((CloudWatchHistogramSupport) timer).stepBucketCounts(),
+                        bucket -> bucket.bucket(getBaseTimeUnit()), timer.count(), timer.max(getBaseTimeUnit()),
+                        toStandardUnit(getBaseTimeUnit().name()));
+            }
             Stream.Builder<MetricDatum> metrics = Stream.builder();
             metrics.add(
                     metricDatum(timer.getId(), "sum", getBaseTimeUnit().name(), timer.totalTime(getBaseTimeUnit())));
@@ -194,6 +273,11 @@ public class CloudWatchMeterRegistry extends StepMeterRegistry {
 
         // VisibleForTesting
         Stream<MetricDatum> summaryData(DistributionSummary summary) {
+            if (summary instanceof CloudWatchHistogramSupport) {
+                return histogramData(summary.getId(), ((CloudWatchHistogramSupport) summary).stepBucketCounts(),
+                        CountAtBucket::bucket, summary.count(), summary.max(),
+                        toStandardUnit(summary.getId().getBaseUnit()));
+            }
             Stream.Builder<MetricDatum> metrics = Stream.builder();
             metrics.add(metricDatum(summary.getId(), "sum", summary.totalAmount()));
             long count = summary.count();
@@ -245,6 +329,36 @@ public class CloudWatchMeterRegistry extends StepMeterRegistry {
             return metrics.build();
         }
 
+        /**
+         * Values and counts of a step, where a value is the upper bound of the bucket it
+         * was counted in, or the maximum if it was above the highest bucket. They are
+         * split among datums of the same metric if there are too many for one.
+         */
+        private Stream<MetricDatum> histogramData(Meter.Id id, CountAtBucket[] bucketCounts,
+                ToDoubleFunction<CountAtBucket> bucket, long count, double max, StandardUnit standardUnit) {
+            List<Double> values = new ArrayList<>(bucketCounts.length + 1);
+            List<Double> counts = new ArrayList<>(bucketCounts.length + 1);
+            double counted = 0;
+            for (CountAtBucket bucketCount : bucketCounts) {
+                if (bucketCount.count() > 0 && bucketCount.bucket() != Double.POSITIVE_INFINITY) {
+                    values.add(CloudWatchUtils.clampMetricValue(bucket.applyAsDouble(bucketCount)));
+                    counts.add(bucketCount.count());
+                    counted += bucketCount.count();
+                }
+            }
+            if (count > counted) {
+                values.add(CloudWatchUtils.clampMetricValue(max));
+                counts.add(count - counted);
+            }
+            Stream.Builder<MetricDatum> metrics = Stream.builder();
+            for (int from = 0; from < values.size(); from += MAX_VALUES_SIZE) {
+                int to = Math.min(from + MAX_VALUES_SIZE, values.size());
+                metrics.add(metricDatumBuilder(id, null, standardUnit).values(values.subList(from, to))
+                        .counts(counts.subList(from, to)).build());
+            }
+            return metrics.build();
+        }
+
         // VisibleForTesting
         Stream<MetricDatum> metricData(Meter m) {
             return stream(m.measure().spliterator(), false)
@@ -272,7 +386,11 @@ public class CloudWatchMeterRegistry extends StepMeterRegistry {
             if (Double.isNaN(value)) {
                 return null;
             }
+            return metricDatumBuilder(id, suffix, standardUnit).value(CloudWatchUtils.clampMetricValue(value)).build();
+        }
 
+        private MetricDatum.Builder metricDatumBuilder(Meter.Id id, @Nullable String suffix,
+                StandardUnit standardUnit) {
             List<Tag> tags = id.getConventionTags(config().namingConvention());
             if (tags.size() > MAX_DIMENSIONS_SIZE) {
                 tooManyTagsLogger.log(() -> "Meter " + id.getName() + " has more tags (" + tags.size()
@@ -281,7 +399,7 @@ public class CloudWatchMeterRegistry extends StepMeterRegistry {
             }
             return MetricDatum.builder().storageResolution(config.highResolution() ? 1 : 60)
                     .metricName(getMetricName(id, suffix)).dimensions(toDimensions(tags)).timestamp(timestamp)
-                    .value(CloudWatchUtils.clampMetricValue(value)).unit(standardUnit).build();
+                    .unit(standardUnit);
         }
 
         // VisibleForTesting
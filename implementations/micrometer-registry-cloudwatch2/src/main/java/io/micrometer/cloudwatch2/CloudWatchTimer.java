@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.cloudwatch2;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
+import io.micrometer.core.instrument.step.StepBucketCounts;
+import io.micrometer.core.instrument.step.StepTimer;
+import io.micrometer.core.instrument.util.TimeUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A step timer whose histogram buckets are counted per step, to be sent as values and
+ * counts.
+ */
+class CloudWatchTimer extends StepTimer implements CloudWatchHistogramSupport {
+
+    private final StepBucketCounts bucketCounts;
+
+    CloudWatchTimer(Id id, Clock clock, DistributionStatisticConfig distributionStatisticConfig,
+            PauseDetector pauseDetector, TimeUnit baseTimeUnit, long stepMillis) {
+        // buckets are counted here rather than by a histogram of the super class
+        super(id, clock,
+                DistributionStatisticConfig.builder().percentilesHistogram(false).serviceLevelObjectives().build()
+                        .merge(distributionStatisticConfig),
+                pauseDetector, baseTimeUnit, stepMillis, false);
+        this.bucketCounts = new StepBucketCounts(clock, stepMillis, distributionStatisticConfig);
+    }
+
+    @Override
+    protected void recordNonNegative(long amount, TimeUnit unit) {
+        super.recordNonNegative(amount, unit);
+        this.bucketCounts.recordLong((long) TimeUtils.convert(amount, unit, TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public CountAtBucket[] stepBucketCounts() {
+        return this.bucketCounts.poll();
+    }
+
+}
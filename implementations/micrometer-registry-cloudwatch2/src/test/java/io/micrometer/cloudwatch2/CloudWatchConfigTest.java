@@ -92,6 +92,15 @@ class CloudWatchConfigTest {
         assertThat(validate.failures().stream().map(Validated.Invalid::getMessage)).containsExactly("is required");
     }
 
+    @Test
+    void invalidMaxInFlightRequests() {
+        props.put("cloudwatch.namespace", "name");
+        props.put("cloudwatch.maxInFlightRequests", "0");
+
+        assertThat(config.validate().failures().stream().map(Validated.Invalid::getMessage))
+                .containsExactly("must be at least 1");
+    }
+
     @Test
     void valid() {
         props.put("cloudwatch.namespace", "name");
@@ -20,12 +20,20 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import software.amazon.awssdk.services.cloudwatch.model.Dimension;
 import software.amazon.awssdk.services.cloudwatch.model.MetricDatum;
+import software.amazon.awssdk.services.cloudwatch.model.PutMetricDataResponse;
 import software.amazon.awssdk.services.cloudwatch.model.StandardUnit;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -36,6 +44,7 @@ import static io.micrometer.core.instrument.Meter.Type;
 import static io.micrometer.core.instrument.Meter.Type.DISTRIBUTION_SUMMARY;
 import static io.micrometer.core.instrument.Meter.Type.TIMER;
 import static org.assertj.core.api.Assertions.assertThat;
+import static java.util.stream.Collectors.toList;
 import static org.mockito.Mockito.*;
 
 /**
@@ -254,6 +263,79 @@ class CloudWatchMeterRegistryTest {
         assertThat(allValues.get(1)).hasSize(CloudWatchConfig.MAX_BATCH_SIZE);
     }
 
+    @Test
+    void batchesAreSentConcurrentlyUpToMaxInFlightRequests() {
+        Map<String, String> props = new HashMap<>();
+        props.put("cloudwatch.namespace", "namespace");
+        props.put("cloudwatch.batchSize", "1");
+        props.put("cloudwatch.maxInFlightRequests", "2");
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CloudWatchMeterRegistry registry = new CloudWatchMeterRegistry(props::get, clock, request -> {
+            requests.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            CompletableFuture<PutMetricDataResponse> response = new CompletableFuture<>();
+            executor.schedule(() -> {
+                inFlight.decrementAndGet();
+                response.complete(PutMetricDataResponse.builder().build());
+            }, 50, TimeUnit.MILLISECONDS);
+            return response;
+        });
+        try {
+            for (int i = 0; i < 5; i++) {
+                registry.counter("counter." + i).increment();
+            }
+            registry.publish();
+
+            assertThat(requests).hasValue(5);
+            assertThat(maxInFlight).hasValue(2);
+            assertThat(inFlight).hasValue(0);
+        }
+        finally {
+            registry.close();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void histogramIsSentAsValuesAndCountsOfTheStep() {
+        CloudWatchConfig config = new CloudWatchConfig() {
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public String namespace() {
+                return "namespace";
+            }
+
+            @Override
+            public boolean valuesAndCounts() {
+                return true;
+            }
+        };
+        CloudWatchMeterRegistry registry = new CloudWatchMeterRegistry(config, clock, null);
+        Timer timer = Timer.builder(METER_NAME).serviceLevelObjectives(Duration.ofMillis(10), Duration.ofMillis(100))
+                .register(registry);
+        timer.record(5, TimeUnit.MILLISECONDS);
+        timer.record(5, TimeUnit.MILLISECONDS);
+        timer.record(50, TimeUnit.MILLISECONDS);
+        timer.record(500, TimeUnit.MILLISECONDS);
+        clock.add(config.step());
+
+        List<MetricDatum> metricData = registry.new Batch().timerData(timer).collect(toList());
+
+        assertThat(metricData).singleElement().satisfies(datum -> {
+            assertThat(datum.metricName()).isEqualTo(METER_NAME);
+            assertThat(datum.unit()).isEqualTo(StandardUnit.MILLISECONDS);
+            assertThat(datum.values()).containsExactly(10.0, 100.0, 500.0);
+            assertThat(datum.counts()).containsExactly(2.0, 1.0, 1.0);
+        });
+    }
+
     @Test
     void batchToStandardUnitWhenUnitIsUnknownShouldReturnNone() {
         assertThat(this.registry.new Batch().toStandardUnit("unknownUnit")).isEqualTo(StandardUnit.NONE);
@@ -18,21 +18,20 @@ package io.micrometer.datadog;
 import io.micrometer.common.lang.Nullable;
 import io.micrometer.core.instrument.*;
 import io.micrometer.core.instrument.step.StepMeterRegistry;
-import io.micrometer.core.instrument.util.MeterPartition;
 import io.micrometer.core.instrument.util.NamedThreadFactory;
 import io.micrometer.core.ipc.http.HttpSender;
+import io.micrometer.core.ipc.http.HttpSender.Request.EntityWriter;
 import io.micrometer.core.ipc.http.HttpUrlConnectionSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URLEncoder;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static io.micrometer.core.instrument.util.StringEscapeUtils.escapeJson;
@@ -47,6 +46,10 @@ public class DatadogMeterRegistry extends StepMeterRegistry {
 
     private static final ThreadFactory DEFAULT_THREAD_FACTORY = new NamedThreadFactory("datadog-metrics-publisher");
 
+    private static final String SERIES_PREFIX = "{\"series\":[";
+
+    private static final String SERIES_SUFFIX = "]}";
+
     private final Logger logger = LoggerFactory.getLogger(DatadogMeterRegistry.class);
 
     private final DatadogConfig config;
@@ -88,7 +91,7 @@ public class DatadogMeterRegistry extends StepMeterRegistry {
         config().namingConvention(new DatadogNamingConvention());
 
         this.config = config;
-        this.httpClient = httpClient;
+        this.httpClient = getPushRegistryMetrics().instrument(httpClient);
 
         start(threadFactory);
     }
@@ -106,12 +109,12 @@ public class DatadogMeterRegistry extends StepMeterRegistry {
 
     @Override
     protected void publish() {
-        Map<String, DatadogMetricMetadata> metadataToSend = new HashMap<>();
+        Map<String, DatadogMetricMetadata> metadataToSend = new ConcurrentHashMap<>();
 
         String datadogEndpoint = config.uri() + "/api/v1/series?api_key=" + config.apiKey();
 
         try {
-            for (List<Meter> batch : MeterPartition.partition(this, config.batchSize())) {
+            forEachBatch(batch -> {
                 // @formatter:off
                 /*
                 Example post body from Datadog API docs. Host and tags are optional.
@@ -125,7 +128,7 @@ public class DatadogMeterRegistry extends StepMeterRegistry {
                         ]
                 }"
                 */
-                String body = batch.stream().flatMap(meter -> meter.match(
+                Supplier<Stream<String>> series = () -> batch.stream().flatMap(meter -> meter.match(
                         m -> writeMeter(m, metadataToSend), // visitGauge
                         m -> writeMeter(m, metadataToSend), // visitCounter
                         timer -> writeTimer(timer, metadataToSend), // visitTimer
@@ -135,21 +138,32 @@ public class DatadogMeterRegistry extends StepMeterRegistry {
                         m -> writeMeter(m, metadataToSend), // visitFunctionCounter
                         timer -> writeTimer(timer, metadataToSend), // visitFunctionTimer
                         m -> writeMeter(m, metadataToSend)) // visitMeter
-                ).collect(joining(",", "{\"series\":[", "]}"));
+                );
                 // @formatter:on
 
-                logger.trace("sending metrics batch to datadog:{}{}", System.lineSeparator(), body);
-
-                httpClient.post(datadogEndpoint).withJsonContent(body).send()
-                        .onSuccess(response -> logger.debug("successfully sent {} metrics to datadog", batch.size()))
-                        .onError(response -> logger.error("failed to send metrics to datadog: {}", response.body()));
-            }
+                if (logger.isTraceEnabled()) {
+                    logger.trace("sending metrics batch to datadog:{}{}", System.lineSeparator(),
+                            series.get().collect(joining(",", SERIES_PREFIX, SERIES_SUFFIX)));
+                }
+
+                HttpSender.Response response;
+                try {
+                    response = httpClient.post(datadogEndpoint)
+                            .withJsonContent(EntityWriter.joining(series, ",", SERIES_PREFIX, SERIES_SUFFIX)).send();
+                }
+                catch (Throwable e) {
+                    throw new IllegalStateException("failed to send metrics to datadog", e);
+                }
+                if (!response.isSuccessful()) {
+                    throw new IllegalStateException("failed to send metrics to datadog: " + response.body());
+                }
+                logger.debug("successfully sent {} metrics to datadog", batch.size());
+            });
         }
-        catch (Throwable e) {
-            logger.warn("failed to send metrics to datadog", e);
+        finally {
+            // metadata of the meters that were written, whether their batch was sent or not
+            metadataToSend.forEach(this::postMetricMetadata);
         }
-
-        metadataToSend.forEach(this::postMetricMetadata);
     }
 
     private Stream<String> writeTimer(FunctionTimer timer, Map<String, DatadogMetricMetadata> metadata) {
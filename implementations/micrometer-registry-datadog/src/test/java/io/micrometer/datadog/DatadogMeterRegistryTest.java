@@ -18,6 +18,7 @@ package io.micrometer.datadog;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import io.micrometer.core.Issue;
 import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micrometer.core.ipc.http.HttpSender;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,6 +27,7 @@ import ru.lanwen.wiremock.ext.WiremockResolver;
 import java.util.concurrent.TimeUnit;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verifyNoInteractions;
 
@@ -153,4 +155,49 @@ class DatadogMeterRegistryTest {
         verifyNoInteractions(httpSender);
     }
 
+    @Test
+    void batchesRejectedByDatadogAreAccountedForAsFailed() {
+        DatadogConfig config = new DatadogConfig() {
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public String apiKey() {
+                return "fake";
+            }
+
+            @Override
+            public boolean descriptions() {
+                return false;
+            }
+
+            @Override
+            public int batchSize() {
+                return 1;
+            }
+        };
+
+        HttpSender failingSender = request -> new HttpSender.Response(500, "{\"errors\":[\"Internal error\"]}");
+        DatadogMeterRegistry registry = DatadogMeterRegistry.builder(config).clock(new MockClock())
+                .httpClient(failingSender).build();
+        registry.counter("my.counter.1").increment();
+        registry.counter("my.counter.2").increment();
+        SimpleMeterRegistry statistics = new SimpleMeterRegistry();
+        registry.getPushRegistryMetrics().bindTo(statistics);
+
+        registry.close();
+
+        assertThat(statistics.get("micrometer.push.publish").functionTimer().count()).isEqualTo(1);
+        assertThat(statistics.get("micrometer.push.publish.failures").functionCounter().count()).isEqualTo(1);
+        assertThat(statistics.get("micrometer.push.batches").tag("result", "success").functionCounter().count())
+                .isZero();
+        assertThat(statistics.get("micrometer.push.batches").tag("result", "failure").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(statistics.get("micrometer.push.meters.dropped").functionCounter().count()).isEqualTo(2);
+        assertThat(statistics.get("micrometer.push.requests").functionTimer().count()).isEqualTo(2);
+        assertThat(statistics.get("micrometer.push.requests.failures").functionCounter().count()).isEqualTo(2);
+    }
+
 }
@@ -78,14 +78,14 @@ public class DynatraceMeterRegistry extends StepMeterRegistry {
 
         if (config.apiVersion() == DynatraceApiVersion.V2) {
             logger.info("Exporting to Dynatrace metrics API v2");
-            this.exporter = new DynatraceExporterV2(config, clock, httpClient);
+            this.exporter = new DynatraceExporterV2(config, clock, getPushRegistryMetrics().instrument(httpClient));
             // Not used for Timer and DistributionSummary in V2 anymore, but still used
             // for the other timer types.
             registerMinPercentile();
         }
         else {
             logger.info("Exporting to Dynatrace metrics API v1");
-            this.exporter = new DynatraceExporterV1(config, clock, httpClient);
+            this.exporter = new DynatraceExporterV1(config, clock, getPushRegistryMetrics().instrument(httpClient));
         }
 
         start(threadFactory);
@@ -21,59 +21,132 @@ import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Internal class for resettable summary statistics.
+ * <p>
+ * Recording does not lock. Values are recorded into one of two sets of statistics, and
+ * resetting switches to the other one, waiting only for recordings still in progress on
+ * the previous set before reading it. A snapshot taken while resetting therefore holds
+ * every value recorded before it and none recorded after.
  *
  * @author Georg Pirklbauer
  */
 final class DynatraceSummary {
 
-    private final LongAdder count = new LongAdder();
+    private volatile Statistics current = new Statistics();
 
-    private final DoubleAdder total = new DoubleAdder();
-
-    private final AtomicLong min = new AtomicLong();
-
-    private final AtomicLong max = new AtomicLong();
+    // guarded by this
+    private Statistics retired = new Statistics();
 
     void recordNonNegative(double amount) {
         if (amount < 0) {
             return;
         }
 
-        long longBits = Double.doubleToLongBits(amount);
-        synchronized (this) {
-            max.getAndUpdate(prev -> Math.max(prev, longBits));
-            // have to check if a value was already recorded before, otherwise min will
-            // always stay 0 (because the default is 0).
-            min.getAndUpdate(prev -> count.longValue() > 0 ? Math.min(prev, longBits) : longBits);
-
-            total.add(amount);
-            count.increment();
+        while (true) {
+            Statistics statistics = current;
+            statistics.recordings.incrementAndGet();
+            try {
+                // recording into statistics that have been switched away from would race
+                // with them being read, so retry with the current ones
+                if (statistics == current) {
+                    statistics.record(amount);
+                    return;
+                }
+            }
+            finally {
+                statistics.recordings.decrementAndGet();
+            }
         }
     }
 
     long getCount() {
-        return count.longValue();
+        return current.count.longValue();
     }
 
     double getTotal() {
-        return total.doubleValue();
+        return current.total.doubleValue();
     }
 
     double getMin() {
-        return Double.longBitsToDouble(min.longValue());
+        return current.getMin();
     }
 
     double getMax() {
-        return Double.longBitsToDouble(max.longValue());
+        return current.getMax();
     }
 
     void reset() {
-        synchronized (this) {
-            min.set(0);
-            max.set(0);
+        takeSummarySnapshotAndReset();
+    }
+
+    synchronized DynatraceSummarySnapshot takeSummarySnapshotAndReset() {
+        Statistics previous = current;
+        current = retired;
+        // A recorder counts itself in before checking that it still records into the
+        // current statistics, so once none is counted in, none records into the previous
+        // ones anymore.
+        while (previous.recordings.get() != 0) {
+            Thread.yield();
+        }
+        DynatraceSummarySnapshot snapshot = new DynatraceSummarySnapshot(previous.getMin(), previous.getMax(),
+                previous.total.doubleValue(), previous.count.longValue());
+        previous.reset();
+        retired = previous;
+        return snapshot;
+    }
+
+    private static final class Statistics {
+
+        private static final long NO_MIN = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+
+        private static final long NO_MAX = Double.doubleToLongBits(0);
+
+        /**
+         * Recordings in progress. Not a LongAdder, whose sum may read zero while a
+         * recording is still in progress.
+         */
+        private final AtomicLong recordings = new AtomicLong();
+
+        private final LongAdder count = new LongAdder();
+
+        private final DoubleAdder total = new DoubleAdder();
+
+        private final AtomicLong min = new AtomicLong(NO_MIN);
+
+        private final AtomicLong max = new AtomicLong(NO_MAX);
+
+        private void record(double amount) {
+            // only contend when the value is a new minimum or maximum, which is rare
+            long prev;
+            while (amount < Double.longBitsToDouble(prev = min.get())) {
+                if (min.compareAndSet(prev, Double.doubleToLongBits(amount))) {
+                    break;
+                }
+            }
+            while (amount > Double.longBitsToDouble(prev = max.get())) {
+                if (max.compareAndSet(prev, Double.doubleToLongBits(amount))) {
+                    break;
+                }
+            }
+            total.add(amount);
+            // counted last, so that there is a min once there is a count
+            count.increment();
+        }
+
+        private double getMin() {
+            return count.longValue() > 0 ? Double.longBitsToDouble(min.get()) : 0;
+        }
+
+        private double getMax() {
+            return Double.longBitsToDouble(max.get());
+        }
+
+        private void reset() {
+            min.set(NO_MIN);
+            max.set(NO_MAX);
             total.reset();
             count.reset();
         }
+
     }
 
 }
@@ -77,9 +77,9 @@ public final class DynatraceTimer extends AbstractTimer implements DynatraceSumm
 
     @Override
     public DynatraceSummarySnapshot takeSummarySnapshotAndReset(TimeUnit unit) {
-        DynatraceSummarySnapshot snapshot = takeSummarySnapshot(unit);
-        summary.reset();
-        return snapshot;
+        DynatraceSummarySnapshot snapshot = summary.takeSummarySnapshotAndReset();
+        return new DynatraceSummarySnapshot(fromBaseUnit(snapshot.getMin(), unit),
+                fromBaseUnit(snapshot.getMax(), unit), fromBaseUnit(snapshot.getTotal(), unit), snapshot.getCount());
     }
 
     @Override
@@ -96,16 +96,20 @@ public final class DynatraceTimer extends AbstractTimer implements DynatraceSumm
 
     @Override
     public double totalTime(TimeUnit unit) {
-        return unit.convert((long) summary.getTotal(), baseTimeUnit());
+        return fromBaseUnit(summary.getTotal(), unit);
     }
 
     @Override
     public double max(TimeUnit unit) {
-        return unit.convert((long) summary.getMax(), baseTimeUnit());
+        return fromBaseUnit(summary.getMax(), unit);
     }
 
     public double min(TimeUnit unit) {
-        return unit.convert((long) summary.getMin(), baseTimeUnit());
+        return fromBaseUnit(summary.getMin(), unit);
+    }
+
+    private double fromBaseUnit(double amount, TimeUnit unit) {
+        return unit.convert((long) amount, baseTimeUnit());
     }
 
     @Override
@@ -18,6 +18,10 @@ package io.micrometer.dynatrace.types;
 import org.assertj.core.data.Offset;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
 /**
@@ -71,6 +75,101 @@ class DynatraceSummaryTest {
         assertMinMaxSumCount(summary, 0.123, 8.93, 16.953, 4);
     }
 
+    @Test
+    void takeSummarySnapshotAndReset() {
+        DynatraceSummary summary = new DynatraceSummary();
+        summary.recordNonNegative(3.14);
+        summary.recordNonNegative(4.76);
+
+        DynatraceSummarySnapshot snapshot = summary.takeSummarySnapshotAndReset();
+        assertThat(snapshot.getMin()).isCloseTo(3.14, OFFSET);
+        assertThat(snapshot.getMax()).isCloseTo(4.76, OFFSET);
+        assertThat(snapshot.getTotal()).isCloseTo(7.9, OFFSET);
+        assertThat(snapshot.getCount()).isEqualTo(2);
+        assertMinMaxSumCount(summary, 0d, 0d, 0d, 0);
+
+        summary.recordNonNegative(1.5);
+        assertMinMaxSumCount(summary, 1.5, 1.5, 1.5, 1);
+    }
+
+    @Test
+    void snapshotsTakenWhileRecordingConcurrentlyAreConsistent() throws InterruptedException {
+        DynatraceSummary summary = new DynatraceSummary();
+        AtomicBoolean recording = new AtomicBoolean(true);
+        List<DynatraceSummarySnapshot> snapshots = new ArrayList<>();
+        Thread snapshotter = new Thread(() -> {
+            while (recording.get()) {
+                snapshots.add(summary.takeSummarySnapshotAndReset());
+            }
+        });
+        snapshotter.start();
+
+        Thread[] recorders = new Thread[4];
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new Thread(() -> {
+                for (int j = 0; j < 100_000; j++) {
+                    summary.recordNonNegative(2);
+                }
+            });
+            recorders[i].start();
+        }
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+        recording.set(false);
+        snapshotter.join();
+        snapshots.add(summary.takeSummarySnapshotAndReset());
+
+        assertThat(snapshots.stream().mapToLong(DynatraceSummarySnapshot::getCount).sum()).isEqualTo(400_000);
+        for (DynatraceSummarySnapshot snapshot : snapshots) {
+            assertThat(snapshot.getTotal()).isEqualTo(snapshot.getCount() * 2d);
+            if (snapshot.getCount() > 0) {
+                assertThat(snapshot.getMin()).isEqualTo(2);
+                assertThat(snapshot.getMax()).isEqualTo(2);
+            }
+        }
+    }
+
+    @Test
+    void snapshotsAddUpToEverythingRecordedConcurrently() throws InterruptedException {
+        DynatraceSummary summary = new DynatraceSummary();
+        AtomicBoolean recording = new AtomicBoolean(true);
+        List<DynatraceSummarySnapshot> snapshots = new ArrayList<>();
+        Thread snapshotter = new Thread(() -> {
+            while (recording.get()) {
+                snapshots.add(summary.takeSummarySnapshotAndReset());
+                Thread.yield();
+            }
+        });
+        snapshotter.start();
+
+        Thread[] recorders = new Thread[8];
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new Thread(() -> {
+                for (int j = 0; j < 250_000; j++) {
+                    summary.recordNonNegative(j % 10 + 1);
+                }
+            });
+            recorders[i].start();
+        }
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+        recording.set(false);
+        snapshotter.join();
+        snapshots.add(summary.takeSummarySnapshotAndReset());
+
+        // 8 recorders each recording 1 to 10 25_000 times, which sums up exactly
+        assertThat(snapshots.stream().mapToLong(DynatraceSummarySnapshot::getCount).sum()).isEqualTo(2_000_000);
+        assertThat(snapshots.stream().mapToDouble(DynatraceSummarySnapshot::getTotal).sum()).isEqualTo(11_000_000);
+        for (DynatraceSummarySnapshot snapshot : snapshots) {
+            if (snapshot.getCount() > 0) {
+                assertThat(snapshot.getMin()).isBetween(1d, 10d);
+                assertThat(snapshot.getMax()).isBetween(snapshot.getMin(), 10d);
+            }
+        }
+    }
+
     private void assertMinMaxSumCount(DynatraceSummary summary, Double expMin, Double expMax, Double expTotal,
             long expCount) {
         assertThat(summary.getMin()).isCloseTo(expMin, OFFSET);
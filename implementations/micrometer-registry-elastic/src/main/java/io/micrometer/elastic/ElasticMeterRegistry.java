@@ -20,7 +20,6 @@ import io.micrometer.common.util.StringUtils;
 import io.micrometer.core.instrument.*;
 import io.micrometer.core.instrument.distribution.HistogramSnapshot;
 import io.micrometer.core.instrument.step.StepMeterRegistry;
-import io.micrometer.core.instrument.util.MeterPartition;
 import io.micrometer.core.instrument.util.NamedThreadFactory;
 import io.micrometer.core.ipc.http.HttpSender;
 import io.micrometer.core.ipc.http.HttpUrlConnectionSender;
@@ -115,7 +114,7 @@ public class ElasticMeterRegistry extends StepMeterRegistry {
         config().namingConvention(new ElasticNamingConvention());
         this.config = config;
         indexDateFormatter = DateTimeFormatter.ofPattern(config.indexDateFormat());
-        this.httpClient = httpClient;
+        this.httpClient = getPushRegistryMetrics().instrument(httpClient);
         if (StringUtils.isNotEmpty(config.pipeline())) {
             actionLine = "{ \"create\" : {\"pipeline\":\"" + config.pipeline() + "\"} }\n";
         }
@@ -180,34 +179,35 @@ public class ElasticMeterRegistry extends StepMeterRegistry {
         createIndexTemplateIfNeeded();
 
         String uri = config.host() + "/" + indexName() + "/_bulk";
-        for (List<Meter> batch : MeterPartition.partition(this, config.batchSize())) {
+        forEachBatch(batch -> {
+            String requestBody = batch.stream()
+                    .map(m -> m.match(this::writeGauge, this::writeCounter, this::writeTimer, this::writeSummary,
+                            this::writeLongTaskTimer, this::writeTimeGauge, this::writeFunctionCounter,
+                            this::writeFunctionTimer, this::writeMeter))
+                    .filter(Optional::isPresent).map(Optional::get).collect(joining("\n", "", "\n"));
+            HttpSender.Response response;
             try {
-                String requestBody = batch.stream()
-                        .map(m -> m.match(this::writeGauge, this::writeCounter, this::writeTimer, this::writeSummary,
-                                this::writeLongTaskTimer, this::writeTimeGauge, this::writeFunctionCounter,
-                                this::writeFunctionTimer, this::writeMeter))
-                        .filter(Optional::isPresent).map(Optional::get).collect(joining("\n", "", "\n"));
-                connect(HttpSender.Method.POST, uri).withJsonContent(requestBody).send().onSuccess(response -> {
-                    int numberOfSentItems = batch.size();
-                    String responseBody = response.body();
-                    if (responseBody.contains(ERROR_RESPONSE_BODY_SIGNATURE)) {
-                        int numberOfCreatedItems = countCreatedItems(responseBody);
-                        logger.debug("failed metrics payload: {}", requestBody);
-                        logger.error("failed to send metrics to elastic (sent {} metrics but created {} metrics): {}",
-                                numberOfSentItems, numberOfCreatedItems, responseBody);
-                    }
-                    else {
-                        logger.debug("successfully sent {} metrics to elastic", numberOfSentItems);
-                    }
-                }).onError(response -> {
-                    logger.debug("failed metrics payload: {}", requestBody);
-                    logger.error("failed to send metrics to elastic: {}", response.body());
-                });
+                response = connect(HttpSender.Method.POST, uri).withJsonContent(requestBody).send();
             }
             catch (Throwable e) {
-                logger.error("failed to send metrics to elastic", e);
+                throw new IllegalStateException("failed to send metrics to elastic", e);
             }
-        }
+            if (!response.isSuccessful()) {
+                logger.debug("failed metrics payload: {}", requestBody);
+                throw new IllegalStateException("failed to send metrics to elastic: " + response.body());
+            }
+            int numberOfSentItems = batch.size();
+            String responseBody = response.body();
+            if (responseBody.contains(ERROR_RESPONSE_BODY_SIGNATURE)) {
+                int numberOfCreatedItems = countCreatedItems(responseBody);
+                logger.debug("failed metrics payload: {}", requestBody);
+                logger.error("failed to send metrics to elastic (sent {} metrics but created {} metrics): {}",
+                        numberOfSentItems, numberOfCreatedItems, responseBody);
+            }
+            else {
+                logger.debug("successfully sent {} metrics to elastic", numberOfSentItems);
+            }
+        });
     }
 
     // VisibleForTesting
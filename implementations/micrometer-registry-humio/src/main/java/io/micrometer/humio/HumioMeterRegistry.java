@@ -21,7 +21,6 @@ import io.micrometer.core.instrument.*;
 import io.micrometer.core.instrument.distribution.HistogramSnapshot;
 import io.micrometer.core.instrument.step.StepMeterRegistry;
 import io.micrometer.core.instrument.util.DoubleFormat;
-import io.micrometer.core.instrument.util.MeterPartition;
 import io.micrometer.core.instrument.util.NamedThreadFactory;
 import io.micrometer.core.ipc.http.HttpSender;
 import io.micrometer.core.ipc.http.HttpUrlConnectionSender;
@@ -69,7 +68,7 @@ public class HumioMeterRegistry extends StepMeterRegistry {
         config().namingConvention(new HumioNamingConvention());
 
         this.config = config;
-        this.httpClient = httpClient;
+        this.httpClient = getPushRegistryMetrics().instrument(httpClient);
 
         start(threadFactory);
     }
@@ -84,47 +83,45 @@ public class HumioMeterRegistry extends StepMeterRegistry {
 
     @Override
     protected void publish() {
-        for (List<Meter> meters : MeterPartition.partition(this, config.batchSize())) {
-            try {
-                HttpSender.Request.Builder post = httpClient.post(config.uri() + "/api/v1/ingest/humio-structured");
-                String token = config.apiToken();
-                if (token != null) {
-                    post.withHeader("Authorization", "Bearer " + token);
-                }
-
-                Batch batch = new Batch(config().clock().wallTime());
+        forEachBatchAsync(meters -> {
+            HttpSender.Request.Builder post = httpClient.post(config.uri() + "/api/v1/ingest/humio-structured");
+            String token = config.apiToken();
+            if (token != null) {
+                post.withHeader("Authorization", "Bearer " + token);
+            }
 
-                String tags = "";
-                Map<String, String> datasourceTags = config.tags();
-                if (datasourceTags != null && !datasourceTags.isEmpty()) {
-                    tags = datasourceTags.entrySet().stream()
-                            .map(tag -> "\"" + tag.getKey() + "\": \"" + tag.getValue() + "\"")
-                            .collect(joining(",", "\"tags\":{", "},"));
-                }
+            Batch batch = new Batch(config().clock().wallTime());
 
-                post.withJsonContent(meters.stream()
-                // @formatter:off
-                        .map(m -> m.match(
-                                batch::writeGauge,
-                                batch::writeCounter,
-                                batch::writeTimer,
-                                batch::writeSummary,
-                                batch::writeLongTaskTimer,
-                                batch::writeTimeGauge,
-                                batch::writeFunctionCounter,
-                                batch::writeFunctionTimer,
-                                batch::writeMeter)
-                        )
-                        .collect(joining(",", "[{" + tags + "\"events\": [", "]}]")))
-                        .send()
-                        .onSuccess(response -> logger.debug("successfully sent {} metrics to humio.", meters.size()))
-                        .onError(response -> logger.error("failed to send metrics to humio: {}", response.body()));
-                // @formatter:on
+            String tags = "";
+            Map<String, String> datasourceTags = config.tags();
+            if (datasourceTags != null && !datasourceTags.isEmpty()) {
+                tags = datasourceTags.entrySet().stream()
+                        .map(tag -> "\"" + tag.getKey() + "\": \"" + tag.getValue() + "\"")
+                        .collect(joining(",", "\"tags\":{", "},"));
             }
-            catch (Throwable e) {
-                logger.warn("failed to send metrics to humio", e);
-            }
-        }
+
+            return post.withJsonContent(meters.stream()
+            // @formatter:off
+                    .map(m -> m.match(
+                            batch::writeGauge,
+                            batch::writeCounter,
+                            batch::writeTimer,
+                            batch::writeSummary,
+                            batch::writeLongTaskTimer,
+                            batch::writeTimeGauge,
+                            batch::writeFunctionCounter,
+                            batch::writeFunctionTimer,
+                            batch::writeMeter)
+                    )
+                    .collect(joining(",", "[{" + tags + "\"events\": [", "]}]")))
+                    .sendAsync().thenAccept(response -> {
+                        if (!response.isSuccessful()) {
+                            throw new IllegalStateException("failed to send metrics to humio: " + response.body());
+                        }
+                        logger.debug("successfully sent {} metrics to humio.", meters.size());
+                    });
+            // @formatter:on
+        });
     }
 
     @Override
@@ -19,13 +19,14 @@ import io.micrometer.common.util.StringUtils;
 import io.micrometer.core.instrument.*;
 import io.micrometer.core.instrument.step.StepMeterRegistry;
 import io.micrometer.core.instrument.util.DoubleFormat;
-import io.micrometer.core.instrument.util.MeterPartition;
 import io.micrometer.core.instrument.util.NamedThreadFactory;
 import io.micrometer.core.ipc.http.HttpSender;
+import io.micrometer.core.ipc.http.HttpSender.Request.EntityWriter;
 import io.micrometer.core.ipc.http.HttpUrlConnectionSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URLEncoder;
 import java.util.ArrayList;
@@ -53,7 +54,7 @@ public class InfluxMeterRegistry extends StepMeterRegistry {
 
     private final Logger logger = LoggerFactory.getLogger(InfluxMeterRegistry.class);
 
-    private boolean databaseExists = false;
+    private volatile boolean databaseExists = false;
 
     @SuppressWarnings("deprecation")
     public InfluxMeterRegistry(InfluxConfig config, Clock clock) {
@@ -77,7 +78,7 @@ public class InfluxMeterRegistry extends StepMeterRegistry {
         super(config, clock);
         config().namingConvention(new InfluxNamingConvention());
         this.config = config;
-        this.httpClient = httpClient;
+        this.httpClient = getPushRegistryMetrics().instrument(httpClient);
         start(threadFactory);
     }
 
@@ -122,16 +123,24 @@ public class InfluxMeterRegistry extends StepMeterRegistry {
     protected void publish() {
         createDatabaseIfNecessary();
 
+        String influxEndpoint;
         try {
-            String influxEndpoint = config.apiVersion().writeEndpoint(config);
+            influxEndpoint = config.apiVersion().writeEndpoint(config);
+        }
+        catch (UnsupportedEncodingException e) {
+            logger.error("failed to send metrics to influx", e);
+            return;
+        }
 
-            for (List<Meter> batch : MeterPartition.partition(this, config.batchSize())) {
+        forEachBatch(batch -> {
+            HttpSender.Response response;
+            try {
                 HttpSender.Request.Builder requestBuilder = httpClient.post(influxEndpoint)
                         .withBasicAuthentication(config.userName(), config.password());
                 config.apiVersion().addHeaderToken(config, requestBuilder);
                 // @formatter:off
-                requestBuilder
-                        .withPlainText(batch.stream()
+                response = requestBuilder
+                        .withPlainText(EntityWriter.joining(() -> batch.stream()
                                 .flatMap(m -> m.match(
                                         gauge -> writeGauge(gauge.getId(), gauge.value()),
                                         counter -> writeCounter(counter.getId(), counter.count()),
@@ -141,25 +150,24 @@ public class InfluxMeterRegistry extends StepMeterRegistry {
                                         gauge -> writeGauge(gauge.getId(), gauge.value(getBaseTimeUnit())),
                                         counter -> writeCounter(counter.getId(), counter.count()),
                                         this::writeFunctionTimer,
-                                        this::writeMeter))
-                                .collect(joining("\n")))
+                                        this::writeMeter)), "\n", "", ""))
                         .compressWhen(config::compressed)
-                        .send()
-                        .onSuccess(response -> {
-                            logger.debug("successfully sent {} metrics to InfluxDB.", batch.size());
-                            databaseExists = true;
-                        })
-                        .onError(response -> logger.error("failed to send metrics to influx: {}", response.body()));
+                        .send();
                 // @formatter:on
             }
-        }
-        catch (MalformedURLException e) {
-            throw new IllegalArgumentException(
-                    "Malformed InfluxDB publishing endpoint, see '" + config.prefix() + ".uri'", e);
-        }
-        catch (Throwable e) {
-            logger.error("failed to send metrics to influx", e);
-        }
+            catch (MalformedURLException e) {
+                throw new IllegalArgumentException(
+                        "Malformed InfluxDB publishing endpoint, see '" + config.prefix() + ".uri'", e);
+            }
+            catch (Throwable e) {
+                throw new IllegalStateException("failed to send metrics to influx", e);
+            }
+            if (!response.isSuccessful()) {
+                throw new IllegalStateException("failed to send metrics to influx: " + response.body());
+            }
+            logger.debug("successfully sent {} metrics to InfluxDB.", batch.size());
+            databaseExists = true;
+        });
     }
 
     // VisibleForTesting
@@ -18,7 +18,6 @@ package io.micrometer.kairos;
 import io.micrometer.core.instrument.*;
 import io.micrometer.core.instrument.step.StepMeterRegistry;
 import io.micrometer.core.instrument.util.DoubleFormat;
-import io.micrometer.core.instrument.util.MeterPartition;
 import io.micrometer.core.instrument.util.NamedThreadFactory;
 import io.micrometer.core.ipc.http.HttpSender;
 import io.micrometer.core.ipc.http.HttpUrlConnectionSender;
@@ -65,7 +64,7 @@ public class KairosMeterRegistry extends StepMeterRegistry {
         config().namingConvention(new KairosNamingConvention());
 
         this.config = config;
-        this.httpClient = httpClient;
+        this.httpClient = getPushRegistryMetrics().instrument(httpClient);
 
         start(threadFactory);
     }
@@ -76,33 +75,31 @@ public class KairosMeterRegistry extends StepMeterRegistry {
 
     @Override
     protected void publish() {
-        for (List<Meter> batch : MeterPartition.partition(this, config.batchSize())) {
-            try {
-                // @formatter:off
-                httpClient.post(config.uri())
-                        .withBasicAuthentication(config.userName(), config.password())
-                        .withJsonContent(
-                                batch.stream().flatMap(m -> m.match(
-                                        this::writeGauge,
-                                        this::writeCounter,
-                                        this::writeTimer,
-                                        this::writeSummary,
-                                        this::writeLongTaskTimer,
-                                        this::writeTimeGauge,
-                                        this::writeFunctionCounter,
-                                        this::writeFunctionTimer,
-                                        this::writeCustomMetric)
-                                ).collect(Collectors.joining(",", "[", "]"))
-                        )
-                        // @formatter:on
-                        .send()
-                        .onSuccess(response -> logger.debug("successfully sent {} metrics to kairos.", batch.size()))
-                        .onError(response -> logger.error("failed to send metrics to kairos: {}", response.body()));
-            }
-            catch (Throwable t) {
-                logger.warn("failed to send metrics to kairos", t);
-            }
-        }
+        forEachBatchAsync(batch -> {
+            // @formatter:off
+            return httpClient.post(config.uri())
+                    .withBasicAuthentication(config.userName(), config.password())
+                    .withJsonContent(
+                            batch.stream().flatMap(m -> m.match(
+                                    this::writeGauge,
+                                    this::writeCounter,
+                                    this::writeTimer,
+                                    this::writeSummary,
+                                    this::writeLongTaskTimer,
+                                    this::writeTimeGauge,
+                                    this::writeFunctionCounter,
+                                    this::writeFunctionTimer,
+                                    this::writeCustomMetric)
+                            ).collect(Collectors.joining(",", "[", "]"))
+                    )
+                    // @formatter:on
+                    .sendAsync().thenAccept(response -> {
+                        if (!response.isSuccessful()) {
+                            throw new IllegalStateException("failed to send metrics to kairos: " + response.body());
+                        }
+                        logger.debug("successfully sent {} metrics to kairos.", batch.size());
+                    });
+        });
     }
 
     Stream<String> writeSummary(DistributionSummary summary) {
@@ -30,13 +30,14 @@ import io.micrometer.core.instrument.internal.DefaultGauge;
 import io.micrometer.core.instrument.internal.DefaultMeter;
 import io.micrometer.core.instrument.push.PushMeterRegistry;
 import io.micrometer.core.instrument.util.DoubleFormat;
-import io.micrometer.core.instrument.util.MeterPartition;
 import io.micrometer.core.instrument.util.NamedThreadFactory;
 import io.micrometer.core.ipc.http.HttpSender;
 import io.micrometer.core.ipc.http.HttpUrlConnectionSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
@@ -79,7 +80,7 @@ public class OpenTSDBMeterRegistry extends PushMeterRegistry {
         super(config, clock);
         config().namingConvention(new OpenTSDBNamingConvention());
         this.config = config;
-        this.httpClient = httpClient;
+        this.httpClient = getPushRegistryMetrics().instrument(httpClient);
 
         start(threadFactory);
     }
@@ -161,22 +162,26 @@ public class OpenTSDBMeterRegistry extends PushMeterRegistry {
 
     @Override
     protected void publish() {
-        for (List<Meter> batch : MeterPartition.partition(this, config.batchSize())) {
+        forEachBatchAsync(batch -> {
             try {
-                httpClient.post(config.uri()).withBasicAuthentication(config.userName(), config.password())
+                return httpClient.post(config.uri()).withBasicAuthentication(config.userName(), config.password())
                         .withJsonContent(batch.stream()
                                 .flatMap(m -> m.match(this::writeGauge, this::writeCounter, this::writeTimer,
                                         this::writeSummary, this::writeLongTaskTimer, this::writeTimeGauge,
                                         this::writeFunctionCounter, this::writeFunctionTimer, this::writeCustomMetric))
                                 .collect(Collectors.joining(",", "[", "]")))
-                        .compress().send()
-                        .onSuccess(response -> logger.debug("successfully sent {} metrics to opentsdb.", batch.size()))
-                        .onError(response -> logger.error("failed to send metrics to opentsdb: {}", response.body()));
+                        .compress().sendAsync().thenAccept(response -> {
+                            if (!response.isSuccessful()) {
+                                throw new IllegalStateException(
+                                        "failed to send metrics to opentsdb: " + response.body());
+                            }
+                            logger.debug("successfully sent {} metrics to opentsdb.", batch.size());
+                        });
             }
-            catch (Throwable t) {
-                logger.warn("failed to send metrics to opentsdb", t);
+            catch (IOException e) {
+                throw new UncheckedIOException("failed to compress metrics sent to opentsdb", e);
             }
-        }
+        });
     }
 
     Stream<String> writeSummary(DistributionSummary summary) {
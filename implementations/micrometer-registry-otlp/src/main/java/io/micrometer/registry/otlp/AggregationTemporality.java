@@ -0,0 +1,41 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.registry.otlp;
+
+/**
+ * Whether published sums and histograms accumulate since a meter was created, or only
+ * cover the last step.
+ *
+ * @see <a href=
+ * "https://opentelemetry.io/docs/reference/specification/metrics/data-model/#temporality">OpenTelemetry
+ * Temporality</a>
+ * @since 1.11.0
+ */
+public enum AggregationTemporality {
+
+    /**
+     * Every publication covers everything recorded since the meter was created. This is
+     * what Prometheus and most backends that store cumulative counters expect.
+     */
+    CUMULATIVE,
+
+    /**
+     * Every publication covers what was recorded during the last step only. Meters then
+     * keep no state across steps, and receivers need not compute deltas themselves.
+     */
+    DELTA
+
+}
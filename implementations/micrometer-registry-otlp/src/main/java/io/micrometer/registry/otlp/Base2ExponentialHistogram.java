@@ -0,0 +1,227 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.registry.otlp;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.step.StepValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A base-2 exponential histogram of positive values, as defined by the OpenTelemetry
+ * metrics data model. It records at the finest scale its bucket budget allows: starting
+ * out at the maximum scale, its scale is lowered whenever the recorded values would span
+ * more buckets than the budget, merging adjacent buckets pairwise. This keeps the relative
+ * error of every bucket bounded, by {@code 2^(2^-scale) - 1}, whatever the range of the
+ * recorded values, in a fixed amount of memory.
+ *
+ * @see <a href=
+ * "https://opentelemetry.io/docs/reference/specification/metrics/data-model/#exponentialhistogram">OpenTelemetry
+ * ExponentialHistogram</a>
+ */
+final class Base2ExponentialHistogram {
+
+    private static final long SIGNIFICAND_MASK = 0xFFFFFFFFFFFFFL;
+
+    private static final double LOG2_E = 1 / Math.log(2);
+
+    /**
+     * The scale at which all normal values fall into two buckets, either side of 1.
+     */
+    static final int MIN_SCALE = -10;
+
+    private final int maxScale;
+
+    private final int maxBucketCount;
+
+    // all guarded by this
+    private int scale;
+
+    private double scaleFactor;
+
+    private long zeroCount;
+
+    private long[] counts;
+
+    /**
+     * Index of the bucket counted by {@code counts[0]}.
+     */
+    private int countsOffset;
+
+    private int startIndex;
+
+    private int endIndex;
+
+    private boolean empty = true;
+
+    /**
+     * @param maxScale scale to record at for as long as the bucket budget allows
+     * @param maxBucketCount the bucket budget, at least 2
+     */
+    Base2ExponentialHistogram(int maxScale, int maxBucketCount) {
+        this.maxScale = maxScale;
+        this.maxBucketCount = maxBucketCount;
+        this.counts = new long[maxBucketCount];
+        setScale(maxScale);
+    }
+
+    /**
+     * @param value value to record, ignored unless finite and non-negative
+     */
+    synchronized void recordDouble(double value) {
+        if (!(value >= 0) || value == Double.POSITIVE_INFINITY) {
+            return;
+        }
+        if (value < Double.MIN_NORMAL) {
+            zeroCount++;
+            return;
+        }
+        int index = index(value, scale, scaleFactor);
+        if (empty) {
+            countsOffset = startIndex = endIndex = index;
+            empty = false;
+        }
+        else if (index < startIndex || index > endIndex) {
+            int start = Math.min(startIndex, index);
+            int end = Math.max(endIndex, index);
+            int downscale = 0;
+            while ((end >> downscale) - (start >> downscale) >= maxBucketCount && scale - downscale > MIN_SCALE) {
+                downscale++;
+            }
+            if (downscale > 0) {
+                downscale(downscale);
+                index >>= downscale;
+                start >>= downscale;
+                end >>= downscale;
+            }
+            if (start < countsOffset || end >= countsOffset + maxBucketCount) {
+                rebase(start);
+            }
+            startIndex = start;
+            endIndex = end;
+        }
+        counts[index - countsOffset]++;
+    }
+
+    /**
+     * @return the current buckets
+     */
+    synchronized ExponentialHistogramSnapShot takeSnapshot() {
+        if (empty) {
+            return new ExponentialHistogramSnapShot(scale, zeroCount, 0, Collections.emptyList());
+        }
+        List<Long> bucketCounts = new ArrayList<>(endIndex - startIndex + 1);
+        for (int index = startIndex; index <= endIndex; index++) {
+            bucketCounts.add(counts[index - countsOffset]);
+        }
+        return new ExponentialHistogramSnapShot(scale, zeroCount, startIndex, bucketCounts);
+    }
+
+    /**
+     * @return the current buckets, after which the histogram starts over empty at the
+     * maximum scale
+     */
+    synchronized ExponentialHistogramSnapShot takeSnapshotAndReset() {
+        ExponentialHistogramSnapShot snapshot = takeSnapshot();
+        if (!empty) {
+            for (int index = startIndex; index <= endIndex; index++) {
+                counts[index - countsOffset] = 0;
+            }
+            empty = true;
+        }
+        zeroCount = 0;
+        setScale(maxScale);
+        return snapshot;
+    }
+
+    /**
+     * @param clock clock of the step
+     * @param stepMillis length of a step
+     * @return the buckets of the previous step, taken the first time they are polled in
+     * the following step
+     */
+    StepValue<ExponentialHistogramSnapShot> stepSnapshots(Clock clock, long stepMillis) {
+        return new StepValue<ExponentialHistogramSnapShot>(clock, stepMillis) {
+            @Override
+            protected Supplier<ExponentialHistogramSnapShot> valueSupplier() {
+                return Base2ExponentialHistogram.this::takeSnapshotAndReset;
+            }
+
+            @Override
+            protected ExponentialHistogramSnapShot noValue() {
+                return ExponentialHistogramSnapShot.empty(maxScale);
+            }
+        };
+    }
+
+    private void setScale(int scale) {
+        this.scale = scale;
+        this.scaleFactor = Math.scalb(LOG2_E, scale);
+    }
+
+    /**
+     * Merge buckets pairwise {@code downscale} times, keeping the buckets at the start of
+     * the counts.
+     */
+    private void downscale(int downscale) {
+        long[] downscaled = new long[maxBucketCount];
+        int offset = startIndex >> downscale;
+        for (int index = startIndex; index <= endIndex; index++) {
+            downscaled[(index >> downscale) - offset] += counts[index - countsOffset];
+        }
+        counts = downscaled;
+        countsOffset = offset;
+        startIndex >>= downscale;
+        endIndex >>= downscale;
+        setScale(scale - downscale);
+    }
+
+    /**
+     * Move the buckets so that {@code counts[0]} counts the bucket of the given index.
+     */
+    private void rebase(int offset) {
+        long[] rebased = new long[maxBucketCount];
+        for (int index = startIndex; index <= endIndex; index++) {
+            rebased[index - offset] = counts[index - countsOffset];
+        }
+        counts = rebased;
+        countsOffset = offset;
+    }
+
+    /**
+     * @param value a positive normal value
+     * @param scale scale of the bucket
+     * @param scaleFactor {@code 2^scale / ln(2)}
+     * @return the index of the bucket of the value at the given scale, where bucket
+     * {@code i} holds the values in {@code (base^i, base^(i+1)]}
+     */
+    static int index(double value, int scale, double scaleFactor) {
+        int exponent = Math.getExponent(value);
+        boolean powerOfTwo = (Double.doubleToRawLongBits(value) & SIGNIFICAND_MASK) == 0;
+        if (scale <= 0) {
+            // the exponent alone tells the bucket, values at powers of two close a bucket
+            return (powerOfTwo ? exponent - 1 : exponent) >> -scale;
+        }
+        if (powerOfTwo) {
+            return (exponent << scale) - 1;
+        }
+        return (int) Math.ceil(Math.log(value) * scaleFactor) - 1;
+    }
+
+}
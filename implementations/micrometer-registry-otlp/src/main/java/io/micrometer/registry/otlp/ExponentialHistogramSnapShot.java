@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.registry.otlp;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The buckets of a {@link Base2ExponentialHistogram} at one point in time.
+ */
+final class ExponentialHistogramSnapShot {
+
+    private final int scale;
+
+    private final long zeroCount;
+
+    private final int offset;
+
+    private final List<Long> bucketCounts;
+
+    ExponentialHistogramSnapShot(int scale, long zeroCount, int offset, List<Long> bucketCounts) {
+        this.scale = scale;
+        this.zeroCount = zeroCount;
+        this.offset = offset;
+        this.bucketCounts = bucketCounts;
+    }
+
+    static ExponentialHistogramSnapShot empty(int scale) {
+        return new ExponentialHistogramSnapShot(scale, 0, 0, Collections.emptyList());
+    }
+
+    int scale() {
+        return scale;
+    }
+
+    /**
+     * @return the number of recorded values that are zero, or too small to be told apart
+     * from zero
+     */
+    long zeroCount() {
+        return zeroCount;
+    }
+
+    /**
+     * @return the index of the first bucket
+     */
+    int offset() {
+        return offset;
+    }
+
+    /**
+     * @return counts of the buckets starting at the {@link #offset()}, each bucket
+     * {@code i} counting the values in {@code (2^(2^-scale)^i, 2^(2^-scale)^(i+1)]}
+     */
+    List<Long> bucketCounts() {
+        return bucketCounts;
+    }
+
+}
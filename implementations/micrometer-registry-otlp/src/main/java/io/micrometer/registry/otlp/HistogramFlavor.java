@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.registry.otlp;
+
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+import static java.lang.Boolean.TRUE;
+
+/**
+ * How timers and distribution summaries publishing a percentile histogram publish it.
+ *
+ * @since 1.11.0
+ */
+public enum HistogramFlavor {
+
+    /**
+     * A histogram of counts between the fixed percentile histogram buckets and service
+     * level objectives.
+     */
+    EXPLICIT_BUCKET_HISTOGRAM,
+
+    /**
+     * A base-2 exponential histogram, of at most {@link OtlpConfig#maxBucketCount()}
+     * buckets whose boundaries adapt to the range of the recorded values. Timers and
+     * distribution summaries with service level objectives publish explicit bucket
+     * histograms instead, to keep their boundaries.
+     */
+    BASE2_EXPONENTIAL_BUCKET_HISTOGRAM;
+
+    /**
+     * @param distributionStatisticConfig distribution statistic config of a meter
+     * @return {@code true} if a meter of the given config publishes an exponential
+     * histogram under this flavor
+     */
+    boolean isExponential(DistributionStatisticConfig distributionStatisticConfig) {
+        double[] serviceLevelObjectives = distributionStatisticConfig.getServiceLevelObjectiveBoundaries();
+        return this == BASE2_EXPONENTIAL_BUCKET_HISTOGRAM
+                && TRUE.equals(distributionStatisticConfig.isPercentileHistogram())
+                && (serviceLevelObjectives == null || serviceLevelObjectives.length == 0);
+    }
+
+}
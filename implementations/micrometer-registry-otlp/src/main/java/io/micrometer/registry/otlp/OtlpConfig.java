@@ -15,6 +15,7 @@
  */
 package io.micrometer.registry.otlp;
 
+import io.micrometer.core.instrument.config.validate.InvalidReason;
 import io.micrometer.core.instrument.config.validate.Validated;
 import io.micrometer.core.instrument.push.PushRegistryConfig;
 
@@ -23,8 +24,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import static io.micrometer.core.instrument.config.MeterRegistryConfigValidator.*;
-import static io.micrometer.core.instrument.config.validate.PropertyValidator.getString;
-import static io.micrometer.core.instrument.config.validate.PropertyValidator.getUrlString;
+import static io.micrometer.core.instrument.config.validate.PropertyValidator.*;
 
 /**
  * Config for {@link OtlpMeterRegistry}.
@@ -86,10 +86,68 @@ public interface OtlpConfig extends PushRegistryConfig {
         return resourceAttributes;
     }
 
+    /**
+     * @return whether sums and histograms are published as the totals since a meter was
+     * created, or as what was recorded during the last step. Default is
+     * {@link AggregationTemporality#CUMULATIVE}.
+     * @since 1.11.0
+     */
+    default AggregationTemporality aggregationTemporality() {
+        return getEnum(this, AggregationTemporality.class, "aggregationTemporality")
+                .orElse(AggregationTemporality.CUMULATIVE);
+    }
+
+    /**
+     * @return how timers and distribution summaries publish their percentile histogram.
+     * Default is {@link HistogramFlavor#EXPLICIT_BUCKET_HISTOGRAM}.
+     * @since 1.11.0
+     */
+    default HistogramFlavor histogramFlavor() {
+        return getEnum(this, HistogramFlavor.class, "histogramFlavor")
+                .orElse(HistogramFlavor.EXPLICIT_BUCKET_HISTOGRAM);
+    }
+
+    /**
+     * Exponential histograms start out at this scale, the finest resolution they record
+     * at, and lower it as recorded values span more buckets than they can hold. Each
+     * bucket is {@code 2^(2^-scale)} times as wide as the previous one.
+     * @return the maximum scale of {@link HistogramFlavor#BASE2_EXPONENTIAL_BUCKET_HISTOGRAM
+     * exponential histograms}, from -10 to 20. Default is 20.
+     * @since 1.11.0
+     */
+    default int maxScale() {
+        return getInteger(this, "maxScale").orElse(20);
+    }
+
+    /**
+     * @return the maximum number of buckets of
+     * {@link HistogramFlavor#BASE2_EXPONENTIAL_BUCKET_HISTOGRAM exponential histograms}.
+     * At least 2, default is 160.
+     * @since 1.11.0
+     */
+    default int maxBucketCount() {
+        return getInteger(this, "maxBucketCount").orElse(160);
+    }
+
+    /**
+     * @return {@code true} if publish requests should be GZIP compressed, {@code false}
+     * otherwise. Default is {@code false}.
+     * @since 1.11.0
+     */
+    default boolean compressed() {
+        return getBoolean(this, "compressed").orElse(false);
+    }
+
     @Override
     default Validated<?> validate() {
         return checkAll(this, c -> PushRegistryConfig.validate(c), checkRequired("url", OtlpConfig::url),
-                check("resourceAttributes", OtlpConfig::resourceAttributes));
+                check("resourceAttributes", OtlpConfig::resourceAttributes),
+                checkRequired("aggregationTemporality", OtlpConfig::aggregationTemporality),
+                checkRequired("histogramFlavor", OtlpConfig::histogramFlavor),
+                check("maxScale", OtlpConfig::maxScale).andThen(v -> v.invalidateWhen(
+                        scale -> scale < -10 || scale > 20, "must be between -10 and 20", InvalidReason.MALFORMED)),
+                check("maxBucketCount", OtlpConfig::maxBucketCount).andThen(
+                        v -> v.invalidateWhen(count -> count < 2, "must be at least 2", InvalidReason.MALFORMED)));
     }
 
 }
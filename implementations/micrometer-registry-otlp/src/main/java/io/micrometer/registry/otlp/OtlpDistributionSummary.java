@@ -23,7 +23,8 @@ import io.micrometer.core.instrument.distribution.*;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
-class OtlpDistributionSummary extends CumulativeDistributionSummary implements StartTimeAwareMeter {
+class OtlpDistributionSummary extends CumulativeDistributionSummary
+        implements StartTimeAwareMeter, OtlpHistogramSupport {
 
     private static final CountAtBucket[] EMPTY_HISTOGRAM = new CountAtBucket[0];
 
@@ -32,8 +33,11 @@ class OtlpDistributionSummary extends CumulativeDistributionSummary implements S
     @Nullable
     private final Histogram monotonicBucketCountHistogram;
 
+    @Nullable
+    private final Base2ExponentialHistogram exponentialHistogram;
+
     OtlpDistributionSummary(Id id, Clock clock, DistributionStatisticConfig distributionStatisticConfig, double scale,
-            boolean supportsAggregablePercentiles) {
+            boolean supportsAggregablePercentiles, OtlpConfig otlpConfig) {
         super(id, clock, DistributionStatisticConfig.builder().percentilesHistogram(false) // avoid
                                                                                            // a
                                                                                            // histogram
@@ -50,7 +54,13 @@ class OtlpDistributionSummary extends CumulativeDistributionSummary implements S
         // it should
         // Also, we need to customize the histogram behavior to not return cumulative
         // counts across buckets
-        if (distributionStatisticConfig.isPublishingHistogram()) {
+        if (otlpConfig.histogramFlavor().isExponential(distributionStatisticConfig)) {
+            this.monotonicBucketCountHistogram = null;
+            this.exponentialHistogram = new Base2ExponentialHistogram(otlpConfig.maxScale(),
+                    otlpConfig.maxBucketCount());
+        }
+        else if (distributionStatisticConfig.isPublishingHistogram()) {
+            this.exponentialHistogram = null;
             this.monotonicBucketCountHistogram = new TimeWindowFixedBoundaryHistogram(clock,
                     DistributionStatisticConfig.builder().expiry(Duration.ofDays(1825)) // effectively
                                                                                         // never
@@ -61,6 +71,7 @@ class OtlpDistributionSummary extends CumulativeDistributionSummary implements S
         }
         else {
             this.monotonicBucketCountHistogram = null;
+            this.exponentialHistogram = null;
         }
     }
 
@@ -70,6 +81,9 @@ class OtlpDistributionSummary extends CumulativeDistributionSummary implements S
         if (this.monotonicBucketCountHistogram != null) {
             this.monotonicBucketCountHistogram.recordDouble(amount);
         }
+        if (this.exponentialHistogram != null) {
+            this.exponentialHistogram.recordDouble(amount);
+        }
     }
 
     @Override
@@ -88,6 +102,12 @@ class OtlpDistributionSummary extends CumulativeDistributionSummary implements S
                 : this.monotonicBucketCountHistogram.takeSnapshot(0, 0, 0).histogramCounts();
     }
 
+    @Override
+    @Nullable
+    public ExponentialHistogramSnapShot getExponentialHistogramSnapShot() {
+        return this.exponentialHistogram == null ? null : this.exponentialHistogram.takeSnapshot();
+    }
+
     @Override
     public long getStartTimeNanos() {
         return this.startTimeNanos;
@@ -18,7 +18,6 @@ package io.micrometer.registry.otlp;
 import io.micrometer.common.lang.Nullable;
 import io.micrometer.common.util.internal.logging.InternalLogger;
 import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
-import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.*;
 import io.micrometer.core.instrument.config.NamingConvention;
 import io.micrometer.core.instrument.distribution.*;
@@ -26,27 +25,27 @@ import io.micrometer.core.instrument.distribution.pause.PauseDetector;
 import io.micrometer.core.instrument.internal.DefaultGauge;
 import io.micrometer.core.instrument.internal.DefaultMeter;
 import io.micrometer.core.instrument.push.PushMeterRegistry;
-import io.micrometer.core.instrument.util.MeterPartition;
+import io.micrometer.core.instrument.step.StepCounter;
+import io.micrometer.core.instrument.step.StepFunctionCounter;
+import io.micrometer.core.instrument.step.StepFunctionTimer;
 import io.micrometer.core.instrument.util.NamedThreadFactory;
-import io.micrometer.core.instrument.util.TimeUtils;
 import io.micrometer.core.ipc.http.HttpSender;
 import io.micrometer.core.ipc.http.HttpUrlConnectionSender;
-import io.opentelemetry.proto.collector.metrics.v1.ExportMetricsServiceRequest;
 import io.opentelemetry.proto.common.v1.AnyValue;
 import io.opentelemetry.proto.common.v1.KeyValue;
-import io.opentelemetry.proto.metrics.v1.Histogram;
-import io.opentelemetry.proto.metrics.v1.*;
+import io.opentelemetry.proto.metrics.v1.Metric;
+import io.opentelemetry.proto.metrics.v1.ScopeMetrics;
 import io.opentelemetry.proto.resource.v1.Resource;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.function.DoubleSupplier;
 import java.util.function.ToDoubleFunction;
 import java.util.function.ToLongFunction;
-import java.util.stream.Collectors;
 
 /**
  * Publishes meters in OTLP (OpenTelemetry Protocol) format. HTTP with Protobuf encoding
@@ -59,13 +58,20 @@ public class OtlpMeterRegistry extends PushMeterRegistry {
 
     private static final ThreadFactory DEFAULT_THREAD_FACTORY = new NamedThreadFactory("otlp-metrics-publisher");
 
+    private static final CountAtBucket[] NO_BUCKETS = new CountAtBucket[0];
+
     private final InternalLogger logger = InternalLoggerFactory.getInstance(OtlpMeterRegistry.class);
 
     private final OtlpConfig config;
 
     private final HttpSender httpSender;
 
-    private final Resource resource;
+    private final OtlpMetricsEncoder encoder;
+
+    // batches are encoded on the threads sending them, each into buffers of its own
+    private final ThreadLocal<OtlpMetricsEncoder> batchEncoders;
+
+    private final AggregationTemporality aggregationTemporality;
 
     public OtlpMeterRegistry() {
         this(OtlpConfig.DEFAULT, Clock.SYSTEM);
@@ -80,38 +86,54 @@ public class OtlpMeterRegistry extends PushMeterRegistry {
     private OtlpMeterRegistry(OtlpConfig config, Clock clock, HttpSender httpSender) {
         super(config, clock);
         this.config = config;
-        this.httpSender = httpSender;
-        this.resource = Resource.newBuilder().addAllAttributes(getResourceAttributes()).build();
+        this.httpSender = getPushRegistryMetrics().instrument(httpSender);
+        this.aggregationTemporality = config.aggregationTemporality();
         config().namingConvention(NamingConvention.dot);
+        this.encoder = new OtlpMetricsEncoder(
+                Resource.newBuilder().addAllAttributes(getResourceAttributes()).build().toByteArray(),
+                this::getConventionName);
+        this.batchEncoders = ThreadLocal.withInitial(this.encoder::newEncoder);
+        config().onMeterRemoved(meter -> this.encoder.forget(meter.getId()));
         start(DEFAULT_THREAD_FACTORY);
     }
 
     @Override
     protected void publish() {
-        for (List<Meter> batch : MeterPartition.partition(this, config.batchSize())) {
-            List<Metric> metrics = batch.stream()
-                    .map(meter -> meter.match(this::writeGauge, this::writeCounter, this::writeHistogramSupport,
-                            this::writeHistogramSupport, this::writeHistogramSupport, this::writeGauge,
-                            this::writeFunctionCounter, this::writeFunctionTimer, this::writeMeter))
-                    .collect(Collectors.toList());
+        forEachBatch(batch -> {
+            byte[] request;
+            try {
+                OtlpMetricsEncoder encoder = this.batchEncoders.get();
+                encoder.reset();
+                for (Meter meter : batch) {
+                    encode(encoder, meter);
+                }
+                request = encoder.toExportRequest();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("failed to encode metrics sent to the OTLP receiver", e);
+            }
 
+            HttpSender.Response response;
             try {
-                ExportMetricsServiceRequest request = ExportMetricsServiceRequest.newBuilder()
-                        .addResourceMetrics(ResourceMetrics.newBuilder().setResource(this.resource)
-                                .addScopeMetrics(ScopeMetrics.newBuilder()
-                                        // we don't have instrumentation library/version
-                                        // attached to meters; leave unknown for now
-                                        // .setScope(InstrumentationScope.newBuilder().setName("").setVersion("").build())
-                                        .addAllMetrics(metrics).build())
-                                .build())
-                        .build();
-                this.httpSender.post(this.config.url()).withContent("application/x-protobuf", request.toByteArray())
-                        .send();
+                response = this.httpSender.post(this.config.url()).withContent("application/x-protobuf", request)
+                        .compressWhen(this.config::compressed).send();
             }
             catch (Throwable e) {
-                logger.warn("Failed to publish metrics to OTLP receiver", e);
+                throw new IllegalStateException("failed to send metrics to the OTLP receiver", e);
             }
-        }
+            if (!response.isSuccessful()) {
+                throw new IllegalStateException("failed to send metrics to the OTLP receiver: " + response.body());
+            }
+            logger.debug("successfully sent {} metrics to the OTLP receiver", batch.size());
+        });
+    }
+
+    private void encode(OtlpMetricsEncoder encoder, Meter meter) {
+        meter.match(gauge -> encodeGauge(encoder, gauge), counter -> encodeSum(encoder, counter, counter.count()),
+                timer -> encodeHistogram(encoder, timer), summary -> encodeHistogram(encoder, summary),
+                longTaskTimer -> encodeHistogram(encoder, longTaskTimer), timeGauge -> encodeGauge(encoder, timeGauge),
+                functionCounter -> encodeSum(encoder, functionCounter, functionCounter.count()),
+                functionTimer -> encodeFunctionTimer(encoder, functionTimer), m -> encodeMeter(encoder, m));
     }
 
     @Override
@@ -121,19 +143,30 @@ public class OtlpMeterRegistry extends PushMeterRegistry {
 
     @Override
     protected Counter newCounter(Meter.Id id) {
+        if (isDelta()) {
+            return new StepCounter(id, this.clock, this.config.step().toMillis());
+        }
         return new OtlpCounter(id, this.clock);
     }
 
     @Override
     protected Timer newTimer(Meter.Id id, DistributionStatisticConfig distributionStatisticConfig,
             PauseDetector pauseDetector) {
-        return new OtlpTimer(id, this.clock, distributionStatisticConfig, pauseDetector, getBaseTimeUnit());
+        if (isDelta()) {
+            return new OtlpStepTimer(id, this.clock, distributionStatisticConfig, pauseDetector, getBaseTimeUnit(),
+                    this.config);
+        }
+        return new OtlpTimer(id, this.clock, distributionStatisticConfig, pauseDetector, getBaseTimeUnit(),
+                this.config);
     }
 
     @Override
     protected DistributionSummary newDistributionSummary(Meter.Id id,
             DistributionStatisticConfig distributionStatisticConfig, double scale) {
-        return new OtlpDistributionSummary(id, this.clock, distributionStatisticConfig, scale, true);
+        if (isDelta()) {
+            return new OtlpStepDistributionSummary(id, this.clock, distributionStatisticConfig, scale, this.config);
+        }
+        return new OtlpDistributionSummary(id, this.clock, distributionStatisticConfig, scale, true, this.config);
     }
 
     @Override
@@ -144,12 +177,19 @@ public class OtlpMeterRegistry extends PushMeterRegistry {
     @Override
     protected <T> FunctionTimer newFunctionTimer(Meter.Id id, T obj, ToLongFunction<T> countFunction,
             ToDoubleFunction<T> totalTimeFunction, TimeUnit totalTimeFunctionUnit) {
+        if (isDelta()) {
+            return new StepFunctionTimer<>(id, this.clock, this.config.step().toMillis(), obj, countFunction,
+                    totalTimeFunction, totalTimeFunctionUnit, getBaseTimeUnit());
+        }
         return new OtlpFunctionTimer<>(id, obj, countFunction, totalTimeFunction, totalTimeFunctionUnit,
                 getBaseTimeUnit(), this.clock);
     }
 
     @Override
     protected <T> FunctionCounter newFunctionCounter(Meter.Id id, T obj, ToDoubleFunction<T> countFunction) {
+        if (isDelta()) {
+            return new StepFunctionCounter<>(id, this.clock, this.config.step().toMillis(), obj, countFunction);
+        }
         return new OtlpFunctionCounter<>(id, obj, countFunction, this.clock);
     }
 
@@ -169,113 +209,154 @@ public class OtlpMeterRegistry extends PushMeterRegistry {
                 .merge(DistributionStatisticConfig.DEFAULT);
     }
 
-    private Metric writeMeter(Meter meter) {
-        // TODO support writing custom meters
-        // one gauge per measurement
-        return getMetricBuilder(meter.getId()).build();
+    // Void, for encoding to be dispatched with Meter#match
+    private Void encodeGauge(OtlpMetricsEncoder encoder, Gauge gauge) {
+        try {
+            encoder.gauge(gauge.getId(), TimeUnit.MILLISECONDS.toNanos(this.clock.wallTime()), gauge.value());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    private Void encodeSum(OtlpMetricsEncoder encoder, Meter meter, double count) {
+        try {
+            encoder.sum(meter.getId(), getStartTimeNanos(meter), getTimeUnixNano(), count,
+                    this.aggregationTemporality);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    private Void encodeHistogram(OtlpMetricsEncoder encoder, HistogramSupport histogramSupport) {
+        boolean isTimeBased = histogramSupport instanceof Timer || histogramSupport instanceof LongTaskTimer;
+        HistogramSnapshot histogramSnapshot = histogramSupport.takeSnapshot();
+
+        Meter.Id id = histogramSupport.getId();
+        long startTimeNanos = getStartTimeNanos(histogramSupport);
+        long wallTimeNanos = getTimeUnixNano();
+        double total = isTimeBased ? histogramSnapshot.total(getBaseTimeUnit()) : histogramSnapshot.total();
+        long count = histogramSnapshot.count();
+
+        try {
+            // if percentiles configured, use summary
+            if (histogramSnapshot.percentileValues().length != 0) {
+                encoder.summary(id, startTimeNanos, wallTimeNanos, count, total,
+                        histogramSnapshot.percentileValues(), getBaseTimeUnit());
+                return null;
+            }
+
+            // long task timers publish the tasks currently running, whatever the temporality
+            AggregationTemporality temporality = histogramSupport instanceof LongTaskTimer
+                    ? AggregationTemporality.CUMULATIVE : this.aggregationTemporality;
+
+            ExponentialHistogramSnapShot exponentialHistogram = histogramSupport instanceof OtlpHistogramSupport
+                    ? ((OtlpHistogramSupport) histogramSupport).getExponentialHistogramSnapShot() : null;
+            if (exponentialHistogram != null) {
+                encoder.exponentialHistogram(id, startTimeNanos, wallTimeNanos, count, total, exponentialHistogram,
+                        temporality);
+                return null;
+            }
+
+            // explicit buckets, if the histogram is enabled
+            encoder.histogram(id, startTimeNanos, wallTimeNanos, count, total, histogramSnapshot.histogramCounts(),
+                    isTimeBased ? getBaseTimeUnit() : null, temporality);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    private Void encodeFunctionTimer(OtlpMetricsEncoder encoder, FunctionTimer functionTimer) {
+        try {
+            encoder.histogram(functionTimer.getId(), getStartTimeNanos(functionTimer), getTimeUnixNano(),
+                    (long) functionTimer.count(), functionTimer.totalTime(getBaseTimeUnit()), NO_BUCKETS, null,
+                    isDelta() ? this.aggregationTemporality : null);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    private Void encodeMeter(OtlpMetricsEncoder encoder, Meter meter) {
+        try {
+            // TODO support writing custom meters
+            encoder.meter(meter.getId());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
     }
 
     // VisibleForTesting
     Metric writeGauge(Gauge gauge) {
-        return getMetricBuilder(gauge.getId())
-                .setGauge(io.opentelemetry.proto.metrics.v1.Gauge.newBuilder()
-                        .addDataPoints(NumberDataPoint.newBuilder()
-                                .setTimeUnixNano(TimeUnit.MILLISECONDS.toNanos(this.clock.wallTime()))
-                                .setAsDouble(gauge.value()).addAllAttributes(getTagsForId(gauge.getId())).build()))
-                .build();
+        return writeMetric(gauge);
     }
 
     // VisibleForTesting
     Metric writeCounter(Counter counter) {
-        return writeSum((StartTimeAwareMeter) counter, counter::count);
+        return writeMetric(counter);
     }
 
     // VisibleForTesting
     Metric writeFunctionCounter(FunctionCounter functionCounter) {
-        return writeSum((StartTimeAwareMeter) functionCounter, functionCounter::count);
-    }
-
-    private Metric writeSum(StartTimeAwareMeter meter, DoubleSupplier count) {
-        return getMetricBuilder(meter.getId())
-                .setSum(Sum.newBuilder()
-                        .addDataPoints(NumberDataPoint.newBuilder().setStartTimeUnixNano(meter.getStartTimeNanos())
-                                .setTimeUnixNano(TimeUnit.MILLISECONDS.toNanos(this.clock.wallTime()))
-                                .setAsDouble(count.getAsDouble()).addAllAttributes(getTagsForId(meter.getId())).build())
-                        .setIsMonotonic(true)
-                        .setAggregationTemporality(AggregationTemporality.AGGREGATION_TEMPORALITY_CUMULATIVE).build())
-                .build();
+        return writeMetric(functionCounter);
     }
 
     // VisibleForTesting
     Metric writeHistogramSupport(HistogramSupport histogramSupport) {
-        Metric.Builder metricBuilder = getMetricBuilder(histogramSupport.getId());
-        boolean isTimeBased = histogramSupport instanceof Timer || histogramSupport instanceof LongTaskTimer;
-        HistogramSnapshot histogramSnapshot = histogramSupport.takeSnapshot();
+        return writeMetric(histogramSupport);
+    }
 
-        Iterable<? extends KeyValue> tags = getTagsForId(histogramSupport.getId());
-        long startTimeNanos = ((StartTimeAwareMeter) histogramSupport).getStartTimeNanos();
-        long wallTimeNanos = TimeUnit.MILLISECONDS.toNanos(this.clock.wallTime());
-        double total = isTimeBased ? histogramSnapshot.total(getBaseTimeUnit()) : histogramSnapshot.total();
-        long count = histogramSnapshot.count();
+    // VisibleForTesting
+    Metric writeFunctionTimer(FunctionTimer functionTimer) {
+        return writeMetric(functionTimer);
+    }
 
-        // if percentiles configured, use summary
-        if (histogramSnapshot.percentileValues().length != 0) {
-            SummaryDataPoint.Builder summaryData = SummaryDataPoint.newBuilder().addAllAttributes(tags)
-                    .setStartTimeUnixNano(startTimeNanos).setTimeUnixNano(wallTimeNanos).setSum(total).setCount(count);
-            for (ValueAtPercentile percentile : histogramSnapshot.percentileValues()) {
-                summaryData.addQuantileValues(
-                        SummaryDataPoint.ValueAtQuantile.newBuilder().setQuantile(percentile.percentile()).setValue(
-                                TimeUtils.convert(percentile.value(), TimeUnit.NANOSECONDS, getBaseTimeUnit())));
-            }
-            metricBuilder.setSummary(Summary.newBuilder().addDataPoints(summaryData));
-            return metricBuilder.build();
+    private Metric writeMetric(Meter meter) {
+        OtlpMetricsEncoder encoder = this.batchEncoders.get();
+        try {
+            encoder.reset();
+            encode(encoder, meter);
+            return ScopeMetrics.parseFrom(encoder.toScopeMetrics()).getMetrics(0);
         }
-
-        HistogramDataPoint.Builder histogramDataPoint = HistogramDataPoint.newBuilder().addAllAttributes(tags)
-                .setStartTimeUnixNano(startTimeNanos).setTimeUnixNano(wallTimeNanos).setSum(total).setCount(count);
-
-        // if histogram enabled, add histogram buckets
-        if (histogramSnapshot.histogramCounts().length != 0) {
-            for (CountAtBucket countAtBucket : histogramSnapshot.histogramCounts()) {
-                histogramDataPoint.addExplicitBounds(
-                        isTimeBased ? countAtBucket.bucket(getBaseTimeUnit()) : countAtBucket.bucket());
-                histogramDataPoint.addBucketCounts((long) countAtBucket.count());
-            }
-            metricBuilder.setHistogram(Histogram.newBuilder()
-                    .setAggregationTemporality(AggregationTemporality.AGGREGATION_TEMPORALITY_CUMULATIVE)
-                    .addDataPoints(histogramDataPoint));
-            return metricBuilder.build();
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        return metricBuilder.setHistogram(Histogram.newBuilder()
-                .setAggregationTemporality(AggregationTemporality.AGGREGATION_TEMPORALITY_CUMULATIVE)
-                .addDataPoints(histogramDataPoint)).build();
+    private boolean isDelta() {
+        return this.aggregationTemporality == AggregationTemporality.DELTA;
     }
 
-    // VisibleForTesting
-    Metric writeFunctionTimer(FunctionTimer functionTimer) {
-        return getMetricBuilder(functionTimer.getId()).setHistogram(Histogram.newBuilder()
-                .addDataPoints(HistogramDataPoint.newBuilder().addAllAttributes(getTagsForId(functionTimer.getId()))
-                        .setStartTimeUnixNano(((StartTimeAwareMeter) functionTimer).getStartTimeNanos())
-                        .setTimeUnixNano(TimeUnit.MILLISECONDS.toNanos(this.clock.wallTime()))
-                        .setSum(functionTimer.totalTime(getBaseTimeUnit())).setCount((long) functionTimer.count())))
-                .build();
-    }
-
-    private Metric.Builder getMetricBuilder(Meter.Id id) {
-        Metric.Builder builder = Metric.newBuilder().setName(getConventionName(id));
-        if (id.getBaseUnit() != null) {
-            builder.setUnit(id.getBaseUnit());
-        }
-        if (id.getDescription() != null) {
-            builder.setDescription(id.getDescription());
+    /**
+     * @return the start of what a data point of the given meter covers: the creation of
+     * the meter, or the start of the previous step when only that step is published
+     */
+    private long getStartTimeNanos(Meter meter) {
+        if (isDelta() && !(meter instanceof LongTaskTimer)) {
+            return TimeUnit.MILLISECONDS.toNanos(getStepStartMillis() - this.config.step().toMillis());
         }
-        return builder;
+        return ((StartTimeAwareMeter) meter).getStartTimeNanos();
+    }
+
+    /**
+     * @return the end of what data points cover: now, or the end of the previous step
+     * when only that step is published
+     */
+    private long getTimeUnixNano() {
+        return TimeUnit.MILLISECONDS.toNanos(isDelta() ? getStepStartMillis() : this.clock.wallTime());
     }
 
-    private Iterable<? extends KeyValue> getTagsForId(Meter.Id id) {
-        return id.getTags().stream().map(tag -> createKeyValue(tag.getKey(), tag.getValue()))
-                .collect(Collectors.toList());
+    private long getStepStartMillis() {
+        long stepMillis = this.config.step().toMillis();
+        return this.clock.wallTime() / stepMillis * stepMillis;
     }
 
     // VisibleForTesting
@@ -0,0 +1,521 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.registry.otlp;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.util.TimeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Encodes metrics into an OTLP {@code ExportMetricsServiceRequest} in the protobuf wire
+ * format. Metrics are written straight into reusable buffers instead of being built as
+ * messages first, and the name and attributes of a meter are encoded once and reused on
+ * every publish.
+ * <p>
+ * Field numbers are those of {@code opentelemetry/proto/metrics/v1/metrics.proto}. Like
+ * the generated messages, fields holding their default value are left out, except for
+ * those with explicit presence.
+ * <p>
+ * Not thread-safe, except for {@link #forget(Meter.Id)}. Threads encoding metrics at the
+ * same time each use an encoder of their own, created with {@link #newEncoder()}.
+ */
+final class OtlpMetricsEncoder {
+
+    private static final int EXPORT_REQUEST_RESOURCE_METRICS = 1;
+
+    private static final int RESOURCE_METRICS_RESOURCE = 1;
+
+    private static final int RESOURCE_METRICS_SCOPE_METRICS = 2;
+
+    private static final int SCOPE_METRICS_METRICS = 2;
+
+    private static final int METRIC_NAME = 1;
+
+    private static final int METRIC_DESCRIPTION = 2;
+
+    private static final int METRIC_UNIT = 3;
+
+    private static final int METRIC_GAUGE = 5;
+
+    private static final int METRIC_SUM = 7;
+
+    private static final int METRIC_HISTOGRAM = 9;
+
+    private static final int METRIC_EXPONENTIAL_HISTOGRAM = 10;
+
+    private static final int METRIC_SUMMARY = 11;
+
+    // the same for gauges, sums, histograms, exponential histograms and summaries
+    private static final int DATA_POINTS = 1;
+
+    private static final int AGGREGATION_TEMPORALITY = 2;
+
+    private static final int SUM_IS_MONOTONIC = 3;
+
+    // the same for all data points
+    private static final int START_TIME_UNIX_NANO = 2;
+
+    private static final int TIME_UNIX_NANO = 3;
+
+    private static final int COUNT = 4;
+
+    private static final int SUM = 5;
+
+    private static final int NUMBER_AS_DOUBLE = 4;
+
+    private static final int NUMBER_ATTRIBUTES = 7;
+
+    private static final int HISTOGRAM_BUCKET_COUNTS = 6;
+
+    private static final int HISTOGRAM_EXPLICIT_BOUNDS = 7;
+
+    private static final int HISTOGRAM_ATTRIBUTES = 9;
+
+    private static final int EXPONENTIAL_ATTRIBUTES = 1;
+
+    private static final int EXPONENTIAL_SCALE = 6;
+
+    private static final int EXPONENTIAL_ZERO_COUNT = 7;
+
+    private static final int EXPONENTIAL_POSITIVE = 8;
+
+    private static final int BUCKETS_OFFSET = 1;
+
+    private static final int BUCKETS_BUCKET_COUNTS = 2;
+
+    private static final int SUMMARY_QUANTILE_VALUES = 6;
+
+    private static final int SUMMARY_ATTRIBUTES = 7;
+
+    private static final int QUANTILE = 1;
+
+    private static final int QUANTILE_VALUE = 2;
+
+    private static final int KEY_VALUE_KEY = 1;
+
+    private static final int KEY_VALUE_VALUE = 2;
+
+    private static final int ANY_VALUE_STRING_VALUE = 1;
+
+    private static final int LENGTH_DELIMITED = WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+    private final byte[] resource;
+
+    private final Function<Meter.Id, String> nameFunction;
+
+    private final ConcurrentMap<Meter.Id, EncodedId> encodedIds;
+
+    // the metrics of the request being encoded, as the content of its scope metrics
+    private final Buffer metrics = new Buffer();
+
+    // the data point being encoded
+    private final Buffer point = new Buffer();
+
+    private int metricCount;
+
+    /**
+     * @param resource the encoded {@code Resource} all metrics are published for
+     * @param nameFunction the name of metrics for the id of their meter
+     */
+    OtlpMetricsEncoder(byte[] resource, Function<Meter.Id, String> nameFunction) {
+        this(resource, nameFunction, new ConcurrentHashMap<>());
+    }
+
+    private OtlpMetricsEncoder(byte[] resource, Function<Meter.Id, String> nameFunction,
+            ConcurrentMap<Meter.Id, EncodedId> encodedIds) {
+        this.resource = resource;
+        this.nameFunction = nameFunction;
+        this.encodedIds = encodedIds;
+    }
+
+    /**
+     * @return an encoder with buffers of its own, for the same resource, that shares the
+     * names and attributes encoded by this one
+     */
+    OtlpMetricsEncoder newEncoder() {
+        return new OtlpMetricsEncoder(resource, nameFunction, encodedIds);
+    }
+
+    /**
+     * @return the number of metrics encoded since the last reset
+     */
+    int metricCount() {
+        return metricCount;
+    }
+
+    /**
+     * Discard the metrics encoded so far.
+     */
+    void reset() throws IOException {
+        metrics.clear();
+        metricCount = 0;
+    }
+
+    /**
+     * Drop what is kept of a meter that was removed.
+     */
+    void forget(Meter.Id id) {
+        encodedIds.remove(id);
+    }
+
+    /**
+     * @return the metrics encoded since the last reset as {@code ScopeMetrics}
+     */
+    byte[] toScopeMetrics() throws IOException {
+        return metrics.toByteArray();
+    }
+
+    /**
+     * @return the metrics encoded since the last reset as an
+     * {@code ExportMetricsServiceRequest}
+     */
+    byte[] toExportRequest() throws IOException {
+        int scopeMetricsSize = metrics.finish();
+        int resourceMetricsSize = lengthDelimitedSize(RESOURCE_METRICS_RESOURCE, resource.length)
+                + lengthDelimitedSize(RESOURCE_METRICS_SCOPE_METRICS, scopeMetricsSize);
+        byte[] request = new byte[lengthDelimitedSize(EXPORT_REQUEST_RESOURCE_METRICS, resourceMetricsSize)];
+        CodedOutputStream out = CodedOutputStream.newInstance(request);
+        writeLength(out, EXPORT_REQUEST_RESOURCE_METRICS, resourceMetricsSize);
+        out.writeByteArray(RESOURCE_METRICS_RESOURCE, resource);
+        writeLength(out, RESOURCE_METRICS_SCOPE_METRICS, scopeMetricsSize);
+        metrics.writeTo(out);
+        out.checkNoSpaceLeft();
+        return request;
+    }
+
+    /**
+     * A metric without data points.
+     */
+    void meter(Meter.Id id) throws IOException {
+        EncodedId encodedId = encodedId(id);
+        CodedOutputStream out = metrics.out;
+        writeLength(out, SCOPE_METRICS_METRICS, encodedId.header.length);
+        out.writeRawBytes(encodedId.header);
+        metricCount++;
+    }
+
+    void gauge(Meter.Id id, long timeUnixNano, double value) throws IOException {
+        EncodedId encodedId = encodedId(id);
+        CodedOutputStream out = point.start();
+        writeFixed64(out, TIME_UNIX_NANO, timeUnixNano);
+        out.writeDouble(NUMBER_AS_DOUBLE, value);
+        encodedId.writeAttributes(out, NUMBER_ATTRIBUTES);
+        endMetric(encodedId, METRIC_GAUGE, null, false);
+    }
+
+    void sum(Meter.Id id, long startTimeUnixNano, long timeUnixNano, double value,
+            AggregationTemporality temporality) throws IOException {
+        EncodedId encodedId = encodedId(id);
+        CodedOutputStream out = point.start();
+        writeFixed64(out, START_TIME_UNIX_NANO, startTimeUnixNano);
+        writeFixed64(out, TIME_UNIX_NANO, timeUnixNano);
+        out.writeDouble(NUMBER_AS_DOUBLE, value);
+        encodedId.writeAttributes(out, NUMBER_ATTRIBUTES);
+        endMetric(encodedId, METRIC_SUM, temporality, true);
+    }
+
+    /**
+     * @param buckets the counts of the explicit buckets, or none
+     * @param bucketUnit the unit to publish the bounds of buckets of timers in, or
+     * {@code null} for the bounds as recorded
+     * @param temporality the temporality of the histogram, or {@code null} to leave it
+     * unspecified
+     */
+    void histogram(Meter.Id id, long startTimeUnixNano, long timeUnixNano, long count, double sum,
+            CountAtBucket[] buckets, @Nullable TimeUnit bucketUnit, @Nullable AggregationTemporality temporality)
+            throws IOException {
+        EncodedId encodedId = encodedId(id);
+        CodedOutputStream out = point.start();
+        writeFixed64(out, START_TIME_UNIX_NANO, startTimeUnixNano);
+        writeFixed64(out, TIME_UNIX_NANO, timeUnixNano);
+        writeFixed64(out, COUNT, count);
+        out.writeDouble(SUM, sum);
+        if (buckets.length != 0) {
+            // packed repeated fixed64 and double
+            writeLength(out, HISTOGRAM_BUCKET_COUNTS, buckets.length * Long.BYTES);
+            for (CountAtBucket bucket : buckets) {
+                out.writeFixed64NoTag((long) bucket.count());
+            }
+            writeLength(out, HISTOGRAM_EXPLICIT_BOUNDS, buckets.length * Double.BYTES);
+            for (CountAtBucket bucket : buckets) {
+                out.writeDoubleNoTag(bucketUnit == null ? bucket.bucket() : bucket.bucket(bucketUnit));
+            }
+        }
+        encodedId.writeAttributes(out, HISTOGRAM_ATTRIBUTES);
+        endMetric(encodedId, METRIC_HISTOGRAM, temporality, false);
+    }
+
+    void exponentialHistogram(Meter.Id id, long startTimeUnixNano, long timeUnixNano, long count, double sum,
+            ExponentialHistogramSnapShot snapshot, AggregationTemporality temporality) throws IOException {
+        EncodedId encodedId = encodedId(id);
+        CodedOutputStream out = point.start();
+        encodedId.writeAttributes(out, EXPONENTIAL_ATTRIBUTES);
+        writeFixed64(out, START_TIME_UNIX_NANO, startTimeUnixNano);
+        writeFixed64(out, TIME_UNIX_NANO, timeUnixNano);
+        writeFixed64(out, COUNT, count);
+        out.writeDouble(SUM, sum);
+        if (snapshot.scale() != 0) {
+            out.writeSInt32(EXPONENTIAL_SCALE, snapshot.scale());
+        }
+        writeFixed64(out, EXPONENTIAL_ZERO_COUNT, snapshot.zeroCount());
+
+        List<Long> bucketCounts = snapshot.bucketCounts();
+        int countsSize = 0;
+        for (Long bucketCount : bucketCounts) {
+            countsSize += CodedOutputStream.computeUInt64SizeNoTag(bucketCount);
+        }
+        int bucketsSize = snapshot.offset() == 0 ? 0
+                : CodedOutputStream.computeSInt32Size(BUCKETS_OFFSET, snapshot.offset());
+        if (countsSize != 0) {
+            bucketsSize += lengthDelimitedSize(BUCKETS_BUCKET_COUNTS, countsSize);
+        }
+        writeLength(out, EXPONENTIAL_POSITIVE, bucketsSize);
+        if (snapshot.offset() != 0) {
+            out.writeSInt32(BUCKETS_OFFSET, snapshot.offset());
+        }
+        if (countsSize != 0) {
+            // packed repeated uint64
+            writeLength(out, BUCKETS_BUCKET_COUNTS, countsSize);
+            for (Long bucketCount : bucketCounts) {
+                out.writeUInt64NoTag(bucketCount);
+            }
+        }
+        endMetric(encodedId, METRIC_EXPONENTIAL_HISTOGRAM, temporality, false);
+    }
+
+    /**
+     * @param percentiles percentile values, recorded in nanoseconds and published in the
+     * given unit
+     */
+    void summary(Meter.Id id, long startTimeUnixNano, long timeUnixNano, long count, double sum,
+            ValueAtPercentile[] percentiles, TimeUnit percentileUnit) throws IOException {
+        EncodedId encodedId = encodedId(id);
+        CodedOutputStream out = point.start();
+        writeFixed64(out, START_TIME_UNIX_NANO, startTimeUnixNano);
+        writeFixed64(out, TIME_UNIX_NANO, timeUnixNano);
+        writeFixed64(out, COUNT, count);
+        writeDouble(out, SUM, sum);
+        for (ValueAtPercentile percentile : percentiles) {
+            double quantile = percentile.percentile();
+            double value = TimeUtils.convert(percentile.value(), TimeUnit.NANOSECONDS, percentileUnit);
+            int quantileSize = doubleSize(QUANTILE, quantile) + doubleSize(QUANTILE_VALUE, value);
+            writeLength(out, SUMMARY_QUANTILE_VALUES, quantileSize);
+            writeDouble(out, QUANTILE, quantile);
+            writeDouble(out, QUANTILE_VALUE, value);
+        }
+        encodedId.writeAttributes(out, SUMMARY_ATTRIBUTES);
+        endMetric(encodedId, METRIC_SUMMARY, null, false);
+    }
+
+    /**
+     * Wrap the data point just written into its metric.
+     */
+    private void endMetric(EncodedId encodedId, int dataField, @Nullable AggregationTemporality temporality,
+            boolean monotonic) throws IOException {
+        int pointSize = point.finish();
+        int temporalityNumber = temporality == null ? 0 : otlpNumber(temporality);
+        int dataSize = lengthDelimitedSize(DATA_POINTS, pointSize);
+        if (temporalityNumber != 0) {
+            dataSize += CodedOutputStream.computeEnumSize(AGGREGATION_TEMPORALITY, temporalityNumber);
+        }
+        if (monotonic) {
+            dataSize += CodedOutputStream.computeBoolSize(SUM_IS_MONOTONIC, true);
+        }
+
+        CodedOutputStream out = metrics.out;
+        writeLength(out, SCOPE_METRICS_METRICS, encodedId.header.length + lengthDelimitedSize(dataField, dataSize));
+        out.writeRawBytes(encodedId.header);
+        writeLength(out, dataField, dataSize);
+        writeLength(out, DATA_POINTS, pointSize);
+        point.writeTo(out);
+        if (temporalityNumber != 0) {
+            out.writeEnum(AGGREGATION_TEMPORALITY, temporalityNumber);
+        }
+        if (monotonic) {
+            out.writeBool(SUM_IS_MONOTONIC, true);
+        }
+        metricCount++;
+    }
+
+    private EncodedId encodedId(Meter.Id id) {
+        EncodedId encodedId = encodedIds.get(id);
+        if (encodedId == null) {
+            encodedId = encodedIds.computeIfAbsent(id, i -> new EncodedId(i, nameFunction.apply(i)));
+        }
+        return encodedId;
+    }
+
+    // the number of the AggregationTemporality enum value in the protobuf definition
+    private static int otlpNumber(AggregationTemporality temporality) {
+        return temporality == AggregationTemporality.DELTA ? 1 : 2;
+    }
+
+    private static void writeFixed64(CodedOutputStream out, int field, long value) throws IOException {
+        if (value != 0) {
+            out.writeFixed64(field, value);
+        }
+    }
+
+    private static void writeDouble(CodedOutputStream out, int field, double value) throws IOException {
+        if (Double.doubleToRawLongBits(value) != 0) {
+            out.writeDouble(field, value);
+        }
+    }
+
+    private static int doubleSize(int field, double value) {
+        return Double.doubleToRawLongBits(value) != 0 ? CodedOutputStream.computeDoubleSize(field, value) : 0;
+    }
+
+    private static void writeLength(CodedOutputStream out, int field, int length) throws IOException {
+        out.writeTag(field, LENGTH_DELIMITED);
+        out.writeUInt32NoTag(length);
+    }
+
+    private static int lengthDelimitedSize(int field, int length) {
+        return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(length) + length;
+    }
+
+    /**
+     * The name, description and unit of a metric, and the attributes of its data points.
+     */
+    private static final class EncodedId {
+
+        private final byte[] header;
+
+        private final byte[][] attributes;
+
+        EncodedId(Meter.Id id, String name) {
+            try {
+                String description = id.getDescription();
+                String unit = id.getBaseUnit();
+                int size = CodedOutputStream.computeStringSize(METRIC_NAME, name);
+                if (description != null && !description.isEmpty()) {
+                    size += CodedOutputStream.computeStringSize(METRIC_DESCRIPTION, description);
+                }
+                if (unit != null && !unit.isEmpty()) {
+                    size += CodedOutputStream.computeStringSize(METRIC_UNIT, unit);
+                }
+                this.header = new byte[size];
+                CodedOutputStream out = CodedOutputStream.newInstance(header);
+                out.writeString(METRIC_NAME, name);
+                if (description != null && !description.isEmpty()) {
+                    out.writeString(METRIC_DESCRIPTION, description);
+                }
+                if (unit != null && !unit.isEmpty()) {
+                    out.writeString(METRIC_UNIT, unit);
+                }
+                out.checkNoSpaceLeft();
+
+                List<byte[]> keyValues = new ArrayList<>();
+                for (Tag tag : id.getTagsAsIterable()) {
+                    keyValues.add(keyValue(tag.getKey(), tag.getValue()));
+                }
+                this.attributes = keyValues.toArray(new byte[0][]);
+            }
+            catch (IOException e) {
+                // cannot happen writing to an array of the computed size
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void writeAttributes(CodedOutputStream out, int field) throws IOException {
+            for (byte[] attribute : attributes) {
+                out.writeByteArray(field, attribute);
+            }
+        }
+
+        private static byte[] keyValue(String key, String value) throws IOException {
+            // string_value is part of a oneof, and written even when empty
+            int anyValueSize = CodedOutputStream.computeStringSize(ANY_VALUE_STRING_VALUE, value);
+            int size = (key.isEmpty() ? 0 : CodedOutputStream.computeStringSize(KEY_VALUE_KEY, key))
+                    + lengthDelimitedSize(KEY_VALUE_VALUE, anyValueSize);
+            byte[] keyValue = new byte[size];
+            CodedOutputStream out = CodedOutputStream.newInstance(keyValue);
+            if (!key.isEmpty()) {
+                out.writeString(KEY_VALUE_KEY, key);
+            }
+            writeLength(out, KEY_VALUE_VALUE, anyValueSize);
+            out.writeString(ANY_VALUE_STRING_VALUE, value);
+            out.checkNoSpaceLeft();
+            return keyValue;
+        }
+
+    }
+
+    /**
+     * A reusable buffer that keeps its capacity across messages.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        private final CodedOutputStream out = CodedOutputStream.newInstance(this, 4096);
+
+        Buffer() {
+            super(4096);
+        }
+
+        /**
+         * Discard what was written so far.
+         */
+        void clear() throws IOException {
+            out.flush();
+            reset();
+        }
+
+        CodedOutputStream start() throws IOException {
+            clear();
+            return out;
+        }
+
+        /**
+         * @return the size of what was written since the last reset
+         */
+        int finish() throws IOException {
+            out.flush();
+            return count;
+        }
+
+        void writeTo(CodedOutputStream target) throws IOException {
+            target.writeRawBytes(buf, 0, count);
+        }
+
+        @Override
+        public synchronized byte[] toByteArray() {
+            try {
+                out.flush();
+            }
+            catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return super.toByteArray();
+        }
+
+    }
+
+}
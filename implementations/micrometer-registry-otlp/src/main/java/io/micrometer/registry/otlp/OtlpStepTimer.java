@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.registry.otlp;
+
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
+import io.micrometer.core.instrument.step.StepBucketCounts;
+import io.micrometer.core.instrument.step.StepTimer;
+import io.micrometer.core.instrument.step.StepValue;
+import io.micrometer.core.instrument.util.TimeUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timer of {@link AggregationTemporality#DELTA delta temporality}, whose count, total
+ * and histogram cover the previous step only.
+ */
+class OtlpStepTimer extends StepTimer implements OtlpHistogramSupport {
+
+    @Nullable
+    private final StepBucketCounts bucketCounts;
+
+    @Nullable
+    private final Base2ExponentialHistogram exponentialHistogram;
+
+    @Nullable
+    private final StepValue<ExponentialHistogramSnapShot> exponentialHistogramSnapShots;
+
+    OtlpStepTimer(Id id, Clock clock, DistributionStatisticConfig distributionStatisticConfig,
+            PauseDetector pauseDetector, TimeUnit baseTimeUnit, OtlpConfig otlpConfig) {
+        // buckets are counted here rather than by a histogram of the super class
+        super(id, clock,
+                DistributionStatisticConfig.builder().percentilesHistogram(false).serviceLevelObjectives().build()
+                        .merge(distributionStatisticConfig),
+                pauseDetector, baseTimeUnit, otlpConfig.step().toMillis(), false);
+        long stepMillis = otlpConfig.step().toMillis();
+        if (otlpConfig.histogramFlavor().isExponential(distributionStatisticConfig)) {
+            this.bucketCounts = null;
+            this.exponentialHistogram = new Base2ExponentialHistogram(otlpConfig.maxScale(),
+                    otlpConfig.maxBucketCount());
+            this.exponentialHistogramSnapShots = exponentialHistogram.stepSnapshots(clock, stepMillis);
+        }
+        else {
+            this.bucketCounts = distributionStatisticConfig.isPublishingHistogram()
+                    ? new StepBucketCounts(clock, stepMillis, distributionStatisticConfig) : null;
+            this.exponentialHistogram = null;
+            this.exponentialHistogramSnapShots = null;
+        }
+    }
+
+    @Override
+    protected void recordNonNegative(long amount, TimeUnit unit) {
+        super.recordNonNegative(amount, unit);
+        if (this.bucketCounts != null) {
+            this.bucketCounts.recordLong((long) TimeUtils.convert(amount, unit, TimeUnit.NANOSECONDS));
+        }
+        if (this.exponentialHistogram != null) {
+            this.exponentialHistogram.recordDouble(TimeUtils.convert(amount, unit, baseTimeUnit()));
+        }
+    }
+
+    @Override
+    public HistogramSnapshot takeSnapshot() {
+        HistogramSnapshot snapshot = super.takeSnapshot();
+        if (this.bucketCounts == null) {
+            return snapshot;
+        }
+        return new HistogramSnapshot(snapshot.count(), snapshot.total(), snapshot.max(), snapshot.percentileValues(),
+                this.bucketCounts.poll(), snapshot::outputSummary);
+    }
+
+    @Override
+    @Nullable
+    public ExponentialHistogramSnapShot getExponentialHistogramSnapShot() {
+        return this.exponentialHistogramSnapShots == null ? null : this.exponentialHistogramSnapShots.poll();
+    }
+
+}
@@ -25,15 +25,18 @@ import io.micrometer.core.instrument.util.TimeUtils;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
-class OtlpTimer extends CumulativeTimer implements StartTimeAwareMeter {
+class OtlpTimer extends CumulativeTimer implements StartTimeAwareMeter, OtlpHistogramSupport {
 
     private final long startTimeNanos;
 
     @Nullable
     private final Histogram monotonicCountBucketHistogram;
 
+    @Nullable
+    private final Base2ExponentialHistogram exponentialHistogram;
+
     OtlpTimer(Id id, Clock clock, DistributionStatisticConfig distributionStatisticConfig, PauseDetector pauseDetector,
-            TimeUnit baseTimeUnit) {
+            TimeUnit baseTimeUnit, OtlpConfig otlpConfig) {
         super(id, clock, DistributionStatisticConfig.builder().percentilesHistogram(false) // avoid
                                                                                            // a
                                                                                            // histogram
@@ -49,7 +52,13 @@ class OtlpTimer extends CumulativeTimer implements StartTimeAwareMeter {
         // CumulativeTimer doesn't produce monotonic histogram counts; maybe it should
         // Also, we need to customize the histogram behavior to not return cumulative
         // counts across buckets
-        if (distributionStatisticConfig.isPublishingHistogram()) {
+        if (otlpConfig.histogramFlavor().isExponential(distributionStatisticConfig)) {
+            this.monotonicCountBucketHistogram = null;
+            this.exponentialHistogram = new Base2ExponentialHistogram(otlpConfig.maxScale(),
+                    otlpConfig.maxBucketCount());
+        }
+        else if (distributionStatisticConfig.isPublishingHistogram()) {
+            this.exponentialHistogram = null;
             this.monotonicCountBucketHistogram = new TimeWindowFixedBoundaryHistogram(clock,
                     DistributionStatisticConfig.builder().expiry(Duration.ofDays(1825)) // effectively
                                                                                         // never
@@ -60,6 +69,7 @@ class OtlpTimer extends CumulativeTimer implements StartTimeAwareMeter {
         }
         else {
             this.monotonicCountBucketHistogram = null;
+            this.exponentialHistogram = null;
         }
     }
 
@@ -69,6 +79,10 @@ class OtlpTimer extends CumulativeTimer implements StartTimeAwareMeter {
         if (this.monotonicCountBucketHistogram != null) {
             this.monotonicCountBucketHistogram.recordLong((long) TimeUtils.convert(amount, unit, TimeUnit.NANOSECONDS));
         }
+        if (this.exponentialHistogram != null) {
+            // recorded in the published unit, as bucket boundaries do not scale between units
+            this.exponentialHistogram.recordDouble(TimeUtils.convert(amount, unit, baseTimeUnit()));
+        }
     }
 
     @Override
@@ -83,6 +97,12 @@ class OtlpTimer extends CumulativeTimer implements StartTimeAwareMeter {
                 histogramCounts, snapshot::outputSummary);
     }
 
+    @Override
+    @Nullable
+    public ExponentialHistogramSnapShot getExponentialHistogramSnapShot() {
+        return this.exponentialHistogram == null ? null : this.exponentialHistogram.takeSnapshot();
+    }
+
     @Override
     public long getStartTimeNanos() {
         return this.startTimeNanos;
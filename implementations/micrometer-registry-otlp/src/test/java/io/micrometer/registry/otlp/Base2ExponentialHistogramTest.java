@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.registry.otlp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Base2ExponentialHistogramTest {
+
+    @Test
+    void bucketUpperBoundsAreInclusive() {
+        assertThat(Base2ExponentialHistogram.index(1.0, 0, Math.scalb(1 / Math.log(2), 0))).isEqualTo(-1);
+        assertThat(Base2ExponentialHistogram.index(2.0, 0, Math.scalb(1 / Math.log(2), 0))).isEqualTo(0);
+        assertThat(Base2ExponentialHistogram.index(2.5, 0, Math.scalb(1 / Math.log(2), 0))).isEqualTo(1);
+        assertThat(Base2ExponentialHistogram.index(4.0, 1, Math.scalb(1 / Math.log(2), 1))).isEqualTo(3);
+    }
+
+    @Test
+    void recordAtMaxScale() {
+        Base2ExponentialHistogram histogram = new Base2ExponentialHistogram(20, 160);
+        histogram.recordDouble(1.0);
+        histogram.recordDouble(1.0);
+
+        ExponentialHistogramSnapShot snapshot = histogram.takeSnapshot();
+        assertThat(snapshot.scale()).isEqualTo(20);
+        assertThat(snapshot.offset()).isEqualTo(-1);
+        assertThat(snapshot.bucketCounts()).containsExactly(2L);
+    }
+
+    @Test
+    void downscaleToFitMaxBucketCount() {
+        Base2ExponentialHistogram histogram = new Base2ExponentialHistogram(20, 160);
+        histogram.recordDouble(1.0);
+        histogram.recordDouble(1000);
+
+        ExponentialHistogramSnapShot snapshot = histogram.takeSnapshot();
+        assertThat(snapshot.scale()).isEqualTo(3);
+        assertThat(snapshot.offset()).isEqualTo(-1);
+        assertThat(snapshot.bucketCounts()).hasSize(81).startsWith(1L).endsWith(1L);
+    }
+
+    @Test
+    void zeroAndInvalidValues() {
+        Base2ExponentialHistogram histogram = new Base2ExponentialHistogram(20, 160);
+        histogram.recordDouble(0.0);
+        histogram.recordDouble(Double.MIN_VALUE);
+        histogram.recordDouble(-1.0);
+        histogram.recordDouble(Double.NaN);
+        histogram.recordDouble(Double.POSITIVE_INFINITY);
+
+        ExponentialHistogramSnapShot snapshot = histogram.takeSnapshot();
+        assertThat(snapshot.zeroCount()).isEqualTo(2);
+        assertThat(snapshot.bucketCounts()).isEmpty();
+    }
+
+    @Test
+    void resetRestoresMaxScale() {
+        Base2ExponentialHistogram histogram = new Base2ExponentialHistogram(20, 160);
+        histogram.recordDouble(1.0);
+        histogram.recordDouble(1000);
+        assertThat(histogram.takeSnapshotAndReset().scale()).isEqualTo(3);
+
+        ExponentialHistogramSnapShot snapshot = histogram.takeSnapshot();
+        assertThat(snapshot.scale()).isEqualTo(20);
+        assertThat(snapshot.zeroCount()).isZero();
+        assertThat(snapshot.bucketCounts()).isEmpty();
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package io.micrometer.registry.otlp;
 
+import io.micrometer.core.instrument.config.validate.Validated;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -33,4 +34,20 @@ class OtlpConfigTest {
         assertThat(config.resourceAttributes()).containsEntry("k", "v").containsEntry("a", "b").hasSize(2);
     }
 
+    @Test
+    void invalidExponentialHistogramSettings() {
+        OtlpConfig config = k -> {
+            switch (k) {
+                case "otlp.maxScale":
+                    return "21";
+                case "otlp.maxBucketCount":
+                    return "1";
+                default:
+                    return null;
+            }
+        };
+        assertThat(config.validate().failures().stream().map(Validated.Invalid::getMessage))
+                .containsExactlyInAnyOrder("must be between -10 and 20", "must be at least 2");
+    }
+
 }
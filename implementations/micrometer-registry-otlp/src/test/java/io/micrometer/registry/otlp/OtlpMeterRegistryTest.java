@@ -494,6 +494,77 @@ class OtlpMeterRegistryTest {
                 + "  }\n" + "  aggregation_temporality: AGGREGATION_TEMPORALITY_CUMULATIVE\n" + "}\n");
     }
 
+    @Test
+    void deltaCounter() {
+        OtlpMeterRegistry deltaRegistry = new OtlpMeterRegistry(deltaConfig(), clock);
+        Counter counter = deltaRegistry.counter("log.event");
+        counter.increment();
+        counter.increment();
+        clock.add(OtlpConfig.DEFAULT.step());
+        counter.increment();
+
+        assertThat(deltaRegistry.writeCounter(counter).toString())
+                .isEqualTo("name: \"log.event\"\n" + "sum {\n" + "  data_points {\n"
+                        + "    time_unix_nano: 60000000000\n" + "    as_double: 2.0\n" + "  }\n"
+                        + "  aggregation_temporality: AGGREGATION_TEMPORALITY_DELTA\n" + "  is_monotonic: true\n"
+                        + "}\n");
+    }
+
+    @Test
+    void deltaTimer() {
+        OtlpMeterRegistry deltaRegistry = new OtlpMeterRegistry(deltaConfig(), clock);
+        Timer timer = Timer.builder("web.requests").register(deltaRegistry);
+        timer.record(10, TimeUnit.MILLISECONDS);
+        timer.record(77, TimeUnit.MILLISECONDS);
+        clock.add(OtlpConfig.DEFAULT.step());
+        timer.record(4, TimeUnit.MILLISECONDS);
+
+        assertThat(deltaRegistry.writeHistogramSupport(timer).toString())
+                .isEqualTo("name: \"web.requests\"\n" + "unit: \"milliseconds\"\n" + "histogram {\n"
+                        + "  data_points {\n" + "    time_unix_nano: 60000000000\n" + "    count: 2\n"
+                        + "    sum: 87.0\n" + "  }\n"
+                        + "  aggregation_temporality: AGGREGATION_TEMPORALITY_DELTA\n" + "}\n");
+    }
+
+    @Test
+    void timerWithExponentialHistogram() {
+        OtlpMeterRegistry exponentialRegistry = new OtlpMeterRegistry(new OtlpConfig() {
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public HistogramFlavor histogramFlavor() {
+                return HistogramFlavor.BASE2_EXPONENTIAL_BUCKET_HISTOGRAM;
+            }
+        }, clock);
+        Timer timer = Timer.builder("http.client.requests").publishPercentileHistogram().register(exponentialRegistry);
+        timer.record(1, TimeUnit.MILLISECONDS);
+        timer.record(1, TimeUnit.MILLISECONDS);
+
+        assertThat(exponentialRegistry.writeHistogramSupport(timer).toString()).isEqualTo(
+                "name: \"http.client.requests\"\n" + "unit: \"milliseconds\"\n" + "exponential_histogram {\n"
+                        + "  data_points {\n" + "    start_time_unix_nano: 1000000\n" + "    time_unix_nano: 1000000\n"
+                        + "    count: 2\n" + "    sum: 2.0\n" + "    scale: 20\n" + "    positive {\n"
+                        + "      offset: -1\n" + "      bucket_counts: 2\n" + "    }\n" + "  }\n"
+                        + "  aggregation_temporality: AGGREGATION_TEMPORALITY_CUMULATIVE\n" + "}\n");
+    }
+
+    private OtlpConfig deltaConfig() {
+        return new OtlpConfig() {
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public AggregationTemporality aggregationTemporality() {
+                return AggregationTemporality.DELTA;
+            }
+        };
+    }
+
     // If the service.name was not specified, SDKs MUST fallback to 'unknown_service'
     @Test
     void unknownServiceByDefault() {
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.registry.otlp;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.opentelemetry.proto.collector.metrics.v1.ExportMetricsServiceRequest;
+import io.opentelemetry.proto.metrics.v1.*;
+import io.opentelemetry.proto.resource.v1.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static io.opentelemetry.proto.metrics.v1.AggregationTemporality.AGGREGATION_TEMPORALITY_CUMULATIVE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OtlpMetricsEncoderTest {
+
+    Resource resource = Resource.newBuilder()
+            .addAttributes(OtlpMeterRegistry.createKeyValue("service.name", "checkout")).build();
+
+    OtlpMetricsEncoder encoder = new OtlpMetricsEncoder(resource.toByteArray(), Meter.Id::getName);
+
+    @Test
+    void encodesTheSameRequestAsTheGeneratedMessages() throws IOException {
+        Meter.Id gaugeId = new Meter.Id("queue.size", Tags.of("queue", "orders"), null, "pending orders",
+                Meter.Type.GAUGE);
+        Meter.Id histogramId = new Meter.Id("http.requests", Tags.of("uri", "/cart", "method", ""), "milliseconds",
+                null, Meter.Type.TIMER);
+        encoder.gauge(gaugeId, 60_000_000_000L, 12);
+        encoder.histogram(histogramId, 1_000_000L, 60_000_000_000L, 3, 0,
+                new CountAtBucket[] { new CountAtBucket(1e6, 1), new CountAtBucket(2e6, 3) }, TimeUnit.MILLISECONDS,
+                AggregationTemporality.CUMULATIVE);
+
+        ExportMetricsServiceRequest expected = ExportMetricsServiceRequest.newBuilder()
+                .addResourceMetrics(ResourceMetrics.newBuilder().setResource(resource).addScopeMetrics(ScopeMetrics
+                        .newBuilder()
+                        .addMetrics(Metric.newBuilder().setName("queue.size").setDescription("pending orders")
+                                .setGauge(Gauge.newBuilder()
+                                        .addDataPoints(NumberDataPoint.newBuilder().setTimeUnixNano(60_000_000_000L)
+                                                .setAsDouble(12)
+                                                .addAttributes(OtlpMeterRegistry.createKeyValue("queue", "orders")))))
+                        .addMetrics(Metric.newBuilder().setName("http.requests").setUnit("milliseconds")
+                                .setHistogram(Histogram.newBuilder()
+                                        .setAggregationTemporality(AGGREGATION_TEMPORALITY_CUMULATIVE)
+                                        .addDataPoints(HistogramDataPoint.newBuilder().setStartTimeUnixNano(1_000_000L)
+                                                .setTimeUnixNano(60_000_000_000L).setCount(3).setSum(0)
+                                                .addBucketCounts(1).addBucketCounts(3).addExplicitBounds(1)
+                                                .addExplicitBounds(2)
+                                                .addAttributes(OtlpMeterRegistry.createKeyValue("method", ""))
+                                                .addAttributes(OtlpMeterRegistry.createKeyValue("uri", "/cart")))))))
+                .build();
+
+        assertThat(encoder.metricCount()).isEqualTo(2);
+        byte[] request = encoder.toExportRequest();
+        assertThat(ExportMetricsServiceRequest.parseFrom(request)).isEqualTo(expected);
+        assertThat(request).isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    void resetDiscardsEncodedMetrics() throws IOException {
+        Meter.Id id = new Meter.Id("cache.size", Tags.empty(), null, null, Meter.Type.GAUGE);
+        encoder.gauge(id, 1, 1);
+        encoder.reset();
+        encoder.gauge(id, 2, 2);
+
+        assertThat(encoder.metricCount()).isEqualTo(1);
+        assertThat(ScopeMetrics.parseFrom(encoder.toScopeMetrics()).getMetrics(0).getGauge().getDataPoints(0)
+                .getAsDouble()).isEqualTo(2);
+    }
+
+    @Test
+    void newEncoderEncodesIntoBuffersOfItsOwn() throws IOException {
+        Meter.Id id = new Meter.Id("cache.size", Tags.empty(), null, null, Meter.Type.GAUGE);
+        OtlpMetricsEncoder other = encoder.newEncoder();
+        encoder.gauge(id, 1, 1);
+        other.gauge(id, 2, 2);
+
+        assertThat(encoder.metricCount()).isEqualTo(1);
+        assertThat(other.metricCount()).isEqualTo(1);
+        assertThat(ScopeMetrics.parseFrom(encoder.toScopeMetrics()).getMetrics(0).getGauge().getDataPoints(0)
+                .getAsDouble()).isEqualTo(1);
+        assertThat(ExportMetricsServiceRequest.parseFrom(other.toExportRequest()).getResourceMetrics(0).getResource())
+                .isEqualTo(resource);
+    }
+
+}
@@ -15,10 +15,12 @@
  */
 package io.micrometer.prometheus;
 
+import io.micrometer.common.lang.Nullable;
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.config.NamingConvention;
 import io.prometheus.client.Collector;
+import io.prometheus.client.exemplars.Exemplar;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -55,6 +57,10 @@ class MicrometerCollector extends Collector implements Collector.Describable {
         children.put(tagValues, child);
     }
 
+    public void addSeries(List<String> tagValues, SeriesSamples samples) {
+        children.put(tagValues, new Series(tagValues, samples));
+    }
+
     public void remove(List<String> tagValues) {
         children.remove(tagValues);
     }
@@ -83,6 +89,19 @@ class MicrometerCollector extends Collector implements Collector.Describable {
                 .collect(toList());
     }
 
+    /**
+     * Write the samples of every child straight to the given writer, without collecting
+     * them into {@link MetricFamilySamples} first.
+     * @param writer The writer of the scrape in progress.
+     */
+    void write(ScrapeWriter writer) {
+        writer.startCollector(help);
+        for (Child child : children.values()) {
+            child.write(conventionName, tagKeys, writer);
+        }
+        writer.endCollector();
+    }
+
     @Override
     public List<MetricFamilySamples> describe() {
         switch (id.getType()) {
@@ -111,6 +130,114 @@ class MicrometerCollector extends Collector implements Collector.Describable {
 
         Stream<Family> samples(String conventionName, List<String> tagKeys);
 
+        default void write(String conventionName, List<String> tagKeys, ScrapeWriter writer) {
+            samples(conventionName, tagKeys).forEach(family -> {
+                writer.family(family.type, family.conventionName);
+                family.samples.forEach(writer::sample);
+            });
+        }
+
+    }
+
+    /**
+     * Receives the samples of a single series, family by family. Samples carry the tags of
+     * the series they belong to, plus at most one additional label.
+     */
+    interface SampleWriter {
+
+        /**
+         * Start a family. The samples that follow belong to it.
+         * @param type The type of the family.
+         * @param conventionName The name of the family.
+         */
+        void family(Type type, String conventionName);
+
+        void sample(String name, @Nullable String labelName, @Nullable String labelValue, double value,
+                @Nullable Exemplar exemplar);
+
+        default void sample(String name, double value) {
+            sample(name, null, null, value, null);
+        }
+
+        default void sample(String name, double value, @Nullable Exemplar exemplar) {
+            sample(name, null, null, value, exemplar);
+        }
+
+        default void sample(String name, String labelName, String labelValue, double value) {
+            sample(name, labelName, labelValue, value, null);
+        }
+
+    }
+
+    /**
+     * Reports the samples of a single series to a {@link SampleWriter}.
+     */
+    interface SeriesSamples {
+
+        void write(String conventionName, SampleWriter writer);
+
+    }
+
+    /**
+     * A child whose samples are written one by one instead of being collected into
+     * families first. The escaped form of its tags is kept for the next scrape.
+     */
+    static class Series implements Child {
+
+        private final List<String> tagValues;
+
+        private final SeriesSamples samples;
+
+        @Nullable
+        private volatile byte[] labels;
+
+        Series(List<String> tagValues, SeriesSamples samples) {
+            this.tagValues = tagValues;
+            this.samples = samples;
+        }
+
+        @Override
+        public Stream<Family> samples(String conventionName, List<String> tagKeys) {
+            Map<String, Family> families = new LinkedHashMap<>();
+            samples.write(conventionName, new SampleWriter() {
+                @Nullable
+                private Family family;
+
+                @Override
+                public void family(Type type, String familyName) {
+                    family = families.computeIfAbsent(familyName, name -> new Family(type, name));
+                }
+
+                @Override
+                public void sample(String name, @Nullable String labelName, @Nullable String labelValue, double value,
+                        @Nullable Exemplar exemplar) {
+                    List<String> labelNames = tagKeys;
+                    List<String> labelValues = tagValues;
+                    if (labelName != null) {
+                        labelNames = new ArrayList<>(tagKeys);
+                        labelNames.add(labelName);
+                        labelValues = new ArrayList<>(tagValues);
+                        labelValues.add(labelValue);
+                    }
+                    family.samples.add(exemplar == null
+                            ? new MetricFamilySamples.Sample(name, labelNames, labelValues, value)
+                            : new MetricFamilySamples.Sample(name, labelNames, labelValues, value, exemplar));
+                }
+            });
+            return families.values().stream();
+        }
+
+        @Override
+        public void write(String conventionName, List<String> tagKeys, ScrapeWriter writer) {
+            byte[] labels = this.labels;
+            if (labels == null) {
+                labels = ScrapeWriter.labels(tagKeys, tagValues);
+                this.labels = labels;
+            }
+            writer.startSeries(labels);
+            samples.write(conventionName, writer);
+        }
+
     }
 
     static class Family {
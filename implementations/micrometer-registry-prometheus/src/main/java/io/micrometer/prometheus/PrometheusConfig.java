@@ -67,10 +67,35 @@ public interface PrometheusConfig extends MeterRegistryConfig {
         return getEnum(this, HistogramFlavor.class, "histogramFlavor").orElse(HistogramFlavor.Prometheus);
     }
 
+    /**
+     * @return How long a rendered scrape body is served to subsequent scrapes of all
+     * meters, and to those that arrive while it is being rendered, before it is rendered
+     * again. Scrapers arriving at about the same time then share a single rendering. The
+     * default of zero disables caching. Only scrapes through the {@link String} and
+     * {@link java.io.Writer} based methods without included names, and through
+     * {@link PrometheusMeterRegistry#scrapeGzipped(java.io.OutputStream, String)}, are
+     * cached.
+     * @since 1.11.0
+     */
+    default Duration scrapeCacheTtl() {
+        return getDuration(this, "scrapeCacheTtl").orElse(Duration.ZERO);
+    }
+
+    /**
+     * @return {@code true} if cached scrape bodies should also be kept gzip compressed,
+     * so that scrapers accepting gzip content encoding are not compressing the same body
+     * again. Only applies when {@link #scrapeCacheTtl()} is positive.
+     * @since 1.11.0
+     */
+    default boolean scrapeCacheGzip() {
+        return getBoolean(this, "scrapeCacheGzip").orElse(false);
+    }
+
     @Override
     default Validated<?> validate() {
         return checkAll(this, checkRequired("step", PrometheusConfig::step),
-                checkRequired("histogramFlavor", PrometheusConfig::histogramFlavor));
+                checkRequired("histogramFlavor", PrometheusConfig::histogramFlavor),
+                checkRequired("scrapeCacheTtl", PrometheusConfig::scrapeCacheTtl));
     }
 
 }
@@ -31,9 +31,13 @@ import io.prometheus.client.exemplars.ExemplarSampler;
 import io.prometheus.client.exporter.common.TextFormat;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Set;
@@ -41,7 +45,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.*;
-import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
@@ -65,6 +69,9 @@ public class PrometheusMeterRegistry extends MeterRegistry {
     @Nullable
     private final ExemplarSampler exemplarSampler;
 
+    @Nullable
+    private final ScrapeCache scrapeCache;
+
     public PrometheusMeterRegistry(PrometheusConfig config) {
         this(config, new CollectorRegistry(), Clock.SYSTEM);
     }
@@ -91,8 +98,16 @@ public class PrometheusMeterRegistry extends MeterRegistry {
         this.registry = registry;
         this.exemplarSampler = exemplarSampler;
 
+        Duration scrapeCacheTtl = config.scrapeCacheTtl();
+        this.scrapeCache = scrapeCacheTtl.isNegative() || scrapeCacheTtl.isZero() ? null
+                : new ScrapeCache(clock, scrapeCacheTtl.toNanos(), config.scrapeCacheGzip());
+
         config().namingConvention(new PrometheusNamingConvention());
         config().onMeterRemoved(this::onMeterRemoved);
+
+        if (scrapeCache != null) {
+            scrapeCache.bindTo(this);
+        }
     }
 
     private static List<String> tagValues(Meter.Id id) {
@@ -115,6 +130,15 @@ public class PrometheusMeterRegistry extends MeterRegistry {
      * @since 1.7.0
      */
     public String scrape(String contentType) {
+        if (scrapeCache != null) {
+            try {
+                return cachedScrape(contentType).text();
+            }
+            catch (IOException e) {
+                // Rendering to memory does not throw any IOException
+                throw new UncheckedIOException(e);
+            }
+        }
         Writer writer = new StringWriter();
         try {
             scrape(writer, contentType);
@@ -146,7 +170,86 @@ public class PrometheusMeterRegistry extends MeterRegistry {
      * @since 1.7.0
      */
     public void scrape(Writer writer, String contentType) throws IOException {
-        scrape(writer, contentType, registry.metricFamilySamples());
+        if (scrapeCache != null) {
+            writer.write(cachedScrape(contentType).text());
+        }
+        else {
+            scrape(writer, contentType, registry.metricFamilySamples());
+        }
+    }
+
+    /**
+     * Write the metrics scrape body in a specific content type to the given output stream,
+     * gzip compressed, as for a scraper accepting gzip content encoding. The body is the
+     * same as the one written by {@link #scrape(Writer, String)}. It is served from the
+     * scrape cache when {@link PrometheusConfig#scrapeCacheTtl() enabled}, and already
+     * compressed if {@link PrometheusConfig#scrapeCacheGzip() configured} to be.
+     * @param outputStream where to write the compressed scrape body
+     * @param contentType the Content-Type of the scrape
+     * @throws IOException if writing fails
+     * @see TextFormat
+     * @since 1.11.0
+     */
+    public void scrapeGzipped(OutputStream outputStream, String contentType) throws IOException {
+        if (scrapeCache != null) {
+            cachedScrape(contentType).writeGzipped(outputStream);
+        }
+        else {
+            // Finish rather than close, the output stream belongs to the caller
+            GZIPOutputStream gzip = new GZIPOutputStream(outputStream);
+            Writer writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+            scrape(writer, contentType, registry.metricFamilySamples());
+            writer.flush();
+            gzip.finish();
+        }
+    }
+
+    private ScrapeCache.Body cachedScrape(String contentType) throws IOException {
+        return scrapeCache.get(contentType, writer -> scrape(writer, contentType, registry.metricFamilySamples()));
+    }
+
+    /**
+     * Write the metrics scrape body of the meters of this registry in a specific content
+     * type to the given output stream.
+     * @param outputStream where to write the scrape body
+     * @param contentType the Content-Type of the scrape
+     * @throws IOException if writing fails
+     * @see #scrape(OutputStream, String, Set)
+     * @since 1.11.0
+     */
+    public void scrape(OutputStream outputStream, String contentType) throws IOException {
+        scrape(outputStream, contentType, null);
+    }
+
+    /**
+     * Write the metrics scrape body in a specific content type to the given output stream,
+     * encoded as UTF-8. The body is written straight from the meters of this registry,
+     * without first collecting their samples as the {@link Writer} based methods do, and
+     * is flushed to the output stream as it grows.
+     * <p>
+     * Only the meters of this registry are written. Collectors registered with the
+     * {@link #getPrometheusRegistry() underlying CollectorRegistry} by other means are
+     * not.
+     * @param outputStream where to write the scrape body
+     * @param contentType the Content-Type of the scrape
+     * @param includedNames Sample names to be included. All samples will be included if
+     * {@code null}.
+     * @throws IOException if writing fails
+     * @see TextFormat
+     * @since 1.11.0
+     */
+    public void scrape(OutputStream outputStream, String contentType, @Nullable Set<String> includedNames)
+            throws IOException {
+        ScrapeWriter writer = new ScrapeWriter(outputStream, contentType, includedNames);
+        try {
+            for (MicrometerCollector collector : collectorMap.values()) {
+                collector.write(writer);
+            }
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
     }
 
     private void scrape(Writer writer, String contentType, Enumeration<Collector.MetricFamilySamples> samples)
@@ -186,22 +289,20 @@ public class PrometheusMeterRegistry extends MeterRegistry {
      * @since 1.7.0
      */
     public void scrape(Writer writer, String contentType, @Nullable Set<String> includedNames) throws IOException {
-        Enumeration<Collector.MetricFamilySamples> samples = includedNames != null
-                ? registry.filteredMetricFamilySamples(includedNames) : registry.metricFamilySamples();
-        scrape(writer, contentType, samples);
+        if (includedNames == null) {
+            scrape(writer, contentType);
+            return;
+        }
+        scrape(writer, contentType, registry.filteredMetricFamilySamples(includedNames));
     }
 
     @Override
     public Counter newCounter(Meter.Id id) {
         PrometheusCounter counter = new PrometheusCounter(id, exemplarSampler);
-        applyToCollector(id, (collector) -> {
-            List<String> tagValues = tagValues(id);
-            collector.add(tagValues,
-                    (conventionName,
-                            tagKeys) -> Stream.of(new MicrometerCollector.Family(Collector.Type.COUNTER, conventionName,
-                                    new Collector.MetricFamilySamples.Sample(conventionName, tagKeys, tagValues,
-                                            counter.count(), counter.exemplar()))));
-        });
+        applyToCollector(id, (collector) -> collector.addSeries(tagValues(id), (conventionName, samples) -> {
+            samples.family(Collector.Type.COUNTER, conventionName);
+            samples.sample(conventionName, counter.count(), counter.exemplar());
+        }));
         return counter;
     }
 
@@ -210,103 +311,57 @@ public class PrometheusMeterRegistry extends MeterRegistry {
             DistributionStatisticConfig distributionStatisticConfig, double scale) {
         PrometheusDistributionSummary summary = new PrometheusDistributionSummary(id, clock,
                 distributionStatisticConfig, scale, prometheusConfig.histogramFlavor(), exemplarSampler);
-        applyToCollector(id, (collector) -> {
-            List<String> tagValues = tagValues(id);
-            collector.add(tagValues, (conventionName, tagKeys) -> {
-                Stream.Builder<Collector.MetricFamilySamples.Sample> samples = Stream.builder();
-
-                final ValueAtPercentile[] percentileValues = summary.takeSnapshot().percentileValues();
-                final CountAtBucket[] histogramCounts = summary.histogramCounts();
-                double count = summary.count();
-
-                if (percentileValues.length > 0) {
-                    List<String> quantileKeys = new ArrayList<>(tagKeys);
-                    quantileKeys.add("quantile");
-
-                    // satisfies https://prometheus.io/docs/concepts/metric_types/#summary
-                    for (ValueAtPercentile v : percentileValues) {
-                        List<String> quantileValues = new ArrayList<>(tagValues);
-                        quantileValues.add(Collector.doubleToGoString(v.percentile()));
-                        samples.add(new Collector.MetricFamilySamples.Sample(conventionName, quantileKeys,
-                                quantileValues, v.value()));
-                    }
-                }
+        applyToCollector(id, (collector) -> collector.addSeries(tagValues(id), (conventionName, samples) -> {
+            final ValueAtPercentile[] percentileValues = summary.takeSnapshot().percentileValues();
+            final CountAtBucket[] histogramCounts = summary.histogramCounts();
+            double count = summary.count();
+
+            // Prometheus doesn't balk at a metric being BOTH a histogram and a summary
+            samples.family(histogramCounts.length > 0 ? Collector.Type.HISTOGRAM : Collector.Type.SUMMARY,
+                    conventionName);
+
+            // satisfies https://prometheus.io/docs/concepts/metric_types/#summary
+            for (ValueAtPercentile v : percentileValues) {
+                samples.sample(conventionName, "quantile", Collector.doubleToGoString(v.percentile()), v.value());
+            }
 
-                Collector.Type type = Collector.Type.SUMMARY;
-                if (histogramCounts.length > 0) {
-                    // Prometheus doesn't balk at a metric being BOTH a histogram and a
-                    // summary
-                    type = Collector.Type.HISTOGRAM;
-
-                    List<String> histogramKeys = new ArrayList<>(tagKeys);
-                    String sampleName = conventionName + "_bucket";
-                    switch (summary.histogramFlavor()) {
-                        case Prometheus:
-                            histogramKeys.add("le");
-
-                            Exemplar[] exemplars = summary.exemplars();
-
-                            // satisfies
-                            // https://prometheus.io/docs/concepts/metric_types/#histogram
-                            for (int i = 0; i < histogramCounts.length; i++) {
-                                CountAtBucket c = histogramCounts[i];
-                                final List<String> histogramValues = new ArrayList<>(tagValues);
-
-                                histogramValues.add(Collector.doubleToGoString(c.bucket()));
-
-                                if (exemplars == null) {
-                                    samples.add(new Collector.MetricFamilySamples.Sample(sampleName, histogramKeys,
-                                            histogramValues, c.count()));
-                                }
-                                else {
-                                    samples.add(new Collector.MetricFamilySamples.Sample(sampleName, histogramKeys,
-                                            histogramValues, c.count(), exemplars[i]));
-                                }
-                            }
-
-                            if (Double.isFinite(histogramCounts[histogramCounts.length - 1].bucket())) {
-                                // the +Inf bucket should always equal `count`
-                                final List<String> histogramValues = new ArrayList<>(tagValues);
-                                histogramValues.add("+Inf");
-                                if (exemplars == null) {
-                                    samples.add(new Collector.MetricFamilySamples.Sample(sampleName, histogramKeys,
-                                            histogramValues, count));
-                                }
-                                else {
-                                    samples.add(new Collector.MetricFamilySamples.Sample(sampleName, histogramKeys,
-                                            histogramValues, count, exemplars[exemplars.length - 1]));
-                                }
-                            }
-                            break;
-                        case VictoriaMetrics:
-                            histogramKeys.add("vmrange");
-
-                            for (CountAtBucket c : histogramCounts) {
-                                final List<String> histogramValuesVM = new ArrayList<>(tagValues);
-                                histogramValuesVM
-                                        .add(FixedBoundaryVictoriaMetricsHistogram.getRangeTagValue(c.bucket()));
-                                samples.add(new Collector.MetricFamilySamples.Sample(sampleName, histogramKeys,
-                                        histogramValuesVM, c.count()));
-                            }
-                            break;
-                        default:
-                            break;
-                    }
+            if (histogramCounts.length > 0) {
+                String sampleName = conventionName + "_bucket";
+                switch (summary.histogramFlavor()) {
+                    case Prometheus:
+                        Exemplar[] exemplars = summary.exemplars();
 
-                }
+                        // satisfies
+                        // https://prometheus.io/docs/concepts/metric_types/#histogram
+                        for (int i = 0; i < histogramCounts.length; i++) {
+                            CountAtBucket c = histogramCounts[i];
+                            samples.sample(sampleName, "le", Collector.doubleToGoString(c.bucket()), c.count(),
+                                    exemplars == null ? null : exemplars[i]);
+                        }
 
-                samples.add(
-                        new Collector.MetricFamilySamples.Sample(conventionName + "_count", tagKeys, tagValues, count));
+                        if (Double.isFinite(histogramCounts[histogramCounts.length - 1].bucket())) {
+                            // the +Inf bucket should always equal `count`
+                            samples.sample(sampleName, "le", "+Inf", count,
+                                    exemplars == null ? null : exemplars[exemplars.length - 1]);
+                        }
+                        break;
+                    case VictoriaMetrics:
+                        for (CountAtBucket c : histogramCounts) {
+                            samples.sample(sampleName, "vmrange",
+                                    FixedBoundaryVictoriaMetricsHistogram.getRangeTagValue(c.bucket()), c.count());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
 
-                samples.add(new Collector.MetricFamilySamples.Sample(conventionName + "_sum", tagKeys, tagValues,
-                        summary.totalAmount()));
+            samples.sample(conventionName + "_count", count);
+            samples.sample(conventionName + "_sum", summary.totalAmount());
 
-                return Stream.of(new MicrometerCollector.Family(type, conventionName, samples.build()),
-                        new MicrometerCollector.Family(Collector.Type.GAUGE, conventionName + "_max",
-                                new Collector.MetricFamilySamples.Sample(conventionName + "_max", tagKeys, tagValues,
-                                        summary.max())));
-            });
-        });
+            samples.family(Collector.Type.GAUGE, conventionName + "_max");
+            samples.sample(conventionName + "_max", summary.max());
+        }));
         return summary;
     }
 
@@ -324,12 +379,10 @@ public class PrometheusMeterRegistry extends MeterRegistry {
     protected <T> io.micrometer.core.instrument.Gauge newGauge(Meter.Id id, @Nullable T obj,
             ToDoubleFunction<T> valueFunction) {
         Gauge gauge = new DefaultGauge<>(id, obj, valueFunction);
-        applyToCollector(id, (collector) -> {
-            List<String> tagValues = tagValues(id);
-            collector.add(tagValues, (conventionName, tagKeys) -> Stream.of(new MicrometerCollector.Family(
-                    Collector.Type.GAUGE, conventionName,
-                    new Collector.MetricFamilySamples.Sample(conventionName, tagKeys, tagValues, gauge.value()))));
-        });
+        applyToCollector(id, (collector) -> collector.addSeries(tagValues(id), (conventionName, samples) -> {
+            samples.family(Collector.Type.GAUGE, conventionName);
+            samples.sample(conventionName, gauge.value());
+        }));
         return gauge;
     }
 
@@ -347,29 +400,21 @@ public class PrometheusMeterRegistry extends MeterRegistry {
             ToDoubleFunction<T> totalTimeFunction, TimeUnit totalTimeFunctionUnit) {
         FunctionTimer ft = new CumulativeFunctionTimer<>(id, obj, countFunction, totalTimeFunction,
                 totalTimeFunctionUnit, getBaseTimeUnit());
-        applyToCollector(id, (collector) -> {
-            List<String> tagValues = tagValues(id);
-            collector.add(tagValues,
-                    (conventionName,
-                            tagKeys) -> Stream.of(new MicrometerCollector.Family(Collector.Type.SUMMARY, conventionName,
-                                    new Collector.MetricFamilySamples.Sample(conventionName + "_count", tagKeys,
-                                            tagValues, ft.count()),
-                                    new Collector.MetricFamilySamples.Sample(conventionName + "_sum", tagKeys,
-                                            tagValues, ft.totalTime(TimeUnit.SECONDS)))));
-        });
+        applyToCollector(id, (collector) -> collector.addSeries(tagValues(id), (conventionName, samples) -> {
+            samples.family(Collector.Type.SUMMARY, conventionName);
+            samples.sample(conventionName + "_count", ft.count());
+            samples.sample(conventionName + "_sum", ft.totalTime(TimeUnit.SECONDS));
+        }));
         return ft;
     }
 
     @Override
     protected <T> FunctionCounter newFunctionCounter(Meter.Id id, T obj, ToDoubleFunction<T> countFunction) {
         FunctionCounter fc = new CumulativeFunctionCounter<>(id, obj, countFunction);
-        applyToCollector(id, (collector) -> {
-            List<String> tagValues = tagValues(id);
-            collector.add(tagValues,
-                    (conventionName, tagKeys) -> Stream.of(new MicrometerCollector.Family(Collector.Type.COUNTER,
-                            conventionName,
-                            new Collector.MetricFamilySamples.Sample(conventionName, tagKeys, tagValues, fc.count()))));
-        });
+        applyToCollector(id, (collector) -> collector.addSeries(tagValues(id), (conventionName, samples) -> {
+            samples.family(Collector.Type.COUNTER, conventionName);
+            samples.sample(conventionName, fc.count());
+        }));
         return fc;
     }
 
@@ -391,38 +436,29 @@ public class PrometheusMeterRegistry extends MeterRegistry {
 
         final Collector.Type finalPromType = promType;
 
-        applyToCollector(id, (collector) -> {
-            List<String> tagValues = tagValues(id);
-            collector.add(tagValues, (conventionName, tagKeys) -> {
-                List<String> statKeys = new ArrayList<>(tagKeys);
-                statKeys.add("statistic");
-
-                return Stream.of(new MicrometerCollector.Family(finalPromType, conventionName,
-                        stream(measurements.spliterator(), false).map(m -> {
-                            List<String> statValues = new ArrayList<>(tagValues);
-                            statValues.add(m.getStatistic().toString());
-
-                            String name = conventionName;
-                            switch (m.getStatistic()) {
-                                case TOTAL:
-                                case TOTAL_TIME:
-                                    name += "_sum";
-                                    break;
-                                case MAX:
-                                    name += "_max";
-                                    break;
-                                case ACTIVE_TASKS:
-                                    name += "_active_count";
-                                    break;
-                                case DURATION:
-                                    name += "_duration_sum";
-                                    break;
-                            }
-
-                            return new Collector.MetricFamilySamples.Sample(name, statKeys, statValues, m.getValue());
-                        })));
-            });
-        });
+        applyToCollector(id, (collector) -> collector.addSeries(tagValues(id), (conventionName, samples) -> {
+            samples.family(finalPromType, conventionName);
+            for (Measurement m : measurements) {
+                String name = conventionName;
+                switch (m.getStatistic()) {
+                    case TOTAL:
+                    case TOTAL_TIME:
+                        name += "_sum";
+                        break;
+                    case MAX:
+                        name += "_max";
+                        break;
+                    case ACTIVE_TASKS:
+                        name += "_active_count";
+                        break;
+                    case DURATION:
+                        name += "_duration_sum";
+                        break;
+                }
+
+                samples.sample(name, "statistic", m.getStatistic().toString(), m.getValue());
+            }
+        }));
 
         return new DefaultMeter(id, type, measurements);
     }
@@ -442,98 +478,57 @@ public class PrometheusMeterRegistry extends MeterRegistry {
     private void addDistributionStatisticSamples(DistributionStatisticConfig distributionStatisticConfig,
             MicrometerCollector collector, HistogramSupport histogramSupport, Supplier<Exemplar[]> exemplarsSupplier,
             List<String> tagValues, boolean forLongTaskTimer) {
-        collector.add(tagValues, (conventionName, tagKeys) -> {
-            Stream.Builder<Collector.MetricFamilySamples.Sample> samples = Stream.builder();
-
+        collector.addSeries(tagValues, (conventionName, samples) -> {
             HistogramSnapshot histogramSnapshot = histogramSupport.takeSnapshot();
             ValueAtPercentile[] percentileValues = histogramSnapshot.percentileValues();
             CountAtBucket[] histogramCounts = histogramSnapshot.histogramCounts();
             double count = histogramSnapshot.count();
 
-            if (percentileValues.length > 0) {
-                List<String> quantileKeys = new ArrayList<>(tagKeys);
-                quantileKeys.add("quantile");
+            // Prometheus doesn't balk at a metric being BOTH a histogram and a summary
+            samples.family(distributionStatisticConfig.isPublishingHistogram() || histogramCounts.length > 0
+                    ? Collector.Type.HISTOGRAM : Collector.Type.SUMMARY, conventionName);
 
-                // satisfies https://prometheus.io/docs/concepts/metric_types/#summary
-                for (ValueAtPercentile v : percentileValues) {
-                    List<String> quantileValues = new ArrayList<>(tagValues);
-                    quantileValues.add(Collector.doubleToGoString(v.percentile()));
-                    samples.add(new Collector.MetricFamilySamples.Sample(conventionName, quantileKeys, quantileValues,
-                            v.value(TimeUnit.SECONDS)));
-                }
+            // satisfies https://prometheus.io/docs/concepts/metric_types/#summary
+            for (ValueAtPercentile v : percentileValues) {
+                samples.sample(conventionName, "quantile", Collector.doubleToGoString(v.percentile()),
+                        v.value(TimeUnit.SECONDS));
             }
 
-            Collector.Type type = distributionStatisticConfig.isPublishingHistogram() ? Collector.Type.HISTOGRAM
-                    : Collector.Type.SUMMARY;
             if (histogramCounts.length > 0) {
-                // Prometheus doesn't balk at a metric being BOTH a histogram and a
-                // summary
-                type = Collector.Type.HISTOGRAM;
-
-                List<String> histogramKeys = new ArrayList<>(tagKeys);
-
                 String sampleName = conventionName + "_bucket";
                 switch (prometheusConfig.histogramFlavor()) {
                     case Prometheus:
-                        histogramKeys.add("le");
-
                         Exemplar[] exemplars = exemplarsSupplier.get();
 
                         // satisfies
                         // https://prometheus.io/docs/concepts/metric_types/#histogram
                         for (int i = 0; i < histogramCounts.length; i++) {
                             CountAtBucket c = histogramCounts[i];
-                            final List<String> histogramValues = new ArrayList<>(tagValues);
-                            histogramValues.add(Collector.doubleToGoString(c.bucket(TimeUnit.SECONDS)));
-                            if (exemplars == null) {
-                                samples.add(new Collector.MetricFamilySamples.Sample(sampleName, histogramKeys,
-                                        histogramValues, c.count()));
-                            }
-                            else {
-                                samples.add(new Collector.MetricFamilySamples.Sample(sampleName, histogramKeys,
-                                        histogramValues, c.count(), exemplars[i]));
-                            }
+                            samples.sample(sampleName, "le", Collector.doubleToGoString(c.bucket(TimeUnit.SECONDS)),
+                                    c.count(), exemplars == null ? null : exemplars[i]);
                         }
 
                         // the +Inf bucket should always equal `count`
-                        final List<String> histogramValues = new ArrayList<>(tagValues);
-                        histogramValues.add("+Inf");
-                        if (exemplars == null) {
-                            samples.add(new Collector.MetricFamilySamples.Sample(sampleName, histogramKeys,
-                                    histogramValues, count));
-                        }
-                        else {
-                            samples.add(new Collector.MetricFamilySamples.Sample(sampleName, histogramKeys,
-                                    histogramValues, count, exemplars[exemplars.length - 1]));
-                        }
+                        samples.sample(sampleName, "le", "+Inf", count,
+                                exemplars == null ? null : exemplars[exemplars.length - 1]);
                         break;
                     case VictoriaMetrics:
-                        histogramKeys.add("vmrange");
-
                         for (CountAtBucket c : histogramCounts) {
-                            final List<String> histogramValuesVM = new ArrayList<>(tagValues);
-                            histogramValuesVM.add(FixedBoundaryVictoriaMetricsHistogram.getRangeTagValue(c.bucket()));
-                            samples.add(new Collector.MetricFamilySamples.Sample(sampleName, histogramKeys,
-                                    histogramValuesVM, c.count()));
+                            samples.sample(sampleName, "vmrange",
+                                    FixedBoundaryVictoriaMetricsHistogram.getRangeTagValue(c.bucket()), c.count());
                         }
                         break;
                     default:
                         break;
                 }
-
             }
 
-            samples.add(new Collector.MetricFamilySamples.Sample(
-                    conventionName + (forLongTaskTimer ? "_active_count" : "_count"), tagKeys, tagValues, count));
-
-            samples.add(new Collector.MetricFamilySamples.Sample(
-                    conventionName + (forLongTaskTimer ? "_duration_sum" : "_sum"), tagKeys, tagValues,
-                    histogramSnapshot.total(TimeUnit.SECONDS)));
+            samples.sample(conventionName + (forLongTaskTimer ? "_active_count" : "_count"), count);
+            samples.sample(conventionName + (forLongTaskTimer ? "_duration_sum" : "_sum"),
+                    histogramSnapshot.total(TimeUnit.SECONDS));
 
-            return Stream.of(new MicrometerCollector.Family(type, conventionName, samples.build()),
-                    new MicrometerCollector.Family(Collector.Type.GAUGE, conventionName + "_max",
-                            Stream.of(new Collector.MetricFamilySamples.Sample(conventionName + "_max", tagKeys,
-                                    tagValues, histogramSnapshot.max(getBaseTimeUnit())))));
+            samples.family(Collector.Type.GAUGE, conventionName + "_max");
+            samples.sample(conventionName + "_max", histogramSnapshot.max(getBaseTimeUnit()));
         });
     }
 
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.prometheus;
+
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Scrape bodies of all meters, one per content type, kept for a freshness window. A scrape
+ * arriving while the body is being rendered waits for that rendering instead of starting
+ * its own, so concurrent scrapers cost a single rendering.
+ */
+final class ScrapeCache {
+
+    private final Clock clock;
+
+    private final long ttlNanos;
+
+    private final boolean gzip;
+
+    private final ConcurrentMap<String, CompletableFuture<Body>> bodies = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    ScrapeCache(Clock clock, long ttlNanos, boolean gzip) {
+        this.clock = clock;
+        this.ttlNanos = ttlNanos;
+        this.gzip = gzip;
+    }
+
+    /**
+     * @param contentType The content type of the body.
+     * @param renderer Renders the body when there is no fresh one.
+     * @return The current body of the given content type, rendered by this or a
+     * concurrent call if there was none.
+     * @throws IOException if rendering fails
+     */
+    Body get(String contentType, Renderer renderer) throws IOException {
+        while (true) {
+            CompletableFuture<Body> current = bodies.get(contentType);
+            if (current != null) {
+                Body body = current.getNow(null);
+                if (body == null) {
+                    hits.increment();
+                    return await(current);
+                }
+                if (clock.monotonicTime() - body.renderedAt < ttlNanos) {
+                    hits.increment();
+                    return body;
+                }
+            }
+
+            CompletableFuture<Body> next = new CompletableFuture<>();
+            boolean rendering = current == null ? bodies.putIfAbsent(contentType, next) == null
+                    : bodies.replace(contentType, current, next);
+            if (rendering) {
+                misses.increment();
+                try {
+                    Body body = render(renderer);
+                    next.complete(body);
+                    return body;
+                }
+                catch (IOException | RuntimeException | Error e) {
+                    bodies.remove(contentType, next);
+                    next.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Body render(Renderer renderer) throws IOException {
+        long renderedAt = clock.monotonicTime();
+        StringWriter writer = new StringWriter(8192);
+        renderer.render(writer);
+        String text = writer.toString();
+        return new Body(text, gzip ? Body.gzip(text) : null, renderedAt);
+    }
+
+    private static Body await(CompletableFuture<Body> rendering) throws IOException {
+        try {
+            return rendering.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the scrape being rendered");
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    void bindTo(MeterRegistry registry) {
+        String description = "Scrapes of all meters by whether a cached or concurrently rendered body was served";
+        FunctionCounter.builder("micrometer.prometheus.scrape.cache", this, c -> c.hits.sum()).tag("result", "hit")
+                .description(description).register(registry);
+        FunctionCounter.builder("micrometer.prometheus.scrape.cache", this, c -> c.misses.sum())
+                .tag("result", "miss").description(description).register(registry);
+    }
+
+    @FunctionalInterface
+    interface Renderer {
+
+        void render(Writer writer) throws IOException;
+
+    }
+
+    static final class Body {
+
+        // kept decoded, so serving a cached text scrape does not copy it
+        private final String text;
+
+        @Nullable
+        private final byte[] gzipped;
+
+        private final long renderedAt;
+
+        private Body(String text, @Nullable byte[] gzipped, long renderedAt) {
+            this.text = text;
+            this.gzipped = gzipped;
+            this.renderedAt = renderedAt;
+        }
+
+        String text() {
+            return text;
+        }
+
+        void writeGzipped(OutputStream outputStream) throws IOException {
+            outputStream.write(gzipped != null ? gzipped : gzip(text));
+        }
+
+        static byte[] gzip(String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(bytes.length / 4, 512));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            return compressed.toByteArray();
+        }
+
+    }
+
+}
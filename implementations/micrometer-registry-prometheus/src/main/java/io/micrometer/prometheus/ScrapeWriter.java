@@ -0,0 +1,548 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.prometheus;
+
+import io.micrometer.common.lang.Nullable;
+import io.prometheus.client.Collector;
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.exemplars.Exemplar;
+import io.prometheus.client.exporter.common.TextFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes the samples of {@link MicrometerCollector MicrometerCollectors} as they are
+ * produced, in the same text format {@link TextFormat} would render them in, to UTF-8
+ * encoded bytes. Nothing is kept per sample: the output is flushed to the underlying
+ * stream as it fills a buffer, except for families other than the first one of a
+ * collector, which are held back until the collector is done because the samples of a
+ * family have to be contiguous.
+ * <p>
+ * Writing to the underlying stream happens while samples are written, where checked
+ * exceptions cannot be thrown; an {@link IOException} is therefore rethrown as an
+ * {@link UncheckedIOException}.
+ */
+final class ScrapeWriter implements MicrometerCollector.SampleWriter {
+
+    private static final int FLUSH_THRESHOLD = 8192;
+
+    private static final byte[] NO_LABELS = new byte[0];
+
+    private static final int ESCAPE_NONE = 0;
+
+    private static final int ESCAPE_HELP = 1;
+
+    private static final int ESCAPE_LABEL_VALUE = 2;
+
+    private final OutputStream outputStream;
+
+    private final boolean openMetrics;
+
+    @Nullable
+    private final Set<String> includedNames;
+
+    private final Buffer buffer = new Buffer(FLUSH_THRESHOLD * 2);
+
+    private final List<FamilyState> families = new ArrayList<>();
+
+    private final Deque<Buffer> spareBuffers = new ArrayDeque<>();
+
+    private String help = " ";
+
+    @Nullable
+    private FamilyState family;
+
+    private byte[] labels = NO_LABELS;
+
+    /**
+     * @param outputStream Where to write the scrape body to.
+     * @param contentType Either {@link TextFormat#CONTENT_TYPE_004} or
+     * {@link TextFormat#CONTENT_TYPE_OPENMETRICS_100}.
+     * @param includedNames Sample names to be included. All samples will be included if
+     * {@code null}.
+     */
+    ScrapeWriter(OutputStream outputStream, String contentType, @Nullable Set<String> includedNames) {
+        if (TextFormat.CONTENT_TYPE_004.equals(contentType)) {
+            this.openMetrics = false;
+        }
+        else if (TextFormat.CONTENT_TYPE_OPENMETRICS_100.equals(contentType)) {
+            this.openMetrics = true;
+        }
+        else {
+            throw new IllegalArgumentException("Unknown contentType " + contentType);
+        }
+        this.outputStream = outputStream;
+        this.includedNames = includedNames;
+    }
+
+    /**
+     * @param tagKeys Label names of a series.
+     * @param tagValues Label values of a series.
+     * @return The escaped, comma separated labels of a series, as they appear between the
+     * braces of each of its samples.
+     */
+    static byte[] labels(List<String> tagKeys, List<String> tagValues) {
+        if (tagKeys.isEmpty()) {
+            return NO_LABELS;
+        }
+        Buffer labels = new Buffer(64);
+        for (int i = 0; i < tagKeys.size(); i++) {
+            if (i > 0) {
+                labels.write(',');
+            }
+            labels.writeLabel(tagKeys.get(i), tagValues.get(i));
+        }
+        return labels.toByteArray();
+    }
+
+    void startCollector(String help) {
+        this.help = help;
+    }
+
+    /**
+     * The samples that follow, up to the next call, belong to the series with the given
+     * labels.
+     * @param labels The labels of the series, as returned by {@link #labels}.
+     */
+    void startSeries(byte[] labels) {
+        this.labels = labels;
+    }
+
+    void endCollector() {
+        for (int i = 1; i < families.size(); i++) {
+            Buffer familyBuffer = families.get(i).buffer;
+            familyBuffer.writeTo(buffer);
+            familyBuffer.reset();
+            spareBuffers.push(familyBuffer);
+        }
+        families.clear();
+        family = null;
+        labels = NO_LABELS;
+        flushIfFull();
+    }
+
+    /**
+     * Terminate the scrape body and flush what is left of it to the underlying stream.
+     * @throws IOException if writing fails
+     */
+    void finish() throws IOException {
+        if (openMetrics) {
+            buffer.writeAscii("# EOF\n");
+        }
+        buffer.writeTo(outputStream);
+        buffer.reset();
+    }
+
+    @Override
+    public void family(Collector.Type type, String conventionName) {
+        for (FamilyState existing : families) {
+            if (existing.name.equals(conventionName)) {
+                family = existing;
+                return;
+            }
+        }
+
+        Buffer familyBuffer = buffer;
+        if (!families.isEmpty()) {
+            familyBuffer = spareBuffers.isEmpty() ? new Buffer(1024) : spareBuffers.pop();
+        }
+        family = new FamilyState(type, conventionName, familyBuffer);
+        families.add(family);
+        if (includedNames == null) {
+            writeHeader(family);
+        }
+    }
+
+    @Override
+    public void sample(String name, @Nullable String labelName, @Nullable String labelValue, double value,
+            @Nullable Exemplar exemplar) {
+        FamilyState family = startSample(name);
+        if (family == null) {
+            return;
+        }
+
+        Buffer out = family.buffer;
+        out.writeUtf8(name, ESCAPE_NONE);
+        if (labels.length > 0 || labelName != null) {
+            out.write('{');
+            out.write(labels);
+            if (labelName != null) {
+                if (labels.length > 0) {
+                    out.write(',');
+                }
+                out.writeLabel(labelName, labelValue);
+            }
+            if (!openMetrics) {
+                out.write(',');
+            }
+            out.write('}');
+        }
+        out.write(' ');
+        out.writeDouble(value);
+        endSample(out, null, exemplar);
+    }
+
+    /**
+     * Write a sample that has been materialized by a child that does not report its
+     * samples one by one.
+     * @param sample The sample, labels included.
+     */
+    void sample(MetricFamilySamples.Sample sample) {
+        FamilyState family = startSample(sample.name);
+        if (family == null) {
+            return;
+        }
+
+        Buffer out = family.buffer;
+        out.writeUtf8(sample.name, ESCAPE_NONE);
+        if (!sample.labelNames.isEmpty()) {
+            out.write('{');
+            for (int i = 0; i < sample.labelNames.size(); i++) {
+                if (i > 0 && openMetrics) {
+                    out.write(',');
+                }
+                out.writeLabel(sample.labelNames.get(i), sample.labelValues.get(i));
+                if (!openMetrics) {
+                    out.write(',');
+                }
+            }
+            out.write('}');
+        }
+        out.write(' ');
+        out.writeDouble(sample.value);
+        endSample(out, sample.timestampMs, sample.exemplar);
+    }
+
+    @Nullable
+    private FamilyState startSample(String name) {
+        FamilyState family = this.family;
+        if (family == null || (includedNames != null && !includedNames.contains(name))) {
+            return null;
+        }
+        if (!family.headerWritten) {
+            writeHeader(family);
+        }
+        return family;
+    }
+
+    private void endSample(Buffer out, @Nullable Long timestampMs, @Nullable Exemplar exemplar) {
+        if (timestampMs != null) {
+            out.write(' ');
+            if (openMetrics) {
+                out.writeOpenMetricsTimestamp(timestampMs);
+            }
+            else {
+                out.writeLong(timestampMs);
+            }
+        }
+        if (openMetrics && exemplar != null) {
+            out.writeAscii(" # {");
+            for (int i = 0; i < exemplar.getNumberOfLabels(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.writeLabel(exemplar.getLabelName(i), exemplar.getLabelValue(i));
+            }
+            out.writeAscii("} ");
+            out.writeDouble(exemplar.getValue());
+            if (exemplar.getTimestampMs() != null) {
+                out.write(' ');
+                out.writeOpenMetricsTimestamp(exemplar.getTimestampMs());
+            }
+        }
+        out.write('\n');
+        if (out == buffer) {
+            flushIfFull();
+        }
+    }
+
+    private void writeHeader(FamilyState family) {
+        Buffer out = family.buffer;
+        String name = family.name;
+        if (family.type == Collector.Type.COUNTER && name.endsWith("_total")) {
+            // as in MetricFamilySamples, the family of a counter is named without suffix
+            name = name.substring(0, name.length() - 6);
+        }
+
+        if (openMetrics) {
+            out.writeAscii("# TYPE ");
+            out.writeUtf8(name, ESCAPE_NONE);
+            out.write(' ');
+            out.writeAscii(openMetricsType(family.type));
+            out.writeAscii("\n# HELP ");
+            out.writeUtf8(name, ESCAPE_NONE);
+            out.write(' ');
+            out.writeUtf8(help, ESCAPE_LABEL_VALUE);
+            out.write('\n');
+        }
+        else {
+            String suffix = family.type == Collector.Type.COUNTER ? "_total" : "";
+            out.writeAscii("# HELP ");
+            out.writeUtf8(name, ESCAPE_NONE);
+            out.writeAscii(suffix);
+            out.write(' ');
+            out.writeUtf8(help, ESCAPE_HELP);
+            out.writeAscii("\n# TYPE ");
+            out.writeUtf8(name, ESCAPE_NONE);
+            out.writeAscii(suffix);
+            out.write(' ');
+            out.writeAscii(type(family.type));
+            out.write('\n');
+        }
+        family.headerWritten = true;
+    }
+
+    private void flushIfFull() {
+        if (buffer.size >= FLUSH_THRESHOLD) {
+            try {
+                buffer.writeTo(outputStream);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.reset();
+        }
+    }
+
+    private static String type(Collector.Type type) {
+        switch (type) {
+            case GAUGE:
+            case STATE_SET:
+            case INFO:
+                return "gauge";
+            case COUNTER:
+                return "counter";
+            case SUMMARY:
+                return "summary";
+            case HISTOGRAM:
+            case GAUGE_HISTOGRAM:
+                return "histogram";
+            default:
+                return "untyped";
+        }
+    }
+
+    private static String openMetricsType(Collector.Type type) {
+        switch (type) {
+            case GAUGE:
+                return "gauge";
+            case COUNTER:
+                return "counter";
+            case SUMMARY:
+                return "summary";
+            case HISTOGRAM:
+                return "histogram";
+            case GAUGE_HISTOGRAM:
+                return "gaugehistogram";
+            case STATE_SET:
+                return "stateset";
+            case INFO:
+                return "info";
+            default:
+                return "unknown";
+        }
+    }
+
+    private static class FamilyState {
+
+        final Collector.Type type;
+
+        final String name;
+
+        final Buffer buffer;
+
+        boolean headerWritten;
+
+        FamilyState(Collector.Type type, String name, Buffer buffer) {
+            this.type = type;
+            this.name = name;
+            this.buffer = buffer;
+        }
+
+    }
+
+    /**
+     * A growable byte array that text is encoded to as UTF-8.
+     */
+    private static class Buffer {
+
+        private final byte[] digits = new byte[20];
+
+        private byte[] bytes;
+
+        private int size;
+
+        Buffer(int initialCapacity) {
+            this.bytes = new byte[initialCapacity];
+        }
+
+        void write(int b) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) b;
+        }
+
+        void write(byte[] b) {
+            ensureCapacity(b.length);
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+        }
+
+        void writeAscii(String s) {
+            ensureCapacity(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                bytes[size++] = (byte) s.charAt(i);
+            }
+        }
+
+        void writeLabel(String name, @Nullable String value) {
+            writeUtf8(name, ESCAPE_NONE);
+            write('=');
+            write('"');
+            if (value != null) {
+                writeUtf8(value, ESCAPE_LABEL_VALUE);
+            }
+            write('"');
+        }
+
+        void writeUtf8(String s, int escape) {
+            ensureCapacity(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    if (escape != ESCAPE_NONE && (c == '\\' || c == '\n'
+                            || (c == '"' && escape == ESCAPE_LABEL_VALUE))) {
+                        write('\\');
+                        write(c == '\n' ? 'n' : c);
+                    }
+                    else {
+                        write(c);
+                    }
+                }
+                else if (c < 0x800) {
+                    ensureCapacity(2);
+                    bytes[size++] = (byte) (0xc0 | (c >> 6));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3f));
+                }
+                else if (Character.isSurrogate(c)) {
+                    if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                            && Character.isLowSurrogate(s.charAt(i + 1))) {
+                        int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                        ensureCapacity(4);
+                        bytes[size++] = (byte) (0xf0 | (codePoint >> 18));
+                        bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                        bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                        bytes[size++] = (byte) (0x80 | (codePoint & 0x3f));
+                    }
+                    else {
+                        // malformed, replaced the same way String#getBytes does
+                        write('?');
+                    }
+                }
+                else {
+                    ensureCapacity(3);
+                    bytes[size++] = (byte) (0xe0 | (c >> 12));
+                    bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+        }
+
+        /**
+         * Same as {@link Collector#doubleToGoString(double)}, without going through a
+         * string for the integral values counters and buckets mostly consist of.
+         */
+        void writeDouble(double value) {
+            long longValue = (long) value;
+            // Double#toString switches to scientific notation from 10^7 on
+            if (longValue == value && longValue > -10_000_000 && longValue < 10_000_000
+                    && (longValue != 0 || Double.doubleToRawLongBits(value) == 0)) {
+                writeLong(longValue);
+                write('.');
+                write('0');
+            }
+            else {
+                writeAscii(Collector.doubleToGoString(value));
+            }
+        }
+
+        void writeLong(long value) {
+            if (value == Long.MIN_VALUE) {
+                writeAscii(Long.toString(value));
+                return;
+            }
+            if (value < 0) {
+                write('-');
+                value = -value;
+            }
+            int position = digits.length;
+            do {
+                digits[--position] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            while (value != 0);
+            ensureCapacity(digits.length - position);
+            System.arraycopy(digits, position, bytes, size, digits.length - position);
+            size += digits.length - position;
+        }
+
+        void writeOpenMetricsTimestamp(long timestampMs) {
+            writeLong(timestampMs / 1000L);
+            write('.');
+            long ms = timestampMs % 1000;
+            if (ms < 100) {
+                write('0');
+            }
+            if (ms < 10) {
+                write('0');
+            }
+            writeLong(ms);
+        }
+
+        void writeTo(OutputStream outputStream) throws IOException {
+            outputStream.write(bytes, 0, size);
+        }
+
+        void writeTo(Buffer other) {
+            other.ensureCapacity(size);
+            System.arraycopy(bytes, 0, other.bytes, other.size, size);
+            other.size += size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+
+    }
+
+}
@@ -31,11 +31,17 @@ import org.assertj.core.api.Condition;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 
 import static io.micrometer.core.instrument.MockClock.clock;
 import static java.util.Collections.emptyList;
@@ -658,6 +664,175 @@ class PrometheusMeterRegistryTest {
         assertThat(scraped).endsWith("# EOF\n");
     }
 
+    @Test
+    void scrapeToOutputStreamWritesSameSamplesAsScrape() throws IOException {
+        Counter.builder("my.counter").baseUnit("bytes").tag("k", "v").register(registry).increment();
+        Timer timer = Timer.builder("my.timer").publishPercentiles(0.5).publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofMillis(100)).tag("uri", "/a").register(registry);
+        timer.record(15, TimeUnit.MILLISECONDS);
+        timer.record(1500, TimeUnit.MILLISECONDS);
+        Timer.builder("my.timer").tag("uri", "/b").register(registry).record(1, TimeUnit.SECONDS);
+        DistributionSummary.builder("my.summary").serviceLevelObjectives(1, 10).register(registry).record(5);
+        registry.gauge("my.gauge", 12345678.0);
+        registry.more().counter("my.function.counter", Tags.empty(), new AtomicLong(3), AtomicLong::get);
+
+        for (String contentType : Arrays.asList(TextFormat.CONTENT_TYPE_004,
+                TextFormat.CONTENT_TYPE_OPENMETRICS_100)) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            registry.scrape(outputStream, contentType);
+            String scraped = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+
+            // families may come in a different order
+            assertThat(scraped.split("\n")).containsExactlyInAnyOrder(registry.scrape(contentType).split("\n"));
+        }
+    }
+
+    @Test
+    void scrapeToOutputStreamWithIncludedNames() throws IOException {
+        registry.counter("my.counter").increment();
+        registry.timer("my.timer").record(1, TimeUnit.SECONDS);
+        Set<String> includedNames = new HashSet<>(Arrays.asList("my_timer_seconds_count", "my_counter_total"));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        registry.scrape(outputStream, TextFormat.CONTENT_TYPE_004, includedNames);
+
+        assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8).split("\n"))
+                .containsExactlyInAnyOrder(registry.scrape(TextFormat.CONTENT_TYPE_004, includedNames).split("\n"))
+                .doesNotContain("# TYPE my_timer_seconds_max gauge");
+    }
+
+    @Test
+    void scrapeToOutputStreamEscapesLabelValuesAndHelp() throws IOException {
+        Counter.builder("my.counter").description("a \"quoted\"\nhelp").tag("k", "v\"\n\\\u00fc\u20ac")
+                .register(registry).increment();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        registry.scrape(outputStream, TextFormat.CONTENT_TYPE_004);
+
+        assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+                .isEqualTo(registry.scrape(TextFormat.CONTENT_TYPE_004))
+                .contains("# HELP my_counter_total a \"quoted\"\\nhelp\n")
+                .contains("my_counter_total{k=\"v\\\"\\n\\\\\u00fc\u20ac\",} 1.0\n");
+
+        outputStream.reset();
+        registry.scrape(outputStream, TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+
+        assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+                .isEqualTo(registry.scrape(TextFormat.CONTENT_TYPE_OPENMETRICS_100));
+    }
+
+    @Test
+    void scrapeToOutputStreamRejectsUnknownContentType() {
+        assertThatThrownBy(() -> registry.scrape(new ByteArrayOutputStream(), "text/html"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void scrapeCacheServesSameBodyWithinTtl() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(scrapeCacheConfig(false), prometheusRegistry,
+                clock);
+        Counter counter = registry.counter("my.counter");
+        counter.increment();
+
+        String scrape = registry.scrape();
+        counter.increment();
+        assertThat(registry.scrape()).isEqualTo(scrape).contains("my_counter_total 1.0");
+
+        clock.add(Duration.ofSeconds(10));
+        assertThat(registry.scrape()).contains("my_counter_total 2.0")
+                .contains("micrometer_prometheus_scrape_cache_total{result=\"hit\",} 1.0")
+                .contains("micrometer_prometheus_scrape_cache_total{result=\"miss\",} 2.0");
+    }
+
+    @Test
+    void scrapeCacheIsNotUsedForIncludedNames() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(scrapeCacheConfig(false), prometheusRegistry,
+                clock);
+        Counter counter = registry.counter("my.counter");
+        registry.scrape();
+        counter.increment();
+
+        assertThat(registry.scrape(TextFormat.CONTENT_TYPE_004, Collections.singleton("my_counter_total")))
+                .contains("my_counter_total 1.0");
+    }
+
+    @Test
+    void concurrentScrapesShareOneRendering() throws Exception {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(scrapeCacheConfig(false), prometheusRegistry,
+                clock);
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger renderings = new AtomicInteger();
+        registry.gauge("slow.gauge", release, latch -> {
+            renderings.incrementAndGet();
+            rendering.countDown();
+            try {
+                latch.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> registry.scrape());
+            assertThat(rendering.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<String> second = executor.submit(() -> registry.scrape());
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(first.get(10, TimeUnit.SECONDS));
+            assertThat(renderings).hasValue(1);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void scrapeGzippedIsCompressedScrape() throws IOException {
+        for (PrometheusConfig config : Arrays.asList(PrometheusConfig.DEFAULT, scrapeCacheConfig(false),
+                scrapeCacheConfig(true))) {
+            PrometheusMeterRegistry registry = new PrometheusMeterRegistry(config, new CollectorRegistry(), clock);
+            registry.counter("my.counter").increment();
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            registry.scrapeGzipped(outputStream, TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+
+            ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+            try (InputStream inputStream = new GZIPInputStream(
+                    new ByteArrayInputStream(outputStream.toByteArray()))) {
+                byte[] buffer = new byte[4096];
+                for (int read; (read = inputStream.read(buffer)) != -1;) {
+                    decompressed.write(buffer, 0, read);
+                }
+            }
+            assertThat(new String(decompressed.toByteArray(), StandardCharsets.UTF_8))
+                .isEqualTo(registry.scrape(TextFormat.CONTENT_TYPE_OPENMETRICS_100));
+        }
+    }
+
+    private static PrometheusConfig scrapeCacheConfig(boolean gzip) {
+        return new PrometheusConfig() {
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public Duration scrapeCacheTtl() {
+                return Duration.ofSeconds(10);
+            }
+
+            @Override
+            public boolean scrapeCacheGzip() {
+                return gzip;
+            }
+        };
+    }
+
     static class TestSpanContextSupplier implements SpanContextSupplier {
 
         private final AtomicLong count = new AtomicLong();
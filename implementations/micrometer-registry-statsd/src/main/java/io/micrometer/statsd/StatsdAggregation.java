@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.statsd;
+
+/**
+ * How meters aggregate what they record before writing lines, to send fewer lines to the
+ * StatsD agent.
+ *
+ * @since 1.11.0
+ * @see StatsdConfig#aggregation()
+ */
+public enum StatsdAggregation {
+
+    /**
+     * Every increment of a counter and every recording of a timer or distribution
+     * summary is sent as a line of its own.
+     */
+    NONE,
+
+    /**
+     * Increments of a counter are summed and sent as a single line per counter on every
+     * tick of the {@link StatsdConfig#pollingFrequency() polling frequency}, the same way
+     * gauges are. Timers and distribution summaries send every recording.
+     */
+    COUNTERS,
+
+    /**
+     * Counters are aggregated as by {@link #COUNTERS}. Timers and distribution summaries
+     * send a random sample of their recordings, as many as the
+     * {@link StatsdConfig#aggregationSampleRate() sample rate} of them, and the agent
+     * scales counts back up by the rate annotated on each line.
+     */
+    SAMPLED,
+
+    /**
+     * Counters are aggregated as by {@link #COUNTERS}. Timers and distribution summaries
+     * hold their recordings back and send them packed into lines of many values, on
+     * every tick of the polling frequency or once enough are held back to fill a line.
+     * Only the {@link StatsdFlavor#DATADOG Datadog} flavor understands these lines, which
+     * need DogStatsD protocol v1.1 (Agent 6.25.0 and 7.25.0 or later). Timers and
+     * distribution summaries of other flavors send every recording instead.
+     */
+    PACKED
+
+}
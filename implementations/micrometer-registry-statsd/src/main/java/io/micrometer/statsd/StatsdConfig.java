@@ -16,6 +16,7 @@
 package io.micrometer.statsd;
 
 import io.micrometer.core.instrument.config.MeterRegistryConfig;
+import io.micrometer.core.instrument.config.validate.InvalidReason;
 import io.micrometer.core.instrument.config.validate.Validated;
 
 import java.time.Duration;
@@ -146,12 +147,38 @@ public interface StatsdConfig extends MeterRegistryConfig {
         return getBoolean(this, "buffered").orElse(true);
     }
 
+    /**
+     * Sending a line for every increment of a counter and every recording of a timer or
+     * distribution summary costs a lot of packets for meters that are updated often.
+     * Aggregating on the client sends fewer lines, see {@link StatsdAggregation} for what
+     * every mode does and which flavors support it.
+     * @return How meters aggregate what they record before sending it. Default is
+     * {@link StatsdAggregation#NONE}.
+     * @since 1.11.0
+     */
+    default StatsdAggregation aggregation() {
+        return getEnum(this, StatsdAggregation.class, "aggregation").orElse(StatsdAggregation.NONE);
+    }
+
+    /**
+     * @return The fraction of recordings of timers and distribution summaries that are
+     * sent with {@link StatsdAggregation#SAMPLED} aggregation, greater than 0 and at most
+     * 1. Default is 0.1.
+     * @since 1.11.0
+     */
+    default double aggregationSampleRate() {
+        return getDouble(this, "aggregationSampleRate").orElse(0.1);
+    }
+
     @Override
     default Validated<?> validate() {
         return checkAll(this, checkRequired("flavor", StatsdConfig::flavor), checkRequired("host", StatsdConfig::host),
                 check("port", StatsdConfig::port), checkRequired("protocol", StatsdConfig::protocol),
                 checkRequired("pollingFrequency", StatsdConfig::pollingFrequency),
-                checkRequired("step", StatsdConfig::step));
+                checkRequired("step", StatsdConfig::step), checkRequired("aggregation", StatsdConfig::aggregation),
+                check("aggregationSampleRate", StatsdConfig::aggregationSampleRate)
+                    .andThen(v -> v.invalidateWhen(rate -> rate <= 0 || rate > 1,
+                            "must be greater than 0 and at most 1", InvalidReason.MALFORMED)));
     }
 
 }
@@ -15,36 +15,65 @@
  */
 package io.micrometer.statsd;
 
+import io.micrometer.common.lang.Nullable;
 import io.micrometer.core.instrument.AbstractMeter;
 import io.micrometer.core.instrument.Counter;
-import reactor.core.publisher.FluxSink;
 
 import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author Jon Schneider
  */
-public class StatsdCounter extends AbstractMeter implements Counter {
+public class StatsdCounter extends AbstractMeter implements Counter, StatsdPollable {
 
     private final StatsdLineBuilder lineBuilder;
 
-    private final FluxSink<String> sink;
+    private final StatsdLineSink sink;
 
     private DoubleAdder count = new DoubleAdder();
 
+    /**
+     * Increments not sent yet when they are aggregated, or {@code null} to send every
+     * increment.
+     */
+    @Nullable
+    private final LongAdder pending;
+
     private volatile boolean shutdown;
 
-    StatsdCounter(Id id, StatsdLineBuilder lineBuilder, FluxSink<String> sink) {
+    StatsdCounter(Id id, StatsdLineBuilder lineBuilder, StatsdLineSink sink, boolean aggregated) {
         super(id);
         this.lineBuilder = lineBuilder;
         this.sink = sink;
+        this.pending = aggregated ? new LongAdder() : null;
     }
 
     @Override
     public void increment(double amount) {
         if (!shutdown && amount > 0) {
             count.add(amount);
-            sink.next(lineBuilder.count((long) amount));
+            if (pending != null) {
+                pending.add((long) amount);
+            }
+            else {
+                sink.count(lineBuilder, (long) amount);
+            }
+        }
+    }
+
+    /**
+     * Send the sum of the increments since the last poll, if they are aggregated.
+     */
+    @Override
+    public void poll() {
+        if (pending != null) {
+            long sum = pending.sum();
+            if (sum > 0) {
+                // subtract what is sent rather than reset, to keep increments racing this
+                pending.add(-sum);
+                sink.count(lineBuilder, sum);
+            }
         }
     }
 
@@ -55,6 +84,7 @@ public class StatsdCounter extends AbstractMeter implements Counter {
 
     void shutdown() {
         this.shutdown = true;
+        poll();
     }
 
 }
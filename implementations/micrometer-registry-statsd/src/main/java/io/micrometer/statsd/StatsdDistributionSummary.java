@@ -19,7 +19,6 @@ import io.micrometer.core.instrument.AbstractDistributionSummary;
 import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.core.instrument.distribution.TimeWindowMax;
-import reactor.core.publisher.FluxSink;
 
 import java.util.concurrent.atomic.DoubleAdder;
 import java.util.concurrent.atomic.LongAdder;
@@ -32,18 +31,15 @@ public class StatsdDistributionSummary extends AbstractDistributionSummary {
 
     private final TimeWindowMax max;
 
-    private final StatsdLineBuilder lineBuilder;
-
-    private final FluxSink<String> sink;
+    private final StatsdRecordings recordings;
 
     private volatile boolean shutdown;
 
-    StatsdDistributionSummary(Id id, StatsdLineBuilder lineBuilder, FluxSink<String> sink, Clock clock,
+    StatsdDistributionSummary(Id id, StatsdRecordings recordings, Clock clock,
             DistributionStatisticConfig distributionStatisticConfig, double scale) {
         super(id, clock, distributionStatisticConfig, scale, false);
         this.max = new TimeWindowMax(clock, distributionStatisticConfig);
-        this.lineBuilder = lineBuilder;
-        this.sink = sink;
+        this.recordings = recordings;
     }
 
     @Override
@@ -52,7 +48,7 @@ public class StatsdDistributionSummary extends AbstractDistributionSummary {
             count.increment();
             this.amount.add(amount);
             max.record(amount);
-            sink.next(lineBuilder.histogram(amount));
+            recordings.record(amount);
         }
     }
 
@@ -78,6 +74,7 @@ public class StatsdDistributionSummary extends AbstractDistributionSummary {
 
     void shutdown() {
         this.shutdown = true;
+        recordings.poll();
     }
 
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.statsd;
+
+import io.micrometer.core.instrument.Statistic;
+import io.micrometer.statsd.internal.FlavorStatsdLineBuilder;
+
+/**
+ * Where meters write their lines to. Lines are built as strings by the line builder of
+ * the meter, unless a sink knows how to write them otherwise.
+ */
+@FunctionalInterface
+interface StatsdLineSink {
+
+    void next(String line);
+
+    default void count(StatsdLineBuilder lineBuilder, long amount) {
+        next(lineBuilder.count(amount));
+    }
+
+    default void count(StatsdLineBuilder lineBuilder, long amount, Statistic stat) {
+        next(lineBuilder.count(amount, stat));
+    }
+
+    default void gauge(StatsdLineBuilder lineBuilder, double amount) {
+        next(lineBuilder.gauge(amount));
+    }
+
+    default void gauge(StatsdLineBuilder lineBuilder, double amount, Statistic stat) {
+        next(lineBuilder.gauge(amount, stat));
+    }
+
+    default void histogram(StatsdLineBuilder lineBuilder, double amount) {
+        next(lineBuilder.histogram(amount));
+    }
+
+    default void timing(StatsdLineBuilder lineBuilder, double timeMs) {
+        next(lineBuilder.timing(timeMs));
+    }
+
+    default void histogram(FlavorStatsdLineBuilder lineBuilder, double amount, double sampleRate) {
+        next(lineBuilder.histogram(amount, sampleRate));
+    }
+
+    default void timing(FlavorStatsdLineBuilder lineBuilder, double timeMs, double sampleRate) {
+        next(lineBuilder.timing(timeMs, sampleRate));
+    }
+
+    default void histograms(FlavorStatsdLineBuilder lineBuilder, double[] amounts, int count) {
+        next(lineBuilder.histograms(amounts, count));
+    }
+
+    default void timings(FlavorStatsdLineBuilder lineBuilder, double[] timesMs, int count) {
+        next(lineBuilder.timings(timesMs, count));
+    }
+
+    /**
+     * Send the lines written so far that are still held back to fill up a packet.
+     */
+    default void flush() {
+    }
+
+}
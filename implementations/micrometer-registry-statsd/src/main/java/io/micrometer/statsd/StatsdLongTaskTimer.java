@@ -19,7 +19,6 @@ import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.Statistic;
 import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.core.instrument.internal.DefaultLongTaskTimer;
-import reactor.core.publisher.FluxSink;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -28,7 +27,7 @@ public class StatsdLongTaskTimer extends DefaultLongTaskTimer implements StatsdP
 
     private final StatsdLineBuilder lineBuilder;
 
-    private final FluxSink<String> sink;
+    private final StatsdLineSink sink;
 
     private final AtomicReference<Long> lastActive = new AtomicReference<>(Long.MIN_VALUE);
 
@@ -36,7 +35,7 @@ public class StatsdLongTaskTimer extends DefaultLongTaskTimer implements StatsdP
 
     private final boolean alwaysPublish;
 
-    StatsdLongTaskTimer(Id id, StatsdLineBuilder lineBuilder, FluxSink<String> sink, Clock clock, boolean alwaysPublish,
+    StatsdLongTaskTimer(Id id, StatsdLineBuilder lineBuilder, StatsdLineSink sink, Clock clock, boolean alwaysPublish,
             DistributionStatisticConfig distributionStatisticConfig, TimeUnit baseTimeUnit) {
         super(id, clock, baseTimeUnit, distributionStatisticConfig, false);
         this.lineBuilder = lineBuilder;
@@ -48,17 +47,17 @@ public class StatsdLongTaskTimer extends DefaultLongTaskTimer implements StatsdP
     public void poll() {
         long active = activeTasks();
         if (alwaysPublish || lastActive.getAndSet(active) != active) {
-            sink.next(lineBuilder.gauge(active, Statistic.ACTIVE_TASKS));
+            sink.gauge(lineBuilder, active, Statistic.ACTIVE_TASKS);
         }
 
         double duration = duration(TimeUnit.MILLISECONDS);
         if (alwaysPublish || lastDuration.getAndSet(duration) != duration) {
-            sink.next(lineBuilder.gauge(duration, Statistic.DURATION));
+            sink.gauge(lineBuilder, duration, Statistic.DURATION);
         }
 
         double max = max(TimeUnit.MILLISECONDS);
         if (alwaysPublish || lastDuration.getAndSet(duration) != duration) {
-            sink.next(lineBuilder.gauge(max, Statistic.MAX));
+            sink.gauge(lineBuilder, max, Statistic.MAX);
         }
     }
 
@@ -26,6 +26,8 @@ import io.micrometer.core.instrument.distribution.pause.PauseDetector;
 import io.micrometer.core.instrument.internal.DefaultMeter;
 import io.micrometer.core.instrument.util.HierarchicalNameMapper;
 import io.micrometer.statsd.internal.*;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.unix.DomainSocketAddress;
 import io.netty.util.AttributeKey;
 import org.reactivestreams.Publisher;
@@ -37,6 +39,7 @@ import reactor.core.publisher.DirectProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.netty.Connection;
 import reactor.netty.tcp.TcpClient;
 import reactor.netty.udp.UdpClient;
@@ -92,6 +95,10 @@ public class StatsdMeterRegistry extends MeterRegistry {
 
     FluxSink<String> sink = new NoopFluxSink();
 
+    Sinks.Many<ByteBuf> packets = Sinks.many().multicast().directAllOrNothing();
+
+    private final StatsdLineSink lines;
+
     Disposable.Swap statsdConnection = Disposables.swap();
 
     private Disposable.Swap meterPoller = Disposables.swap();
@@ -135,9 +142,16 @@ public class StatsdMeterRegistry extends MeterRegistry {
 
         config().namingConvention(namingConvention);
 
-        config().onMeterRemoved(meter -> meter.use(this::removePollableMeter, c -> ((StatsdCounter) c).shutdown(),
-                t -> ((StatsdTimer) t).shutdown(), d -> ((StatsdDistributionSummary) d).shutdown(),
-                this::removePollableMeter, this::removePollableMeter, this::removePollableMeter,
+        config().onMeterRemoved(meter -> meter.use(this::removePollableMeter, c -> {
+            ((StatsdCounter) c).shutdown();
+            removePollableMeter(c);
+        }, t -> {
+            ((StatsdTimer) t).shutdown();
+            removePollableMeter(t);
+        }, d -> {
+            ((StatsdDistributionSummary) d).shutdown();
+            removePollableMeter(d);
+        }, this::removePollableMeter, this::removePollableMeter, this::removePollableMeter,
                 this::removePollableMeter, m -> {
                     for (Measurement measurement : m.measure()) {
                         pollableMeters.remove(m.getId().withTag(measurement.getStatistic()));
@@ -147,14 +161,24 @@ public class StatsdMeterRegistry extends MeterRegistry {
         if (config.enabled()) {
             this.sink = processor.sink();
 
+            boolean logbackPresent = false;
             try {
                 Class.forName("ch.qos.logback.classic.turbo.TurboFilter", false, getClass().getClassLoader());
                 this.sink = new LogbackMetricsSuppressingFluxSink(this.sink);
+                logbackPresent = true;
             }
             catch (ClassNotFoundException ignore) {
             }
+            // Lines are written straight into packets, unless they are handed to a
+            // line sink one by one
+            this.lines = lineSink != null ? this.sink::next
+                    : new StatsdPacketSink(packets, ByteBufAllocator.DEFAULT, config.maxPacketLength(),
+                            config.buffered(), lineBuilderFunction == null, logbackPresent);
             start();
         }
+        else {
+            this.lines = this.sink::next;
+        }
     }
 
     public static Builder builder(StatsdConfig config) {
@@ -217,14 +241,7 @@ public class StatsdMeterRegistry extends MeterRegistry {
                 startPolling();
             }
             else {
-                final Publisher<String> publisher;
-                if (statsdConfig.buffered()) {
-                    publisher = BufferingFlux.create(Flux.from(this.processor), "\n", statsdConfig.maxPacketLength(),
-                            statsdConfig.pollingFrequency().toMillis()).onBackpressureLatest();
-                }
-                else {
-                    publisher = this.processor;
-                }
+                final Publisher<ByteBuf> publisher = packets.asFlux();
                 if (statsdConfig.protocol() == StatsdProtocol.UDP) {
                     prepareUdpClient(publisher,
                             () -> InetSocketAddress.createUnresolved(statsdConfig.host(), statsdConfig.port()));
@@ -239,10 +256,10 @@ public class StatsdMeterRegistry extends MeterRegistry {
         }
     }
 
-    private void prepareUdpClient(Publisher<String> publisher, Supplier<SocketAddress> remoteAddress) {
+    private void prepareUdpClient(Publisher<ByteBuf> publisher, Supplier<SocketAddress> remoteAddress) {
         AtomicReference<UdpClient> udpClientReference = new AtomicReference<>();
         UdpClient udpClient = UdpClient.create().remoteAddress(remoteAddress)
-                .handle((in, out) -> out.sendString(publisher).neverComplete().retryWhen(
+                .handle((in, out) -> out.send(publisher).neverComplete().retryWhen(
                         Retry.indefinitely().filter(throwable -> throwable instanceof PortUnreachableException)))
                 .doOnDisconnected(connection -> {
                     Boolean connectionDisposed = connection.channel().attr(CONNECTION_DISPOSED).getAndSet(Boolean.TRUE);
@@ -254,10 +271,10 @@ public class StatsdMeterRegistry extends MeterRegistry {
         connectAndSubscribe(udpClient);
     }
 
-    private void prepareTcpClient(Publisher<String> publisher) {
+    private void prepareTcpClient(Publisher<ByteBuf> publisher) {
         AtomicReference<TcpClient> tcpClientReference = new AtomicReference<>();
         TcpClient tcpClient = TcpClient.create().host(statsdConfig.host()).port(statsdConfig.port())
-                .handle((in, out) -> out.sendString(publisher).neverComplete()).doOnDisconnected(connection -> {
+                .handle((in, out) -> out.send(publisher).neverComplete()).doOnDisconnected(connection -> {
                     Boolean connectionDisposed = connection.channel().attr(CONNECTION_DISPOSED).getAndSet(Boolean.TRUE);
                     if (connectionDisposed == null || !connectionDisposed) {
                         connectAndSubscribe(tcpClientReference.get());
@@ -297,7 +314,10 @@ public class StatsdMeterRegistry extends MeterRegistry {
     }
 
     private void startPolling() {
-        meterPoller.update(Flux.interval(statsdConfig.pollingFrequency()).doOnEach(n -> poll()).subscribe());
+        meterPoller.update(Flux.interval(statsdConfig.pollingFrequency()).doOnEach(n -> {
+            poll();
+            lines.flush();
+        }).subscribe());
     }
 
     public void stop() {
@@ -314,13 +334,14 @@ public class StatsdMeterRegistry extends MeterRegistry {
     @Override
     public void close() {
         poll();
+        lines.flush();
         stop();
         super.close();
     }
 
     @Override
     protected <T> Gauge newGauge(Meter.Id id, @Nullable T obj, ToDoubleFunction<T> valueFunction) {
-        StatsdGauge<T> gauge = new StatsdGauge<>(id, lineBuilder(id), this.sink, obj, valueFunction,
+        StatsdGauge<T> gauge = new StatsdGauge<>(id, lineBuilder(id), lines, obj, valueFunction,
                 statsdConfig.publishUnchangedMeters());
         pollableMeters.put(id, gauge);
         return gauge;
@@ -350,6 +371,20 @@ public class StatsdMeterRegistry extends MeterRegistry {
         return lineBuilderFunction.apply(id, distributionStatisticConfig);
     }
 
+    private StatsdRecordings recordings(Meter.Id id, StatsdLineBuilder lineBuilder, boolean timing) {
+        StatsdAggregation aggregation = statsdConfig.aggregation();
+        // only DogStatsD understands lines of many values
+        if (aggregation == StatsdAggregation.PACKED && statsdConfig.flavor() != StatsdFlavor.DATADOG) {
+            aggregation = StatsdAggregation.NONE;
+        }
+        StatsdRecordings recordings = new StatsdRecordings(lineBuilder, lines, timing, aggregation,
+                statsdConfig.aggregationSampleRate(), statsdConfig.maxPacketLength());
+        if (recordings.isPacked()) {
+            pollableMeters.put(id, recordings);
+        }
+        return recordings;
+    }
+
     private DistributionStatisticConfig addInfBucket(DistributionStatisticConfig config) {
         double[] serviceLevelObjectives = config.getServiceLevelObjectiveBoundaries() == null
                 ? new double[] { Double.POSITIVE_INFINITY }
@@ -361,12 +396,17 @@ public class StatsdMeterRegistry extends MeterRegistry {
 
     @Override
     protected Counter newCounter(Meter.Id id) {
-        return new StatsdCounter(id, lineBuilder(id), this.sink);
+        boolean aggregated = statsdConfig.aggregation() != StatsdAggregation.NONE;
+        StatsdCounter counter = new StatsdCounter(id, lineBuilder(id), lines, aggregated);
+        if (aggregated) {
+            pollableMeters.put(id, counter);
+        }
+        return counter;
     }
 
     @Override
     protected LongTaskTimer newLongTaskTimer(Meter.Id id, DistributionStatisticConfig distributionStatisticConfig) {
-        StatsdLongTaskTimer ltt = new StatsdLongTaskTimer(id, lineBuilder(id, distributionStatisticConfig), this.sink,
+        StatsdLongTaskTimer ltt = new StatsdLongTaskTimer(id, lineBuilder(id, distributionStatisticConfig), lines,
                 clock, statsdConfig.publishUnchangedMeters(), distributionStatisticConfig, getBaseTimeUnit());
         HistogramGauges.registerWithCommonFormat(ltt, this);
         pollableMeters.put(id, ltt);
@@ -382,8 +422,9 @@ public class StatsdMeterRegistry extends MeterRegistry {
             distributionStatisticConfig = addInfBucket(distributionStatisticConfig);
         }
 
-        Timer timer = new StatsdTimer(id, lineBuilder(id, distributionStatisticConfig), this.sink, clock,
-                distributionStatisticConfig, pauseDetector, getBaseTimeUnit(), statsdConfig.step().toMillis());
+        StatsdRecordings recordings = recordings(id, lineBuilder(id, distributionStatisticConfig), true);
+        Timer timer = new StatsdTimer(id, recordings, clock, distributionStatisticConfig, pauseDetector,
+                getBaseTimeUnit(), statsdConfig.step().toMillis());
         HistogramGauges.registerWithCommonFormat(timer, this);
         return timer;
     }
@@ -397,15 +438,16 @@ public class StatsdMeterRegistry extends MeterRegistry {
             distributionStatisticConfig = addInfBucket(distributionStatisticConfig);
         }
 
-        DistributionSummary summary = new StatsdDistributionSummary(id, lineBuilder(id, distributionStatisticConfig),
-                this.sink, clock, distributionStatisticConfig, scale);
+        StatsdRecordings recordings = recordings(id, lineBuilder(id, distributionStatisticConfig), false);
+        DistributionSummary summary = new StatsdDistributionSummary(id, recordings, clock,
+                distributionStatisticConfig, scale);
         HistogramGauges.registerWithCommonFormat(summary, this);
         return summary;
     }
 
     @Override
     protected <T> FunctionCounter newFunctionCounter(Meter.Id id, T obj, ToDoubleFunction<T> countFunction) {
-        StatsdFunctionCounter<T> fc = new StatsdFunctionCounter<>(id, obj, countFunction, lineBuilder(id), this.sink);
+        StatsdFunctionCounter<T> fc = new StatsdFunctionCounter<>(id, obj, countFunction, lineBuilder(id), lines);
         pollableMeters.put(id, fc);
         return fc;
     }
@@ -414,7 +456,7 @@ public class StatsdMeterRegistry extends MeterRegistry {
     protected <T> FunctionTimer newFunctionTimer(Meter.Id id, T obj, ToLongFunction<T> countFunction,
             ToDoubleFunction<T> totalTimeFunction, TimeUnit totalTimeFunctionUnit) {
         StatsdFunctionTimer<T> ft = new StatsdFunctionTimer<>(id, obj, countFunction, totalTimeFunction,
-                totalTimeFunctionUnit, getBaseTimeUnit(), lineBuilder(id), this.sink);
+                totalTimeFunctionUnit, getBaseTimeUnit(), lineBuilder(id), lines);
         pollableMeters.put(id, ft);
         return ft;
     }
@@ -428,13 +470,13 @@ public class StatsdMeterRegistry extends MeterRegistry {
                 case COUNT:
                 case TOTAL:
                 case TOTAL_TIME:
-                    pollableMeters.put(id.withTag(stat), () -> this.sink.next(line.count((long) ms.getValue(), stat)));
+                    pollableMeters.put(id.withTag(stat), () -> lines.count(line, (long) ms.getValue(), stat));
                     break;
                 case VALUE:
                 case ACTIVE_TASKS:
                 case DURATION:
                 case UNKNOWN:
-                    pollableMeters.put(id.withTag(stat), () -> this.sink.next(line.gauge(ms.getValue(), stat)));
+                    pollableMeters.put(id.withTag(stat), () -> lines.gauge(line, ms.getValue(), stat));
                     break;
             }
         });
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.statsd;
+
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.core.instrument.Statistic;
+import io.micrometer.core.instrument.binder.logging.LogbackMetrics;
+import io.micrometer.statsd.internal.FlavorStatsdLineBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes lines as UTF-8 straight into packet sized buffers taken from an allocator, and
+ * emits a buffer once it is full. Lines of the built-in flavors are encoded by their line
+ * builders without building strings first. Unbuffered, every line is a packet of its
+ * own.
+ * <p>
+ * Buffered, a line is encoded into a buffer of the writing thread first, so that threads
+ * only wait for each other to copy their lines into the packet.
+ * <p>
+ * Lines written while nobody is subscribed to the packets are dropped without being
+ * encoded. Packets that cannot be emitted are released.
+ */
+final class StatsdPacketSink implements StatsdLineSink {
+
+    private static final int UNBUFFERED_CAPACITY = 256;
+
+    // the line being encoded by the current thread, when buffered
+    private static final ThreadLocal<ByteBuf> LINE = ThreadLocal
+            .withInitial(() -> Unpooled.buffer(UNBUFFERED_CAPACITY));
+
+    private final Sinks.Many<ByteBuf> packets;
+
+    private final ByteBufAllocator allocator;
+
+    private final int maxPacketLength;
+
+    private final boolean buffered;
+
+    private final boolean encodeFlavorLines;
+
+    private final boolean ignoreLogbackMetrics;
+
+    // packets are emitted one at a time, as the sink requires
+    private final Object emitLock = new Object();
+
+    // guarded by this, never empty
+    @Nullable
+    private ByteBuf packet;
+
+    /**
+     * @param packets where to emit full packets
+     * @param allocator where to take packet buffers from
+     * @param maxPacketLength the number of bytes at which a packet is full
+     * @param buffered {@code false} to emit every line as a packet of its own
+     * @param encodeFlavorLines {@code true} if line builders of the built-in flavors can
+     * be trusted to write the same lines as they build, which is not the case for
+     * subclasses provided by a custom line builder function
+     * @param ignoreLogbackMetrics {@code true} to not count what is logged while emitting
+     * a packet as logback events, which would write more lines
+     */
+    StatsdPacketSink(Sinks.Many<ByteBuf> packets, ByteBufAllocator allocator, int maxPacketLength, boolean buffered,
+            boolean encodeFlavorLines, boolean ignoreLogbackMetrics) {
+        this.packets = packets;
+        this.allocator = allocator;
+        this.maxPacketLength = maxPacketLength;
+        this.buffered = buffered;
+        this.encodeFlavorLines = encodeFlavorLines;
+        this.ignoreLogbackMetrics = ignoreLogbackMetrics;
+    }
+
+    @Override
+    public void next(String line) {
+        if (isSubscribed()) {
+            ByteBuf buffer = startLine();
+            buffer.writeCharSequence(line, StandardCharsets.UTF_8);
+            endLine(buffer);
+        }
+    }
+
+    @Override
+    public void count(StatsdLineBuilder lineBuilder, long amount) {
+        writeCount(lineBuilder, amount, null);
+    }
+
+    @Override
+    public void count(StatsdLineBuilder lineBuilder, long amount, Statistic stat) {
+        writeCount(lineBuilder, amount, stat);
+    }
+
+    private void writeCount(StatsdLineBuilder lineBuilder, long amount, @Nullable Statistic stat) {
+        FlavorStatsdLineBuilder flavor = flavor(lineBuilder);
+        if (flavor == null) {
+            next(stat == null ? lineBuilder.count(amount) : lineBuilder.count(amount, stat));
+        }
+        else if (isSubscribed()) {
+            ByteBuf buffer = startLine();
+            flavor.count(amount, stat == null ? Statistic.COUNT : stat, buffer);
+            endLine(buffer);
+        }
+    }
+
+    @Override
+    public void gauge(StatsdLineBuilder lineBuilder, double amount) {
+        writeGauge(lineBuilder, amount, null);
+    }
+
+    @Override
+    public void gauge(StatsdLineBuilder lineBuilder, double amount, Statistic stat) {
+        writeGauge(lineBuilder, amount, stat);
+    }
+
+    private void writeGauge(StatsdLineBuilder lineBuilder, double amount, @Nullable Statistic stat) {
+        FlavorStatsdLineBuilder flavor = flavor(lineBuilder);
+        if (flavor == null) {
+            next(stat == null ? lineBuilder.gauge(amount) : lineBuilder.gauge(amount, stat));
+        }
+        else if (isSubscribed()) {
+            ByteBuf buffer = startLine();
+            flavor.gauge(amount, stat == null ? Statistic.VALUE : stat, buffer);
+            endLine(buffer);
+        }
+    }
+
+    @Override
+    public void histogram(StatsdLineBuilder lineBuilder, double amount) {
+        FlavorStatsdLineBuilder flavor = flavor(lineBuilder);
+        if (flavor == null) {
+            next(lineBuilder.histogram(amount));
+        }
+        else if (isSubscribed()) {
+            ByteBuf buffer = startLine();
+            flavor.histogram(amount, buffer);
+            endLine(buffer);
+        }
+    }
+
+    @Override
+    public void timing(StatsdLineBuilder lineBuilder, double timeMs) {
+        FlavorStatsdLineBuilder flavor = flavor(lineBuilder);
+        if (flavor == null) {
+            next(lineBuilder.timing(timeMs));
+        }
+        else if (isSubscribed()) {
+            ByteBuf buffer = startLine();
+            flavor.timing(timeMs, buffer);
+            endLine(buffer);
+        }
+    }
+
+    @Override
+    public void histogram(FlavorStatsdLineBuilder lineBuilder, double amount, double sampleRate) {
+        if (!encodeFlavorLines) {
+            next(lineBuilder.histogram(amount, sampleRate));
+        }
+        else if (isSubscribed()) {
+            ByteBuf buffer = startLine();
+            lineBuilder.histogram(amount, sampleRate, buffer);
+            endLine(buffer);
+        }
+    }
+
+    @Override
+    public void timing(FlavorStatsdLineBuilder lineBuilder, double timeMs, double sampleRate) {
+        if (!encodeFlavorLines) {
+            next(lineBuilder.timing(timeMs, sampleRate));
+        }
+        else if (isSubscribed()) {
+            ByteBuf buffer = startLine();
+            lineBuilder.timing(timeMs, sampleRate, buffer);
+            endLine(buffer);
+        }
+    }
+
+    @Override
+    public void histograms(FlavorStatsdLineBuilder lineBuilder, double[] amounts, int count) {
+        if (!encodeFlavorLines) {
+            next(lineBuilder.histograms(amounts, count));
+        }
+        else if (isSubscribed()) {
+            ByteBuf buffer = startLine();
+            lineBuilder.histograms(amounts, count, buffer);
+            endLine(buffer);
+        }
+    }
+
+    @Override
+    public void timings(FlavorStatsdLineBuilder lineBuilder, double[] timesMs, int count) {
+        if (!encodeFlavorLines) {
+            next(lineBuilder.timings(timesMs, count));
+        }
+        else if (isSubscribed()) {
+            ByteBuf buffer = startLine();
+            lineBuilder.timings(timesMs, count, buffer);
+            endLine(buffer);
+        }
+    }
+
+    @Override
+    public void flush() {
+        ByteBuf pending;
+        synchronized (this) {
+            pending = this.packet;
+            this.packet = null;
+        }
+        if (pending != null) {
+            emit(pending);
+        }
+    }
+
+    @Nullable
+    private FlavorStatsdLineBuilder flavor(StatsdLineBuilder lineBuilder) {
+        return encodeFlavorLines && lineBuilder instanceof FlavorStatsdLineBuilder
+                ? (FlavorStatsdLineBuilder) lineBuilder : null;
+    }
+
+    private boolean isSubscribed() {
+        return packets.currentSubscriberCount() > 0;
+    }
+
+    /**
+     * @return where to encode a line: a packet of its own when unbuffered, or the buffer
+     * of the current thread
+     */
+    private ByteBuf startLine() {
+        if (!buffered) {
+            return allocator.buffer(UNBUFFERED_CAPACITY);
+        }
+        ByteBuf line = LINE.get();
+        line.clear();
+        return line;
+    }
+
+    /**
+     * Append the line just encoded to the packet, and emit the packet if the line filled
+     * it. A line that does not fit into what is left of the packet is appended to a new
+     * one. Lines longer than a packet are sent on their own.
+     */
+    private void endLine(ByteBuf line) {
+        if (!buffered) {
+            emit(line);
+            return;
+        }
+        line.writeByte('\n');
+        int length = line.readableBytes();
+        ByteBuf previous = null;
+        ByteBuf full = null;
+        synchronized (this) {
+            ByteBuf buffer = this.packet;
+            if (buffer != null && buffer.readableBytes() + length > maxPacketLength) {
+                previous = buffer;
+                buffer = null;
+            }
+            if (buffer == null) {
+                buffer = allocator.buffer(Math.max(maxPacketLength, length));
+            }
+            buffer.writeBytes(line);
+            if (buffer.readableBytes() >= maxPacketLength) {
+                full = buffer;
+                buffer = null;
+            }
+            this.packet = buffer;
+        }
+        if (previous != null) {
+            emit(previous);
+        }
+        if (full != null) {
+            emit(full);
+        }
+    }
+
+    private void emit(ByteBuf packet) {
+        if (ignoreLogbackMetrics) {
+            LogbackMetrics.ignoreMetrics(() -> tryEmit(packet));
+        }
+        else {
+            tryEmit(packet);
+        }
+    }
+
+    private void tryEmit(ByteBuf packet) {
+        synchronized (emitLock) {
+            if (packets.tryEmitNext(packet).isFailure()) {
+                packet.release();
+            }
+        }
+    }
+
+}
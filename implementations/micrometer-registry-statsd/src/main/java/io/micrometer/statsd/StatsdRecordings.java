@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.statsd;
+
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.statsd.internal.FlavorStatsdLineBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sends what a timer or distribution summary records, one line per recording, a sample of
+ * them, or packed into lines of many values that are sent when polled.
+ */
+final class StatsdRecordings implements StatsdPollable {
+
+    /**
+     * Room taken by a value in a packed line, so that a line of this many values per
+     * packet length is left enough room for the name and tags of the meter.
+     */
+    private static final int PACKED_VALUE_LENGTH = 20;
+
+    private final StatsdLineBuilder lineBuilder;
+
+    private final StatsdLineSink sink;
+
+    private final boolean timing;
+
+    private final StatsdAggregation aggregation;
+
+    private final double sampleRate;
+
+    // guarded by this
+    @Nullable
+    private final double[] packed;
+
+    // guarded by this
+    private int packedCount;
+
+    /**
+     * @param lineBuilder builds the lines of the meter
+     * @param sink where to write the lines
+     * @param timing {@code true} to write timing lines, {@code false} for histogram lines
+     * @param aggregation aggregation of the registry, which is only applied to
+     * recordings if the line builder can write sampled and packed lines
+     * @param sampleRate fraction of recordings sent with {@link StatsdAggregation#SAMPLED}
+     * @param maxPacketLength the length of the packets that packed lines should fit into
+     */
+    StatsdRecordings(StatsdLineBuilder lineBuilder, StatsdLineSink sink, boolean timing,
+            StatsdAggregation aggregation, double sampleRate, int maxPacketLength) {
+        this.lineBuilder = lineBuilder;
+        this.sink = sink;
+        this.timing = timing;
+        this.aggregation = lineBuilder instanceof FlavorStatsdLineBuilder ? aggregation : StatsdAggregation.NONE;
+        this.sampleRate = sampleRate;
+        this.packed = this.aggregation == StatsdAggregation.PACKED
+                ? new double[Math.max(1, maxPacketLength / PACKED_VALUE_LENGTH)] : null;
+    }
+
+    /**
+     * @return {@code true} if recordings are held back until polled
+     */
+    boolean isPacked() {
+        return packed != null;
+    }
+
+    void record(double amount) {
+        switch (aggregation) {
+            case SAMPLED:
+                if (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                    FlavorStatsdLineBuilder flavor = (FlavorStatsdLineBuilder) lineBuilder;
+                    if (timing) {
+                        sink.timing(flavor, amount, sampleRate);
+                    }
+                    else {
+                        sink.histogram(flavor, amount, sampleRate);
+                    }
+                }
+                break;
+            case PACKED:
+                pack(amount);
+                break;
+            default:
+                if (timing) {
+                    sink.timing(lineBuilder, amount);
+                }
+                else {
+                    sink.histogram(lineBuilder, amount);
+                }
+        }
+    }
+
+    private synchronized void pack(double amount) {
+        double[] packed = this.packed;
+        assert packed != null;
+        packed[packedCount++] = amount;
+        if (packedCount == packed.length) {
+            poll();
+        }
+    }
+
+    /**
+     * Send the recordings held back so far.
+     */
+    @Override
+    public synchronized void poll() {
+        double[] packed = this.packed;
+        if (packed != null && packedCount > 0) {
+            FlavorStatsdLineBuilder flavor = (FlavorStatsdLineBuilder) lineBuilder;
+            if (timing) {
+                sink.timings(flavor, packed, packedCount);
+            }
+            else {
+                sink.histograms(flavor, packed, packedCount);
+            }
+            packedCount = 0;
+        }
+    }
+
+}
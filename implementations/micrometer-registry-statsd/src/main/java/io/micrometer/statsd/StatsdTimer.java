@@ -21,7 +21,6 @@ import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.core.instrument.distribution.pause.PauseDetector;
 import io.micrometer.core.instrument.step.StepDouble;
 import io.micrometer.core.instrument.util.TimeUtils;
-import reactor.core.publisher.FluxSink;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.DoubleAdder;
@@ -33,21 +32,18 @@ public class StatsdTimer extends AbstractTimer {
 
     private final DoubleAdder totalTime = new DoubleAdder();
 
-    private final StatsdLineBuilder lineBuilder;
-
-    private final FluxSink<String> sink;
+    private final StatsdRecordings recordings;
 
     private StepDouble max;
 
     private volatile boolean shutdown;
 
-    StatsdTimer(Id id, StatsdLineBuilder lineBuilder, FluxSink<String> sink, Clock clock,
+    StatsdTimer(Id id, StatsdRecordings recordings, Clock clock,
             DistributionStatisticConfig distributionStatisticConfig, PauseDetector pauseDetector, TimeUnit baseTimeUnit,
             long stepMillis) {
         super(id, clock, distributionStatisticConfig, pauseDetector, baseTimeUnit, false);
         this.max = new StepDouble(clock, stepMillis);
-        this.lineBuilder = lineBuilder;
-        this.sink = sink;
+        this.recordings = recordings;
     }
 
     @Override
@@ -61,7 +57,7 @@ public class StatsdTimer extends AbstractTimer {
             // not necessary to ship max, as most StatsD agents calculate this themselves
             max.getCurrent().add(Math.max(msAmount - max.getCurrent().doubleValue(), 0));
 
-            sink.next(lineBuilder.timing(msAmount));
+            recordings.record(msAmount);
         }
     }
 
@@ -87,6 +83,7 @@ public class StatsdTimer extends AbstractTimer {
 
     void shutdown() {
         this.shutdown = true;
+        recordings.poll();
     }
 
 }
@@ -22,7 +22,6 @@ import io.micrometer.core.instrument.Statistic;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.config.NamingConvention;
 import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
-import io.micrometer.core.instrument.util.DoubleFormat;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -32,7 +31,7 @@ import static java.lang.Boolean.TRUE;
 
 public class DatadogStatsdLineBuilder extends FlavorStatsdLineBuilder {
 
-    private static final String TYPE_DISTRIBUTION = "d";
+    private static final LineType DISTRIBUTION = new LineType("d");
 
     private static final String ENTITY_ID_TAG_NAME = "dd.internal.entity_id";
 
@@ -79,33 +78,25 @@ public class DatadogStatsdLineBuilder extends FlavorStatsdLineBuilder {
     }
 
     @Override
-    public String timing(double timeMs) {
-        if (percentileHistogram) {
-            return distributionLine(timeMs);
-        }
-        else {
-            return super.timing(timeMs);
-        }
+    LineType histogramType() {
+        return percentileHistogram ? DISTRIBUTION : super.histogramType();
     }
 
     @Override
-    public String histogram(double amount) {
-        if (percentileHistogram) {
-            return distributionLine(amount);
-        }
-        else {
-            return super.histogram(amount);
-        }
+    LineType timingType() {
+        return percentileHistogram ? DISTRIBUTION : super.timingType();
     }
 
-    private String distributionLine(double amount) {
-        return line(DoubleFormat.decimalOrNan(amount), null, TYPE_DISTRIBUTION);
+    @Override
+    String prefix(@Nullable Statistic stat) {
+        updateIfNamingConventionChanged();
+        return name;
     }
 
     @Override
-    String line(String amount, @Nullable Statistic stat, String type) {
+    String suffix(@Nullable Statistic stat) {
         updateIfNamingConventionChanged();
-        return name + amount + "|" + type + tagsByStatistic(stat);
+        return tagsByStatistic(stat);
     }
 
     private void updateIfNamingConventionChanged() {
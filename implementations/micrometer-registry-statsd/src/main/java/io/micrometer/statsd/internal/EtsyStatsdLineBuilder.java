@@ -43,9 +43,9 @@ public class EtsyStatsdLineBuilder extends FlavorStatsdLineBuilder {
     }
 
     @Override
-    String line(String amount, @Nullable Statistic stat, String type) {
+    String prefix(@Nullable Statistic stat) {
         updateIfNamingConventionChanged();
-        return nameByStatistic(stat) + ":" + amount + "|" + type;
+        return nameByStatistic(stat) + ":";
     }
 
     private void updateIfNamingConventionChanged() {
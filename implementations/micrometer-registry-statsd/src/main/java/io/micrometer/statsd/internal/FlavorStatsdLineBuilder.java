@@ -19,9 +19,12 @@ import io.micrometer.common.lang.Nullable;
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Statistic;
+import io.micrometer.core.instrument.config.NamingConvention;
 import io.micrometer.core.instrument.util.DoubleFormat;
 import io.micrometer.statsd.StatsdLineBuilder;
+import io.netty.buffer.ByteBuf;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -29,18 +32,25 @@ import static java.util.stream.Stream.of;
 
 public abstract class FlavorStatsdLineBuilder implements StatsdLineBuilder {
 
-    private static final String TYPE_COUNT = "c";
+    static final LineType COUNT = new LineType("c");
 
-    private static final String TYPE_GAUGE = "g";
+    static final LineType GAUGE = new LineType("g");
 
-    private static final String TYPE_HISTOGRAM = "h";
+    static final LineType HISTOGRAM = new LineType("h");
 
-    private static final String TYPE_TIMING = "ms";
+    static final LineType TIMING = new LineType("ms");
+
+    private static final byte[] SAMPLE_RATE_BYTES = "|@".getBytes(StandardCharsets.UTF_8);
+
+    private static final int NO_STATISTIC = Statistic.values().length;
 
     protected final Meter.Id id;
 
     protected final MeterRegistry.Config config;
 
+    @Nullable
+    private volatile EncodedLines encodedLines;
+
     protected FlavorStatsdLineBuilder(Meter.Id id, MeterRegistry.Config config) {
         this.id = id;
         this.config = config;
@@ -48,25 +58,258 @@ public abstract class FlavorStatsdLineBuilder implements StatsdLineBuilder {
 
     @Override
     public String count(long amount, Statistic stat) {
-        return line(Long.toString(amount), stat, TYPE_COUNT);
+        return line(Long.toString(amount), stat, COUNT.type);
     }
 
     @Override
     public String gauge(double amount, Statistic stat) {
-        return line(DoubleFormat.decimalOrNan(amount), stat, TYPE_GAUGE);
+        return line(DoubleFormat.decimalOrNan(amount), stat, GAUGE.type);
     }
 
     @Override
     public String histogram(double amount) {
-        return line(DoubleFormat.decimalOrNan(amount), null, TYPE_HISTOGRAM);
+        return line(DoubleFormat.decimalOrNan(amount), null, histogramType().type);
     }
 
     @Override
     public String timing(double timeMs) {
-        return line(DoubleFormat.decimalOrNan(timeMs), null, TYPE_TIMING);
+        return line(DoubleFormat.decimalOrNan(timeMs), null, timingType().type);
+    }
+
+    /**
+     * A histogram line of an amount that is one of a sample of the recorded amounts.
+     * @param amount amount to record
+     * @param sampleRate fraction of the recorded amounts that are sent
+     * @return a line with the sample rate, or the line of {@link #histogram(double)} if
+     * every amount is sent
+     * @since 1.11.0
+     */
+    public String histogram(double amount, double sampleRate) {
+        return sampledLine(DoubleFormat.decimalOrNan(amount), histogramType(), sampleRate);
+    }
+
+    /**
+     * A timing line of a time that is one of a sample of the recorded times.
+     * @param timeMs time to record in milliseconds
+     * @param sampleRate fraction of the recorded times that are sent
+     * @return a line with the sample rate, or the line of {@link #timing(double)} if every
+     * time is sent
+     * @since 1.11.0
+     */
+    public String timing(double timeMs, double sampleRate) {
+        return sampledLine(DoubleFormat.decimalOrNan(timeMs), timingType(), sampleRate);
+    }
+
+    /**
+     * A single histogram line of many amounts, as understood by DogStatsD.
+     * @param amounts amounts to record
+     * @param count how many of the amounts to record, from the first
+     * @return a line with all the amounts
+     * @since 1.11.0
+     */
+    public String histograms(double[] amounts, int count) {
+        return line(joined(amounts, count), null, histogramType().type);
+    }
+
+    /**
+     * A single timing line of many times, as understood by DogStatsD.
+     * @param timesMs times to record in milliseconds
+     * @param count how many of the times to record, from the first
+     * @return a line with all the times
+     * @since 1.11.0
+     */
+    public String timings(double[] timesMs, int count) {
+        return line(joined(timesMs, count), null, timingType().type);
+    }
+
+    /**
+     * Write the same line as {@link #count(long, Statistic)} to the given buffer, encoded
+     * as UTF-8.
+     * @param amount amount to count
+     * @param stat statistic of the count
+     * @param buffer where to write the line
+     * @since 1.11.0
+     */
+    public void count(long amount, Statistic stat, ByteBuf buffer) {
+        EncodedLine line = encodedLine(stat);
+        buffer.writeBytes(line.prefix);
+        NumberEncoding.writeLong(buffer, amount);
+        buffer.writeBytes(COUNT.bytes);
+        buffer.writeBytes(line.suffix);
+    }
+
+    /**
+     * Write the same line as {@link #gauge(double, Statistic)} to the given buffer,
+     * encoded as UTF-8.
+     * @param amount value of the gauge
+     * @param stat statistic of the value
+     * @param buffer where to write the line
+     * @since 1.11.0
+     */
+    public void gauge(double amount, Statistic stat, ByteBuf buffer) {
+        line(buffer, amount, stat, GAUGE, 1);
+    }
+
+    /**
+     * Write the same line as {@link #histogram(double)} to the given buffer, encoded as
+     * UTF-8.
+     * @param amount amount to record
+     * @param buffer where to write the line
+     * @since 1.11.0
+     */
+    public void histogram(double amount, ByteBuf buffer) {
+        line(buffer, amount, null, histogramType(), 1);
+    }
+
+    /**
+     * Write the same line as {@link #timing(double)} to the given buffer, encoded as
+     * UTF-8.
+     * @param timeMs time to record in milliseconds
+     * @param buffer where to write the line
+     * @since 1.11.0
+     */
+    public void timing(double timeMs, ByteBuf buffer) {
+        line(buffer, timeMs, null, timingType(), 1);
+    }
+
+    /**
+     * Write the same line as {@link #histogram(double, double)} to the given buffer,
+     * encoded as UTF-8.
+     * @param amount amount to record
+     * @param sampleRate fraction of the recorded amounts that are sent
+     * @param buffer where to write the line
+     * @since 1.11.0
+     */
+    public void histogram(double amount, double sampleRate, ByteBuf buffer) {
+        line(buffer, amount, null, histogramType(), sampleRate);
+    }
+
+    /**
+     * Write the same line as {@link #timing(double, double)} to the given buffer, encoded
+     * as UTF-8.
+     * @param timeMs time to record in milliseconds
+     * @param sampleRate fraction of the recorded times that are sent
+     * @param buffer where to write the line
+     * @since 1.11.0
+     */
+    public void timing(double timeMs, double sampleRate, ByteBuf buffer) {
+        line(buffer, timeMs, null, timingType(), sampleRate);
+    }
+
+    /**
+     * Write the same line as {@link #histograms(double[], int)} to the given buffer,
+     * encoded as UTF-8.
+     * @param amounts amounts to record
+     * @param count how many of the amounts to record, from the first
+     * @param buffer where to write the line
+     * @since 1.11.0
+     */
+    public void histograms(double[] amounts, int count, ByteBuf buffer) {
+        line(buffer, amounts, count, histogramType());
+    }
+
+    /**
+     * Write the same line as {@link #timings(double[], int)} to the given buffer, encoded
+     * as UTF-8.
+     * @param timesMs times to record in milliseconds
+     * @param count how many of the times to record, from the first
+     * @param buffer where to write the line
+     * @since 1.11.0
+     */
+    public void timings(double[] timesMs, int count, ByteBuf buffer) {
+        line(buffer, timesMs, count, timingType());
+    }
+
+    /**
+     * @return the type of lines written by {@link #histogram(double)}
+     */
+    LineType histogramType() {
+        return HISTOGRAM;
+    }
+
+    /**
+     * @return the type of lines written by {@link #timing(double)}
+     */
+    LineType timingType() {
+        return TIMING;
     }
 
-    abstract String line(String amount, @Nullable Statistic stat, String type);
+    String line(String amount, @Nullable Statistic stat, String type) {
+        return prefix(stat) + amount + "|" + type + suffix(stat);
+    }
+
+    private String sampledLine(String amount, LineType type, double sampleRate) {
+        if (sampleRate >= 1) {
+            return line(amount, null, type.type);
+        }
+        return prefix(null) + amount + "|" + type.type + "|@" + DoubleFormat.decimalOrNan(sampleRate) + suffix(null);
+    }
+
+    private static String joined(double[] amounts, int count) {
+        StringBuilder joined = new StringBuilder(count * 8);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                joined.append(':');
+            }
+            joined.append(DoubleFormat.decimalOrNan(amounts[i]));
+        }
+        return joined.toString();
+    }
+
+    private void line(ByteBuf buffer, double amount, @Nullable Statistic stat, LineType type, double sampleRate) {
+        EncodedLine line = encodedLine(stat);
+        buffer.writeBytes(line.prefix);
+        NumberEncoding.writeDecimalOrNan(buffer, amount);
+        buffer.writeBytes(type.bytes);
+        if (sampleRate < 1) {
+            buffer.writeBytes(SAMPLE_RATE_BYTES);
+            NumberEncoding.writeDecimalOrNan(buffer, sampleRate);
+        }
+        buffer.writeBytes(line.suffix);
+    }
+
+    private void line(ByteBuf buffer, double[] amounts, int count, LineType type) {
+        EncodedLine line = encodedLine(null);
+        buffer.writeBytes(line.prefix);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                buffer.writeByte(':');
+            }
+            NumberEncoding.writeDecimalOrNan(buffer, amounts[i]);
+        }
+        buffer.writeBytes(type.bytes);
+        buffer.writeBytes(line.suffix);
+    }
+
+    /**
+     * @param stat statistic of the line, if any
+     * @return everything in a line before the amount
+     */
+    abstract String prefix(@Nullable Statistic stat);
+
+    /**
+     * @param stat statistic of the line, if any
+     * @return everything in a line after the type
+     */
+    String suffix(@Nullable Statistic stat) {
+        return "";
+    }
+
+    private EncodedLine encodedLine(@Nullable Statistic stat) {
+        NamingConvention convention = config.namingConvention();
+        EncodedLines lines = this.encodedLines;
+        if (lines == null || lines.convention != convention) {
+            lines = new EncodedLines(convention);
+            this.encodedLines = lines;
+        }
+        int index = stat == null ? NO_STATISTIC : stat.ordinal();
+        EncodedLine line = lines.lines[index];
+        if (line == null) {
+            line = new EncodedLine(prefix(stat), suffix(stat));
+            lines.lines[index] = line;
+        }
+        return line;
+    }
 
     protected String tags(@Nullable Statistic stat, @Nullable String otherTags, String keyValueSeparator,
             String preamble) {
@@ -78,4 +321,52 @@ public abstract class FlavorStatsdLineBuilder implements StatsdLineBuilder {
         return tags;
     }
 
+    /**
+     * A metric type, along with the bytes written for it after an amount.
+     */
+    static final class LineType {
+
+        private final String type;
+
+        private final byte[] bytes;
+
+        LineType(String type) {
+            this.type = type;
+            this.bytes = ("|" + type).getBytes(StandardCharsets.UTF_8);
+        }
+
+    }
+
+    /**
+     * The encoded lines of every statistic under a naming convention.
+     */
+    private static final class EncodedLines {
+
+        private final NamingConvention convention;
+
+        private final EncodedLine[] lines = new EncodedLine[NO_STATISTIC + 1];
+
+        private EncodedLines(NamingConvention convention) {
+            this.convention = convention;
+        }
+
+    }
+
+    /**
+     * The parts of a line around its amount and type, encoded once and written by every
+     * line of the same statistic. Racing threads may each encode them, to the same bytes.
+     */
+    private static final class EncodedLine {
+
+        private final byte[] prefix;
+
+        private final byte[] suffix;
+
+        private EncodedLine(String prefix, String suffix) {
+            this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+            this.suffix = suffix.getBytes(StandardCharsets.UTF_8);
+        }
+
+    }
+
 }
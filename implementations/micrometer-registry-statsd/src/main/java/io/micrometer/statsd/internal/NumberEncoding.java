@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.statsd.internal;
+
+import io.micrometer.core.instrument.util.DoubleFormat;
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes numbers as ASCII digits without formatting them to strings first. The output is
+ * the same as {@link Long#toString(long)} and {@link DoubleFormat#decimalOrNan(double)}.
+ */
+final class NumberEncoding {
+
+    private static final double MAX_EXACT_WHOLE = 1L << 53;
+
+    private static final double MAX_FAST_DECIMAL = 1e9;
+
+    private static final double FRACTION_SCALE = 1e6;
+
+    private static final int FRACTION_DIGITS = 6;
+
+    private NumberEncoding() {
+    }
+
+    static void writeLong(ByteBuf buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.writeCharSequence(Long.toString(value), StandardCharsets.US_ASCII);
+            return;
+        }
+        if (value < 0) {
+            buffer.writeByte('-');
+            value = -value;
+        }
+        writeDigits(buffer, value, digits(value));
+    }
+
+    static void writeDecimalOrNan(ByteBuf buffer, double value) {
+        if (Double.isNaN(value)) {
+            buffer.writeCharSequence("NaN", StandardCharsets.US_ASCII);
+            return;
+        }
+        double abs = Math.abs(value);
+        if (abs < MAX_EXACT_WHOLE && value == Math.rint(value)) {
+            if (value == 0 && Double.doubleToRawLongBits(value) != 0) {
+                buffer.writeCharSequence("-0", StandardCharsets.US_ASCII);
+            }
+            else {
+                writeLong(buffer, (long) value);
+            }
+            return;
+        }
+        if (abs < MAX_FAST_DECIMAL) {
+            double scaled = value * FRACTION_SCALE;
+            double rounded = Math.rint(scaled);
+            // Close to a tie the product may have been rounded to the wrong side of it,
+            // and results rounding to zero keep their sign, leave both to DecimalFormat
+            boolean nearTie = Math.abs(scaled - Math.floor(scaled) - 0.5) <= 2 * Math.ulp(scaled);
+            if (!nearTie && rounded != 0) {
+                long units = (long) rounded;
+                if (units < 0) {
+                    buffer.writeByte('-');
+                    units = -units;
+                }
+                long whole = units / (long) FRACTION_SCALE;
+                writeDigits(buffer, whole, digits(whole));
+                long fraction = units % (long) FRACTION_SCALE;
+                if (fraction != 0) {
+                    int width = FRACTION_DIGITS;
+                    while (fraction % 10 == 0) {
+                        fraction /= 10;
+                        width--;
+                    }
+                    buffer.writeByte('.');
+                    writeDigits(buffer, fraction, width);
+                }
+                return;
+            }
+        }
+        buffer.writeCharSequence(DoubleFormat.decimalOrNan(value), StandardCharsets.UTF_8);
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Write the given non-negative value as exactly {@code width} digits, zero padded.
+     */
+    private static void writeDigits(ByteBuf buffer, long value, int width) {
+        buffer.ensureWritable(width);
+        int start = buffer.writerIndex();
+        for (int index = start + width - 1; index >= start; index--) {
+            buffer.setByte(index, (int) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.writerIndex(start + width);
+    }
+
+}
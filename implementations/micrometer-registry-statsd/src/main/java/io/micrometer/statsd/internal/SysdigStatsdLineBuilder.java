@@ -51,9 +51,9 @@ public class SysdigStatsdLineBuilder extends FlavorStatsdLineBuilder {
     }
 
     @Override
-    String line(String amount, @Nullable Statistic stat, String type) {
+    String prefix(@Nullable Statistic stat) {
         updateIfNamingConventionChanged();
-        return name + tagsByStatistic(stat) + ":" + amount + "|" + type;
+        return name + tagsByStatistic(stat) + ":";
     }
 
     private void updateIfNamingConventionChanged() {
@@ -48,9 +48,9 @@ public class TelegrafStatsdLineBuilder extends FlavorStatsdLineBuilder {
     }
 
     @Override
-    String line(String amount, @Nullable Statistic stat, String type) {
+    String prefix(@Nullable Statistic stat) {
         updateIfNamingConventionChanged();
-        return name + tagsByStatistic(stat) + ":" + amount + "|" + type;
+        return name + tagsByStatistic(stat) + ":";
     }
 
     private void updateIfNamingConventionChanged() {
@@ -42,6 +42,15 @@ class StatsdConfigTest {
                 .hasSize(4);
     }
 
+    @Test
+    void invalidAggregation() {
+        props.put("statsd.aggregation", "bad");
+        props.put("statsd.aggregationSampleRate", "0");
+
+        assertThat(config.validate().failures().stream().map(Validated.Invalid::getMessage)).containsOnly(
+                "should be one of 'NONE', 'COUNTERS', 'SAMPLED', 'PACKED'", "must be greater than 0 and at most 1");
+    }
+
     @Test
     void valid() {
         assertThat(config.validate().isValid()).isTrue();
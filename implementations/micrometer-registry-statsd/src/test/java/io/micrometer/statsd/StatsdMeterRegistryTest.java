@@ -34,7 +34,9 @@ import reactor.test.StepVerifier;
 import reactor.util.concurrent.Queues;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -78,6 +80,31 @@ class StatsdMeterRegistryTest {
         };
     }
 
+    private static StatsdConfig aggregatingConfig(StatsdFlavor flavor, StatsdAggregation aggregation) {
+        return new StatsdConfig() {
+            @Override
+            @Nullable
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public StatsdFlavor flavor() {
+                return flavor;
+            }
+
+            @Override
+            public StatsdAggregation aggregation() {
+                return aggregation;
+            }
+
+            @Override
+            public double aggregationSampleRate() {
+                return 0.5;
+            }
+        };
+    }
+
     @ParameterizedTest
     @EnumSource(StatsdFlavor.class)
     void counterLineProtocol(StatsdFlavor flavor) {
@@ -358,6 +385,70 @@ class StatsdMeterRegistryTest {
         }).expectNext("my.timer:2000|d").expectNext("my.timer2:20000|ms").verifyComplete();
     }
 
+    @Test
+    void countersAreSummedUntilPolledWhenAggregated() {
+        List<String> lines = new ArrayList<>();
+        registry = StatsdMeterRegistry.builder(aggregatingConfig(StatsdFlavor.DATADOG, StatsdAggregation.COUNTERS))
+                .clock(clock).lineSink(lines::add).build();
+
+        Counter counter = registry.counter("my.counter");
+        counter.increment();
+        counter.increment(2);
+        assertThat(lines).isEmpty();
+
+        registry.poll();
+        assertThat(lines).containsExactly("my.counter:3|c|#statistic:count");
+
+        registry.poll();
+        assertThat(lines).hasSize(1);
+        assertThat(counter.count()).isEqualTo(3);
+    }
+
+    @Test
+    void timerRecordingsArePackedUntilPolledWhenAggregated() {
+        List<String> lines = new ArrayList<>();
+        registry = StatsdMeterRegistry.builder(aggregatingConfig(StatsdFlavor.DATADOG, StatsdAggregation.PACKED))
+                .clock(clock).lineSink(lines::add).build();
+
+        Timer timer = registry.timer("my.timer");
+        timer.record(1, TimeUnit.MILLISECONDS);
+        timer.record(2, TimeUnit.MILLISECONDS);
+        DistributionSummary.builder("my.summary").publishPercentileHistogram(true).register(registry).record(3);
+        assertThat(lines).isEmpty();
+
+        registry.poll();
+        assertThat(lines).containsExactlyInAnyOrder("my.timer:1:2|ms", "my.summary:3|d");
+    }
+
+    @Test
+    void packedAggregationSendsEveryRecordingOfOtherFlavors() {
+        List<String> lines = new ArrayList<>();
+        registry = StatsdMeterRegistry.builder(aggregatingConfig(StatsdFlavor.ETSY, StatsdAggregation.PACKED))
+                .clock(clock).lineSink(lines::add).build();
+
+        registry.timer("my.timer").record(1, TimeUnit.MILLISECONDS);
+        registry.counter("my.counter").increment();
+        assertThat(lines).containsExactly("myTimer:1|ms");
+
+        registry.poll();
+        assertThat(lines).containsExactly("myTimer:1|ms", "myCounter.statistic.count:1|c");
+    }
+
+    @Test
+    void timerRecordingsAreSampledWhenAggregated() {
+        List<String> lines = new ArrayList<>();
+        registry = StatsdMeterRegistry.builder(aggregatingConfig(StatsdFlavor.DATADOG, StatsdAggregation.SAMPLED))
+                .clock(clock).lineSink(lines::add).build();
+
+        Timer timer = registry.timer("my.timer");
+        for (int i = 0; i < 1000; i++) {
+            timer.record(1, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(lines).hasSizeBetween(1, 999).containsOnly("my.timer:1|ms|@0.5");
+        assertThat(timer.count()).isEqualTo(1000);
+    }
+
     @Test
     void interactWithStoppedRegistry() {
         registry = new StatsdMeterRegistry(configWithFlavor(StatsdFlavor.ETSY), clock);
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.statsd;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsdPacketSinkTest {
+
+    private final List<ByteBuf> allocated = new CopyOnWriteArrayList<>();
+
+    private final UnpooledByteBufAllocator allocator = new UnpooledByteBufAllocator(false) {
+        @Override
+        protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+            ByteBuf buffer = super.newHeapBuffer(initialCapacity, maxCapacity);
+            allocated.add(buffer);
+            return buffer;
+        }
+    };
+
+    private final Sinks.Many<ByteBuf> packets = Sinks.many().multicast().directAllOrNothing();
+
+    private final List<String> received = new ArrayList<>();
+
+    private void receivePackets() {
+        packets.asFlux().subscribe(packet -> {
+            received.add(packet.toString(StandardCharsets.UTF_8));
+            packet.release();
+        });
+    }
+
+    @Test
+    void linesAreSplitIntoPacketsOfAtMostTheMaxPacketLength() {
+        receivePackets();
+        StatsdPacketSink sink = new StatsdPacketSink(packets, allocator, 12, true, true, false);
+
+        sink.next("a:1|c");
+        sink.next("b:1|c");
+
+        assertThat(received).containsExactly("a:1|c\nb:1|c\n");
+
+        sink.next("c:1|c");
+        sink.next("dd:1|c");
+
+        assertThat(received).containsExactly("a:1|c\nb:1|c\n", "c:1|c\n");
+    }
+
+    @Test
+    void linesLongerThanAPacketAreSentOnTheirOwn() {
+        receivePackets();
+        StatsdPacketSink sink = new StatsdPacketSink(packets, allocator, 10, true, true, false);
+
+        sink.next("a:1|c");
+        sink.next("long.name:1|c");
+
+        assertThat(received).containsExactly("a:1|c\n", "long.name:1|c\n");
+    }
+
+    @Test
+    void unbufferedLinesAreSentAsPacketsOfTheirOwn() {
+        receivePackets();
+        StatsdPacketSink sink = new StatsdPacketSink(packets, allocator, 1400, false, true, false);
+
+        sink.next("a:1|c");
+        sink.next("b:1|c");
+
+        assertThat(received).containsExactly("a:1|c", "b:1|c");
+    }
+
+    @Test
+    void flushSendsThePacketBeingFilled() {
+        receivePackets();
+        StatsdPacketSink sink = new StatsdPacketSink(packets, allocator, 1400, true, true, false);
+
+        sink.next("a:1|c");
+        sink.next("b:1|c");
+        assertThat(received).isEmpty();
+
+        // as done after meters are polled
+        sink.flush();
+        assertThat(received).containsExactly("a:1|c\nb:1|c\n");
+
+        sink.flush();
+        assertThat(received).hasSize(1);
+    }
+
+    @Test
+    void linesAreDroppedWithoutSubscriber() {
+        StatsdPacketSink sink = new StatsdPacketSink(packets, allocator, 1400, true, true, false);
+
+        sink.next("a:1|c");
+        sink.flush();
+
+        assertThat(allocated).isEmpty();
+    }
+
+    @Test
+    void packetsThatCannotBeEmittedAreReleased() {
+        // a subscriber without demand makes every emission fail
+        packets.asFlux().subscribe(new BaseSubscriber<ByteBuf>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+            }
+        });
+        StatsdPacketSink sink = new StatsdPacketSink(packets, allocator, 10, true, true, false);
+
+        sink.next("long.name:1|c");
+        sink.next("a:1|c");
+        sink.flush();
+
+        assertThat(allocated).hasSize(2).allSatisfy(buffer -> assertThat(buffer.refCnt()).isZero());
+    }
+
+}
@@ -23,8 +23,12 @@ import io.micrometer.core.instrument.Statistic;
 import io.micrometer.core.instrument.config.NamingConvention;
 import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class DatadogStatsdLineBuilderTest {
@@ -104,4 +108,31 @@ class DatadogStatsdLineBuilderTest {
                 "my_counter:1|c|#statistic:count,m.123.another.tag:123:value,my_tag:my:value,other_tag:some:value_");
     }
 
+    @Test
+    void writeSameLinesAsBytes() {
+        DistributionSummary s = registry.summary("my.summary", "tag", "value");
+        DatadogStatsdLineBuilder lb = new DatadogStatsdLineBuilder(s.getId(), registry.config(), null);
+        DatadogStatsdLineBuilder distribution = new DatadogStatsdLineBuilder(s.getId(), registry.config(),
+                DistributionStatisticConfig.builder().percentilesHistogram(true).build());
+
+        ByteBuf buffer = Unpooled.buffer();
+        lb.count(2, Statistic.TOTAL, buffer);
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo(lb.count(2, Statistic.TOTAL));
+
+        buffer.clear();
+        lb.gauge(1.2345678, Statistic.VALUE, buffer);
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo(lb.gauge(1.2345678, Statistic.VALUE));
+
+        buffer.clear();
+        distribution.histogram(-0.5, buffer);
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo(distribution.histogram(-0.5))
+                .isEqualTo("my_summary:-0.5|d|#tag:value");
+
+        registry.config().namingConvention(NamingConvention.camelCase);
+        buffer.clear();
+        lb.timing(Double.NaN, buffer);
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo(lb.timing(Double.NaN))
+                .isEqualTo("mySummary:NaN|ms|#tag:value");
+    }
+
 }
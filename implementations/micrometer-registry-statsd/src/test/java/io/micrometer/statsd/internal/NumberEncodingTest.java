@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.statsd.internal;
+
+import io.micrometer.core.instrument.util.DoubleFormat;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NumberEncodingTest {
+
+    private final ByteBuf buffer = Unpooled.buffer();
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0, 1, -1, 9, 10, -10, 1234567890, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1 })
+    void writeLong(long value) {
+        NumberEncoding.writeLong(buffer, value);
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo(Long.toString(value));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = { 0.0, -0.0, 1, -1, 0.5, 1.2345678, 0.0078125, 1.0000005, 2.5e-7, -2.5e-7, 1e-7,
+            123456.1234565, 99.9999995, 1e9 + 0.5, 9007199254740993.0, 1e20, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.MAX_VALUE, Double.MIN_VALUE })
+    void writeDecimalOrNan(double value) {
+        NumberEncoding.writeDecimalOrNan(buffer, value);
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo(DoubleFormat.decimalOrNan(value));
+    }
+
+    @Test
+    void writeRandomDecimalsLikeDoubleFormat() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double[] values = { random.nextDouble() * 1000, random.nextInt(1_000_000) / 1e6,
+                    random.nextInt(100_000) / 128.0, random.nextGaussian() * Math.pow(10, random.nextInt(20) - 10),
+                    Double.longBitsToDouble(random.nextLong()) };
+            for (double value : values) {
+                buffer.clear();
+                NumberEncoding.writeDecimalOrNan(buffer, value);
+                assertThat(buffer.toString(StandardCharsets.UTF_8)).as("%s", value)
+                        .isEqualTo(DoubleFormat.decimalOrNan(value));
+            }
+        }
+    }
+
+}
@@ -40,20 +40,35 @@ public final class KeyValues implements Iterable<KeyValue> {
 
     private final KeyValue[] keyValues;
 
-    private int last;
+    private final int last;
+
+    // cached hash code, computed lazily as key values are immutable
+    private int hash;
 
     private KeyValues(KeyValue[] keyValues) {
         this.keyValues = keyValues;
         Arrays.sort(this.keyValues);
-        dedup();
+        this.last = dedup(this.keyValues, this.keyValues.length);
     }
 
-    private void dedup() {
-        int n = keyValues.length;
+    /**
+     * @param sortedKeyValues key values that are already sorted and deduplicated up to
+     * {@code last}
+     * @param last the number of key values in use in {@code sortedKeyValues}
+     */
+    private KeyValues(KeyValue[] sortedKeyValues, int last) {
+        this.keyValues = sortedKeyValues;
+        this.last = last;
+    }
 
+    /**
+     * Deduplicate sorted key values in place, keeping the last of the key values having
+     * the same key.
+     * @return the number of unique key values
+     */
+    private static int dedup(KeyValue[] keyValues, int n) {
         if (n == 0 || n == 1) {
-            last = n;
-            return;
+            return n;
         }
 
         // index of next unique element
@@ -64,7 +79,47 @@ public final class KeyValues implements Iterable<KeyValue> {
                 keyValues[j++] = keyValues[i];
 
         keyValues[j++] = keyValues[n - 1];
-        last = j;
+        return j;
+    }
+
+    /**
+     * Merge this collection and the specified one in linear time, as both are sorted. On
+     * key conflicts the key value of {@code other} wins.
+     */
+    private KeyValues merge(KeyValues other) {
+        if (other.last == 0) {
+            return this;
+        }
+        if (last == 0) {
+            return other;
+        }
+
+        KeyValue[] merged = new KeyValue[last + other.last];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < last && j < other.last) {
+            int comparison = keyValues[i].compareTo(other.keyValues[j]);
+            if (comparison < 0) {
+                merged[k++] = keyValues[i++];
+            }
+            else if (comparison > 0) {
+                merged[k++] = other.keyValues[j++];
+            }
+            else {
+                merged[k++] = other.keyValues[j++];
+                i++;
+            }
+        }
+        if (i < last) {
+            System.arraycopy(keyValues, i, merged, k, last - i);
+            k += last - i;
+        }
+        if (j < other.last) {
+            System.arraycopy(other.keyValues, j, merged, k, other.last - j);
+            k += other.last - j;
+        }
+        return new KeyValues(merged, k);
     }
 
     /**
@@ -101,10 +156,7 @@ public final class KeyValues implements Iterable<KeyValue> {
         if (keyValues == null || keyValues.length == 0) {
             return this;
         }
-        KeyValue[] newKeyValues = new KeyValue[last + keyValues.length];
-        System.arraycopy(this.keyValues, 0, newKeyValues, 0, last);
-        System.arraycopy(keyValues, 0, newKeyValues, last, keyValues.length);
-        return new KeyValues(newKeyValues);
+        return merge(new KeyValues(Arrays.copyOf(keyValues, keyValues.length)));
     }
 
     /**
@@ -136,11 +188,7 @@ public final class KeyValues implements Iterable<KeyValue> {
             return this;
         }
 
-        if (this.keyValues.length == 0) {
-            return KeyValues.of(keyValues);
-        }
-
-        return and(KeyValues.of(keyValues).keyValues);
+        return merge(KeyValues.of(keyValues));
     }
 
     @Override
@@ -185,9 +233,13 @@ public final class KeyValues implements Iterable<KeyValue> {
 
     @Override
     public int hashCode() {
-        int result = 1;
-        for (int i = 0; i < last; i++) {
-            result = 31 * result + keyValues[i].hashCode();
+        int result = hash;
+        if (result == 0) {
+            result = 1;
+            for (int i = 0; i < last; i++) {
+                result = 31 * result + keyValues[i].hashCode();
+            }
+            hash = result;
         }
         return result;
     }
@@ -204,6 +256,9 @@ public final class KeyValues implements Iterable<KeyValue> {
         if (last != obj.last)
             return false;
 
+        if (hash != 0 && obj.hash != 0 && hash != obj.hash)
+            return false;
+
         for (int i = 0; i < last; i++) {
             if (!keyValues[i].equals(obj.keyValues[i]))
                 return false;
@@ -320,9 +375,106 @@ public final class KeyValues implements Iterable<KeyValue> {
         return EMPTY;
     }
 
+    /**
+     * Return a new builder to assemble key values without creating intermediate
+     * {@code KeyValues} instances.
+     * @return a new {@code KeyValues} builder
+     * @since 1.11.0
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
     @Override
     public String toString() {
         return stream().map(KeyValue::toString).collect(joining(",", "[", "]"));
     }
 
+    /**
+     * A mutable builder of {@link KeyValues}. Key values are only sorted and
+     * deduplicated once, when {@link #build()} is called, and the built instance takes
+     * over the builder's array until more key values are added.
+     *
+     * @since 1.11.0
+     */
+    public static final class Builder {
+
+        private KeyValue[] keyValues = new KeyValue[8];
+
+        private int size;
+
+        // whether the array is owned by a built KeyValues instance and must be copied on
+        // write
+        private boolean shared;
+
+        private Builder() {
+        }
+
+        /**
+         * @param key the key to add
+         * @param value the value to add
+         * @return this builder
+         */
+        public Builder keyValue(String key, String value) {
+            return keyValue(KeyValue.of(key, value));
+        }
+
+        /**
+         * @param keyValue the key value to add
+         * @return this builder
+         */
+        public Builder keyValue(KeyValue keyValue) {
+            if (shared || size == keyValues.length) {
+                keyValues = Arrays.copyOf(keyValues, size == keyValues.length ? size * 2 : keyValues.length);
+                shared = false;
+            }
+            keyValues[size++] = keyValue;
+            return this;
+        }
+
+        /**
+         * @param keyValues MUST be an even number of arguments representing key/value
+         * pairs
+         * @return this builder
+         */
+        public Builder keyValues(String... keyValues) {
+            if (keyValues.length % 2 == 1) {
+                throw new IllegalArgumentException("size must be even, it is a set of key=value pairs");
+            }
+            for (int i = 0; i < keyValues.length; i += 2) {
+                keyValue(keyValues[i], keyValues[i + 1]);
+            }
+            return this;
+        }
+
+        /**
+         * @param keyValues the key values to add
+         * @return this builder
+         */
+        public Builder keyValues(Iterable<? extends KeyValue> keyValues) {
+            for (KeyValue keyValue : keyValues) {
+                keyValue(keyValue);
+            }
+            return this;
+        }
+
+        /**
+         * Sort and deduplicate the key values added so far, keeping the last key value
+         * added for each key.
+         * @return the built key values
+         */
+        public KeyValues build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            Arrays.sort(keyValues, 0, size);
+            int last = dedup(keyValues, size);
+            // dedup compacted the array, continue adding after the unique key values
+            size = last;
+            shared = true;
+            return new KeyValues(keyValues, last);
+        }
+
+    }
+
 }
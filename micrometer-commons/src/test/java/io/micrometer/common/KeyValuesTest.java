@@ -400,4 +400,28 @@ class KeyValuesTest {
                 KeyValue.of("can", "trace"));
     }
 
+    @Test
+    void andSortedKeyValuesMergesAndReplacesValues() {
+        KeyValues keyValues = KeyValues.of("b", "1", "d", "2").and(KeyValues.of("a", "3", "d", "4", "e", "5"));
+        assertThat(keyValues).containsExactly(KeyValue.of("a", "3"), KeyValue.of("b", "1"), KeyValue.of("d", "4"),
+                KeyValue.of("e", "5"));
+    }
+
+    @Test
+    void builderSortsAndDeduplicates() {
+        KeyValues keyValues = KeyValues.builder().keyValue("k2", "v2").keyValues("k1", "v1", "k2", "v3").build();
+        assertThat(keyValues).containsExactly(KeyValue.of("k1", "v1"), KeyValue.of("k2", "v3"));
+        assertThat(keyValues).isEqualTo(KeyValues.of("k1", "v1", "k2", "v3"));
+        assertThat(keyValues.hashCode()).isEqualTo(KeyValues.of("k1", "v1", "k2", "v3").hashCode());
+    }
+
+    @Test
+    void builderDoesNotChangePreviouslyBuiltKeyValues() {
+        KeyValues.Builder builder = KeyValues.builder().keyValue("k1", "v1");
+        KeyValues first = builder.build();
+        KeyValues second = builder.keyValue("k0", "v0").build();
+        assertThat(first).containsExactly(KeyValue.of("k1", "v1"));
+        assertThat(second).containsExactly(KeyValue.of("k0", "v0"), KeyValue.of("k1", "v1"));
+    }
+
 }
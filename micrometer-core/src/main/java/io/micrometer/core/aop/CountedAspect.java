@@ -16,15 +16,16 @@
 package io.micrometer.core.aop;
 
 import io.micrometer.common.lang.NonNullApi;
+import io.micrometer.common.lang.Nullable;
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.instrument.*;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 
-import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -64,6 +65,11 @@ import java.util.function.Predicate;
  *     return targetClass.isAnnotationPresent(RestController.class) || targetClass.isAnnotationPresent(Controller.class);
  * }
  * </pre>
+ * <p>
+ * With the default tags, which only depend on the method, the counters of a method are
+ * only registered on the first invocation that has each result; a custom tags provider
+ * function is applied on every invocation since its tags may depend on the arguments.
+ * </p>
  *
  * @author Ali Dehghani
  * @author Jonatan Ivanov
@@ -76,6 +82,10 @@ public class CountedAspect {
 
     private static final Predicate<ProceedingJoinPoint> DONT_SKIP_ANYTHING = pjp -> false;
 
+    private static final Function<ProceedingJoinPoint, Iterable<Tag>> CLASS_AND_METHOD_TAGS = pjp -> Tags.of("class",
+            pjp.getStaticPart().getSignature().getDeclaringTypeName(), "method",
+            pjp.getStaticPart().getSignature().getName());
+
     public final String DEFAULT_EXCEPTION_TAG_VALUE = "none";
 
     public final String RESULT_TAG_FAILURE_VALUE = "failure";
@@ -108,6 +118,8 @@ public class CountedAspect {
      */
     private final Predicate<ProceedingJoinPoint> shouldSkip;
 
+    private final Map<InterceptedMethod, CountedMethod> countedMethods = new ConcurrentHashMap<>();
+
     /**
      * Creates a {@code CountedAspect} instance with {@link Metrics#globalRegistry}.
      *
@@ -144,8 +156,7 @@ public class CountedAspect {
      * @since 1.7.0
      */
     public CountedAspect(MeterRegistry registry, Predicate<ProceedingJoinPoint> shouldSkip) {
-        this(registry, pjp -> Tags.of("class", pjp.getStaticPart().getSignature().getDeclaringTypeName(), "method",
-                pjp.getStaticPart().getSignature().getName()), shouldSkip);
+        this(registry, CLASS_AND_METHOD_TAGS, shouldSkip);
     }
 
     /**
@@ -162,6 +173,9 @@ public class CountedAspect {
         this.registry = registry;
         this.tagsBasedOnJoinPoint = tagsBasedOnJoinPoint;
         this.shouldSkip = shouldSkip;
+        if (tagsBasedOnJoinPoint == CLASS_AND_METHOD_TAGS) {
+            registry.config().onMeterRemoved(this::evict);
+        }
     }
 
     /**
@@ -188,16 +202,25 @@ public class CountedAspect {
             return pjp.proceed();
         }
 
-        final Method method = ((MethodSignature) pjp.getSignature()).getMethod();
-        final boolean stopWhenCompleted = CompletionStage.class.isAssignableFrom(method.getReturnType());
+        InterceptedMethod intercepted = new InterceptedMethod(pjp);
+        CountedMethod countedMethod = countedMethods.get(intercepted);
+        if (countedMethod == null) {
+            countedMethod = new CountedMethod(
+                    CompletionStage.class.isAssignableFrom(intercepted.getMethod().getReturnType()));
+            CountedMethod cached = countedMethods.putIfAbsent(intercepted, countedMethod);
+            if (cached != null) {
+                countedMethod = cached;
+            }
+        }
+        CountedMethod method = countedMethod;
 
-        if (stopWhenCompleted) {
+        if (method.stopWhenCompleted) {
             try {
                 return ((CompletionStage<?>) pjp.proceed())
-                        .whenComplete((result, throwable) -> recordCompletionResult(pjp, counted, throwable));
+                        .whenComplete((result, throwable) -> recordCompletionResult(pjp, counted, method, throwable));
             }
             catch (Throwable e) {
-                record(pjp, counted, e.getClass().getSimpleName(), RESULT_TAG_FAILURE_VALUE);
+                recordFailure(pjp, counted, method, e.getClass().getSimpleName());
                 throw e;
             }
         }
@@ -205,32 +228,68 @@ public class CountedAspect {
         try {
             Object result = pjp.proceed();
             if (!counted.recordFailuresOnly()) {
-                record(pjp, counted, DEFAULT_EXCEPTION_TAG_VALUE, RESULT_TAG_SUCCESS_VALUE);
+                recordSuccess(pjp, counted, method);
             }
             return result;
         }
         catch (Throwable e) {
-            record(pjp, counted, e.getClass().getSimpleName(), RESULT_TAG_FAILURE_VALUE);
+            recordFailure(pjp, counted, method, e.getClass().getSimpleName());
             throw e;
         }
     }
 
-    private void recordCompletionResult(ProceedingJoinPoint pjp, Counted counted, Throwable throwable) {
+    private void recordCompletionResult(ProceedingJoinPoint pjp, Counted counted, CountedMethod method,
+            Throwable throwable) {
 
         if (throwable != null) {
             String exceptionTagValue = throwable.getCause() == null ? throwable.getClass().getSimpleName()
                     : throwable.getCause().getClass().getSimpleName();
-            record(pjp, counted, exceptionTagValue, RESULT_TAG_FAILURE_VALUE);
+            recordFailure(pjp, counted, method, exceptionTagValue);
         }
         else if (!counted.recordFailuresOnly()) {
-            record(pjp, counted, DEFAULT_EXCEPTION_TAG_VALUE, RESULT_TAG_SUCCESS_VALUE);
+            recordSuccess(pjp, counted, method);
         }
 
     }
 
-    private void record(ProceedingJoinPoint pjp, Counted counted, String exception, String result) {
-        counter(pjp, counted).tag(EXCEPTION_TAG, exception).tag(RESULT_TAG, result).tags(counted.extraTags())
-                .register(registry).increment();
+    private void recordSuccess(ProceedingJoinPoint pjp, Counted counted, CountedMethod method) {
+        if (tagsBasedOnJoinPoint != CLASS_AND_METHOD_TAGS) {
+            register(pjp, counted, DEFAULT_EXCEPTION_TAG_VALUE, RESULT_TAG_SUCCESS_VALUE).increment();
+            return;
+        }
+        Counter success = method.success;
+        if (success == null) {
+            success = register(pjp, counted, DEFAULT_EXCEPTION_TAG_VALUE, RESULT_TAG_SUCCESS_VALUE);
+            method.success = success;
+        }
+        success.increment();
+    }
+
+    private void recordFailure(ProceedingJoinPoint pjp, Counted counted, CountedMethod method, String exception) {
+        if (tagsBasedOnJoinPoint != CLASS_AND_METHOD_TAGS) {
+            register(pjp, counted, exception, RESULT_TAG_FAILURE_VALUE).increment();
+            return;
+        }
+        Counter failure = method.failures.get(exception);
+        if (failure == null) {
+            failure = register(pjp, counted, exception, RESULT_TAG_FAILURE_VALUE);
+            method.failures.put(exception, failure);
+        }
+        failure.increment();
+    }
+
+    private Counter register(ProceedingJoinPoint pjp, Counted counted, String exception, String result) {
+        return counter(pjp, counted).tag(EXCEPTION_TAG, exception).tag(RESULT_TAG, result).tags(counted.extraTags())
+                .register(registry);
+    }
+
+    private void evict(Meter meter) {
+        for (CountedMethod method : countedMethods.values()) {
+            if (method.success == meter) {
+                method.success = null;
+            }
+            method.failures.values().remove(meter);
+        }
     }
 
     private Counter.Builder counter(ProceedingJoinPoint pjp, Counted counted) {
@@ -242,4 +301,23 @@ public class CountedAspect {
         return builder;
     }
 
+    /**
+     * Whether a method is asynchronous and, with the default tags, its counters.
+     */
+    private static final class CountedMethod {
+
+        private final boolean stopWhenCompleted;
+
+        @Nullable
+        private volatile Counter success;
+
+        // by the exception tag value
+        private final Map<String, Counter> failures = new ConcurrentHashMap<>();
+
+        CountedMethod(boolean stopWhenCompleted) {
+            this.stopWhenCompleted = stopWhenCompleted;
+        }
+
+    }
+
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.core.aop;
+
+import io.micrometer.common.lang.Nullable;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+
+/**
+ * The method of a join point together with the class of its target, for which the aspects
+ * cache what they resolve on the first invocation. The target class is part of it since
+ * an annotation can be found on the target rather than on the method, like when the
+ * method is declared by an interface.
+ */
+final class InterceptedMethod {
+
+    private final Method method;
+
+    @Nullable
+    private final Class<?> targetClass;
+
+    InterceptedMethod(ProceedingJoinPoint pjp) {
+        this.method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Object target = pjp.getTarget();
+        this.targetClass = target != null ? target.getClass() : null;
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        InterceptedMethod that = (InterceptedMethod) o;
+        return method.equals(that.method) && targetClass == that.targetClass;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * method.hashCode() + Objects.hashCode(targetClass);
+    }
+
+}
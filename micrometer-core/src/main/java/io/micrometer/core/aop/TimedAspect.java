@@ -23,11 +23,12 @@ import io.micrometer.core.instrument.*;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -66,6 +67,13 @@ import java.util.function.Predicate;
  *     return targetClass.isAnnotationPresent(RestController.class) || targetClass.isAnnotationPresent(Controller.class);
  * }
  * </pre>
+ * <p>
+ * The {@link Timed @Timed} annotation of a method is only looked up on its first
+ * invocation. With the default tags, which only depend on the method, its timers are also
+ * only registered on the first invocation that ends with each exception; a custom tags
+ * provider function is applied on every invocation since its tags may depend on the
+ * arguments.
+ * </p>
  *
  * @author David J. M. Karlsen
  * @author Jon Schneider
@@ -81,6 +89,10 @@ public class TimedAspect {
 
     private static final Predicate<ProceedingJoinPoint> DONT_SKIP_ANYTHING = pjp -> false;
 
+    private static final Function<ProceedingJoinPoint, Iterable<Tag>> CLASS_AND_METHOD_TAGS = pjp -> Tags.of("class",
+            pjp.getStaticPart().getSignature().getDeclaringTypeName(), "method",
+            pjp.getStaticPart().getSignature().getName());
+
     public static final String DEFAULT_METRIC_NAME = "method.timed";
 
     public static final String DEFAULT_EXCEPTION_TAG_VALUE = "none";
@@ -98,6 +110,10 @@ public class TimedAspect {
 
     private final Predicate<ProceedingJoinPoint> shouldSkip;
 
+    private final Map<InterceptedMethod, TimedMethod> classTimedMethods = new ConcurrentHashMap<>();
+
+    private final Map<InterceptedMethod, TimedMethod> timedMethods = new ConcurrentHashMap<>();
+
     /**
      * Creates a {@code TimedAspect} instance with {@link Metrics#globalRegistry}.
      *
@@ -134,8 +150,7 @@ public class TimedAspect {
      * @since 1.7.0
      */
     public TimedAspect(MeterRegistry registry, Predicate<ProceedingJoinPoint> shouldSkip) {
-        this(registry, pjp -> Tags.of("class", pjp.getStaticPart().getSignature().getDeclaringTypeName(), "method",
-                pjp.getStaticPart().getSignature().getName()), shouldSkip);
+        this(registry, CLASS_AND_METHOD_TAGS, shouldSkip);
     }
 
     /**
@@ -152,6 +167,9 @@ public class TimedAspect {
         this.registry = registry;
         this.tagsBasedOnJoinPoint = tagsBasedOnJoinPoint;
         this.shouldSkip = shouldSkip;
+        if (tagsBasedOnJoinPoint == CLASS_AND_METHOD_TAGS) {
+            registry.config().onMeterRemoved(this::evict);
+        }
     }
 
     @Around("@within(io.micrometer.core.annotation.Timed)")
@@ -161,14 +179,19 @@ public class TimedAspect {
             return pjp.proceed();
         }
 
-        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
-        Class<?> declaringClass = method.getDeclaringClass();
-        if (!declaringClass.isAnnotationPresent(Timed.class)) {
-            declaringClass = pjp.getTarget().getClass();
+        InterceptedMethod intercepted = new InterceptedMethod(pjp);
+        TimedMethod timedMethod = classTimedMethods.get(intercepted);
+        if (timedMethod == null) {
+            Method method = intercepted.getMethod();
+            Class<?> declaringClass = method.getDeclaringClass();
+            if (!declaringClass.isAnnotationPresent(Timed.class)) {
+                declaringClass = pjp.getTarget().getClass();
+            }
+            Timed timed = declaringClass.getAnnotation(Timed.class);
+            timedMethod = cache(classTimedMethods, intercepted, new TimedMethod(timed, method));
         }
-        Timed timed = declaringClass.getAnnotation(Timed.class);
 
-        return perform(pjp, timed, method);
+        return perform(pjp, timedMethod);
     }
 
     @Around("execution (@io.micrometer.core.annotation.Timed * *.*(..))")
@@ -178,40 +201,52 @@ public class TimedAspect {
             return pjp.proceed();
         }
 
-        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
-        Timed timed = method.getAnnotation(Timed.class);
-        if (timed == null) {
-            method = pjp.getTarget().getClass().getMethod(method.getName(), method.getParameterTypes());
-            timed = method.getAnnotation(Timed.class);
+        InterceptedMethod intercepted = new InterceptedMethod(pjp);
+        TimedMethod timedMethod = timedMethods.get(intercepted);
+        if (timedMethod == null) {
+            Method method = intercepted.getMethod();
+            Timed timed = method.getAnnotation(Timed.class);
+            if (timed == null) {
+                method = pjp.getTarget().getClass().getMethod(method.getName(), method.getParameterTypes());
+                timed = method.getAnnotation(Timed.class);
+            }
+            timedMethod = cache(timedMethods, intercepted, new TimedMethod(timed, method));
         }
 
-        return perform(pjp, timed, method);
+        return perform(pjp, timedMethod);
     }
 
-    private Object perform(ProceedingJoinPoint pjp, Timed timed, Method method) throws Throwable {
-        final String metricName = timed.value().isEmpty() ? DEFAULT_METRIC_NAME : timed.value();
-        final boolean stopWhenCompleted = CompletionStage.class.isAssignableFrom(method.getReturnType());
+    private static TimedMethod cache(Map<InterceptedMethod, TimedMethod> timedMethods, InterceptedMethod intercepted,
+            TimedMethod timedMethod) {
+        TimedMethod cached = timedMethods.putIfAbsent(intercepted, timedMethod);
+        return cached != null ? cached : timedMethod;
+    }
 
-        if (!timed.longTask()) {
-            return processWithTimer(pjp, timed, metricName, stopWhenCompleted);
+    private void evict(Meter meter) {
+        classTimedMethods.values().forEach(timedMethod -> timedMethod.evict(meter));
+        timedMethods.values().forEach(timedMethod -> timedMethod.evict(meter));
+    }
+
+    private Object perform(ProceedingJoinPoint pjp, TimedMethod timedMethod) throws Throwable {
+        if (!timedMethod.timed.longTask()) {
+            return processWithTimer(pjp, timedMethod);
         }
         else {
-            return processWithLongTaskTimer(pjp, timed, metricName, stopWhenCompleted);
+            return processWithLongTaskTimer(pjp, timedMethod);
         }
     }
 
-    private Object processWithTimer(ProceedingJoinPoint pjp, Timed timed, String metricName, boolean stopWhenCompleted)
-            throws Throwable {
+    private Object processWithTimer(ProceedingJoinPoint pjp, TimedMethod timedMethod) throws Throwable {
 
         Timer.Sample sample = Timer.start(registry);
 
-        if (stopWhenCompleted) {
+        if (timedMethod.stopWhenCompleted) {
             try {
                 return ((CompletionStage<?>) pjp.proceed()).whenComplete(
-                        (result, throwable) -> record(pjp, timed, metricName, sample, getExceptionTag(throwable)));
+                        (result, throwable) -> record(pjp, timedMethod, sample, getExceptionTag(throwable)));
             }
             catch (Exception ex) {
-                record(pjp, timed, metricName, sample, ex.getClass().getSimpleName());
+                record(pjp, timedMethod, sample, ex.getClass().getSimpleName());
                 throw ex;
             }
         }
@@ -225,25 +260,37 @@ public class TimedAspect {
             throw ex;
         }
         finally {
-            record(pjp, timed, metricName, sample, exceptionClass);
+            record(pjp, timedMethod, sample, exceptionClass);
         }
     }
 
-    private void record(ProceedingJoinPoint pjp, Timed timed, String metricName, Timer.Sample sample,
-            String exceptionClass) {
+    private void record(ProceedingJoinPoint pjp, TimedMethod timedMethod, Timer.Sample sample, String exceptionClass) {
         try {
-            sample.stop(
-                    Timer.builder(metricName).description(timed.description().isEmpty() ? null : timed.description())
-                            .tags(timed.extraTags()).tags(EXCEPTION_TAG, exceptionClass)
-                            .tags(tagsBasedOnJoinPoint.apply(pjp)).publishPercentileHistogram(timed.histogram())
-                            .publishPercentiles(timed.percentiles().length == 0 ? null : timed.percentiles())
-                            .register(registry));
+            if (tagsBasedOnJoinPoint != CLASS_AND_METHOD_TAGS) {
+                sample.stop(buildTimer(pjp, timedMethod, exceptionClass));
+                return;
+            }
+            Timer timer = timedMethod.timers.get(exceptionClass);
+            if (timer == null) {
+                timer = buildTimer(pjp, timedMethod, exceptionClass);
+                timedMethod.timers.put(exceptionClass, timer);
+            }
+            sample.stop(timer);
         }
         catch (Exception e) {
             // ignoring on purpose
         }
     }
 
+    private Timer buildTimer(ProceedingJoinPoint pjp, TimedMethod timedMethod, String exceptionClass) {
+        Timed timed = timedMethod.timed;
+        return Timer.builder(timedMethod.metricName)
+                .description(timed.description().isEmpty() ? null : timed.description()).tags(timed.extraTags())
+                .tags(EXCEPTION_TAG, exceptionClass).tags(tagsBasedOnJoinPoint.apply(pjp))
+                .publishPercentileHistogram(timed.histogram())
+                .publishPercentiles(timed.percentiles().length == 0 ? null : timed.percentiles()).register(registry);
+    }
+
     private String getExceptionTag(Throwable throwable) {
 
         if (throwable == null) {
@@ -257,12 +304,11 @@ public class TimedAspect {
         return throwable.getCause().getClass().getSimpleName();
     }
 
-    private Object processWithLongTaskTimer(ProceedingJoinPoint pjp, Timed timed, String metricName,
-            boolean stopWhenCompleted) throws Throwable {
+    private Object processWithLongTaskTimer(ProceedingJoinPoint pjp, TimedMethod timedMethod) throws Throwable {
 
-        Optional<LongTaskTimer.Sample> sample = buildLongTaskTimer(pjp, timed, metricName).map(LongTaskTimer::start);
+        Optional<LongTaskTimer.Sample> sample = longTaskTimer(pjp, timedMethod).map(LongTaskTimer::start);
 
-        if (stopWhenCompleted) {
+        if (timedMethod.stopWhenCompleted) {
             try {
                 return ((CompletionStage<?>) pjp.proceed())
                         .whenComplete((result, throwable) -> sample.ifPresent(this::stopTimer));
@@ -290,13 +336,27 @@ public class TimedAspect {
         }
     }
 
+    private Optional<LongTaskTimer> longTaskTimer(ProceedingJoinPoint pjp, TimedMethod timedMethod) {
+        if (tagsBasedOnJoinPoint != CLASS_AND_METHOD_TAGS) {
+            return buildLongTaskTimer(pjp, timedMethod);
+        }
+        LongTaskTimer longTaskTimer = timedMethod.longTaskTimer;
+        if (longTaskTimer == null) {
+            Optional<LongTaskTimer> built = buildLongTaskTimer(pjp, timedMethod);
+            built.ifPresent(timer -> timedMethod.longTaskTimer = timer);
+            return built;
+        }
+        return Optional.of(longTaskTimer);
+    }
+
     /**
      * Secure long task timer creation - it should not disrupt the application flow in
      * case of exception
      */
-    private Optional<LongTaskTimer> buildLongTaskTimer(ProceedingJoinPoint pjp, Timed timed, String metricName) {
+    private Optional<LongTaskTimer> buildLongTaskTimer(ProceedingJoinPoint pjp, TimedMethod timedMethod) {
+        Timed timed = timedMethod.timed;
         try {
-            return Optional.of(LongTaskTimer.builder(metricName)
+            return Optional.of(LongTaskTimer.builder(timedMethod.metricName)
                     .description(timed.description().isEmpty() ? null : timed.description()).tags(timed.extraTags())
                     .tags(tagsBasedOnJoinPoint.apply(pjp)).register(registry));
         }
@@ -305,4 +365,36 @@ public class TimedAspect {
         }
     }
 
+    /**
+     * A method's {@link Timed @Timed} annotation and, with the default tags, its timers.
+     */
+    private static final class TimedMethod {
+
+        private final Timed timed;
+
+        private final String metricName;
+
+        private final boolean stopWhenCompleted;
+
+        // by the exception tag value
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+        @Nullable
+        private volatile LongTaskTimer longTaskTimer;
+
+        TimedMethod(Timed timed, Method method) {
+            this.timed = timed;
+            this.metricName = timed.value().isEmpty() ? DEFAULT_METRIC_NAME : timed.value();
+            this.stopWhenCompleted = CompletionStage.class.isAssignableFrom(method.getReturnType());
+        }
+
+        void evict(Meter meter) {
+            timers.values().remove(meter);
+            if (longTaskTimer == meter) {
+                longTaskTimer = null;
+            }
+        }
+
+    }
+
 }
@@ -196,6 +196,17 @@ public interface Meter {
         @Nullable
         private final String baseUnit;
 
+        // cached hash code, computed lazily as the name and tags are immutable
+        private int hash;
+
+        // last computed convention name and tags along with the naming convention they
+        // were computed with, registries generally use a single naming convention
+        @Nullable
+        private ConventionForm<String> conventionName;
+
+        @Nullable
+        private ConventionForm<List<Tag>> conventionTags;
+
         @Incubating(since = "1.1.0")
         Id(String name, Tags tags, @Nullable String baseUnit, @Nullable String description, Type type,
                 @Nullable Meter.Id syntheticAssociation) {
@@ -319,19 +330,32 @@ public interface Meter {
          * expectations.
          */
         public String getConventionName(NamingConvention namingConvention) {
-            return namingConvention.name(name, type, baseUnit);
+            ConventionForm<String> cached = conventionName;
+            if (cached != null && cached.namingConvention == namingConvention) {
+                return cached.value;
+            }
+            String conventionName = namingConvention.name(name, type, baseUnit);
+            this.conventionName = new ConventionForm<>(namingConvention, conventionName);
+            return conventionName;
         }
 
         /**
          * Tags that are sorted by key and formatted
          * @param namingConvention The naming convention used to normalize the id's name.
          * @return A list of tags that have been stylized to a particular monitoring
-         * system's expectations.
+         * system's expectations. Every call returns a new list, which callers may modify.
          */
         public List<Tag> getConventionTags(NamingConvention namingConvention) {
-            return StreamSupport.stream(tags.spliterator(), false)
+            ConventionForm<List<Tag>> cached = conventionTags;
+            if (cached != null && cached.namingConvention == namingConvention) {
+                return new ArrayList<>(cached.value);
+            }
+            List<Tag> conventionTags = StreamSupport.stream(tags.spliterator(), false)
                     .map(t -> Tag.of(namingConvention.tagKey(t.getKey()), namingConvention.tagValue(t.getValue())))
                     .collect(Collectors.toList());
+            // the cached tags are copied, so they are never modified
+            this.conventionTags = new ConventionForm<>(namingConvention, new ArrayList<>(conventionTags));
+            return conventionTags;
         }
 
         /**
@@ -355,13 +379,19 @@ public interface Meter {
             if (o == null || getClass() != o.getClass())
                 return false;
             Meter.Id meterId = (Meter.Id) o;
+            if (hash != 0 && meterId.hash != 0 && hash != meterId.hash)
+                return false;
             return Objects.equals(name, meterId.name) && Objects.equals(tags, meterId.tags);
         }
 
         @Override
         public int hashCode() {
-            int result = name.hashCode();
-            result = 31 * result + tags.hashCode();
+            int result = hash;
+            if (result == 0) {
+                result = name.hashCode();
+                result = 31 * result + tags.hashCode();
+                hash = result;
+            }
             return result;
         }
 
@@ -392,6 +422,29 @@ public interface Meter {
             return syntheticAssociation;
         }
 
+        /**
+         * A copy of this id whose name and tags are replaced by their canonical
+         * instances.
+         */
+        Id intern(String canonicalName, Tags canonicalTags) {
+            Id interned = new Id(canonicalName, canonicalTags, baseUnit, description, type, syntheticAssociation);
+            interned.hash = hash;
+            return interned;
+        }
+
+        private static final class ConventionForm<T> {
+
+            private final NamingConvention namingConvention;
+
+            private final T value;
+
+            private ConventionForm(NamingConvention namingConvention, T value) {
+                this.namingConvention = namingConvention;
+                this.value = value;
+            }
+
+        }
+
     }
 
     /**
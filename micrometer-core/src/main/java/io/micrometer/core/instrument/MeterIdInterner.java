@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.core.instrument;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonicalizes the ids of meters registered with a {@link MeterRegistry}, so that
+ * meter names and tags repeated across many series are held in memory once.
+ *
+ * @see MeterRegistry.Config#internMeterIds(boolean)
+ */
+class MeterIdInterner {
+
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+
+    private final Map<Tag, Tag> tags = new ConcurrentHashMap<>();
+
+    Meter.Id intern(Meter.Id id) {
+        String name = names.computeIfAbsent(id.getName(), n -> n);
+
+        Tags.Builder canonicalTags = Tags.builder();
+        for (Tag tag : id.getTagsAsIterable()) {
+            canonicalTags.tag(tags.computeIfAbsent(tag, t -> t));
+        }
+
+        return id.intern(name, canonicalTags.build());
+    }
+
+}
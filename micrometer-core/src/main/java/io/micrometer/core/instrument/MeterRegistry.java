@@ -79,8 +79,8 @@ public abstract class MeterRegistry {
 
     private final More more = new More();
 
-    // Even though writes are guarded by meterMapLock, iterators across value space are
-    // supported
+    // Even though writes are guarded by meterMapLock (or the per-id registration lock when
+    // concurrent registration is enabled), iterators across value space are supported
     // Hence, we use CHM to support that iteration without ConcurrentModificationException
     // risk
     private final Map<Id, Meter> meterMap = new ConcurrentHashMap<>();
@@ -90,8 +90,39 @@ public abstract class MeterRegistry {
      * synthetic ids. We maintain these associations so that when we remove a meter with
      * synthetics, they can removed as well.
      */
-    // Guarded by meterMapLock for both reads and writes
-    private final Map<Id, Set<Id>> syntheticAssociations = new HashMap<>();
+    // Concurrent because synthetics of different meters may be registered in parallel
+    // when concurrent registration is enabled
+    private final Map<Id, Set<Id>> syntheticAssociations = new ConcurrentHashMap<>();
+
+    /**
+     * Locks guarding the registration and removal of a single meter id when concurrent
+     * registration is enabled. An entry only exists while its lock is held.
+     */
+    private final Map<Id, Object> registrationLocks = new ConcurrentHashMap<>();
+
+    private volatile boolean concurrentRegistration;
+
+    /**
+     * Upper bound on the number of entries in {@link #preFilterIdToMeterMap}. Once
+     * reached, further pre-filter ids are resolved by applying the filters again.
+     */
+    private static final int PRE_FILTER_ID_CACHE_MAX_SIZE = 10_000;
+
+    /**
+     * Cache of meter ids as they are passed in by builders (before {@link MeterFilter}s
+     * are applied) to the meter they resolved to, so that repeated registrations of an
+     * existing meter skip the filters. Cleared when a filter is added.
+     */
+    private final Map<Id, Meter> preFilterIdToMeterMap = new ConcurrentHashMap<>();
+
+    /**
+     * Reverse index of {@link #preFilterIdToMeterMap} used to evict the cached pre-filter
+     * ids of a removed meter.
+     */
+    private final Map<Id, Set<Id>> mappedIdToPreFilterIds = new ConcurrentHashMap<>();
+
+    @Nullable
+    private volatile MeterIdInterner meterIdInterner;
 
     private final AtomicBoolean closed = new AtomicBoolean();
 
@@ -573,8 +604,15 @@ public abstract class MeterRegistry {
     private <M extends Meter> M registerMeterIfNecessary(Class<M> meterClass, Meter.Id id,
             @Nullable DistributionStatisticConfig config, BiFunction<Meter.Id, DistributionStatisticConfig, M> builder,
             Function<Meter.Id, M> noopBuilder) {
-        Id mappedId = getMappedId(id);
-        Meter m = getOrCreateMeter(config, builder, id, mappedId, noopBuilder);
+        Meter m = preFilterIdToMeterMap.get(id);
+        // pre-filter ids of different meter types are equal, but filters may map them
+        // differently based on the type
+        if (m == null || !meterClass.isInstance(m)) {
+            MeterFilter[] filtersToApply = filters;
+            Id mappedId = getMappedId(id, filtersToApply);
+            m = getOrCreateMeter(config, builder, id, mappedId, noopBuilder);
+            cachePreFilterId(id, mappedId, m, filtersToApply);
+        }
 
         if (!meterClass.isInstance(m)) {
             throw new IllegalArgumentException(
@@ -585,6 +623,10 @@ public abstract class MeterRegistry {
     }
 
     private Id getMappedId(Id id) {
+        return getMappedId(id, filters);
+    }
+
+    private Id getMappedId(Id id, MeterFilter[] filters) {
         if (id.syntheticAssociation() != null) {
             return id;
         }
@@ -595,6 +637,33 @@ public abstract class MeterRegistry {
         return mappedId;
     }
 
+    private void cachePreFilterId(Id preFilterId, Id mappedId, Meter meter, MeterFilter[] appliedFilters) {
+        if (meterMap.get(mappedId) != meter || preFilterIdToMeterMap.size() >= PRE_FILTER_ID_CACHE_MAX_SIZE) {
+            // noop meters of denied or late registrations are not cached
+            return;
+        }
+
+        preFilterIdToMeterMap.put(preFilterId, meter);
+        Set<Id> preFilterIds = mappedIdToPreFilterIds.computeIfAbsent(mappedId, k -> ConcurrentHashMap.newKeySet());
+        preFilterIds.add(preFilterId);
+
+        // The meter may have been removed or a filter added while we were resolving it,
+        // in which case the eviction done by remove or meterFilter could have missed us.
+        if (filters != appliedFilters || meterMap.get(mappedId) != meter) {
+            preFilterIdToMeterMap.remove(preFilterId, meter);
+            preFilterIds.remove(preFilterId);
+        }
+    }
+
+    private void evictPreFilterIds(Id mappedId) {
+        Set<Id> preFilterIds = mappedIdToPreFilterIds.remove(mappedId);
+        if (preFilterIds != null) {
+            for (Id preFilterId : preFilterIds) {
+                preFilterIdToMeterMap.remove(preFilterId);
+            }
+        }
+    }
+
     private Meter getOrCreateMeter(@Nullable DistributionStatisticConfig config,
             BiFunction<Id, /* Nullable Generic */ DistributionStatisticConfig, ? extends Meter> builder, Id originalId,
             Id mappedId, Function<Meter.Id, ? extends Meter> noopBuilder) {
@@ -605,39 +674,82 @@ public abstract class MeterRegistry {
                 return noopBuilder.apply(mappedId);
             }
 
+            if (concurrentRegistration) {
+                return getOrCreateMeterWithRegistrationLock(config, builder, mappedId, noopBuilder);
+            }
+
             synchronized (meterMapLock) {
                 m = meterMap.get(mappedId);
 
                 if (m == null) {
-                    if (!accept(mappedId)) {
-                        return noopBuilder.apply(mappedId);
-                    }
+                    m = createMeter(config, builder, mappedId, noopBuilder);
+                }
+            }
+        }
 
-                    if (config != null) {
-                        for (MeterFilter filter : filters) {
-                            DistributionStatisticConfig filteredConfig = filter.configure(mappedId, config);
-                            if (filteredConfig != null) {
-                                config = filteredConfig;
-                            }
-                        }
-                    }
+        return m;
+    }
 
-                    m = builder.apply(mappedId, config);
+    private Meter getOrCreateMeterWithRegistrationLock(@Nullable DistributionStatisticConfig config,
+            BiFunction<Id, /* Nullable Generic */ DistributionStatisticConfig, ? extends Meter> builder, Id mappedId,
+            Function<Meter.Id, ? extends Meter> noopBuilder) {
+        while (true) {
+            Object lock = registrationLocks.computeIfAbsent(mappedId, id -> new Object());
+            synchronized (lock) {
+                if (registrationLocks.get(mappedId) != lock) {
+                    // released by its previous owner after we looked it up, try again
+                    continue;
+                }
+                try {
+                    Meter m = meterMap.get(mappedId);
+                    return m != null ? m : createMeter(config, builder, mappedId, noopBuilder);
+                }
+                finally {
+                    registrationLocks.remove(mappedId, lock);
+                }
+            }
+        }
+    }
 
-                    Id synAssoc = mappedId.syntheticAssociation();
-                    if (synAssoc != null) {
-                        Set<Id> associations = syntheticAssociations.computeIfAbsent(synAssoc, k -> new HashSet<>());
-                        associations.add(mappedId);
-                    }
+    /**
+     * Build, announce and publish a new meter. The caller must hold the lock guarding
+     * {@code mappedId} and have checked that no meter is registered with it yet.
+     */
+    private Meter createMeter(@Nullable DistributionStatisticConfig config,
+            BiFunction<Id, /* Nullable Generic */ DistributionStatisticConfig, ? extends Meter> builder, Id mappedId,
+            Function<Meter.Id, ? extends Meter> noopBuilder) {
+        if (!accept(mappedId)) {
+            return noopBuilder.apply(mappedId);
+        }
 
-                    for (Consumer<Meter> onAdd : meterAddedListeners) {
-                        onAdd.accept(m);
-                    }
-                    meterMap.put(mappedId, m);
+        MeterIdInterner interner = meterIdInterner;
+        if (interner != null) {
+            mappedId = interner.intern(mappedId);
+        }
+
+        if (config != null) {
+            for (MeterFilter filter : filters) {
+                DistributionStatisticConfig filteredConfig = filter.configure(mappedId, config);
+                if (filteredConfig != null) {
+                    config = filteredConfig;
                 }
             }
         }
 
+        Meter m = builder.apply(mappedId, config);
+
+        Id synAssoc = mappedId.syntheticAssociation();
+        if (synAssoc != null) {
+            Set<Id> associations = syntheticAssociations.computeIfAbsent(synAssoc,
+                    k -> ConcurrentHashMap.newKeySet());
+            associations.add(mappedId);
+        }
+
+        for (Consumer<Meter> onAdd : meterAddedListeners) {
+            onAdd.accept(m);
+        }
+        meterMap.put(mappedId, m);
+
         return m;
     }
 
@@ -698,9 +810,14 @@ public abstract class MeterRegistry {
         Meter m = meterMap.get(mappedId);
 
         if (m != null) {
+            if (concurrentRegistration) {
+                return removeWithRegistrationLock(mappedId);
+            }
+
             synchronized (meterMapLock) {
                 m = meterMap.remove(mappedId);
                 if (m != null) {
+                    evictPreFilterIds(mappedId);
                     Set<Id> synthetics = syntheticAssociations.remove(mappedId);
                     if (synthetics != null) {
                         for (Id synthetic : synthetics) {
@@ -720,6 +837,46 @@ public abstract class MeterRegistry {
         return null;
     }
 
+    @Nullable
+    private Meter removeWithRegistrationLock(Meter.Id mappedId) {
+        Meter m;
+        Set<Id> synthetics;
+        while (true) {
+            Object lock = registrationLocks.computeIfAbsent(mappedId, id -> new Object());
+            synchronized (lock) {
+                if (registrationLocks.get(mappedId) != lock) {
+                    continue;
+                }
+                try {
+                    m = meterMap.remove(mappedId);
+                    if (m == null) {
+                        return null;
+                    }
+                    evictPreFilterIds(mappedId);
+                    synthetics = syntheticAssociations.remove(mappedId);
+
+                    for (Consumer<Meter> onRemove : meterRemovedListeners) {
+                        onRemove.accept(m);
+                    }
+                }
+                finally {
+                    registrationLocks.remove(mappedId, lock);
+                }
+            }
+            break;
+        }
+
+        // synthetics are removed after releasing the lock of their owner so that locks
+        // are only ever nested in the order in which meters register their synthetics
+        if (synthetics != null) {
+            for (Id synthetic : synthetics) {
+                remove(synthetic);
+            }
+        }
+
+        return m;
+    }
+
     /**
      * Clear all meters.
      * @since 1.2.0
@@ -767,6 +924,8 @@ public abstract class MeterRegistry {
             System.arraycopy(filters, 0, newFilters, 0, filters.length);
             newFilters[filters.length] = filter;
             filters = newFilters;
+            preFilterIdToMeterMap.clear();
+            mappedIdToPreFilterIds.clear();
             return this;
         }
 
@@ -816,6 +975,56 @@ public abstract class MeterRegistry {
             return this;
         }
 
+        /**
+         * Register meters without serializing on a registry-wide lock. Registrations of
+         * different meter ids (filtering, {@link DistributionStatisticConfig} merging,
+         * meter construction and meter-added listener callbacks) then proceed in
+         * parallel, while registrations and removals of the same id remain mutually
+         * exclusive. Meter-added listeners are still invoked before a meter becomes
+         * visible and meter-removed listeners after it is gone, each in the order they
+         * were added, but they may be invoked concurrently for different meters, so
+         * they must be thread-safe. This should be configured before any meter is
+         * registered.
+         * @param enabled Whether meters should be registered concurrently.
+         * @return This configuration instance.
+         * @since 1.11.0
+         */
+        @Incubating(since = "1.11.0")
+        public Config concurrentRegistration(boolean enabled) {
+            concurrentRegistration = enabled;
+            return this;
+        }
+
+        /**
+         * @return Whether meters are registered without a registry-wide lock.
+         * @since 1.11.0
+         * @see #concurrentRegistration(boolean)
+         */
+        @Incubating(since = "1.11.0")
+        public boolean concurrentRegistration() {
+            return concurrentRegistration;
+        }
+
+        /**
+         * Canonicalize the names and tags of the ids of newly registered meters, so that
+         * those repeated across many meters are held in memory once. This is worthwhile
+         * for registries holding a large number of series. Canonical names and tags are
+         * retained for the lifetime of the registry, even after their meters are removed.
+         * @param enabled Whether meter ids should be interned.
+         * @return This configuration instance.
+         * @since 1.11.0
+         */
+        @Incubating(since = "1.11.0")
+        public Config internMeterIds(boolean enabled) {
+            if (!enabled) {
+                meterIdInterner = null;
+            }
+            else if (meterIdInterner == null) {
+                meterIdInterner = new MeterIdInterner();
+            }
+            return this;
+        }
+
         /**
          * @return The naming convention currently in use on this registry.
          */
@@ -38,20 +38,33 @@ public final class Tags implements Iterable<Tag> {
 
     private final Tag[] tags;
 
-    private int last;
+    private final int last;
+
+    // cached hash code, computed lazily as tags are immutable
+    private int hash;
 
     private Tags(Tag[] tags) {
         this.tags = tags;
         Arrays.sort(this.tags);
-        dedup();
+        this.last = dedup(this.tags, this.tags.length);
     }
 
-    private void dedup() {
-        int n = tags.length;
+    /**
+     * @param sortedTags tags that are already sorted and deduplicated up to {@code last}
+     * @param last the number of tags in use in {@code sortedTags}
+     */
+    private Tags(Tag[] sortedTags, int last) {
+        this.tags = sortedTags;
+        this.last = last;
+    }
 
+    /**
+     * Deduplicate sorted tags in place, keeping the last of the tags having the same key.
+     * @return the number of unique tags
+     */
+    private static int dedup(Tag[] tags, int n) {
         if (n == 0 || n == 1) {
-            last = n;
-            return;
+            return n;
         }
 
         // index of next unique element
@@ -62,7 +75,47 @@ public final class Tags implements Iterable<Tag> {
                 tags[j++] = tags[i];
 
         tags[j++] = tags[n - 1];
-        last = j;
+        return j;
+    }
+
+    /**
+     * Merge this collection and the specified one in linear time, as both are sorted. On
+     * key conflicts the tag of {@code other} wins.
+     */
+    private Tags merge(Tags other) {
+        if (other.last == 0) {
+            return this;
+        }
+        if (last == 0) {
+            return other;
+        }
+
+        Tag[] merged = new Tag[last + other.last];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < last && j < other.last) {
+            int comparison = tags[i].compareTo(other.tags[j]);
+            if (comparison < 0) {
+                merged[k++] = tags[i++];
+            }
+            else if (comparison > 0) {
+                merged[k++] = other.tags[j++];
+            }
+            else {
+                merged[k++] = other.tags[j++];
+                i++;
+            }
+        }
+        if (i < last) {
+            System.arraycopy(tags, i, merged, k, last - i);
+            k += last - i;
+        }
+        if (j < other.last) {
+            System.arraycopy(other.tags, j, merged, k, other.last - j);
+            k += other.last - j;
+        }
+        return new Tags(merged, k);
     }
 
     /**
@@ -99,10 +152,7 @@ public final class Tags implements Iterable<Tag> {
         if (tags == null || tags.length == 0) {
             return this;
         }
-        Tag[] newTags = new Tag[last + tags.length];
-        System.arraycopy(this.tags, 0, newTags, 0, last);
-        System.arraycopy(tags, 0, newTags, last, tags.length);
-        return new Tags(newTags);
+        return merge(new Tags(Arrays.copyOf(tags, tags.length)));
     }
 
     /**
@@ -116,11 +166,7 @@ public final class Tags implements Iterable<Tag> {
             return this;
         }
 
-        if (this.tags.length == 0) {
-            return Tags.of(tags);
-        }
-
-        return and(Tags.of(tags).tags);
+        return merge(Tags.of(tags));
     }
 
     @Override
@@ -165,9 +211,13 @@ public final class Tags implements Iterable<Tag> {
 
     @Override
     public int hashCode() {
-        int result = 1;
-        for (int i = 0; i < last; i++) {
-            result = 31 * result + tags[i].hashCode();
+        int result = hash;
+        if (result == 0) {
+            result = 1;
+            for (int i = 0; i < last; i++) {
+                result = 31 * result + tags[i].hashCode();
+            }
+            hash = result;
         }
         return result;
     }
@@ -184,6 +234,9 @@ public final class Tags implements Iterable<Tag> {
         if (last != obj.last)
             return false;
 
+        if (hash != 0 && obj.hash != 0 && hash != obj.hash)
+            return false;
+
         for (int i = 0; i < last; i++) {
             if (!tags[i].equals(obj.tags[i]))
                 return false;
@@ -285,9 +338,105 @@ public final class Tags implements Iterable<Tag> {
         return EMPTY;
     }
 
+    /**
+     * Return a new builder to assemble tags without creating intermediate {@code Tags}
+     * instances.
+     * @return a new {@code Tags} builder
+     * @since 1.11.0
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
     @Override
     public String toString() {
         return stream().map(Tag::toString).collect(joining(",", "[", "]"));
     }
 
+    /**
+     * A mutable builder of {@link Tags}. Tags are only sorted and deduplicated once, when
+     * {@link #build()} is called, and the built instance takes over the builder's array
+     * until more tags are added.
+     *
+     * @since 1.11.0
+     */
+    public static final class Builder {
+
+        private Tag[] tags = new Tag[8];
+
+        private int size;
+
+        // whether the array is owned by a built Tags instance and must be copied on write
+        private boolean shared;
+
+        private Builder() {
+        }
+
+        /**
+         * @param key the tag key to add
+         * @param value the tag value to add
+         * @return this builder
+         */
+        public Builder tag(String key, String value) {
+            return tag(Tag.of(key, value));
+        }
+
+        /**
+         * @param tag the tag to add
+         * @return this builder
+         */
+        public Builder tag(Tag tag) {
+            if (shared || size == tags.length) {
+                tags = Arrays.copyOf(tags, size == tags.length ? size * 2 : tags.length);
+                shared = false;
+            }
+            tags[size++] = tag;
+            return this;
+        }
+
+        /**
+         * @param keyValues MUST be an even number of arguments representing key/value
+         * pairs of tags
+         * @return this builder
+         */
+        public Builder tags(String... keyValues) {
+            if (keyValues.length % 2 == 1) {
+                throw new IllegalArgumentException("size must be even, it is a set of key=value pairs");
+            }
+            for (int i = 0; i < keyValues.length; i += 2) {
+                tag(keyValues[i], keyValues[i + 1]);
+            }
+            return this;
+        }
+
+        /**
+         * @param tags the tags to add
+         * @return this builder
+         */
+        public Builder tags(Iterable<? extends Tag> tags) {
+            for (Tag tag : tags) {
+                tag(tag);
+            }
+            return this;
+        }
+
+        /**
+         * Sort and deduplicate the tags added so far, keeping the last tag added for each
+         * key.
+         * @return the built tags
+         */
+        public Tags build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            Arrays.sort(tags, 0, size);
+            int last = dedup(tags, size);
+            // dedup compacted the array, continue adding after the unique tags
+            size = last;
+            shared = true;
+            return new Tags(tags, last);
+        }
+
+    }
+
 }
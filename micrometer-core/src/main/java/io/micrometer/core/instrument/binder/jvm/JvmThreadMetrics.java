@@ -17,42 +17,90 @@ package io.micrometer.core.instrument.binder.jvm;
 
 import io.micrometer.common.lang.NonNullApi;
 import io.micrometer.common.lang.NonNullFields;
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.binder.BaseUnits;
 import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.util.NamedThreadFactory;
 
 import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Collections.emptyList;
 
 /**
  * {@link MeterBinder} for JVM threads.
+ * <p>
+ * The {@code jvm.threads.states} gauges all report from a single sample of the state of
+ * every live thread. By default, a sample is taken when one of them is read and is reused
+ * by the other ones read within the next 100 milliseconds, so reading all of them for a
+ * scrape or a publication only gets the thread infos from the JVM once. Alternatively,
+ * threads can be sampled in the background at a fixed interval, in which case reading
+ * the gauges never gets the thread infos and the binder has to be closed to stop
+ * sampling.
  *
  * @author Jon Schneider
  * @author Johnny Lim
  */
 @NonNullApi
 @NonNullFields
-public class JvmThreadMetrics implements MeterBinder {
+public class JvmThreadMetrics implements MeterBinder, AutoCloseable {
+
+    private static final long SAMPLE_REUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
 
     private final Iterable<Tag> tags;
 
+    @Nullable
+    private final Duration samplingInterval;
+
+    private final ThreadMXBean threadBean;
+
+    // times the reuse of samples; not the registry clock, which a mock clock could keep
+    // from advancing
+    private final Clock clock;
+
+    @Nullable
+    private ScheduledExecutorService samplingExecutor;
+
     public JvmThreadMetrics() {
         this(emptyList());
     }
 
     public JvmThreadMetrics(Iterable<Tag> tags) {
+        this(tags, null, ManagementFactory.getThreadMXBean(), Clock.SYSTEM);
+    }
+
+    /**
+     * Create a binder sampling the state of threads in the background. Thread states
+     * reported by the {@code jvm.threads.states} gauges may be up to
+     * {@code samplingInterval} old.
+     * @param tags tags to add to the metrics
+     * @param samplingInterval how often to sample the state of threads
+     * @since 1.11.0
+     */
+    public JvmThreadMetrics(Iterable<Tag> tags, Duration samplingInterval) {
+        this(tags, samplingInterval, ManagementFactory.getThreadMXBean(), Clock.SYSTEM);
+    }
+
+    // VisibleForTesting
+    JvmThreadMetrics(Iterable<Tag> tags, @Nullable Duration samplingInterval, ThreadMXBean threadBean, Clock clock) {
         this.tags = tags;
+        this.samplingInterval = samplingInterval;
+        this.threadBean = threadBean;
+        this.clock = clock;
     }
 
     @Override
     public void bindTo(MeterRegistry registry) {
-        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
 
         Gauge.builder("jvm.threads.peak", threadBean, ThreadMXBean::getPeakThreadCount).tags(tags)
                 .description("The peak live thread count since the Java virtual machine started or peak was reset")
@@ -68,10 +116,16 @@ public class JvmThreadMetrics implements MeterBinder {
 
         try {
             threadBean.getAllThreadIds();
+            ThreadStates threadStates = new ThreadStates(threadBean, clock, samplingInterval == null);
+            if (samplingInterval != null) {
+                threadStates.sample();
+                scheduleSampling(threadStates, samplingInterval);
+            }
             for (Thread.State state : Thread.State.values()) {
-                Gauge.builder("jvm.threads.states", threadBean, (bean) -> getThreadStateCount(bean, state))
+                Gauge.builder("jvm.threads.states", threadStates, (states) -> states.count(state))
                         .tags(Tags.concat(tags, "state", getStateTagValue(state)))
-                        .description("The current number of threads").baseUnit(BaseUnits.THREADS).register(registry);
+                        .description("The current number of threads").baseUnit(BaseUnits.THREADS)
+                        .strongReference(true).register(registry);
             }
         }
         catch (Error error) {
@@ -80,14 +134,94 @@ public class JvmThreadMetrics implements MeterBinder {
         }
     }
 
-    // VisibleForTesting
-    static long getThreadStateCount(ThreadMXBean threadBean, Thread.State state) {
-        return Arrays.stream(threadBean.getThreadInfo(threadBean.getAllThreadIds()))
-                .filter(threadInfo -> threadInfo != null && threadInfo.getThreadState() == state).count();
+    private synchronized void scheduleSampling(ThreadStates threadStates, Duration samplingInterval) {
+        if (samplingExecutor == null) {
+            samplingExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("jvm-thread-states"));
+        }
+        // with a fixed delay, a slow sample is never followed by another one right away
+        samplingExecutor.scheduleWithFixedDelay(threadStates::sampleQuietly, samplingInterval.toMillis(),
+                samplingInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (samplingExecutor != null) {
+            samplingExecutor.shutdown();
+            samplingExecutor = null;
+        }
+    }
+
+    /**
+     * Count the threads in each state with a single call to get the thread infos.
+     * @return the counts, indexed by the ordinal of the states
+     */
+    static long[] countThreadStates(ThreadMXBean threadBean) {
+        long[] counts = new long[Thread.State.values().length];
+        for (ThreadInfo threadInfo : threadBean.getThreadInfo(threadBean.getAllThreadIds())) {
+            // threads that died since their ids were listed have no info
+            if (threadInfo != null) {
+                counts[threadInfo.getThreadState().ordinal()]++;
+            }
+        }
+        return counts;
     }
 
     private static String getStateTagValue(Thread.State state) {
         return state.name().toLowerCase().replace("_", "-");
     }
 
+    /**
+     * The latest sample of thread states, shared by the {@code jvm.threads.states} gauges.
+     */
+    private static final class ThreadStates {
+
+        private final ThreadMXBean threadBean;
+
+        private final Clock clock;
+
+        private final boolean sampleOnRead;
+
+        private volatile long[] counts = new long[Thread.State.values().length];
+
+        // guarded by this
+        private boolean sampled;
+
+        // guarded by this
+        private long sampledAt;
+
+        ThreadStates(ThreadMXBean threadBean, Clock clock, boolean sampleOnRead) {
+            this.threadBean = threadBean;
+            this.clock = clock;
+            this.sampleOnRead = sampleOnRead;
+        }
+
+        long count(Thread.State state) {
+            if (sampleOnRead) {
+                synchronized (this) {
+                    long now = clock.monotonicTime();
+                    if (!sampled || now - sampledAt >= SAMPLE_REUSE_NANOS) {
+                        counts = countThreadStates(threadBean);
+                        sampled = true;
+                        sampledAt = now;
+                    }
+                }
+            }
+            return counts[state.ordinal()];
+        }
+
+        void sample() {
+            counts = countThreadStates(threadBean);
+        }
+
+        void sampleQuietly() {
+            try {
+                sample();
+            }
+            catch (RuntimeException ignored) {
+                // keep reporting the previous sample rather than cancelling later ones
+            }
+        }
+
+    }
+
 }
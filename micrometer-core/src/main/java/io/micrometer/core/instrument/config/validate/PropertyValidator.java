@@ -60,6 +60,24 @@ public class PropertyValidator {
         }
     }
 
+    /**
+     * @param config config to read the property from
+     * @param property property name without the prefix of the config
+     * @return the property parsed as a double
+     * @since 1.11.0
+     */
+    public static Validated<Double> getDouble(MeterRegistryConfig config, String property) {
+        String prefixedProperty = prefixedProperty(config, property);
+        String value = config.get(prefixedProperty);
+
+        try {
+            return Validated.valid(prefixedProperty, value == null ? null : Double.valueOf(value));
+        }
+        catch (NumberFormatException e) {
+            return Validated.invalid(prefixedProperty, value, "must be a number", InvalidReason.MALFORMED, e);
+        }
+    }
+
     public static <E extends Enum<E>> Validated<E> getEnum(MeterRegistryConfig config, Class<E> enumClass,
             String property) {
         String prefixedProperty = prefixedProperty(config, property);
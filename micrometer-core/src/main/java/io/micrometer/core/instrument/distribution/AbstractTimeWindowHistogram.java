@@ -47,12 +47,15 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
 
     private final boolean supportsAggregablePercentiles;
 
-    private final T[] ringBuffer;
+    private final Class<T> bucketType;
 
-    private short currentBucket;
+    private final int bufferLength;
 
     private final long durationBetweenRotatesMillis;
 
+    // Set once by initRingBuffer, like the accumulated histogram
+    private TimeWindowRing<T> ring;
+
     private volatile boolean accumulatedHistogramStale;
 
     private volatile long lastRotateTimestampMillis;
@@ -63,7 +66,10 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
     @Nullable
     private U accumulatedHistogram;
 
-    @SuppressWarnings("unchecked")
+    // The epoch of the ring the accumulated histogram was accumulated from. Guarded by
+    // this.
+    private long accumulatedEpoch = -1;
+
     AbstractTimeWindowHistogram(Clock clock, DistributionStatisticConfig distributionStatisticConfig,
             Class<T> bucketType, boolean supportsAggregablePercentiles) {
         this.clock = clock;
@@ -75,7 +81,8 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
             rejectHistogramConfig("bufferLength (" + ageBuckets + ") must be greater than 0.");
         }
 
-        ringBuffer = (T[]) Array.newInstance(bucketType, ageBuckets);
+        this.bucketType = bucketType;
+        this.bufferLength = ageBuckets;
 
         durationBetweenRotatesMillis = distributionStatisticConfig.getExpiry().toMillis() / ageBuckets;
         if (durationBetweenRotatesMillis <= 0) {
@@ -83,7 +90,6 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
                     + "ms) / bufferLength (" + ageBuckets + ") must be greater than 0.");
         }
 
-        currentBucket = 0;
         lastRotateTimestampMillis = clock.wallTime();
     }
 
@@ -129,11 +135,14 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
         throw new InvalidConfigurationException("Invalid distribution configuration: " + msg);
     }
 
+    @SuppressWarnings("unchecked")
     void initRingBuffer() {
+        T[] ringBuffer = (T[]) Array.newInstance(bucketType, bufferLength);
         for (int i = 0; i < ringBuffer.length; i++) {
             ringBuffer[i] = newBucket();
         }
         accumulatedHistogram = newAccumulatedHistogram(ringBuffer);
+        ring = new TimeWindowRing<>(ringBuffer);
     }
 
     abstract T newBucket();
@@ -146,7 +155,11 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
 
     abstract U newAccumulatedHistogram(T[] ringBuffer);
 
-    abstract void accumulate();
+    /**
+     * Accumulate what has been recorded to the given bucket since it was last accumulated.
+     * @param currentBucket the oldest bucket of the epoch being snapshotted
+     */
+    abstract void accumulate(T currentBucket);
 
     abstract void resetAccumulatedHistogram();
 
@@ -165,22 +178,49 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
     public final HistogramSnapshot takeSnapshot(long count, double total, double max) {
         rotate();
 
-        final ValueAtPercentile[] values;
-        final CountAtBucket[] counts;
+        ValueAtPercentile[] values;
+        CountAtBucket[] counts;
+        // Only concurrent snapshots contend here; recording and rotation never lock.
         synchronized (this) {
-            accumulateIfStale();
-            values = takeValueSnapshot();
-            counts = takeCountSnapshot();
+            long epoch;
+            do {
+                epoch = accumulateIfStale();
+                values = takeValueSnapshot();
+                counts = takeCountSnapshot();
+            }
+            // The ring rotated while reading, so read it again.
+            while (ring.rotatedSince(epoch));
         }
 
         return new HistogramSnapshot(count, total, max, values, counts, this::outputSummary);
     }
 
-    private void accumulateIfStale() {
-        if (accumulatedHistogramStale) {
-            accumulate();
+    /**
+     * Accumulating drains the current bucket, so it is only done once the bucket is known
+     * to be current at the epoch the accumulated histogram is kept for. Otherwise, the
+     * counts drained from a bucket that just became current would be reset along with
+     * the accumulated histogram when reading it again.
+     * @return The epoch the accumulated histogram is up to date with.
+     */
+    private long accumulateIfStale() {
+        long epoch;
+        T current;
+        do {
+            epoch = ring.epoch();
+            current = ring.current();
+        }
+        while (ring.rotatedSince(epoch));
+
+        boolean rotated = accumulatedEpoch != epoch;
+        if (rotated) {
+            resetAccumulatedHistogram();
+            accumulatedEpoch = epoch;
+        }
+        if (rotated || accumulatedHistogramStale) {
             accumulatedHistogramStale = false;
+            accumulate(current);
         }
+        return epoch;
     }
 
     private ValueAtPercentile[] takeValueSnapshot() {
@@ -220,8 +260,8 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
     public void recordLong(long value) {
         rotate();
         try {
-            for (T bucket : ringBuffer) {
-                recordLong(bucket, value);
+            for (int i = 0; i < ring.length(); i++) {
+                recordLong(ring.bucket(i), value);
             }
         }
         catch (IndexOutOfBoundsException ignored) {
@@ -236,8 +276,8 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
     public void recordDouble(double value) {
         rotate();
         try {
-            for (T bucket : ringBuffer) {
-                recordDouble(bucket, value);
+            for (int i = 0; i < ring.length(); i++) {
+                recordDouble(ring.bucket(i), value);
             }
         }
         catch (IndexOutOfBoundsException ignored) {
@@ -250,8 +290,8 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
     }
 
     private void rotate() {
-        long timeSinceLastRotateMillis = clock.wallTime() - lastRotateTimestampMillis;
-        if (timeSinceLastRotateMillis < durationBetweenRotatesMillis) {
+        long wallTime = clock.wallTime();
+        if (wallTime - lastRotateTimestampMillis < durationBetweenRotatesMillis) {
             // Need to wait more for next rotation.
             return;
         }
@@ -262,21 +302,15 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
         }
 
         try {
-            int iterations = 0;
-            synchronized (this) {
-                do {
-                    resetBucket(ringBuffer[currentBucket]);
-                    if (++currentBucket >= ringBuffer.length) {
-                        currentBucket = 0;
-                    }
-                    timeSinceLastRotateMillis -= durationBetweenRotatesMillis;
-                    lastRotateTimestampMillis += durationBetweenRotatesMillis;
-                }
-                while (timeSinceLastRotateMillis >= durationBetweenRotatesMillis && ++iterations < ringBuffer.length);
-
-                resetAccumulatedHistogram();
-                accumulatedHistogramStale = true;
+            // Another thread may have completed a rotation since the check above.
+            long timeSinceLastRotateMillis = wallTime - lastRotateTimestampMillis;
+            if (timeSinceLastRotateMillis < durationBetweenRotatesMillis) {
+                return;
             }
+
+            long rotations = timeSinceLastRotateMillis / durationBetweenRotatesMillis;
+            ring.rotate((int) Math.min(rotations, bufferLength), this::newBucket, this::resetBucket);
+            lastRotateTimestampMillis += rotations * durationBetweenRotatesMillis;
         }
         finally {
             rotating = 0;
@@ -288,7 +322,7 @@ abstract class AbstractTimeWindowHistogram<T, U> implements Histogram {
     }
 
     protected T currentHistogram() {
-        return ringBuffer[currentBucket];
+        return ring.current();
     }
 
 }
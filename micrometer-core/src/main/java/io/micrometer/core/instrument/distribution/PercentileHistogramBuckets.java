@@ -15,6 +15,7 @@
  */
 package io.micrometer.core.instrument.distribution;
 
+import java.util.Arrays;
 import java.util.NavigableSet;
 import java.util.TreeSet;
 
@@ -31,6 +32,15 @@ public class PercentileHistogramBuckets {
     // Bucket values to use, see static block for initialization.
     private static final NavigableSet<Double> PERCENTILE_BUCKETS;
 
+    // The same bucket values in ascending order, for index lookups.
+    private static final double[] PERCENTILE_BUCKET_VALUES;
+
+    // Index of the bucket of each power of 4, by exponent / DIGITS.
+    private static final int[] POWER_OF_4_INDEX = new int[64 / DIGITS];
+
+    // Number of buckets starting at each power of 4, by exponent / DIGITS.
+    private static final int[] POWER_OF_4_BUCKET_COUNT = new int[64 / DIGITS];
+
     // The set of buckets is generated by using powers of 4 and incrementing by one-third
     // of the previous power of 4 in between as long as the value is less than the next
     // power of 4 minus the delta.
@@ -59,13 +69,17 @@ public class PercentileHistogramBuckets {
             long delta = current / 3;
             long next = (current << DIGITS) - delta;
 
+            POWER_OF_4_INDEX[exp / DIGITS] = PERCENTILE_BUCKETS.size();
             while (current < next) {
                 PERCENTILE_BUCKETS.add((double) current);
                 current += delta;
             }
+            POWER_OF_4_BUCKET_COUNT[exp / DIGITS] = PERCENTILE_BUCKETS.size() - POWER_OF_4_INDEX[exp / DIGITS];
             exp += DIGITS;
         }
         PERCENTILE_BUCKETS.add(Double.POSITIVE_INFINITY);
+
+        PERCENTILE_BUCKET_VALUES = PERCENTILE_BUCKETS.stream().mapToDouble(Double::doubleValue).toArray();
     }
 
     /**
@@ -82,4 +96,74 @@ public class PercentileHistogramBuckets {
                 distributionStatisticConfig.getMaximumExpectedValueAsDouble(), true);
     }
 
+    /**
+     * Index of the least percentile bucket that is greater than or equal to a value,
+     * computed from the position of the value's most significant bit instead of
+     * searching the buckets.
+     * @param value A sample.
+     * @return The index of the bucket among all percentile buckets.
+     */
+    static int ceilingIndex(long value) {
+        if (value <= 4) {
+            return value <= 1 ? 0 : (int) value - 1;
+        }
+
+        // greatest power of 4 less than or equal to the value
+        int exp = (63 - Long.numberOfLeadingZeros(value)) / DIGITS * DIGITS;
+        int bucketCount = POWER_OF_4_BUCKET_COUNT[exp / DIGITS];
+        if (bucketCount == 0) {
+            // past the largest finite bucket
+            return PERCENTILE_BUCKET_VALUES.length - 1;
+        }
+
+        long powerOf4 = 1L << exp;
+        long delta = powerOf4 / 3;
+
+        // As delta is a third of the power of 4 rounded down, scaling the bits below the
+        // power of 4 by 3 / 4^exp underestimates (value - powerOf4) / delta by less than
+        // 3 / delta, which the correction step below makes up for. The product fits in an
+        // unsigned long for every exponent that has buckets. Comparisons are made as
+        // doubles, as buckets are, so that results match a search of the buckets.
+        long offset = ((value - powerOf4) * 3) >>> exp;
+        double doubleValue = value;
+        while (offset < bucketCount && (double) (powerOf4 + offset * delta) < doubleValue) {
+            offset++;
+        }
+
+        return POWER_OF_4_INDEX[exp / DIGITS] + (int) offset;
+    }
+
+    /**
+     * @param bucket A histogram bucket.
+     * @return Whether the bucket is one of the percentile buckets.
+     */
+    static boolean isPercentileBucket(double bucket) {
+        return Arrays.binarySearch(PERCENTILE_BUCKET_VALUES, bucket) >= 0;
+    }
+
+    /**
+     * Where a range of histogram buckets is a contiguous range of the percentile buckets,
+     * the index of the first of them among all percentile buckets.
+     * @param buckets Histogram buckets in ascending order.
+     * @param from The index of the first bucket of the range, inclusive.
+     * @param to The index of the last bucket of the range, exclusive.
+     * @return The index of the first bucket of the range among all percentile buckets,
+     * or -1 if the range is empty or not a contiguous range of percentile buckets.
+     */
+    static int rangeOffset(double[] buckets, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        int offset = Arrays.binarySearch(PERCENTILE_BUCKET_VALUES, buckets[from]);
+        if (offset < 0 || offset + to - from > PERCENTILE_BUCKET_VALUES.length) {
+            return -1;
+        }
+        for (int i = from + 1; i < to; i++) {
+            if (buckets[i] != PERCENTILE_BUCKET_VALUES[offset + i - from]) {
+                return -1;
+            }
+        }
+        return offset;
+    }
+
 }
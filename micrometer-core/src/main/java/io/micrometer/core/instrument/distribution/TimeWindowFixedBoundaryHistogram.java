@@ -15,6 +15,7 @@
  */
 package io.micrometer.core.instrument.distribution;
 
+import io.micrometer.common.lang.Nullable;
 import io.micrometer.core.instrument.Clock;
 
 import java.io.PrintStream;
@@ -36,10 +37,58 @@ import java.util.concurrent.atomic.AtomicLongArray;
 public class TimeWindowFixedBoundaryHistogram
         extends AbstractTimeWindowHistogram<TimeWindowFixedBoundaryHistogram.FixedBoundaryHistogram, Void> {
 
+    /**
+     * Most stripes bucket counts are spread across once recording is contended. A power
+     * of two so that a stripe can be selected by masking.
+     */
+    private static final int MAX_STRIPES = Math.min(16,
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)));
+
+    /**
+     * Most counts all stripes of a ring bucket may hold together, about 8 KiB, so that
+     * histograms with many buckets get fewer stripes, or none.
+     */
+    private static final int MAX_STRIPED_COUNTS = 1024;
+
+    /**
+     * Number of longs (two cache lines) preceding the counts of a stripe, so that threads
+     * recording into stripes allocated next to each other do not falsely share cache
+     * lines.
+     */
+    private static final int STRIPE_PADDING = 16;
+
+    /**
+     * Per thread hash selecting the stripe a thread records into, changed when it collides
+     * with another thread on its stripe.
+     */
+    private static final ThreadLocal<int[]> stripeProbe = ThreadLocal.withInitial(() -> {
+        long threadId = Thread.currentThread().getId();
+        int hash = (int) (threadId ^ (threadId >>> 32)) * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        // rehashing would never move a thread off zero
+        return new int[] { hash != 0 ? hash : 1 };
+    });
+
     private final double[] buckets;
 
     private final boolean cumulativeBucketCounts;
 
+    /**
+     * When the buckets are a contiguous range of the percentile histogram buckets, only
+     * preceded by the minimum and followed by the maximum expected value, bucket indices
+     * are computed rather than searched for. The range of percentile buckets is
+     * [{@code percentileBucketsFrom}, {@code percentileBucketsTo}) and
+     * {@code percentileBucketsOffset} is the index of its first bucket among all
+     * percentile buckets, or -1 when indices must be searched for.
+     */
+    private final int percentileBucketsFrom;
+
+    private final int percentileBucketsTo;
+
+    private final int percentileBucketsOffset;
+
+    private final int maxStripes;
+
     public TimeWindowFixedBoundaryHistogram(Clock clock, DistributionStatisticConfig config,
             boolean supportsAggregablePercentiles) {
         this(clock, config, supportsAggregablePercentiles, true);
@@ -68,6 +117,15 @@ public class TimeWindowFixedBoundaryHistogram
         }
 
         this.buckets = histogramBuckets.stream().filter(Objects::nonNull).mapToDouble(Double::doubleValue).toArray();
+        this.percentileBucketsFrom = buckets.length > 0 && !PercentileHistogramBuckets.isPercentileBucket(buckets[0])
+                ? 1 : 0;
+        this.percentileBucketsTo = buckets.length > 0
+                && !PercentileHistogramBuckets.isPercentileBucket(buckets[buckets.length - 1]) ? buckets.length - 1
+                        : buckets.length;
+        this.percentileBucketsOffset = PercentileHistogramBuckets.rangeOffset(buckets, percentileBucketsFrom,
+                percentileBucketsTo);
+        this.maxStripes = Math.min(MAX_STRIPES,
+                Integer.highestOneBit(Math.max(1, MAX_STRIPED_COUNTS / Math.max(1, buckets.length))));
         initRingBuffer();
     }
 
@@ -97,7 +155,7 @@ public class TimeWindowFixedBoundaryHistogram
     }
 
     @Override
-    void accumulate() {
+    void accumulate(FixedBoundaryHistogram currentBucket) {
         // do nothing -- we aren't using swaps for source and accumulated
     }
 
@@ -124,7 +182,7 @@ public class TimeWindowFixedBoundaryHistogram
 
         for (int i = 0; i < buckets.length; i++) {
             printStream.format(Locale.US, bucketFormatString, buckets[i] / bucketScaling,
-                    currentHistogram().values.get(i));
+                    currentHistogram().countAtIndex(i));
         }
 
         printStream.write('\n');
@@ -147,6 +205,15 @@ public class TimeWindowFixedBoundaryHistogram
          */
         final AtomicLongArray values;
 
+        /**
+         * Like {@link java.util.concurrent.atomic.LongAdder}, counts are striped by
+         * thread once recording into {@link #values} becomes contended, and only summed
+         * up when read. Starts with two stripes, which double whenever threads still
+         * collide, up to {@code maxStripes}.
+         */
+        @Nullable
+        private volatile AtomicLongArray[] stripes;
+
         FixedBoundaryHistogram() {
             this.values = new AtomicLongArray(buckets.length);
         }
@@ -157,7 +224,7 @@ public class TimeWindowFixedBoundaryHistogram
                 return 0;
             long count = 0;
             for (int i = 0; i <= index; i++)
-                count += values.get(i);
+                count += countAtIndex(i);
             return count;
         }
 
@@ -165,7 +232,18 @@ public class TimeWindowFixedBoundaryHistogram
             int index = Arrays.binarySearch(buckets, value);
             if (index < 0)
                 return 0;
-            return values.get(index);
+            return countAtIndex(index);
+        }
+
+        long countAtIndex(int index) {
+            long count = values.get(index);
+            AtomicLongArray[] stripes = this.stripes;
+            if (stripes != null) {
+                for (AtomicLongArray stripe : stripes) {
+                    count += stripe.get(STRIPE_PADDING + index);
+                }
+            }
+            return count;
         }
 
         void reset() {
@@ -173,18 +251,87 @@ public class TimeWindowFixedBoundaryHistogram
                 values.set(i, 0);
 
             }
+            AtomicLongArray[] stripes = this.stripes;
+            if (stripes != null) {
+                for (AtomicLongArray stripe : stripes) {
+                    for (int i = STRIPE_PADDING; i < stripe.length(); i++) {
+                        stripe.set(i, 0);
+                    }
+                }
+            }
         }
 
         void record(long value) {
             int index = leastLessThanOrEqualTo(value);
             if (index > -1)
-                values.incrementAndGet(index);
+                increment(index);
+        }
+
+        private void increment(int index) {
+            AtomicLongArray[] stripes = this.stripes;
+            if (stripes == null) {
+                long count = values.get(index);
+                if (values.compareAndSet(index, count, count + 1)) {
+                    return;
+                }
+                if (maxStripes == 1) {
+                    values.incrementAndGet(index);
+                    return;
+                }
+                stripes = addStripes(null);
+            }
+
+            int[] probe = stripeProbe.get();
+            AtomicLongArray stripe = stripes[probe[0] & (stripes.length - 1)];
+            long count = stripe.get(STRIPE_PADDING + index);
+            if (stripe.compareAndSet(STRIPE_PADDING + index, count, count + 1)) {
+                return;
+            }
+
+            // Collided with another thread on this stripe: move to another one next time,
+            // with more stripes to choose from if there may be more.
+            probe[0] = rehash(probe[0]);
+            if (stripes.length < maxStripes) {
+                addStripes(stripes);
+            }
+            stripe.incrementAndGet(STRIPE_PADDING + index);
+        }
+
+        /**
+         * Start striping, or double the stripes unless another thread already did.
+         */
+        private AtomicLongArray[] addStripes(@Nullable AtomicLongArray[] current) {
+            synchronized (this) {
+                AtomicLongArray[] stripes = this.stripes;
+                if (stripes != current) {
+                    return stripes;
+                }
+                int length = stripes == null ? 2 : stripes.length * 2;
+                AtomicLongArray[] added = stripes == null ? new AtomicLongArray[length]
+                        : Arrays.copyOf(stripes, length);
+                for (int i = stripes == null ? 0 : stripes.length; i < length; i++) {
+                    added[i] = new AtomicLongArray(STRIPE_PADDING + buckets.length);
+                }
+                this.stripes = added;
+                return added;
+            }
+        }
+
+        private int rehash(int probe) {
+            // xorshift, as LongAdder does
+            probe ^= probe << 13;
+            probe ^= probe >>> 17;
+            return probe ^ (probe << 5);
         }
 
         /**
          * The least bucket that is less than or equal to a sample.
          */
         int leastLessThanOrEqualTo(long key) {
+            if (percentileBucketsOffset >= 0) {
+                return computedLeastLessThanOrEqualTo(key);
+            }
+
             int low = 0;
             int high = buckets.length - 1;
 
@@ -201,6 +348,22 @@ public class TimeWindowFixedBoundaryHistogram
             return low < buckets.length ? low : -1;
         }
 
+        private int computedLeastLessThanOrEqualTo(long key) {
+            int index = PercentileHistogramBuckets.ceilingIndex(key) - percentileBucketsOffset
+                    + percentileBucketsFrom;
+            if (index <= percentileBucketsFrom) {
+                // up to the first percentile bucket, unless preceded by the minimum expected
+                // value that is greater than or equal to the sample
+                return percentileBucketsFrom == 0 || buckets[0] < key ? percentileBucketsFrom : 0;
+            }
+            if (index < percentileBucketsTo) {
+                return index;
+            }
+            // past the last percentile bucket, but maybe up to the maximum expected value
+            return percentileBucketsTo < buckets.length && buckets[percentileBucketsTo] >= key ? percentileBucketsTo
+                    : -1;
+        }
+
     }
 
 }
@@ -21,7 +21,6 @@ import io.micrometer.core.instrument.util.TimeUtils;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.DoubleSupplier;
 
 /**
  * An implementation of a decaying maximum for a distribution based on a configurable ring
@@ -38,9 +37,9 @@ public class TimeWindowMax {
 
     private final long durationBetweenRotatesMillis;
 
-    private final AtomicLong[] ringBuffer;
+    private final int bufferLength;
 
-    private int currentBucket;
+    private final TimeWindowRing<AtomicLong> ring;
 
     private volatile long lastRotateTimestampMillis;
 
@@ -56,12 +55,13 @@ public class TimeWindowMax {
         this.clock = clock;
         this.durationBetweenRotatesMillis = rotateFrequencyMillis;
         this.lastRotateTimestampMillis = clock.wallTime();
-        this.currentBucket = 0;
+        this.bufferLength = bufferLength;
 
-        this.ringBuffer = new AtomicLong[bufferLength];
+        AtomicLong[] ringBuffer = new AtomicLong[bufferLength];
         for (int i = 0; i < bufferLength; i++) {
-            this.ringBuffer[i] = new AtomicLong();
+            ringBuffer[i] = new AtomicLong();
         }
+        this.ring = new TimeWindowRing<>(ringBuffer);
     }
 
     /**
@@ -75,8 +75,8 @@ public class TimeWindowMax {
 
     private void record(long sample) {
         rotate();
-        for (AtomicLong max : ringBuffer) {
-            updateMax(max, sample);
+        for (int i = 0; i < ring.length(); i++) {
+            updateMax(ring.bucket(i), sample);
         }
     }
 
@@ -85,21 +85,26 @@ public class TimeWindowMax {
      * @return A max scaled to the base unit of time. For use by timer implementations.
      */
     public double poll(TimeUnit timeUnit) {
-        return poll(() -> TimeUtils.nanosToUnit(ringBuffer[currentBucket].get(), timeUnit));
+        return TimeUtils.nanosToUnit(pollMax(), timeUnit);
     }
 
-    private double poll(DoubleSupplier maxSupplier) {
+    private long pollMax() {
         rotate();
-        synchronized (this) {
-            return maxSupplier.getAsDouble();
+        long epoch;
+        long max;
+        do {
+            epoch = ring.epoch();
+            max = ring.current().get();
         }
+        while (ring.rotatedSince(epoch));
+        return max;
     }
 
     /**
      * @return An unscaled max. For use by distribution summary implementations.
      */
     public double poll() {
-        return poll(() -> Double.longBitsToDouble(ringBuffer[currentBucket].get()));
+        return Double.longBitsToDouble(pollMax());
     }
 
     /**
@@ -120,8 +125,7 @@ public class TimeWindowMax {
 
     private void rotate() {
         long wallTime = clock.wallTime();
-        long timeSinceLastRotateMillis = wallTime - lastRotateTimestampMillis;
-        if (timeSinceLastRotateMillis < durationBetweenRotatesMillis) {
+        if (wallTime - lastRotateTimestampMillis < durationBetweenRotatesMillis) {
             // Need to wait more for next rotation.
             return;
         }
@@ -132,28 +136,17 @@ public class TimeWindowMax {
         }
 
         try {
-            synchronized (this) {
-                if (timeSinceLastRotateMillis >= durationBetweenRotatesMillis * ringBuffer.length) {
-                    // time since last rotation is enough to clear whole ring buffer
-                    for (AtomicLong bufferItem : ringBuffer) {
-                        bufferItem.set(0);
-                    }
-                    currentBucket = 0;
-                    lastRotateTimestampMillis = wallTime - timeSinceLastRotateMillis % durationBetweenRotatesMillis;
-                    return;
-                }
-
-                int iterations = 0;
-                do {
-                    ringBuffer[currentBucket].set(0);
-                    if (++currentBucket >= ringBuffer.length) {
-                        currentBucket = 0;
-                    }
-                    timeSinceLastRotateMillis -= durationBetweenRotatesMillis;
-                    lastRotateTimestampMillis += durationBetweenRotatesMillis;
-                }
-                while (timeSinceLastRotateMillis >= durationBetweenRotatesMillis && ++iterations < ringBuffer.length);
+            // Another thread may have completed a rotation since the check above.
+            long timeSinceLastRotateMillis = wallTime - lastRotateTimestampMillis;
+            if (timeSinceLastRotateMillis < durationBetweenRotatesMillis) {
+                return;
             }
+
+            // Expired buckets are swapped for empty ones rather than cleared, so a
+            // concurrent poll does not read a bucket cleared underneath it.
+            long rotations = timeSinceLastRotateMillis / durationBetweenRotatesMillis;
+            ring.rotate((int) Math.min(rotations, bufferLength), AtomicLong::new, max -> max.set(0));
+            lastRotateTimestampMillis += rotations * durationBetweenRotatesMillis;
         }
         finally {
             rotating = 0;
@@ -69,8 +69,8 @@ public class TimeWindowPercentileHistogram extends AbstractTimeWindowHistogram<D
     }
 
     @Override
-    void accumulate() {
-        currentHistogram().getIntervalHistogramInto(intervalHistogram);
+    void accumulate(DoubleRecorder currentBucket) {
+        currentBucket.getIntervalHistogramInto(intervalHistogram);
         accumulatedHistogram().add(intervalHistogram);
     }
 
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.core.instrument.distribution;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A ring buffer of time window buckets that rotates in place. Rotating does not clear the
+ * expired buckets; it swaps them for empty buckets. A recorder or reader still holding an
+ * expired bucket therefore does not see it cleared underneath it. Buckets retired by one
+ * rotation are only reset and reused from the rotation after the next one, so a slow
+ * recorder would have to hold on to a bucket for more than a whole rotation interval to
+ * write to it once reused. Rotating no longer allocates once the first rotations have
+ * retired enough buckets.
+ * <p>
+ * Rotations must not run concurrently. Each one advances an epoch, which is odd while the
+ * rotation is under way, so readers can tell whether the ring rotated while they read it.
+ *
+ * @param <T> the type of the buckets in the ring buffer
+ */
+final class TimeWindowRing<T> {
+
+    private final AtomicReferenceArray<T> buckets;
+
+    // The buckets retired by the last rotation. Only accessed by the rotating thread
+    private final Object[] retiring;
+
+    // Only accessed by the rotating thread
+    private int retiringCount;
+
+    // The buckets retired by earlier rotations, which can be reused. Only accessed by the
+    // rotating thread
+    private final ArrayDeque<T> reusable;
+
+    private volatile int current;
+
+    private volatile long epoch;
+
+    TimeWindowRing(T[] buckets) {
+        this.buckets = new AtomicReferenceArray<>(buckets);
+        this.retiring = new Object[buckets.length];
+        this.reusable = new ArrayDeque<>(buckets.length);
+    }
+
+    /**
+     * @return The number of buckets, which every sample is recorded to.
+     */
+    int length() {
+        return buckets.length();
+    }
+
+    T bucket(int index) {
+        return buckets.get(index);
+    }
+
+    /**
+     * @return The oldest bucket, which covers the whole time window.
+     */
+    T current() {
+        return buckets.get(current);
+    }
+
+    /**
+     * @return The current epoch, to be passed to {@link #rotatedSince(long)} once done
+     * reading.
+     */
+    long epoch() {
+        return epoch;
+    }
+
+    /**
+     * @param epoch An epoch returned by {@link #epoch()}.
+     * @return Whether the ring was rotating when the epoch was read or has rotated since.
+     */
+    boolean rotatedSince(long epoch) {
+        return (epoch & 1) != 0 || this.epoch != epoch;
+    }
+
+    /**
+     * Expire the given number of buckets, starting with the current one.
+     * @param rotations The number of buckets to expire. Anything beyond the length of the
+     * ring expires all of them.
+     * @param bucketFactory Creates a bucket when there is no retired bucket left to reuse.
+     * @param bucketReset Clears a retired bucket before it is reused.
+     */
+    @SuppressWarnings("unchecked")
+    void rotate(int rotations, Supplier<T> bucketFactory, Consumer<T> bucketReset) {
+        int expiring = Math.min(rotations, buckets.length());
+        epoch++;
+        int index = current;
+        // not the buckets made reusable below, which are added after these
+        int available = reusable.size();
+        for (int i = 0; i < expiring; i++) {
+            T empty = i < available ? reusable.poll() : null;
+            if (empty == null) {
+                empty = bucketFactory.get();
+            }
+            else {
+                bucketReset.accept(empty);
+            }
+            T expired = buckets.getAndSet(index, empty);
+            // the buckets retired by the last rotation become reusable as this one
+            // retires others in their place
+            if (i < retiringCount) {
+                reusable.add((T) retiring[i]);
+            }
+            retiring[i] = expired;
+            if (++index >= buckets.length()) {
+                index = 0;
+            }
+        }
+        for (int i = expiring; i < retiringCount; i++) {
+            reusable.add((T) retiring[i]);
+            retiring[i] = null;
+        }
+        retiringCount = expiring;
+        current = index;
+        epoch++;
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.core.instrument.observation;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.core.instrument.*;
+import io.micrometer.observation.Observation;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Handler for {@link Timer.Sample} and {@link Counter} that records the same meters as
+ * {@link DefaultMeterObservationHandler}, but only builds and registers each of them the
+ * first time it is needed. The meters are then looked up by the observation name, its
+ * low cardinality key values and, for the {@link Timer}, the class of its error, without
+ * converting the key values to tags or going through the registry again.
+ * <p>
+ * At most {@code maxCachedMeters} meters of each type are cached; meters beyond that are
+ * registered on every observation like {@link DefaultMeterObservationHandler} does. Meters
+ * removed from the registry are no longer cached.
+ * <p>
+ * The same limitation as for {@link DefaultMeterObservationHandler} applies to the
+ * {@link LongTaskTimer}: it can only have tags for the key values available when the
+ * observation is started.
+ *
+ * @since 1.11.0
+ */
+public class CachingMeterObservationHandler implements MeterObservationHandler<Observation.Context> {
+
+    private static final int DEFAULT_MAX_CACHED_METERS = 1000;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxCachedMeters;
+
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<MeterKey, LongTaskTimer> longTaskTimers = new ConcurrentHashMap<>();
+
+    private final Map<MeterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Create a handler caching at most 1000 meters of each type.
+     * @param meterRegistry registry to register the meters with
+     */
+    public CachingMeterObservationHandler(MeterRegistry meterRegistry) {
+        this(meterRegistry, DEFAULT_MAX_CACHED_METERS);
+    }
+
+    /**
+     * Create a handler caching a limited number of meters.
+     * @param meterRegistry registry to register the meters with
+     * @param maxCachedMeters how many meters of each type may be cached
+     */
+    public CachingMeterObservationHandler(MeterRegistry meterRegistry, int maxCachedMeters) {
+        this.meterRegistry = meterRegistry;
+        this.maxCachedMeters = maxCachedMeters;
+        meterRegistry.config().onMeterRemoved(this::evict);
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        MeterKey key = new MeterKey(context.getName(), context.getLowCardinalityKeyValues(), null);
+        LongTaskTimer longTaskTimer = longTaskTimers.get(key);
+        if (longTaskTimer == null) {
+            longTaskTimer = cache(longTaskTimers, key, LongTaskTimer.builder(context.getName() + ".active")
+                    .tags(createTags(context)).register(meterRegistry));
+        }
+        context.put(LongTaskTimer.Sample.class, longTaskTimer.start());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        context.put(Timer.Sample.class, sample);
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Throwable error = context.getError();
+        MeterKey key = new MeterKey(context.getName(), context.getLowCardinalityKeyValues(),
+                error != null ? error.getClass() : null);
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = cache(timers, key,
+                    Timer.builder(context.getName())
+                            .tag("error", error != null ? error.getClass().getSimpleName() : "none")
+                            .tags(createTags(context)).register(meterRegistry));
+        }
+        Timer.Sample sample = context.getRequired(Timer.Sample.class);
+        sample.stop(timer);
+
+        LongTaskTimer.Sample longTaskSample = context.getRequired(LongTaskTimer.Sample.class);
+        longTaskSample.stop();
+    }
+
+    @Override
+    public void onEvent(Observation.Event event, Observation.Context context) {
+        MeterKey key = new MeterKey(context.getName(), context.getLowCardinalityKeyValues(), event.getName());
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = cache(counters, key, Counter.builder(context.getName() + "." + event.getName())
+                    .tags(createTags(context)).register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    private <M extends Meter> M cache(Map<MeterKey, M> meters, MeterKey key, M meter) {
+        // not atomic, so the cache may grow slightly past the limit when many new meters
+        // are registered concurrently
+        if (meters.size() < maxCachedMeters) {
+            meters.put(key, meter);
+        }
+        return meter;
+    }
+
+    private void evict(Meter meter) {
+        timers.values().remove(meter);
+        longTaskTimers.values().remove(meter);
+        counters.values().remove(meter);
+    }
+
+    private Tags createTags(Observation.Context context) {
+        return Tags.of(context.getLowCardinalityKeyValues().stream().map(tag -> Tag.of(tag.getKey(), tag.getValue()))
+                .collect(Collectors.toList()));
+    }
+
+    private static final class MeterKey {
+
+        private final String name;
+
+        private final KeyValues keyValues;
+
+        // the error class of a timer or the event name of a counter
+        @Nullable
+        private final Object qualifier;
+
+        MeterKey(String name, KeyValues keyValues, @Nullable Object qualifier) {
+            this.name = name;
+            this.keyValues = keyValues;
+            this.qualifier = qualifier;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            MeterKey meterKey = (MeterKey) o;
+            return name.equals(meterKey.name) && keyValues.equals(meterKey.keyValues)
+                    && Objects.equals(qualifier, meterKey.qualifier);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = name.hashCode();
+            result = 31 * result + keyValues.hashCode();
+            return 31 * result + Objects.hashCode(qualifier);
+        }
+
+    }
+
+}
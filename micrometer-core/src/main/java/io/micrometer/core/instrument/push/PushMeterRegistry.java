@@ -18,14 +18,20 @@ package io.micrometer.core.instrument.push;
 import io.micrometer.common.lang.Nullable;
 import io.micrometer.common.util.internal.logging.InternalLogger;
 import io.micrometer.common.util.internal.logging.InternalLoggerFactory;
+import io.micrometer.core.annotation.Incubating;
 import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.util.MeterPartition;
 import io.micrometer.core.instrument.util.TimeUtils;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public abstract class PushMeterRegistry extends MeterRegistry {
 
@@ -33,29 +39,221 @@ public abstract class PushMeterRegistry extends MeterRegistry {
 
     private final PushRegistryConfig config;
 
+    private final Lock publishLock = new ReentrantLock();
+
+    private final PushRegistryMetrics pushRegistryMetrics;
+
     @Nullable
     private ScheduledExecutorService scheduledExecutorService;
 
+    @Nullable
+    private ExecutorService batchExecutorService;
+
+    // System.nanoTime() at which the next scheduled publish is due, the time source of the
+    // scheduler. Only accessed from the scheduler thread once it has been started.
+    private long nextScheduledPublishNanos;
+
     protected PushMeterRegistry(PushRegistryConfig config, Clock clock) {
         super(clock);
 
         config.requireValid();
 
         this.config = config;
+        this.pushRegistryMetrics = new PushRegistryMetrics(this, clock);
     }
 
     protected abstract void publish();
 
     /**
-     * Catch uncaught exceptions thrown from {@link #publish()}.
+     * @return Statistics about the publications of this registry. They are not
+     * registered anywhere until {@link PushRegistryMetrics#bindTo(MeterRegistry) bound}.
+     * @since 1.11.0
+     */
+    @Incubating(since = "1.11.0")
+    public PushRegistryMetrics getPushRegistryMetrics() {
+        return pushRegistryMetrics;
+    }
+
+    /**
+     * Catch uncaught exceptions thrown from {@link #publish()}. Publishes never overlap.
      */
     private void publishSafely() {
+        publishLock.lock();
+        long start = clock.monotonicTime();
+        boolean successful = false;
         try {
             publish();
+            successful = true;
         }
         catch (Throwable e) {
             logger.warn("Unexpected exception thrown while publishing metrics for " + getClass().getSimpleName(), e);
         }
+        finally {
+            pushRegistryMetrics.recordPublish(clock.monotonicTime() - start, successful);
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Runs on every step. A publish that overran one or more steps leaves the executions
+     * it held up queued; those are skipped rather than publishing back to back.
+     */
+    private void publishOnSchedule() {
+        long stepNanos = config.step().toNanos();
+        long scheduledNanos = nextScheduledPublishNanos;
+        nextScheduledPublishNanos = scheduledNanos + stepNanos;
+        if (System.nanoTime() - scheduledNanos >= stepNanos) {
+            logger.warn("skipping a publish for " + getClass().getSimpleName()
+                    + " because the previous one took longer than the step of " + TimeUtils.format(config.step()));
+            pushRegistryMetrics.recordSkippedPublish();
+            return;
+        }
+        publishSafely();
+    }
+
+    /**
+     * Apply the given consumer to the meters of this registry in batches of at most
+     * {@link PushRegistryConfig#batchSize()} meters, returning once every batch has been
+     * consumed. While the registry is started with more than one
+     * {@link PushRegistryConfig#numThreads() thread}, batches are consumed concurrently by
+     * that many threads, the publishing thread included. When all of them are busy, the
+     * publishing thread consumes the next batch itself, so a slow backend holds up
+     * partitioning instead of letting batches queue up.
+     * <p>
+     * A batch fails when the consumer throws, which it should also do when the backend
+     * rejects the batch. A batch that fails does not prevent the remaining batches from
+     * being consumed. The first failure is rethrown once all of them have been. Batches
+     * that fail are accounted for in the {@link #getPushRegistryMetrics() push registry
+     * metrics}.
+     * @param batchConsumer serializes and sends a batch. It may be called from several
+     * threads at once.
+     * @since 1.11.0
+     */
+    protected void forEachBatch(Consumer<List<Meter>> batchConsumer) {
+        consumeBatches(batch -> {
+            boolean successful = false;
+            try {
+                batchConsumer.accept(batch);
+                successful = true;
+            }
+            finally {
+                pushRegistryMetrics.recordBatch(batch.size(), successful);
+            }
+        });
+    }
+
+    /**
+     * Like {@link #forEachBatch(Consumer)}, for batch senders that return once their
+     * request is underway rather than once it completed, such as those sending with
+     * {@link io.micrometer.core.ipc.http.HttpSender#sendAsync(io.micrometer.core.ipc.http.HttpSender.Request)}.
+     * The next batch is then serialized while earlier ones are in flight. How many
+     * requests can be in flight at once is up to the sender. This returns once every
+     * request completed.
+     * <p>
+     * A batch fails when the sender throws or its request completes exceptionally, which
+     * it should also do when the backend rejects the batch. Batches that fail are
+     * accounted for like those of {@link #forEachBatch(Consumer)}, and the first failure
+     * is rethrown once all requests completed.
+     * @param batchSender serializes a batch and starts sending it. It may be called from
+     * several threads at once.
+     * @since 1.11.0
+     */
+    protected void forEachBatchAsync(Function<List<Meter>, CompletableFuture<?>> batchSender) {
+        List<CompletableFuture<?>> requests = new CopyOnWriteArrayList<>();
+        Throwable failure = null;
+        try {
+            consumeBatches(batch -> {
+                CompletableFuture<?> request;
+                try {
+                    request = batchSender.apply(batch);
+                }
+                catch (RuntimeException | Error e) {
+                    pushRegistryMetrics.recordBatch(batch.size(), false);
+                    throw e;
+                }
+                requests.add(request.whenComplete(
+                        (response, e) -> pushRegistryMetrics.recordBatch(batch.size(), e == null)));
+            });
+        }
+        catch (RuntimeException | Error e) {
+            // the requests of the batches that were sent are still waited for
+            failure = e;
+        }
+
+        for (CompletableFuture<?> request : requests) {
+            try {
+                request.get();
+            }
+            catch (ExecutionException e) {
+                failure = addFailure(failure, e.getCause());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        rethrow(failure);
+    }
+
+    private void consumeBatches(Consumer<List<Meter>> batchConsumer) {
+        MeterPartition batches = new MeterPartition(getMeters(), config.batchSize());
+        ExecutorService executor = batchExecutorService;
+        if (executor == null || batches.size() <= 1) {
+            Throwable failure = null;
+            for (List<Meter> batch : batches) {
+                try {
+                    batchConsumer.accept(batch);
+                }
+                catch (RuntimeException | Error e) {
+                    failure = addFailure(failure, e);
+                }
+            }
+            rethrow(failure);
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(batches.size());
+        for (List<Meter> batch : batches) {
+            futures.add(executor.submit(() -> batchConsumer.accept(batch)));
+        }
+
+        Throwable failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            }
+            catch (ExecutionException e) {
+                failure = addFailure(failure, e.getCause());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                return;
+            }
+        }
+        rethrow(failure);
+    }
+
+    private static Throwable addFailure(@Nullable Throwable failure, Throwable next) {
+        if (failure == null) {
+            return next;
+        }
+        if (failure != next) {
+            failure.addSuppressed(next);
+        }
+        return failure;
+    }
+
+    private static void rethrow(@Nullable Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
     }
 
     /**
@@ -74,11 +272,21 @@ public abstract class PushMeterRegistry extends MeterRegistry {
             logger.info("publishing metrics for " + getClass().getSimpleName() + " every "
                     + TimeUtils.format(config.step()));
 
+            int numThreads = config.numThreads();
+            if (numThreads > 1) {
+                // the publishing thread is one of the threads; a batch that finds every
+                // worker busy runs on it, even once the pool is shut down
+                batchExecutorService = new ThreadPoolExecutor(numThreads - 1, numThreads - 1, 0L,
+                        TimeUnit.MILLISECONDS, new SynchronousQueue<>(), threadFactory,
+                        (batch, executor) -> batch.run());
+            }
+
             scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(threadFactory);
             // time publication to happen just after StepValue finishes the step
             long stepMillis = config.step().toMillis();
             long initialDelayMillis = stepMillis - (clock.wallTime() % stepMillis) + 1;
-            scheduledExecutorService.scheduleAtFixedRate(this::publishSafely, initialDelayMillis, stepMillis,
+            nextScheduledPublishNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(initialDelayMillis);
+            scheduledExecutorService.scheduleAtFixedRate(this::publishOnSchedule, initialDelayMillis, stepMillis,
                     TimeUnit.MILLISECONDS);
         }
     }
@@ -88,6 +296,10 @@ public abstract class PushMeterRegistry extends MeterRegistry {
             scheduledExecutorService.shutdown();
             scheduledExecutorService = null;
         }
+        if (batchExecutorService != null) {
+            batchExecutorService.shutdown();
+            batchExecutorService = null;
+        }
     }
 
     @Override
@@ -48,15 +48,15 @@ public interface PushRegistryConfig extends MeterRegistryConfig {
     }
 
     /**
-     * Return the number of threads to use with the scheduler.
-     * <p>
-     * Note that this configuration is NOT supported.
-     * @return The number of threads to use with the scheduler. The default is 2 threads.
-     * @deprecated since 1.1.13 because this configuration is not used
+     * Return the number of threads that serialize and send batches of meters
+     * concurrently, the publishing thread included. This applies to registries that
+     * publish through {@link PushMeterRegistry#forEachBatch}; {@code 1} sends batches one
+     * after another.
+     * @return The number of threads that send batches concurrently. The default is 1
+     * thread, so batches are sent one after another unless more threads are configured.
      */
-    @Deprecated
     default int numThreads() {
-        return getInteger(this, "numThreads").orElse(2);
+        return getInteger(this, "numThreads").orElse(1);
     }
 
     /**
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.core.instrument.push;
+
+import io.micrometer.common.lang.NonNullApi;
+import io.micrometer.common.lang.NonNullFields;
+import io.micrometer.core.annotation.Incubating;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.ipc.http.HttpSender;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the publications of a {@link PushMeterRegistry}: how long publishing
+ * took, how much of that was spent waiting on the backend, how many batches and bytes
+ * were sent, and how many meters did not make it.
+ * <p>
+ * The statistics are plain counters rather than meters of the registry they describe, so
+ * that recording them does not add to what the registry publishes. They can be exposed
+ * through any registry, including the described one, by {@link #bindTo(MeterRegistry)
+ * binding} them.
+ *
+ * @since 1.11.0
+ */
+@Incubating(since = "1.11.0")
+@NonNullApi
+@NonNullFields
+public class PushRegistryMetrics implements MeterBinder {
+
+    private final Clock clock;
+
+    private final Tags tags;
+
+    private final LongAdder publishCount = new LongAdder();
+
+    private final LongAdder publishNanos = new LongAdder();
+
+    private final LongAdder publishFailures = new LongAdder();
+
+    private final LongAdder publishesSkipped = new LongAdder();
+
+    private final LongAdder batchesSent = new LongAdder();
+
+    private final LongAdder batchesFailed = new LongAdder();
+
+    private final LongAdder metersDropped = new LongAdder();
+
+    private final LongAdder requestCount = new LongAdder();
+
+    private final LongAdder requestNanos = new LongAdder();
+
+    private final LongAdder requestFailures = new LongAdder();
+
+    private final LongAdder bytesSent = new LongAdder();
+
+    PushRegistryMetrics(PushMeterRegistry registry, Clock clock) {
+        this.clock = clock;
+        this.tags = Tags.of("registry", registry.getClass().getSimpleName());
+    }
+
+    /**
+     * Decorate a sender so that the requests it sends are accounted for in the request
+     * and byte statistics. The bytes of a body written while the request is sent are
+     * counted as the sender writes them.
+     * @param sender The sender a registry publishes with.
+     * @return A sender that records every request before delegating to {@code sender}.
+     */
+    public HttpSender instrument(HttpSender sender) {
+        return new HttpSender() {
+            @Override
+            public Response send(Request request) throws Throwable {
+                CountedRequest counted = new CountedRequest(request);
+                long start = clock.monotonicTime();
+                boolean successful = false;
+                try {
+                    Response response = sender.send(counted.request);
+                    successful = response.isSuccessful();
+                    return response;
+                }
+                finally {
+                    recordRequest(counted.bytes(), start, successful);
+                }
+            }
+
+            @Override
+            public CompletableFuture<Response> sendAsync(Request request) {
+                CountedRequest counted = new CountedRequest(request);
+                long start = clock.monotonicTime();
+                return sender.sendAsync(counted.request).whenComplete((response, e) -> recordRequest(counted.bytes(),
+                        start, response != null && response.isSuccessful()));
+            }
+        };
+    }
+
+    private void recordRequest(long bytes, long start, boolean successful) {
+        requestNanos.add(clock.monotonicTime() - start);
+        requestCount.increment();
+        bytesSent.add(bytes);
+        if (!successful) {
+            requestFailures.increment();
+        }
+    }
+
+    void recordPublish(long durationNanos, boolean successful) {
+        publishNanos.add(durationNanos);
+        publishCount.increment();
+        if (!successful) {
+            publishFailures.increment();
+        }
+    }
+
+    void recordSkippedPublish() {
+        publishesSkipped.increment();
+    }
+
+    void recordBatch(int size, boolean successful) {
+        if (successful) {
+            batchesSent.increment();
+        }
+        else {
+            batchesFailed.increment();
+            metersDropped.add(size);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer
+                .builder("micrometer.push.publish", this, m -> m.publishCount.sum(), m -> m.publishNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .tags(tags).description("Time spent publishing, serialization and requests included")
+                .register(registry);
+        FunctionCounter.builder("micrometer.push.publish.failures", this, m -> m.publishFailures.sum()).tags(tags)
+                .description("Publications that did not send every batch successfully").register(registry);
+        FunctionCounter.builder("micrometer.push.publish.skipped", this, m -> m.publishesSkipped.sum()).tags(tags)
+                .description("Scheduled publications skipped because the previous one overran the step")
+                .register(registry);
+
+        FunctionCounter.builder("micrometer.push.batches", this, m -> m.batchesSent.sum()).tags(tags)
+                .tag("result", "success").description("Batches of meters sent").register(registry);
+        FunctionCounter.builder("micrometer.push.batches", this, m -> m.batchesFailed.sum()).tags(tags)
+                .tag("result", "failure").description("Batches of meters sent").register(registry);
+        FunctionCounter.builder("micrometer.push.meters.dropped", this, m -> m.metersDropped.sum()).tags(tags)
+                .description("Meters left unpublished because their batch failed").register(registry);
+
+        FunctionTimer
+                .builder("micrometer.push.requests", this, m -> m.requestCount.sum(), m -> m.requestNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .tags(tags).description("Time spent waiting on the backend").register(registry);
+        FunctionCounter.builder("micrometer.push.requests.failures", this, m -> m.requestFailures.sum()).tags(tags)
+                .description("Requests that failed or were answered with an error").register(registry);
+        FunctionCounter.builder("micrometer.push.bytes", this, m -> m.bytesSent.sum()).tags(tags)
+                .baseUnit(BaseUnits.BYTES).description("Request payload bytes sent").register(registry);
+    }
+
+    /**
+     * A request whose body bytes are known without writing it again: its length when it
+     * is held in memory, otherwise what the sender wrote the last time it wrote it.
+     */
+    private static final class CountedRequest {
+
+        final HttpSender.Request request;
+
+        private final HttpSender.Request original;
+
+        private final long contentLength;
+
+        private final AtomicLong bytesWritten = new AtomicLong();
+
+        CountedRequest(HttpSender.Request request) {
+            this.original = request;
+            this.contentLength = request.getContentLength();
+            this.request = contentLength >= 0 ? request
+                    : new HttpSender.Request(request.getUrl(), this::writeCounting, request.getMethod(),
+                            request.getRequestHeaders());
+        }
+
+        private void writeCounting(OutputStream out) throws IOException {
+            CountingOutputStream counting = new CountingOutputStream(out);
+            try {
+                original.writeEntity(counting);
+            }
+            finally {
+                bytesWritten.set(counting.count);
+            }
+        }
+
+        long bytes() {
+            return contentLength >= 0 ? contentLength : bytesWritten.get();
+        }
+
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            // the sender owns the stream
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.core.instrument.step;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.Histogram;
+import io.micrometer.core.instrument.distribution.TimeWindowFixedBoundaryHistogram;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Counts between the explicit buckets of a histogram, of the previous step only. Values
+ * are counted by a histogram that never rolls over, and the counts of a step are what it
+ * counted since the counts of the step before.
+ * <p>
+ * Unlike the time window histograms of step meters, whose counts cover the
+ * {@link DistributionStatisticConfig#getExpiry() expiry} rather than the step, these
+ * counts add up to the count of a step meter recording the same values. Values above the
+ * highest bucket are not counted.
+ *
+ * @since 1.11.0
+ */
+public final class StepBucketCounts extends StepValue<CountAtBucket[]> {
+
+    private static final CountAtBucket[] EMPTY_HISTOGRAM = new CountAtBucket[0];
+
+    private final Histogram histogram;
+
+    // only read and written while rolling over, which happens on one thread at a time
+    private long[] counted = new long[0];
+
+    /**
+     * Create a new {@code StepBucketCounts}.
+     * @param clock clock
+     * @param stepMillis step in milliseconds
+     * @param distributionStatisticConfig configuration of the histogram buckets
+     */
+    public StepBucketCounts(Clock clock, long stepMillis, DistributionStatisticConfig distributionStatisticConfig) {
+        super(clock, stepMillis);
+        this.histogram = new TimeWindowFixedBoundaryHistogram(clock,
+                DistributionStatisticConfig.builder().expiry(Duration.ofDays(1825)) // effectively never roll over
+                        .bufferLength(1).build().merge(distributionStatisticConfig),
+                true, false);
+    }
+
+    public void recordLong(long value) {
+        histogram.recordLong(value);
+    }
+
+    public void recordDouble(double value) {
+        histogram.recordDouble(value);
+    }
+
+    @Override
+    protected Supplier<CountAtBucket[]> valueSupplier() {
+        return () -> {
+            CountAtBucket[] counts = histogram.takeSnapshot(0, 0, 0).histogramCounts();
+            if (counted.length != counts.length) {
+                counted = new long[counts.length];
+            }
+            CountAtBucket[] stepCounts = new CountAtBucket[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                long count = (long) counts[i].count();
+                stepCounts[i] = new CountAtBucket(counts[i].bucket(), count - counted[i]);
+                counted[i] = count;
+            }
+            return stepCounts;
+        };
+    }
+
+    @Override
+    protected CountAtBucket[] noValue() {
+        return EMPTY_HISTOGRAM;
+    }
+
+}
@@ -19,6 +19,9 @@ import io.micrometer.core.instrument.AbstractMeter;
 import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.Counter;
 
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.DoubleAdder;
+
 /**
  * Counter that reports a rate per step interval to a monitoring system. Note that
  * {@link #count()} will report the number of events in the last complete interval rather
@@ -28,21 +31,41 @@ import io.micrometer.core.instrument.Counter;
  */
 public class StepCounter extends AbstractMeter implements Counter {
 
-    private final StepDouble value;
+    private static final AtomicLongFieldUpdater<StepCounter> lastStepUpdater = AtomicLongFieldUpdater
+            .newUpdater(StepCounter.class, "lastStep");
+
+    private static final StepTick.Rollover<StepCounter> rollover = (counter, completedStep) -> {
+        double value = counter.current.sumThenReset();
+        counter.previous = completedStep ? value : 0.0;
+    };
+
+    private final StepTick tick;
+
+    private final DoubleAdder current = new DoubleAdder();
+
+    private volatile long lastStep;
+
+    private volatile double previous;
 
     public StepCounter(Id id, Clock clock, long stepMillis) {
+        this(id, new StepTick(clock, stepMillis));
+    }
+
+    StepCounter(Id id, StepTick tick) {
         super(id);
-        this.value = new StepDouble(clock, stepMillis);
+        this.tick = tick;
+        this.lastStep = tick.currentStep();
     }
 
     @Override
     public void increment(double amount) {
-        value.getCurrent().add(amount);
+        current.add(amount);
     }
 
     @Override
     public double count() {
-        return value.poll();
+        tick.rollOver(this, lastStepUpdater, rollover);
+        return previous;
     }
 
 }
@@ -23,6 +23,7 @@ import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.core.instrument.distribution.TimeWindowMax;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.DoubleAdder;
 import java.util.concurrent.atomic.LongAdder;
 
@@ -34,11 +35,27 @@ import java.util.concurrent.atomic.LongAdder;
  */
 public class StepDistributionSummary extends AbstractDistributionSummary {
 
+    private static final AtomicLongFieldUpdater<StepDistributionSummary> lastStepUpdater = AtomicLongFieldUpdater
+            .newUpdater(StepDistributionSummary.class, "lastStep");
+
+    private static final StepTick.Rollover<StepDistributionSummary> rollover = (meter, completedStep) -> {
+        long stepCount = meter.count.sumThenReset();
+        double stepTotal = meter.total.sumThenReset();
+        meter.previousCount = completedStep ? stepCount : 0L;
+        meter.previousTotal = completedStep ? stepTotal : 0.0;
+    };
+
+    private final StepTick tick;
+
     private final LongAdder count = new LongAdder();
 
     private final DoubleAdder total = new DoubleAdder();
 
-    private final StepTuple2<Long, Double> countTotal;
+    private volatile long lastStep;
+
+    private volatile long previousCount;
+
+    private volatile double previousTotal;
 
     private final TimeWindowMax max;
 
@@ -53,8 +70,15 @@ public class StepDistributionSummary extends AbstractDistributionSummary {
      */
     public StepDistributionSummary(Id id, Clock clock, DistributionStatisticConfig distributionStatisticConfig,
             double scale, long stepMillis, boolean supportsAggregablePercentiles) {
+        this(id, clock, new StepTick(clock, stepMillis), distributionStatisticConfig, scale,
+                supportsAggregablePercentiles);
+    }
+
+    StepDistributionSummary(Id id, Clock clock, StepTick tick, DistributionStatisticConfig distributionStatisticConfig,
+            double scale, boolean supportsAggregablePercentiles) {
         super(id, clock, distributionStatisticConfig, scale, supportsAggregablePercentiles);
-        this.countTotal = new StepTuple2<>(clock, stepMillis, 0L, 0.0, count::sumThenReset, total::sumThenReset);
+        this.tick = tick;
+        this.lastStep = tick.currentStep();
         this.max = new TimeWindowMax(clock, distributionStatisticConfig);
     }
 
@@ -67,12 +91,18 @@ public class StepDistributionSummary extends AbstractDistributionSummary {
 
     @Override
     public long count() {
-        return countTotal.poll1();
+        rollCount();
+        return previousCount;
     }
 
     @Override
     public double totalAmount() {
-        return countTotal.poll2();
+        rollCount();
+        return previousTotal;
+    }
+
+    private void rollCount() {
+        tick.rollOver(this, lastStepUpdater, rollover);
     }
 
     @Override
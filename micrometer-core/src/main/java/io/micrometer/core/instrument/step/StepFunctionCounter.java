@@ -20,23 +20,46 @@ import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.FunctionCounter;
 
 import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.DoubleAdder;
 import java.util.function.ToDoubleFunction;
 
 public class StepFunctionCounter<T> extends AbstractMeter implements FunctionCounter {
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<StepFunctionCounter> lastStepUpdater = AtomicLongFieldUpdater
+            .newUpdater(StepFunctionCounter.class, "lastStep");
+
+    @SuppressWarnings("rawtypes")
+    private static final StepTick.Rollover<StepFunctionCounter> rollover = (counter, completedStep) -> {
+        double value = counter.count.sumThenReset();
+        counter.previous = completedStep ? value : 0.0;
+    };
+
+    private final StepTick tick;
+
     private final WeakReference<T> ref;
 
     private final ToDoubleFunction<T> f;
 
     private volatile double last;
 
-    private StepDouble count;
+    private final DoubleAdder count = new DoubleAdder();
+
+    private volatile long lastStep;
+
+    private volatile double previous;
 
     public StepFunctionCounter(Id id, Clock clock, long stepMillis, T obj, ToDoubleFunction<T> f) {
+        this(id, new StepTick(clock, stepMillis), obj, f);
+    }
+
+    StepFunctionCounter(Id id, StepTick tick, T obj, ToDoubleFunction<T> f) {
         super(id);
+        this.tick = tick;
+        this.lastStep = tick.currentStep();
         this.ref = new WeakReference<>(obj);
         this.f = f;
-        this.count = new StepDouble(clock, stepMillis);
     }
 
     @Override
@@ -45,9 +68,11 @@ public class StepFunctionCounter<T> extends AbstractMeter implements FunctionCou
         if (obj2 != null) {
             double prevLast = last;
             last = f.applyAsDouble(obj2);
-            count.getCurrent().add(last - prevLast);
+            count.add(last - prevLast);
         }
-        return count.poll();
+
+        tick.rollOver(this, lastStepUpdater, rollover);
+        return previous;
     }
 
 }
@@ -21,6 +21,7 @@ import io.micrometer.core.instrument.util.TimeUtils;
 
 import java.lang.ref.WeakReference;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.DoubleAdder;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.ToDoubleFunction;
@@ -34,6 +35,18 @@ import java.util.function.ToLongFunction;
  */
 public class StepFunctionTimer<T> implements FunctionTimer {
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<StepFunctionTimer> lastStepUpdater = AtomicLongFieldUpdater
+            .newUpdater(StepFunctionTimer.class, "lastStep");
+
+    @SuppressWarnings("rawtypes")
+    private static final StepTick.Rollover<StepFunctionTimer> rollover = (meter, completedStep) -> {
+        long stepCount = meter.count.sumThenReset();
+        double stepTotal = meter.total.sumThenReset();
+        meter.previousCount = completedStep ? stepCount : 0L;
+        meter.previousTotal = completedStep ? stepTotal : 0.0;
+    };
+
     private final Id id;
 
     private final WeakReference<T> ref;
@@ -48,6 +61,8 @@ public class StepFunctionTimer<T> implements FunctionTimer {
 
     private final Clock clock;
 
+    private final StepTick tick;
+
     private volatile long lastUpdateTime = (long) (-2e6);
 
     private volatile long lastCount;
@@ -58,18 +73,29 @@ public class StepFunctionTimer<T> implements FunctionTimer {
 
     private final DoubleAdder total = new DoubleAdder();
 
-    private final StepTuple2<Long, Double> countTotal;
+    private volatile long lastStep;
+
+    private volatile long previousCount;
+
+    private volatile double previousTotal;
 
     public StepFunctionTimer(Id id, Clock clock, long stepMillis, T obj, ToLongFunction<T> countFunction,
             ToDoubleFunction<T> totalTimeFunction, TimeUnit totalTimeFunctionUnit, TimeUnit baseTimeUnit) {
+        this(id, clock, new StepTick(clock, stepMillis), obj, countFunction, totalTimeFunction, totalTimeFunctionUnit,
+                baseTimeUnit);
+    }
+
+    StepFunctionTimer(Id id, Clock clock, StepTick tick, T obj, ToLongFunction<T> countFunction,
+            ToDoubleFunction<T> totalTimeFunction, TimeUnit totalTimeFunctionUnit, TimeUnit baseTimeUnit) {
         this.id = id;
         this.clock = clock;
+        this.tick = tick;
+        this.lastStep = tick.currentStep();
         this.ref = new WeakReference<>(obj);
         this.countFunction = countFunction;
         this.totalTimeFunction = totalTimeFunction;
         this.totalTimeFunctionUnit = totalTimeFunctionUnit;
         this.baseTimeUnit = baseTimeUnit;
-        this.countTotal = new StepTuple2<>(clock, stepMillis, 0L, 0.0, count::sumThenReset, total::sumThenReset);
     }
 
     /**
@@ -77,7 +103,8 @@ public class StepFunctionTimer<T> implements FunctionTimer {
      */
     public double count() {
         accumulateCountAndTotal();
-        return countTotal.poll1();
+        rollCount();
+        return previousCount;
     }
 
     /**
@@ -85,7 +112,12 @@ public class StepFunctionTimer<T> implements FunctionTimer {
      */
     public double totalTime(TimeUnit unit) {
         accumulateCountAndTotal();
-        return TimeUtils.convert(countTotal.poll2(), baseTimeUnit(), unit);
+        rollCount();
+        return TimeUtils.convert(previousTotal, baseTimeUnit(), unit);
+    }
+
+    private void rollCount() {
+        tick.rollOver(this, lastStepUpdater, rollover);
     }
 
     private void accumulateCountAndTotal() {
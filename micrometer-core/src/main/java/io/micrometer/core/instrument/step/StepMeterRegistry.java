@@ -39,9 +39,12 @@ public abstract class StepMeterRegistry extends PushMeterRegistry {
 
     private final StepRegistryConfig config;
 
+    private final StepTick tick;
+
     public StepMeterRegistry(StepRegistryConfig config, Clock clock) {
         super(config, clock);
         this.config = config;
+        this.tick = new StepTick(clock, config.step().toMillis());
     }
 
     @Override
@@ -51,7 +54,7 @@ public abstract class StepMeterRegistry extends PushMeterRegistry {
 
     @Override
     protected Counter newCounter(Meter.Id id) {
-        return new StepCounter(id, clock, config.step().toMillis());
+        return new StepCounter(id, tick);
     }
 
     @Override
@@ -64,8 +67,8 @@ public abstract class StepMeterRegistry extends PushMeterRegistry {
     @Override
     protected Timer newTimer(Meter.Id id, DistributionStatisticConfig distributionStatisticConfig,
             PauseDetector pauseDetector) {
-        Timer timer = new StepTimer(id, clock, distributionStatisticConfig, pauseDetector, getBaseTimeUnit(),
-                this.config.step().toMillis(), false);
+        Timer timer = new StepTimer(id, clock, tick, distributionStatisticConfig, pauseDetector, getBaseTimeUnit(),
+                false);
         HistogramGauges.registerWithCommonFormat(timer, this);
         return timer;
     }
@@ -73,8 +76,8 @@ public abstract class StepMeterRegistry extends PushMeterRegistry {
     @Override
     protected DistributionSummary newDistributionSummary(Meter.Id id,
             DistributionStatisticConfig distributionStatisticConfig, double scale) {
-        DistributionSummary summary = new StepDistributionSummary(id, clock, distributionStatisticConfig, scale,
-                config.step().toMillis(), false);
+        DistributionSummary summary = new StepDistributionSummary(id, clock, tick, distributionStatisticConfig, scale,
+                false);
         HistogramGauges.registerWithCommonFormat(summary, this);
         return summary;
     }
@@ -82,13 +85,13 @@ public abstract class StepMeterRegistry extends PushMeterRegistry {
     @Override
     protected <T> FunctionTimer newFunctionTimer(Meter.Id id, T obj, ToLongFunction<T> countFunction,
             ToDoubleFunction<T> totalTimeFunction, TimeUnit totalTimeFunctionUnit) {
-        return new StepFunctionTimer<>(id, clock, config.step().toMillis(), obj, countFunction, totalTimeFunction,
-                totalTimeFunctionUnit, getBaseTimeUnit());
+        return new StepFunctionTimer<>(id, clock, tick, obj, countFunction, totalTimeFunction, totalTimeFunctionUnit,
+                getBaseTimeUnit());
     }
 
     @Override
     protected <T> FunctionCounter newFunctionCounter(Meter.Id id, T obj, ToDoubleFunction<T> countFunction) {
-        return new StepFunctionCounter<>(id, clock, config.step().toMillis(), obj, countFunction);
+        return new StepFunctionCounter<>(id, tick, obj, countFunction);
     }
 
     @Override
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.core.instrument.step;
+
+import io.micrometer.core.instrument.Clock;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * The step clock of a {@link StepMeterRegistry}, shared by all of its step meters. Meters
+ * only remember the index of the step they last rolled over in, as a primitive field, and
+ * roll over lazily when they are polled. Recording never reads the clock.
+ */
+final class StepTick {
+
+    private final Clock clock;
+
+    private final long stepMillis;
+
+    StepTick(Clock clock, long stepMillis) {
+        this.clock = clock;
+        this.stepMillis = stepMillis;
+    }
+
+    /**
+     * @return The index of the current step since the epoch.
+     */
+    long currentStep() {
+        return clock.wallTime() / stepMillis;
+    }
+
+    /**
+     * Roll a meter over to the current step if it last rolled over in an earlier one. Of
+     * the threads polling the meter concurrently, only one rolls it over.
+     * @param meter the meter to roll over
+     * @param lastStep updates the field of the meter holding the step it last rolled over
+     * in
+     * @param rollover moves what the meter recorded since it last rolled over to its
+     * values for the previous step
+     * @param <M> the type of the meter
+     */
+    <M> void rollOver(M meter, AtomicLongFieldUpdater<M> lastStep, Rollover<M> rollover) {
+        long step = currentStep();
+        long last = lastStep.get(meter);
+        if (last < step && lastStep.compareAndSet(meter, last, step)) {
+            // If the last roll over happened before the step that just completed, what
+            // was recorded since spans several steps and is discarded.
+            rollover.rollOver(meter, last == step - 1);
+        }
+    }
+
+    @FunctionalInterface
+    interface Rollover<M> {
+
+        /**
+         * Take and reset what the meter recorded since it last rolled over.
+         * @param meter the meter rolling over
+         * @param completedStep whether it was recorded in the step that just completed, in
+         * which case it becomes the values of the meter for the previous step. Otherwise
+         * those are zero.
+         */
+        void rollOver(M meter, boolean completedStep);
+
+    }
+
+}
@@ -23,6 +23,7 @@ import io.micrometer.core.instrument.distribution.pause.PauseDetector;
 import io.micrometer.core.instrument.util.TimeUtils;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
@@ -30,11 +31,27 @@ import java.util.concurrent.atomic.LongAdder;
  */
 public class StepTimer extends AbstractTimer {
 
+    private static final AtomicLongFieldUpdater<StepTimer> lastStepUpdater = AtomicLongFieldUpdater
+            .newUpdater(StepTimer.class, "lastStep");
+
+    private static final StepTick.Rollover<StepTimer> rollover = (meter, completedStep) -> {
+        long stepCount = meter.count.sumThenReset();
+        long stepTotal = meter.total.sumThenReset();
+        meter.previousCount = completedStep ? stepCount : 0L;
+        meter.previousTotal = completedStep ? stepTotal : 0L;
+    };
+
+    private final StepTick tick;
+
     private final LongAdder count = new LongAdder();
 
     private final LongAdder total = new LongAdder();
 
-    private final StepTuple2<Long, Long> countTotal;
+    private volatile long lastStep;
+
+    private volatile long previousCount;
+
+    private volatile long previousTotal;
 
     private final TimeWindowMax max;
 
@@ -51,8 +68,16 @@ public class StepTimer extends AbstractTimer {
     public StepTimer(final Id id, final Clock clock, final DistributionStatisticConfig distributionStatisticConfig,
             final PauseDetector pauseDetector, final TimeUnit baseTimeUnit, final long stepDurationMillis,
             final boolean supportsAggregablePercentiles) {
+        this(id, clock, new StepTick(clock, stepDurationMillis), distributionStatisticConfig, pauseDetector,
+                baseTimeUnit, supportsAggregablePercentiles);
+    }
+
+    StepTimer(final Id id, final Clock clock, final StepTick tick,
+            final DistributionStatisticConfig distributionStatisticConfig, final PauseDetector pauseDetector,
+            final TimeUnit baseTimeUnit, final boolean supportsAggregablePercentiles) {
         super(id, clock, distributionStatisticConfig, pauseDetector, baseTimeUnit, supportsAggregablePercentiles);
-        countTotal = new StepTuple2<>(clock, stepDurationMillis, 0L, 0L, count::sumThenReset, total::sumThenReset);
+        this.tick = tick;
+        this.lastStep = tick.currentStep();
         max = new TimeWindowMax(clock, distributionStatisticConfig);
     }
 
@@ -66,12 +91,18 @@ public class StepTimer extends AbstractTimer {
 
     @Override
     public long count() {
-        return countTotal.poll1();
+        rollCount();
+        return previousCount;
     }
 
     @Override
     public double totalTime(final TimeUnit unit) {
-        return TimeUtils.nanosToUnit(countTotal.poll2(), unit);
+        rollCount();
+        return TimeUtils.nanosToUnit(previousTotal, unit);
+    }
+
+    private void rollCount() {
+        tick.rollOver(this, lastStepUpdater, rollover);
     }
 
     @Override
@@ -17,7 +17,7 @@ package io.micrometer.core.instrument.step;
 
 import io.micrometer.core.instrument.Clock;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.function.Supplier;
 
 /**
@@ -29,11 +29,15 @@ import java.util.function.Supplier;
  */
 public class StepTuple2<T1, T2> {
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<StepTuple2> lastInitPosUpdater = AtomicLongFieldUpdater
+            .newUpdater(StepTuple2.class, "lastInitPos");
+
     private final Clock clock;
 
     private final long stepMillis;
 
-    private AtomicLong lastInitPos;
+    private volatile long lastInitPos;
 
     private final T1 t1NoValue;
 
@@ -57,13 +61,13 @@ public class StepTuple2<T1, T2> {
         this.t2Supplier = t2Supplier;
         this.t1Previous = t1NoValue;
         this.t2Previous = t2NoValue;
-        lastInitPos = new AtomicLong(clock.wallTime() / stepMillis);
+        lastInitPos = clock.wallTime() / stepMillis;
     }
 
     private void rollCount(long now) {
         long stepTime = now / stepMillis;
-        long lastInit = lastInitPos.get();
-        if (lastInit < stepTime && lastInitPos.compareAndSet(lastInit, stepTime)) {
+        long lastInit = lastInitPos;
+        if (lastInit < stepTime && lastInitPosUpdater.compareAndSet(this, lastInit, stepTime)) {
             // Need to check if there was any activity during the previous step interval.
             // If there was then the init position will move forward by 1, otherwise it
             // will be older.
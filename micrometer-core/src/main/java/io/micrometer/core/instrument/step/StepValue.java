@@ -17,7 +17,7 @@ package io.micrometer.core.instrument.step;
 
 import io.micrometer.core.instrument.Clock;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.function.Supplier;
 
 /**
@@ -30,18 +30,22 @@ import java.util.function.Supplier;
  */
 public abstract class StepValue<V> {
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<StepValue> lastInitPosUpdater = AtomicLongFieldUpdater
+            .newUpdater(StepValue.class, "lastInitPos");
+
     private final Clock clock;
 
     private final long stepMillis;
 
-    private AtomicLong lastInitPos;
+    private volatile long lastInitPos;
 
     private volatile V previous = noValue();
 
     public StepValue(final Clock clock, final long stepMillis) {
         this.clock = clock;
         this.stepMillis = stepMillis;
-        lastInitPos = new AtomicLong(clock.wallTime() / stepMillis);
+        lastInitPos = clock.wallTime() / stepMillis;
     }
 
     protected abstract Supplier<V> valueSupplier();
@@ -54,8 +58,8 @@ public abstract class StepValue<V> {
 
     private void rollCount(long now) {
         final long stepTime = now / stepMillis;
-        final long lastInit = lastInitPos.get();
-        if (lastInit < stepTime && lastInitPos.compareAndSet(lastInit, stepTime)) {
+        final long lastInit = lastInitPos;
+        if (lastInit < stepTime && lastInitPosUpdater.compareAndSet(this, lastInit, stepTime)) {
             final V v = valueSupplier().get();
             // Need to check if there was any activity during the previous step interval.
             // If there was then the init position will move forward by 1, otherwise it
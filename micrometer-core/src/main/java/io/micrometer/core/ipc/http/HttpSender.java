@@ -20,17 +20,22 @@ import io.micrometer.common.util.StringUtils;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
-import java.util.zip.GZIPOutputStream;
+import java.util.stream.Stream;
 
 /**
  * A general-purpose interface for controlling how
@@ -46,6 +51,26 @@ public interface HttpSender {
 
     Response send(Request request) throws Throwable;
 
+    /**
+     * Send a request without waiting for its response, so that a registry can serialize
+     * its next batch while this one is in flight. The default implementation sends the
+     * request with {@link #send(Request)} before returning, which suits senders that
+     * cannot do otherwise.
+     * @param request The request to send.
+     * @return The response, completed exceptionally if sending the request failed.
+     * @since 1.11.0
+     */
+    default CompletableFuture<Response> sendAsync(Request request) {
+        CompletableFuture<Response> response = new CompletableFuture<>();
+        try {
+            response.complete(send(request));
+        }
+        catch (Throwable e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
     default Request.Builder post(String uri) {
         return newRequest(uri).withMethod(Method.POST);
     }
@@ -80,6 +105,9 @@ public interface HttpSender {
 
         private final byte[] entity;
 
+        @Nullable
+        private final EntityWriter entityWriter;
+
         private final Method method;
 
         private final Map<String, String> requestHeaders;
@@ -87,6 +115,24 @@ public interface HttpSender {
         public Request(URL url, byte[] entity, Method method, Map<String, String> requestHeaders) {
             this.url = url;
             this.entity = entity;
+            this.entityWriter = null;
+            this.method = method;
+            this.requestHeaders = requestHeaders;
+        }
+
+        /**
+         * Create a request whose body is written by the given writer while the request
+         * is sent, rather than held in memory.
+         * @param url The request URL.
+         * @param entityWriter Writes the request body.
+         * @param method The request method.
+         * @param requestHeaders The request headers.
+         * @since 1.11.0
+         */
+        public Request(URL url, EntityWriter entityWriter, Method method, Map<String, String> requestHeaders) {
+            this.url = url;
+            this.entity = new byte[0];
+            this.entityWriter = entityWriter;
             this.method = method;
             this.requestHeaders = requestHeaders;
         }
@@ -95,8 +141,49 @@ public interface HttpSender {
             return url;
         }
 
+        /**
+         * The request body. If it is written by an {@link EntityWriter}, it is written to
+         * a new array on every call, so senders that can should prefer
+         * {@link #writeEntity(OutputStream)}.
+         * @return The request body.
+         */
         public byte[] getEntity() {
-            return entity;
+            if (entityWriter == null) {
+                return entity;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                entityWriter.writeTo(out);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        /**
+         * The length of the request body.
+         * @return The number of bytes in the request body, or -1 if it is written by an
+         * {@link EntityWriter} and its length is only known once written.
+         * @since 1.11.0
+         */
+        public long getContentLength() {
+            return entityWriter == null ? entity.length : -1;
+        }
+
+        /**
+         * Write the request body to the given stream, which is left open.
+         * @param out Where to write the request body.
+         * @throws IOException If writing fails.
+         * @since 1.11.0
+         */
+        public void writeEntity(OutputStream out) throws IOException {
+            if (entityWriter == null) {
+                out.write(entity);
+            }
+            else {
+                entityWriter.writeTo(out);
+            }
         }
 
         public Method getMethod() {
@@ -115,15 +202,66 @@ public interface HttpSender {
         public String toString() {
             StringBuilder printed = new StringBuilder(method.toString()).append(' ').append(url.toString())
                     .append("\n");
-            if (entity.length == 0) {
+            byte[] body = getEntity();
+            if (body.length == 0) {
                 printed.append("<no request body>");
             }
             else {
-                printed.append(new String(entity));
+                printed.append(new String(body));
             }
             return printed.toString();
         }
 
+        /**
+         * Writes a request body while the request is sent, so that a registry can
+         * serialize its meters straight into the connection instead of building the
+         * whole body in memory first.
+         *
+         * @since 1.11.0
+         */
+        @FunctionalInterface
+        public interface EntityWriter {
+
+            /**
+             * Write the request body. This may be called more than once for the same
+             * request, for instance when it is printed before being sent.
+             * @param out Where to write the request body. Implementations must not close
+             * it.
+             * @throws IOException If writing fails.
+             */
+            void writeTo(OutputStream out) throws IOException;
+
+            /**
+             * Write the given parts as UTF-8, separated by the delimiter and enclosed in
+             * the prefix and suffix, like
+             * {@link java.util.stream.Collectors#joining(CharSequence, CharSequence, CharSequence)}
+             * would join them.
+             * @param parts Supplies the parts every time the body is written.
+             * @param delimiter What to write between parts.
+             * @param prefix What to write before the first part.
+             * @param suffix What to write after the last part.
+             * @return A writer for the joined parts.
+             */
+            static EntityWriter joining(Supplier<Stream<String>> parts, String delimiter, String prefix,
+                    String suffix) {
+                return out -> {
+                    Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                    writer.write(prefix);
+                    Iterator<String> iterator = parts.get().iterator();
+                    if (iterator.hasNext()) {
+                        writer.write(iterator.next());
+                        while (iterator.hasNext()) {
+                            writer.write(delimiter);
+                            writer.write(iterator.next());
+                        }
+                    }
+                    writer.write(suffix);
+                    writer.flush();
+                };
+            }
+
+        }
+
         public static class Builder {
 
             private static final String APPLICATION_JSON = "application/json";
@@ -136,6 +274,9 @@ public interface HttpSender {
 
             private byte[] entity = new byte[0];
 
+            @Nullable
+            private EntityWriter entityWriter;
+
             private Method method;
 
             private Map<String, String> requestHeaders = new LinkedHashMap<>();
@@ -206,6 +347,17 @@ public interface HttpSender {
                 return withContent(APPLICATION_JSON, content);
             }
 
+            /**
+             * Set a request body of JSON content type that is written while the request
+             * is sent.
+             * @param writer Writes the request body.
+             * @return This request builder.
+             * @since 1.11.0
+             */
+            public final Builder withJsonContent(EntityWriter writer) {
+                return withContent(APPLICATION_JSON, writer);
+            }
+
             /**
              * Set the request body as plain text content type.
              * @param content The request body.
@@ -215,6 +367,17 @@ public interface HttpSender {
                 return withContent(TEXT_PLAIN, content);
             }
 
+            /**
+             * Set a request body of plain text content type that is written while the
+             * request is sent.
+             * @param writer Writes the request body.
+             * @return This request builder.
+             * @since 1.11.0
+             */
+            public final Builder withPlainText(EntityWriter writer) {
+                return withContent(TEXT_PLAIN, writer);
+            }
+
             /**
              * Set the request body.
              * @param type The value of the "Content-Type" header to add.
@@ -234,6 +397,22 @@ public interface HttpSender {
             public final Builder withContent(String type, byte[] content) {
                 withHeader("Content-Type", type);
                 entity = content;
+                entityWriter = null;
+                return this;
+            }
+
+            /**
+             * Set a request body that is written while the request is sent. Senders that
+             * support it send such a body with chunked transfer encoding.
+             * @param type The value of the "Content-Type" header to add.
+             * @param writer Writes the request body.
+             * @return This request builder.
+             * @since 1.11.0
+             */
+            public final Builder withContent(String type, EntityWriter writer) {
+                withHeader("Content-Type", type);
+                entity = new byte[0];
+                entityWriter = writer;
                 return this;
             }
 
@@ -265,13 +444,20 @@ public interface HttpSender {
             }
 
             /**
-             * Add a "Content-Encoding" header of "gzip" and compress the request body.
+             * Add a "Content-Encoding" header of "gzip" and compress the request body. A
+             * body set with an {@link EntityWriter} is compressed while it is written.
              * @return This request builder.
              * @throws IOException If compression fails.
              */
             public final Builder compress() throws IOException {
                 withHeader("Content-Encoding", "gzip");
-                this.entity = gzip(entity);
+                EntityWriter writer = this.entityWriter;
+                if (writer != null) {
+                    this.entityWriter = out -> Gzip.write(out, writer);
+                }
+                else {
+                    this.entity = Gzip.compress(entity);
+                }
                 return this;
             }
 
@@ -288,21 +474,29 @@ public interface HttpSender {
                 return this;
             }
 
-            private static byte[] gzip(byte[] data) throws IOException {
-                ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length);
-                try (GZIPOutputStream out = new GZIPOutputStream(bos)) {
-                    out.write(data);
-                }
-                return bos.toByteArray();
-            }
-
             public final Builder print() {
-                System.out.println(new Request(url, entity, method, requestHeaders));
+                System.out.println(toRequest());
                 return this;
             }
 
             public Response send() throws Throwable {
-                return sender.send(new Request(url, entity, method, requestHeaders));
+                return sender.send(toRequest());
+            }
+
+            /**
+             * Send the request without waiting for its response.
+             * @return The response, completed exceptionally if sending the request failed.
+             * @see HttpSender#sendAsync(Request)
+             * @since 1.11.0
+             */
+            public CompletableFuture<Response> sendAsync() {
+                return sender.sendAsync(toRequest());
+            }
+
+            private Request toRequest() {
+                EntityWriter writer = this.entityWriter;
+                return writer == null ? new Request(url, entity, method, requestHeaders)
+                        : new Request(url, writer, method, requestHeaders);
             }
 
         }
@@ -95,8 +95,13 @@ public class HttpUrlConnectionSender implements HttpSender {
 
             if (method != Method.GET) {
                 con.setDoOutput(true);
+                if (request.getContentLength() < 0) {
+                    // a body of unknown length is written as it is produced, rather
+                    // than buffered by the connection to compute its length
+                    con.setChunkedStreamingMode(0);
+                }
                 try (OutputStream os = con.getOutputStream()) {
-                    os.write(request.getEntity());
+                    request.writeEntity(os);
                     os.flush();
                 }
             }
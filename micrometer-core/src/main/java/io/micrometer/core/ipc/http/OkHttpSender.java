@@ -18,7 +18,9 @@ package io.micrometer.core.ipc.http;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
+import okio.BufferedSink;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -51,19 +53,20 @@ public class OkHttpSender implements HttpSender {
             requestBuilder.addHeader(requestHeader.getKey(), requestHeader.getValue());
         }
 
-        byte[] entity = request.getEntity();
         Method method = request.getMethod();
         String methodValue = method.toString();
-        if (entity.length > 0) {
+        long contentLength = request.getContentLength();
+        if (contentLength != 0) {
             String contentType = request.getRequestHeaders().get("Content-Type");
             MediaType mediaType = contentType != null ? MediaType.get(contentType + "; charset=utf-8")
                     : MEDIA_TYPE_APPLICATION_JSON;
-            RequestBody body = RequestBody.create(entity, mediaType);
+            RequestBody body = contentLength > 0 ? RequestBody.create(request.getEntity(), mediaType)
+                    : new StreamingRequestBody(request, mediaType);
             requestBuilder.method(methodValue, body);
         }
         else {
             if (requiresRequestBody(method)) {
-                RequestBody body = RequestBody.create(entity, MEDIA_TYPE_TEXT_PLAIN);
+                RequestBody body = RequestBody.create(new byte[0], MEDIA_TYPE_TEXT_PLAIN);
                 requestBuilder.method(methodValue, body);
             }
             else {
@@ -86,4 +89,30 @@ public class OkHttpSender implements HttpSender {
         }
     }
 
+    /**
+     * Writes the body of a request while OkHttp sends it, with chunked transfer encoding.
+     */
+    private static class StreamingRequestBody extends RequestBody {
+
+        private final Request request;
+
+        private final MediaType mediaType;
+
+        StreamingRequestBody(Request request, MediaType mediaType) {
+            this.request = request;
+            this.mediaType = mediaType;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return mediaType;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            request.writeEntity(sink.outputStream());
+        }
+
+    }
+
 }
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.core.ipc.http;
+
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.core.instrument.util.NamedThreadFactory;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HttpClient}-based {@link HttpSender}. Requests are sent without waiting for
+ * their response, over connections the client keeps alive and, when the client and the
+ * server both use HTTP/2, multiplexes. To send with a given HTTP version, or through a
+ * proxy or with SSL, pass a client configured accordingly.
+ * <p>
+ * At most {@code maxInFlightRequests} requests are in flight at once. Sending another one
+ * waits for one of them to complete, which keeps a registry from serializing batches
+ * faster than the backend takes them.
+ * <p>
+ * A body written by an {@link Request.EntityWriter} is streamed: it is written on a
+ * separate thread while the client reads it, rather than built in memory first. Each
+ * sender writes at most {@code maxInFlightRequests} bodies at once, and a body stops
+ * being written once its request completes, even if the server never read it.
+ *
+ * @since 1.11.0
+ */
+public class JdkHttpClientSender implements HttpSender {
+
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(1);
+
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 4;
+
+    private static final int BODY_PIPE_SIZE = 8192;
+
+    private static final long BODY_WRITER_KEEP_ALIVE_SECONDS = 60;
+
+    private final HttpClient client;
+
+    private final Duration requestTimeout;
+
+    private final Semaphore inFlightRequests;
+
+    // idle threads time out, so the sender needs no closing
+    private final ExecutorService bodyWriters;
+
+    /**
+     * Use the default timeouts and allow 4 requests in flight at once.
+     */
+    public JdkHttpClientSender() {
+        this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Creates a sender with the specified timeouts that allows 4 requests in flight at
+     * once. Its client uses the default HTTP version of {@link HttpClient}.
+     * @param connectTimeout connect timeout when establishing a connection
+     * @param requestTimeout timeout until a response is received
+     */
+    public JdkHttpClientSender(Duration connectTimeout, Duration requestTimeout) {
+        this(HttpClient.newBuilder().connectTimeout(connectTimeout).build(), requestTimeout,
+                DEFAULT_MAX_IN_FLIGHT_REQUESTS);
+    }
+
+    /**
+     * Creates a sender sending with the given client, for instance to configure the HTTP
+     * version, a proxy or SSL.
+     * @param client client to send requests with
+     * @param requestTimeout timeout until a response is received
+     * @param maxInFlightRequests how many requests may be in flight at once
+     */
+    public JdkHttpClientSender(HttpClient client, Duration requestTimeout, int maxInFlightRequests) {
+        if (maxInFlightRequests < 1) {
+            throw new IllegalArgumentException("maxInFlightRequests must be at least 1");
+        }
+        this.client = client;
+        this.requestTimeout = requestTimeout;
+        this.inFlightRequests = new Semaphore(maxInFlightRequests);
+        ThreadPoolExecutor bodyWriters = new ThreadPoolExecutor(maxInFlightRequests, maxInFlightRequests,
+                BODY_WRITER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new NamedThreadFactory("jdk-http-client-sender-body"));
+        bodyWriters.allowCoreThreadTimeOut(true);
+        this.bodyWriters = bodyWriters;
+    }
+
+    @Override
+    public Response send(Request request) throws Throwable {
+        try {
+            return sendAsync(request).get();
+        }
+        catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Send a request, first waiting for another one to complete if as many as allowed
+     * are in flight.
+     * @param request The request to send.
+     * @return The response, completed exceptionally if sending the request failed or the
+     * calling thread was interrupted while waiting.
+     */
+    @Override
+    public CompletableFuture<Response> sendAsync(Request request) {
+        CompletableFuture<HttpResponse<String>> response;
+        HttpRequest.BodyPublisher body;
+        try {
+            body = bodyPublisher(request);
+            HttpRequest httpRequest = toHttpRequest(request, body);
+            inFlightRequests.acquire();
+            try {
+                response = client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString());
+            }
+            catch (RuntimeException e) {
+                inFlightRequests.release();
+                throw e;
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        catch (URISyntaxException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((r, e) -> {
+            inFlightRequests.release();
+            if (body instanceof StreamedBody) {
+                // a request that timed out may have left its body unread
+                ((StreamedBody) body).close();
+            }
+        }).thenApply(r -> new Response(r.statusCode(), r.body()));
+    }
+
+    private HttpRequest toHttpRequest(Request request, HttpRequest.BodyPublisher body) throws URISyntaxException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUrl().toURI()).timeout(requestTimeout);
+        for (Map.Entry<String, String> header : request.getRequestHeaders().entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        builder.method(request.getMethod().name(), body);
+        return builder.build();
+    }
+
+    private HttpRequest.BodyPublisher bodyPublisher(Request request) {
+        long contentLength = request.getContentLength();
+        if (contentLength == 0) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        if (contentLength > 0) {
+            return HttpRequest.BodyPublishers.ofByteArray(request.getEntity());
+        }
+        return new StreamedBody(request, bodyWriters);
+    }
+
+    /**
+     * A body written by an {@link Request.EntityWriter} on a separate thread while the
+     * client reads it. A failure to write it fails the request instead of ending the body
+     * early. Closing the pipe a subscription reads from, once the subscription is
+     * cancelled or failed, or once the request completed, stops its writer.
+     */
+    private static final class StreamedBody implements HttpRequest.BodyPublisher {
+
+        private final Request request;
+
+        private final ExecutorService writers;
+
+        // guarded by this
+        private final List<BodyPipe> pipes = new ArrayList<>(1);
+
+        // guarded by this
+        private boolean closed;
+
+        StreamedBody(Request request, ExecutorService writers) {
+            this.request = request;
+            this.writers = writers;
+        }
+
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            // every subscription, such as one for a redirect, writes the body again
+            BodyPipe pipe = new BodyPipe();
+            synchronized (this) {
+                if (closed) {
+                    pipe.close();
+                }
+                else {
+                    pipes.add(pipe);
+                }
+            }
+            writers.execute(() -> pipe.write(request));
+            HttpRequest.BodyPublishers.ofInputStream(() -> pipe).subscribe(new Flow.Subscriber<ByteBuffer>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscriber.onSubscribe(new Flow.Subscription() {
+                        @Override
+                        public void request(long n) {
+                            subscription.request(n);
+                        }
+
+                        @Override
+                        public void cancel() {
+                            subscription.cancel();
+                            pipe.close();
+                        }
+                    });
+                }
+
+                @Override
+                public void onNext(ByteBuffer item) {
+                    subscriber.onNext(item);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    pipe.close();
+                    subscriber.onError(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    // reading a pipe whose writer failed may look like reaching its end
+                    IOException failure = pipe.failure;
+                    if (failure != null) {
+                        subscriber.onError(failure);
+                    }
+                    else {
+                        subscriber.onComplete();
+                    }
+                }
+            });
+        }
+
+        void close() {
+            List<BodyPipe> open;
+            synchronized (this) {
+                closed = true;
+                open = new ArrayList<>(pipes);
+                pipes.clear();
+            }
+            for (BodyPipe pipe : open) {
+                pipe.close();
+            }
+        }
+
+    }
+
+    private static final class BodyPipe extends PipedInputStream {
+
+        private final PipedOutputStream out;
+
+        @Nullable
+        private volatile IOException failure;
+
+        BodyPipe() {
+            super(BODY_PIPE_SIZE);
+            try {
+                this.out = new PipedOutputStream(this);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Stop the writer: writing to a closed pipe fails, within a second for a writer
+         * waiting for the client to read.
+         */
+        @Override
+        public void close() {
+            try {
+                super.close();
+            }
+            catch (IOException ignored) {
+                // closing a piped input stream does not fail
+            }
+        }
+
+        void write(Request request) {
+            try {
+                request.writeEntity(out);
+            }
+            catch (IOException e) {
+                failure = e;
+            }
+            catch (RuntimeException e) {
+                failure = new IOException("failed to write the request body", e);
+            }
+            finally {
+                try {
+                    out.close();
+                }
+                catch (IOException ignored) {
+                    // the client stopped reading
+                }
+            }
+        }
+
+    }
+
+}
@@ -63,6 +63,21 @@ class CountedAspectTest {
         assertThat(counter.getId().getDescription()).isNull();
     }
 
+    @Test
+    void countedIncrementsTheCounterRegisteredOnTheFirstCall() {
+        countedService.succeedWithMetrics();
+        countedService.succeedWithMetrics();
+
+        Counter counter = meterRegistry.get("metric.success").tag("result", "success").counter();
+        assertThat(counter.count()).isEqualTo(2);
+
+        meterRegistry.remove(counter);
+        countedService.succeedWithMetrics();
+
+        assertThat(meterRegistry.get("metric.success").tag("result", "success").counter()).isNotSameAs(counter)
+                .extracting(Counter::count).isEqualTo(1.0);
+    }
+
     @Test
     void countedWithSkipPredicate() {
         CountedService countedService = getAdvisedService(new CountedService(),
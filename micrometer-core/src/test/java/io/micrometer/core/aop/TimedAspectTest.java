@@ -20,6 +20,8 @@ import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.LongTaskTimer;
 import io.micrometer.core.instrument.Meter.Id;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.core.instrument.distribution.pause.PauseDetector;
@@ -32,6 +34,7 @@ import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
 import javax.annotation.Nonnull;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import static java.util.concurrent.CompletableFuture.supplyAsync;
@@ -54,6 +57,46 @@ class TimedAspectTest {
                 .tag("extra", "tag").timer().count()).isEqualTo(1);
     }
 
+    @Test
+    void timeMethodRecordsIntoTheTimerRegisteredOnTheFirstCall() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        AspectJProxyFactory pf = new AspectJProxyFactory(new TimedService());
+        pf.addAspect(new TimedAspect(registry));
+
+        TimedService service = pf.getProxy();
+
+        service.call();
+        service.call();
+
+        Timer timer = registry.get("call").tag("exception", "none").timer();
+        assertThat(timer.count()).isEqualTo(2);
+
+        registry.remove(timer);
+        service.call();
+
+        assertThat(registry.get("call").tag("exception", "none").timer()).isNotSameAs(timer)
+                .extracting(Timer::count).isEqualTo(1L);
+    }
+
+    @Test
+    void timeMethodWithTagsBasedOnArguments() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        AspectJProxyFactory pf = new AspectJProxyFactory(new TimedService());
+        pf.addAspect(new TimedAspect(registry,
+                (Function<ProceedingJoinPoint, Iterable<Tag>>) pjp -> Tags.of("arg", (String) pjp.getArgs()[0])));
+
+        TimedService service = pf.getProxy();
+
+        service.call("a");
+        service.call("b");
+        service.call("b");
+
+        assertThat(registry.get("callWithArg").tag("arg", "a").timer().count()).isEqualTo(1);
+        assertThat(registry.get("callWithArg").tag("arg", "b").timer().count()).isEqualTo(2);
+    }
+
     @Test
     void timeMethodWithSkipPredicate() {
         MeterRegistry registry = new SimpleMeterRegistry();
@@ -337,6 +380,10 @@ class TimedAspectTest {
         void longCall() {
         }
 
+        @Timed("callWithArg")
+        void call(String arg) {
+        }
+
     }
 
     static class AsyncTimedService {
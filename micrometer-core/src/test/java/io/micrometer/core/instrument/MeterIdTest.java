@@ -15,8 +15,13 @@
  */
 package io.micrometer.core.instrument;
 
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.core.instrument.config.NamingConvention;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -56,4 +61,48 @@ class MeterIdTest {
         assertThat(newId.getTags()).containsExactlyElementsOf(Tags.of("k1", "n1", "k", "n"));
     }
 
+    @Test
+    void conventionNameAndTagsAreCachedPerNamingConvention() {
+        AtomicInteger names = new AtomicInteger();
+        NamingConvention convention = (name, type, baseUnit) -> {
+            names.incrementAndGet();
+            return name.toUpperCase();
+        };
+        Meter.Id id = new Meter.Id("my.id", Tags.of("k1", "v1"), null, null, Meter.Type.COUNTER);
+
+        assertThat(id.getConventionName(convention)).isEqualTo("MY.ID");
+        assertThat(id.getConventionName(convention)).isEqualTo("MY.ID");
+        assertThat(names).hasValue(1);
+        assertThat(id.getConventionName(NamingConvention.snakeCase)).isEqualTo("my_id");
+
+        assertThat(id.getConventionTags(NamingConvention.snakeCase)).isEqualTo(
+                id.getConventionTags(NamingConvention.snakeCase));
+        assertThat(id.getConventionTags(NamingConvention.identity)).containsExactly(Tag.of("k1", "v1"));
+    }
+
+    @Test
+    void conventionTagsCanBeModifiedWithoutAffectingTheCachedOnes() {
+        AtomicInteger tagKeys = new AtomicInteger();
+        NamingConvention convention = new NamingConvention() {
+            @Override
+            public String name(String name, Meter.Type type, @Nullable String baseUnit) {
+                return name;
+            }
+
+            @Override
+            public String tagKey(String key) {
+                tagKeys.incrementAndGet();
+                return key;
+            }
+        };
+        Meter.Id id = new Meter.Id("my.id", Tags.of("k1", "v1"), null, null, Meter.Type.COUNTER);
+
+        id.getConventionTags(convention).add(Tag.of("k2", "v2"));
+        List<Tag> conventionTags = id.getConventionTags(convention);
+        conventionTags.clear();
+
+        assertThat(id.getConventionTags(convention)).containsExactly(Tag.of("k1", "v1"));
+        assertThat(tagKeys).hasValue(1);
+    }
+
 }
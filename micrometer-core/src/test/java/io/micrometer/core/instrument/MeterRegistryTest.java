@@ -26,6 +26,11 @@ import org.junit.jupiter.api.Test;
 
 import javax.annotation.Nonnull;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -202,4 +207,103 @@ class MeterRegistryTest {
                 .hasNoCause();
     }
 
+    @Test
+    void concurrentRegistrationRegistersEachMeterOnce() throws Exception {
+        registry.config().concurrentRegistration(true);
+        AtomicInteger added = new AtomicInteger();
+        registry.config().onMeterAdded(meter -> added.incrementAndGet());
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    for (int i = 0; i < 1000; i++) {
+                        registry.counter("my.counter", "k", String.valueOf(i)).increment();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(registry.getMeters()).hasSize(1000);
+        assertThat(added).hasValue(1000);
+        assertThat(registry.get("my.counter").tag("k", "0").counter().count()).isEqualTo(threads);
+    }
+
+    @Test
+    void concurrentRegistrationRemovesMetersWithSynthetics() {
+        registry.config().concurrentRegistration(true);
+        AtomicInteger removed = new AtomicInteger();
+        registry.config().onMeterRemoved(meter -> removed.incrementAndGet());
+
+        Timer timer = Timer.builder("my.timer").publishPercentiles(0.95).register(registry);
+
+        assertThat(registry.getMeters()).hasSize(2);
+        assertThat(registry.remove(timer)).isSameAs(timer);
+        assertThat(registry.getMeters()).isEmpty();
+        assertThat(removed).hasValue(2);
+        assertThat(registry.remove(timer)).isNull();
+    }
+
+    @Test
+    void registeringExistingMeterSkipsMeterFilterMapping() {
+        AtomicInteger mapped = new AtomicInteger();
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                mapped.incrementAndGet();
+                return id.withTag(Tag.of("common", "tag"));
+            }
+        });
+
+        Counter counter = registry.counter("my.counter", "k", "v");
+        assertThat(registry.counter("my.counter", "k", "v")).isSameAs(counter);
+        assertThat(mapped).hasValue(1);
+    }
+
+    @Test
+    void addingMeterFilterInvalidatesPreFilterIdCache() {
+        Counter counter = registry.counter("my.counter");
+        registry.config().meterFilter(MeterFilter.commonTags(Tags.of("common", "tag")));
+
+        Counter mappedCounter = registry.counter("my.counter");
+        assertThat(mappedCounter).isNotSameAs(counter);
+        assertThat(mappedCounter.getId().getTag("common")).isEqualTo("tag");
+    }
+
+    @Test
+    void removingMeterInvalidatesPreFilterIdCache() {
+        registry.config().commonTags("common", "tag");
+
+        Counter counter = registry.counter("my.counter");
+        assertThat(registry.remove(counter)).isSameAs(counter);
+
+        Counter newCounter = registry.counter("my.counter");
+        assertThat(newCounter).isNotSameAs(counter);
+        assertThat(registry.get("my.counter").counter()).isSameAs(newCounter);
+    }
+
+    @Test
+    void internMeterIdsSharesNamesAndTags() {
+        registry.config().internMeterIds(true);
+
+        Counter counter = registry.counter("my.counter", "k1", new String("v1"), "k2", "v2");
+        Counter counter2 = registry.counter("my.counter", "k1", new String("v1"), "k2", "v3");
+
+        assertThat(counter.getId().getName()).isSameAs(counter2.getId().getName());
+        assertThat(counter.getId().getTagsAsIterable().iterator().next())
+                .isSameAs(counter2.getId().getTagsAsIterable().iterator().next());
+        assertThat(registry.get("my.counter").tag("k2", "v3").counter()).isSameAs(counter2);
+    }
+
 }
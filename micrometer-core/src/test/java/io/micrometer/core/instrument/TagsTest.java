@@ -367,6 +367,29 @@ class TagsTest {
         assertThat(allocatedBytes).isEqualTo(expectedAllocatedBytes);
     }
 
+    @Test
+    void andSortedTagsMergesAndReplacesValues() {
+        Tags merged = Tags.of("b", "1", "d", "2").and(Tags.of("a", "3", "d", "4", "e", "5"));
+        assertTags(merged, "a", "3", "b", "1", "d", "4", "e", "5");
+    }
+
+    @Test
+    void builderSortsAndDeduplicates() {
+        Tags tags = Tags.builder().tag("t2", "v2").tags("t1", "v1", "t2", "v3").build();
+        assertTags(tags, "t1", "v1", "t2", "v3");
+        assertThat(tags).isEqualTo(Tags.of("t1", "v1", "t2", "v3"));
+        assertThat(tags.hashCode()).isEqualTo(Tags.of("t1", "v1", "t2", "v3").hashCode());
+    }
+
+    @Test
+    void builderDoesNotChangePreviouslyBuiltTags() {
+        Tags.Builder builder = Tags.builder().tag("t1", "v1");
+        Tags first = builder.build();
+        Tags second = builder.tag("t0", "v0").build();
+        assertTags(first, "t1", "v1");
+        assertTags(second, "t0", "v0", "t1", "v1");
+    }
+
     private void assertTags(Tags tags, String... keyValues) {
         Iterator<Tag> actual = tags.iterator();
         Iterator<String> expected = Arrays.asList(keyValues).iterator();
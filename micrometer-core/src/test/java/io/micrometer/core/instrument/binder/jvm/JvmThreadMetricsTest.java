@@ -16,15 +16,21 @@
 package io.micrometer.core.instrument.binder.jvm;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleConfig;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -54,14 +60,76 @@ class JvmThreadMetricsTest {
     }
 
     @Test
-    void getThreadStateCountWhenThreadInfoIsNullShouldWork() {
+    void countThreadStatesWhenThreadInfoIsNullShouldWork() {
         ThreadMXBean threadBean = mock(ThreadMXBean.class);
         long[] threadIds = { 1L, 2L };
         when(threadBean.getAllThreadIds()).thenReturn(threadIds);
         ThreadInfo threadInfo = mock(ThreadInfo.class);
         when(threadInfo.getThreadState()).thenReturn(Thread.State.RUNNABLE);
         when(threadBean.getThreadInfo(threadIds)).thenReturn(new ThreadInfo[] { threadInfo, null });
-        assertThat(JvmThreadMetrics.getThreadStateCount(threadBean, Thread.State.RUNNABLE)).isEqualTo(1);
+        assertThat(JvmThreadMetrics.countThreadStates(threadBean)[Thread.State.RUNNABLE.ordinal()]).isEqualTo(1);
+    }
+
+    @Test
+    void threadStatesGaugesShareOneSample() {
+        ThreadMXBean threadBean = mockThreadBean();
+        MockClock clock = new MockClock();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new JvmThreadMetrics(Tags.empty(), null, threadBean, clock).bindTo(registry);
+
+        assertThat(stateCount(registry, "runnable")).isEqualTo(2);
+        clock.add(Duration.ofMillis(99));
+        assertThat(stateCount(registry, "waiting")).isEqualTo(1);
+        assertThat(stateCount(registry, "blocked")).isZero();
+        verify(threadBean, times(1)).getThreadInfo(new long[] { 1L, 2L, 3L, 4L });
+
+        clock.add(Duration.ofMillis(1));
+        assertThat(stateCount(registry, "runnable")).isEqualTo(2);
+        verify(threadBean, times(2)).getThreadInfo(new long[] { 1L, 2L, 3L, 4L });
+    }
+
+    @Test
+    void threadStatesSampledInTheBackgroundAreNotSampledOnRead() {
+        ThreadMXBean threadBean = mockThreadBean();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        try (JvmThreadMetrics threadMetrics = new JvmThreadMetrics(Tags.empty(), Duration.ofHours(1), threadBean,
+                new MockClock())) {
+            threadMetrics.bindTo(registry);
+
+            assertThat(stateCount(registry, "runnable")).isEqualTo(2);
+            assertThat(stateCount(registry, "waiting")).isEqualTo(1);
+            assertThat(stateCount(registry, "runnable")).isEqualTo(2);
+            verify(threadBean, times(1)).getThreadInfo(new long[] { 1L, 2L, 3L, 4L });
+        }
+    }
+
+    @Test
+    void threadStatesAreSampledAgainWithAMockClockThatDoesNotAdvance() {
+        ThreadMXBean threadBean = mockThreadBean();
+        MockClock clock = new MockClock();
+        MeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, new MockClock());
+        new JvmThreadMetrics(Tags.empty(), null, threadBean, clock).bindTo(registry);
+
+        assertThat(stateCount(registry, "runnable")).isEqualTo(2);
+        clock.add(Duration.ofMillis(100));
+        assertThat(stateCount(registry, "runnable")).isEqualTo(2);
+        verify(threadBean, times(2)).getThreadInfo(new long[] { 1L, 2L, 3L, 4L });
+    }
+
+    private static ThreadMXBean mockThreadBean() {
+        ThreadMXBean threadBean = mock(ThreadMXBean.class);
+        long[] threadIds = { 1L, 2L, 3L, 4L };
+        when(threadBean.getAllThreadIds()).thenReturn(threadIds);
+        ThreadInfo runnable = mock(ThreadInfo.class);
+        when(runnable.getThreadState()).thenReturn(Thread.State.RUNNABLE);
+        ThreadInfo waiting = mock(ThreadInfo.class);
+        when(waiting.getThreadState()).thenReturn(Thread.State.WAITING);
+        when(threadBean.getThreadInfo(threadIds)).thenReturn(new ThreadInfo[] { runnable, runnable, waiting, null });
+        return threadBean;
+    }
+
+    private static double stateCount(MeterRegistry registry, String state) {
+        return registry.get("jvm.threads.states").tag("state", state).gauge().value();
     }
 
     private void createTimedWaitingThread() {
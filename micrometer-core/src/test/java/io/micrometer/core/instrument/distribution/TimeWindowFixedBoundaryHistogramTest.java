@@ -19,6 +19,13 @@ import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.MockClock;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class TimeWindowFixedBoundaryHistogramTest {
@@ -42,6 +49,33 @@ class TimeWindowFixedBoundaryHistogramTest {
         }
     }
 
+    @Test
+    void computedPercentileBucketIndicesMatchSearch() {
+        DistributionStatisticConfig statisticConfig = DistributionStatisticConfig.builder()
+                .percentilesHistogram(true).minimumExpectedValue(1000.0).maximumExpectedValue(3e10).build();
+        try (TimeWindowFixedBoundaryHistogram histogram = new TimeWindowFixedBoundaryHistogram(Clock.SYSTEM,
+                statisticConfig.merge(DistributionStatisticConfig.DEFAULT), true)) {
+            TimeWindowFixedBoundaryHistogram.FixedBoundaryHistogram bucket = histogram.newBucket();
+            double[] buckets = histogram.getBuckets();
+            for (double boundary : buckets) {
+                for (long value = (long) boundary - 2; value <= (long) boundary + 2; value++) {
+                    assertThat(bucket.leastLessThanOrEqualTo(value)).isEqualTo(leastLessThanOrEqualTo(buckets, value));
+                }
+            }
+            assertThat(bucket.leastLessThanOrEqualTo(0)).isEqualTo(0);
+            assertThat(bucket.leastLessThanOrEqualTo(Long.MAX_VALUE)).isEqualTo(-1);
+        }
+    }
+
+    private static int leastLessThanOrEqualTo(double[] buckets, long value) {
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] >= value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     @Test
     void histogramsAreCumulative() {
         try (TimeWindowFixedBoundaryHistogram histogram = new TimeWindowFixedBoundaryHistogram(new MockClock(),
@@ -66,4 +100,135 @@ class TimeWindowFixedBoundaryHistogramTest {
         }
     }
 
+    @Test
+    void concurrentRecordingIsNotLost() throws Exception {
+        try (TimeWindowFixedBoundaryHistogram histogram = new TimeWindowFixedBoundaryHistogram(new MockClock(),
+                DistributionStatisticConfig.builder().serviceLevelObjectives(3.0, 6, 7).bufferLength(1).build()
+                        .merge(DistributionStatisticConfig.DEFAULT),
+                false)) {
+            int threads = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        for (int i = 0; i < 10_000; i++) {
+                            histogram.recordDouble(3);
+                            histogram.recordDouble(6);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(histogram.takeSnapshot(0, 0, 0).histogramCounts()).containsExactly(
+                    new CountAtBucket(3.0, 80_000), new CountAtBucket(6.0, 160_000),
+                    new CountAtBucket(7.0, 160_000));
+        }
+    }
+
+    @Test
+    void concurrentRecordingIntoPercentileHistogramIsNotLost() throws Exception {
+        try (TimeWindowFixedBoundaryHistogram histogram = new TimeWindowFixedBoundaryHistogram(new MockClock(),
+                DistributionStatisticConfig.builder().percentilesHistogram(true).bufferLength(1).build()
+                        .merge(DistributionStatisticConfig.DEFAULT),
+                true)) {
+            int threads = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        for (int i = 0; i < 10_000; i++) {
+                            histogram.recordDouble(1_000);
+                            histogram.recordDouble(5_000_000);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+
+            CountAtBucket[] counts = histogram.takeSnapshot(0, 0, 0).histogramCounts();
+            assertThat(counts[counts.length - 1].count()).isEqualTo(160_000);
+            // cumulative counts
+            assertThat(Arrays.stream(counts).filter(count -> count.bucket() >= 1_000).findFirst().get().count())
+                    .isEqualTo(80_000);
+        }
+    }
+
+    @Test
+    void snapshotsAreConsistentWhileRotating() throws Exception {
+        MockClock clock = new MockClock();
+        try (TimeWindowFixedBoundaryHistogram histogram = new TimeWindowFixedBoundaryHistogram(clock,
+                DistributionStatisticConfig.builder().serviceLevelObjectives(3.0, 6, 7).expiry(Duration.ofSeconds(3))
+                        .bufferLength(3).build().merge(DistributionStatisticConfig.DEFAULT),
+                false)) {
+            int recorders = 4;
+            ExecutorService executor = Executors.newFixedThreadPool(recorders + 2);
+            CyclicBarrier barrier = new CyclicBarrier(recorders + 2);
+            AtomicBoolean done = new AtomicBoolean();
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < recorders; t++) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        while (!done.get()) {
+                            histogram.recordDouble(3);
+                            histogram.recordDouble(6);
+                        }
+                        return null;
+                    }));
+                }
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    while (!done.get()) {
+                        clock.add(Duration.ofSeconds(1));
+                        Thread.yield();
+                    }
+                    return null;
+                }));
+                Future<?> snapshots = executor.submit(() -> {
+                    barrier.await();
+                    try {
+                        for (int i = 0; i < 10_000; i++) {
+                            // cumulative counts are only ever out of order when read
+                            // from a bucket that is reset under the snapshot
+                            CountAtBucket[] counts = histogram.takeSnapshot(0, 0, 0).histogramCounts();
+                            assertThat(counts[0].count()).isLessThanOrEqualTo(counts[1].count());
+                            assertThat(counts[1].count()).isLessThanOrEqualTo(counts[2].count());
+                        }
+                    }
+                    finally {
+                        done.set(true);
+                    }
+                    return null;
+                });
+                snapshots.get(30, TimeUnit.SECONDS);
+                for (Future<?> future : futures) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+            }
+            finally {
+                done.set(true);
+                executor.shutdownNow();
+            }
+        }
+    }
+
 }
@@ -19,6 +19,8 @@ import io.micrometer.core.instrument.MockClock;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -68,4 +70,24 @@ class TimeWindowMaxTest {
         assertThat(timeWindowMax.poll()).isEqualTo(100500); // 666 | 500 | 100500
     }
 
+    @Test
+    void rotationDoesNotWaitForPoll() throws Exception {
+        timeWindowMax = new TimeWindowMax(clock, 60_000, 3);
+        timeWindowMax.record(32);
+        clock.add(Duration.ofMinutes(1));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // holding the monitor must not hold up a recording that rotates
+            synchronized (timeWindowMax) {
+                executor.submit(() -> timeWindowMax.record(16)).get(10, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(timeWindowMax.poll()).isEqualTo(32);
+    }
+
 }
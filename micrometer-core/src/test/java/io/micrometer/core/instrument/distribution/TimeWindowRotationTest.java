@@ -22,8 +22,15 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -85,4 +92,75 @@ class TimeWindowRotationTest {
                 DistributionStatisticConfig.builder().expiry(Duration.ofMillis(9)).bufferLength(10).build());
     }
 
+    @ParameterizedTest
+    @MethodSource("histogramTypes")
+    void rotationDoesNotWaitForSnapshot(Class<? extends AbstractTimeWindowHistogram<?, ?>> histogramType)
+            throws Exception {
+        MockClock clock = new MockClock();
+        AbstractTimeWindowHistogram<?, ?> histogram = newHistogram(histogramType, clock,
+                DistributionStatisticConfig.builder().percentiles(0.5).serviceLevelObjectives(3.0).build()
+                        .merge(DistributionStatisticConfig.DEFAULT));
+        clock.add(DistributionStatisticConfig.DEFAULT.getExpiry());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // holding the monitor stands in for a snapshot in progress
+            synchronized (histogram) {
+                executor.submit(() -> histogram.recordDouble(3.0)).get(10, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(histogram.takeSnapshot(0, 0, 0).histogramCounts()).containsExactly(new CountAtBucket(3.0, 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("histogramTypes")
+    void snapshotsTakenWhileRotatingKeepEverySample(Class<? extends AbstractTimeWindowHistogram<?, ?>> histogramType)
+            throws Exception {
+        MockClock clock = new MockClock();
+        int rotations = 20;
+        int recorders = 4;
+        int samples = 10_000;
+        // with more buckets than rotations, the current bucket covers every sample
+        AbstractTimeWindowHistogram<?, ?> histogram = newHistogram(histogramType, clock,
+                DistributionStatisticConfig.builder().serviceLevelObjectives(3.0)
+                        .expiry(Duration.ofMinutes(rotations + 1)).bufferLength(rotations + 1).build()
+                        .merge(DistributionStatisticConfig.DEFAULT));
+
+        ExecutorService executor = Executors.newFixedThreadPool(recorders + 1);
+        try {
+            CountDownLatch recorded = new CountDownLatch(recorders);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int r = 0; r < recorders; r++) {
+                boolean advancingClock = r == 0;
+                futures.add(executor.submit(() -> {
+                    for (int i = 1; i <= samples; i++) {
+                        histogram.recordDouble(3.0);
+                        if (advancingClock && i % (samples / rotations) == 0) {
+                            clock.add(Duration.ofMinutes(1));
+                        }
+                    }
+                    recorded.countDown();
+                }));
+            }
+            futures.add(executor.submit(() -> {
+                while (recorded.getCount() > 0) {
+                    histogram.takeSnapshot(0, 0, 0);
+                }
+            }));
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(histogram.takeSnapshot(0, 0, 0).histogramCounts())
+                .containsExactly(new CountAtBucket(3.0, recorders * samples));
+    }
+
 }
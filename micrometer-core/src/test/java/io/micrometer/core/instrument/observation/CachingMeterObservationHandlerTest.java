@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.core.instrument.observation;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingMeterObservationHandlerTest {
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    @Test
+    void recordsTheSameMetersAsTheDefaultHandler() {
+        observationRegistry.observationConfig()
+                .observationHandler(new CachingMeterObservationHandler(meterRegistry, 2));
+        for (int i = 0; i < 3; i++) {
+            observe("GET");
+            observe("POST");
+            observe("PUT");
+        }
+        Observation.createNotStarted("http.requests", observationRegistry).lowCardinalityKeyValue("method", "GET")
+                .start().error(new IllegalStateException()).stop();
+
+        MeterRegistry expected = new SimpleMeterRegistry();
+        ObservationRegistry defaultObservationRegistry = ObservationRegistry.create();
+        defaultObservationRegistry.observationConfig()
+                .observationHandler(new DefaultMeterObservationHandler(expected));
+        for (int i = 0; i < 3; i++) {
+            observe(defaultObservationRegistry, "GET");
+            observe(defaultObservationRegistry, "POST");
+            observe(defaultObservationRegistry, "PUT");
+        }
+        Observation.createNotStarted("http.requests", defaultObservationRegistry)
+                .lowCardinalityKeyValue("method", "GET").start().error(new IllegalStateException()).stop();
+
+        assertThat(meterRegistry.getMeters()).extracting(Meter::getId).containsExactlyInAnyOrderElementsOf(
+                expected.getMeters().stream().map(Meter::getId).collect(Collectors.toList()));
+        assertThat(meterRegistry.get("http.requests").tags("method", "GET", "error", "none").timer().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("http.requests").tags("method", "PUT", "error", "none").timer().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("http.requests").tags("method", "GET", "error", "IllegalStateException").timer()
+                .count()).isEqualTo(1);
+        assertThat(meterRegistry.get("http.requests.retry").tags("method", "POST").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("http.requests.active").tags("method", "GET").longTaskTimer().activeTasks())
+                .isZero();
+    }
+
+    @Test
+    void metersRemovedFromTheRegistryAreRegisteredAgain() {
+        observationRegistry.observationConfig().observationHandler(new CachingMeterObservationHandler(meterRegistry));
+        observe("GET");
+        Timer removed = meterRegistry.get("http.requests").timer();
+        meterRegistry.remove(removed);
+
+        observe("GET");
+
+        Timer timer = meterRegistry.get("http.requests").timer();
+        assertThat(timer).isNotSameAs(removed);
+        assertThat(timer.getId().getTags()).containsExactlyInAnyOrder(Tag.of("method", "GET"), Tag.of("error", "none"));
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    private void observe(String method) {
+        observe(observationRegistry, method);
+    }
+
+    private static void observe(ObservationRegistry registry, String method) {
+        Observation observation = Observation.createNotStarted("http.requests", registry)
+                .lowCardinalityKeyValue("method", method).highCardinalityKeyValue("uri", "/orders/" + method).start();
+        if (method.equals("POST")) {
+            observation.event(Observation.Event.of("retry"));
+        }
+        observation.stop();
+    }
+
+}
@@ -15,20 +15,32 @@
  */
 package io.micrometer.core.instrument.push;
 
+import io.micrometer.common.lang.Nullable;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micrometer.core.instrument.step.StepMeterRegistry;
 import io.micrometer.core.instrument.step.StepRegistryConfig;
 import io.micrometer.core.instrument.util.NamedThreadFactory;
+import io.micrometer.core.ipc.http.HttpSender;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Tests for {@link PushMeterRegistry}.
@@ -75,6 +87,248 @@ class PushMeterRegistryTest {
         assertThatCode(() -> pushMeterRegistry.close()).doesNotThrowAnyException();
     }
 
+    @Test
+    void batchesAreSentConcurrentlyByNumThreads() {
+        CountDownLatch allThreadsSending = new CountDownLatch(4);
+        AtomicInteger sentBatches = new AtomicInteger();
+        BatchingPushMeterRegistry registry = new BatchingPushMeterRegistry(4, batch -> {
+            allThreadsSending.countDown();
+            try {
+                // only returns early when the other threads are sending at the same time
+                assertThat(allThreadsSending.await(10, TimeUnit.SECONDS)).isTrue();
+            }
+            catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            sentBatches.incrementAndGet();
+        });
+        for (int i = 0; i < 8; i++) {
+            registry.counter("counter." + i);
+        }
+
+        registry.start(threadFactory);
+        registry.close();
+
+        assertThat(registry.failure).isNull();
+        assertThat(sentBatches).hasValue(8);
+    }
+
+    @Test
+    void failedBatchDoesNotStopOtherBatches() {
+        AtomicInteger sentBatches = new AtomicInteger();
+        BatchingPushMeterRegistry registry = new BatchingPushMeterRegistry(2, batch -> {
+            if (batch.get(0).getId().getName().equals("counter.0")) {
+                throw new IllegalStateException("backend unavailable");
+            }
+            sentBatches.incrementAndGet();
+        });
+        for (int i = 0; i < 4; i++) {
+            registry.counter("counter." + i);
+        }
+
+        registry.start(threadFactory);
+        registry.close();
+
+        assertThat(registry.failure).isInstanceOf(IllegalStateException.class).hasMessage("backend unavailable");
+        assertThat(sentBatches).hasValue(3);
+    }
+
+    @Test
+    void batchesAreSentSequentiallyWhenNotStarted() {
+        AtomicInteger sentBatches = new AtomicInteger();
+        BatchingPushMeterRegistry registry = new BatchingPushMeterRegistry(4, batch -> {
+            if (sentBatches.incrementAndGet() == 2) {
+                throw new IllegalStateException("backend unavailable");
+            }
+        });
+        for (int i = 0; i < 4; i++) {
+            registry.counter("counter." + i);
+        }
+
+        assertThatThrownBy(registry::publish).isInstanceOf(IllegalStateException.class);
+        assertThat(sentBatches).hasValue(4);
+    }
+
+    @Test
+    void asyncBatchesAreInFlightTogether() {
+        CountDownLatch allBatchesInFlight = new CountDownLatch(3);
+        BatchingPushMeterRegistry registry = new BatchingPushMeterRegistry(1, batch -> {
+            allBatchesInFlight.countDown();
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    // only completes when the publishing thread did not wait for the others
+                    assertThat(allBatchesInFlight.await(10, TimeUnit.SECONDS)).isTrue();
+                }
+                catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                if (batch.get(0).getId().getName().equals("counter.1")) {
+                    throw new IllegalStateException("backend unavailable");
+                }
+            });
+        });
+        for (int i = 0; i < 3; i++) {
+            registry.counter("counter." + i);
+        }
+        SimpleMeterRegistry statistics = new SimpleMeterRegistry();
+        registry.getPushRegistryMetrics().bindTo(statistics);
+
+        registry.close();
+
+        assertThat(registry.failure).isInstanceOf(IllegalStateException.class).hasMessage("backend unavailable");
+        assertThat(statistics.get("micrometer.push.batches").tag("result", "success").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(statistics.get("micrometer.push.batches").tag("result", "failure").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void instrumentedSenderRecordsAsyncRequests() throws Exception {
+        BatchingPushMeterRegistry registry = new BatchingPushMeterRegistry(1, batch -> {
+        });
+        SimpleMeterRegistry statistics = new SimpleMeterRegistry();
+        PushRegistryMetrics pushRegistryMetrics = registry.getPushRegistryMetrics();
+        pushRegistryMetrics.bindTo(statistics);
+
+        HttpSender.Response response = pushRegistryMetrics.instrument(new HttpSender() {
+            @Override
+            public Response send(Request request) {
+                throw new UnsupportedOperationException("sends asynchronously only");
+            }
+
+            @Override
+            public CompletableFuture<Response> sendAsync(Request request) {
+                return CompletableFuture.completedFuture(new Response(202, null));
+            }
+        }).post("http://localhost").withPlainText("abcd").sendAsync().get();
+
+        assertThat(response.code()).isEqualTo(202);
+        assertThat(statistics.get("micrometer.push.requests").functionTimer().count()).isEqualTo(1);
+        assertThat(statistics.get("micrometer.push.requests.failures").functionCounter().count()).isZero();
+        assertThat(statistics.get("micrometer.push.bytes").functionCounter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void instrumentedSenderCountsStreamedBodiesAsTheyAreWritten() throws Throwable {
+        BatchingPushMeterRegistry registry = new BatchingPushMeterRegistry(1, batch -> {
+        });
+        SimpleMeterRegistry statistics = new SimpleMeterRegistry();
+        PushRegistryMetrics pushRegistryMetrics = registry.getPushRegistryMetrics();
+        pushRegistryMetrics.bindTo(statistics);
+        AtomicInteger bodyWrites = new AtomicInteger();
+
+        pushRegistryMetrics.instrument(request -> {
+            request.writeEntity(new ByteArrayOutputStream());
+            return new HttpSender.Response(200, null);
+        }).post("http://localhost").withPlainText(out -> {
+            bodyWrites.incrementAndGet();
+            out.write("abcde".getBytes(StandardCharsets.UTF_8));
+        }).send();
+
+        assertThat(bodyWrites).hasValue(1);
+        assertThat(statistics.get("micrometer.push.bytes").functionCounter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void pushRegistryMetricsAreKeptOffTheRegistry() throws Throwable {
+        BatchingPushMeterRegistry registry = new BatchingPushMeterRegistry(1, batch -> {
+            if (batch.get(0).getId().getName().equals("counter.1")) {
+                throw new IllegalStateException("backend unavailable");
+            }
+        });
+        for (int i = 0; i < 3; i++) {
+            registry.counter("counter." + i);
+        }
+        SimpleMeterRegistry statistics = new SimpleMeterRegistry();
+        PushRegistryMetrics pushRegistryMetrics = registry.getPushRegistryMetrics();
+        pushRegistryMetrics.bindTo(statistics);
+
+        registry.close();
+        pushRegistryMetrics.instrument(request -> new HttpSender.Response(500, null)).post("http://localhost")
+                .withPlainText("abc").send();
+
+        assertThat(registry.getMeters()).hasSize(3);
+        assertThat(statistics.get("micrometer.push.publish").tag("registry", "BatchingPushMeterRegistry")
+                .functionTimer().count()).isEqualTo(1);
+        assertThat(statistics.get("micrometer.push.publish.failures").functionCounter().count()).isEqualTo(1);
+        assertThat(statistics.get("micrometer.push.batches").tag("result", "success").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(statistics.get("micrometer.push.batches").tag("result", "failure").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(statistics.get("micrometer.push.meters.dropped").functionCounter().count()).isEqualTo(1);
+        assertThat(statistics.get("micrometer.push.requests").functionTimer().count()).isEqualTo(1);
+        assertThat(statistics.get("micrometer.push.requests.failures").functionCounter().count()).isEqualTo(1);
+        assertThat(statistics.get("micrometer.push.bytes").functionCounter().count()).isEqualTo(3);
+    }
+
+    static class BatchingPushMeterRegistry extends StepMeterRegistry {
+
+        @Nullable
+        final Consumer<List<Meter>> batchConsumer;
+
+        @Nullable
+        final Function<List<Meter>, CompletableFuture<?>> batchSender;
+
+        volatile Throwable failure;
+
+        BatchingPushMeterRegistry(int numThreads, Consumer<List<Meter>> batchConsumer) {
+            this(numThreads, batchConsumer, null);
+        }
+
+        BatchingPushMeterRegistry(int numThreads, Function<List<Meter>, CompletableFuture<?>> batchSender) {
+            this(numThreads, null, batchSender);
+        }
+
+        private BatchingPushMeterRegistry(int numThreads, @Nullable Consumer<List<Meter>> batchConsumer,
+                @Nullable Function<List<Meter>, CompletableFuture<?>> batchSender) {
+            super(new StepRegistryConfig() {
+                @Override
+                public String prefix() {
+                    return null;
+                }
+
+                @Override
+                public String get(String key) {
+                    return null;
+                }
+
+                @Override
+                public int batchSize() {
+                    return 1;
+                }
+
+                @Override
+                public int numThreads() {
+                    return numThreads;
+                }
+            }, new MockClock());
+            this.batchConsumer = batchConsumer;
+            this.batchSender = batchSender;
+        }
+
+        @Override
+        protected void publish() {
+            try {
+                if (batchSender != null) {
+                    forEachBatchAsync(batchSender);
+                }
+                else {
+                    forEachBatch(batchConsumer);
+                }
+            }
+            catch (Throwable e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        @Override
+        protected TimeUnit getBaseTimeUnit() {
+            return TimeUnit.SECONDS;
+        }
+
+    }
+
     static class ThrowingPushMeterRegistry extends StepMeterRegistry {
 
         final CountDownLatch countDownLatch;
@@ -76,4 +76,9 @@ class PushRegistryConfigTest {
         assertThat(config.validate().isValid()).isTrue();
     }
 
+    @Test
+    void batchesAreSentByOneThreadByDefault() {
+        assertThat(config.numThreads()).isEqualTo(1);
+    }
+
 }
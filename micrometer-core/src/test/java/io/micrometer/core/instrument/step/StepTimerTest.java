@@ -50,4 +50,23 @@ class StepTimerTest {
         assertThat(timer.mean(TimeUnit.MILLISECONDS)).isEqualTo(75.0);
     }
 
+    @Test
+    void valuesSpanningSeveralStepsAreDiscardedOnPoll() {
+        Duration stepDuration = Duration.ofMillis(10);
+        MockClock clock = new MockClock();
+        StepTimer timer = new StepTimer(mock(Meter.Id.class), clock,
+                DistributionStatisticConfig.builder().expiry(stepDuration).bufferLength(2).build(),
+                mock(PauseDetector.class), TimeUnit.MILLISECONDS, stepDuration.toMillis(), false);
+
+        timer.record(Duration.ofMillis(50));
+        clock.add(stepDuration.multipliedBy(2));
+        assertThat(timer.count()).isZero();
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isZero();
+
+        timer.record(Duration.ofMillis(100));
+        clock.add(stepDuration);
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(100);
+    }
+
 }
@@ -17,9 +17,17 @@ package io.micrometer.core.ipc.http;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -43,4 +51,66 @@ class RequestTest {
         assertThat(requestHeaders).containsEntry("Content-Encoding", "gzip");
     }
 
+    @Test
+    void compressedBodyIsGzipped() throws Throwable {
+        AtomicReference<HttpSender.Request> sent = new AtomicReference<>();
+        HttpSender sender = request -> {
+            sent.set(request);
+            return new HttpSender.Response(200, null);
+        };
+
+        HttpSender.Request.build("https://micrometer.io/", sender).withPlainText("a line").compress().send();
+        HttpSender.Request.build("https://micrometer.io/", sender).withPlainText("another line").compress().send();
+
+        assertThat(gunzip(sent.get().getEntity())).isEqualTo("another line");
+    }
+
+    @Test
+    void entityWriterJoinsParts() throws Throwable {
+        AtomicReference<HttpSender.Request> sent = new AtomicReference<>();
+        HttpSender sender = request -> {
+            sent.set(request);
+            return new HttpSender.Response(200, null);
+        };
+        List<String> parts = Arrays.asList("1", "2", "3");
+
+        HttpSender.Request.build("https://micrometer.io/", sender)
+                .withJsonContent(HttpSender.Request.EntityWriter.joining(parts::stream, ",", "[", "]")).send();
+
+        HttpSender.Request request = sent.get();
+        assertThat(request.getContentLength()).isEqualTo(-1);
+        assertThat(new String(request.getEntity(), StandardCharsets.UTF_8)).isEqualTo("[1,2,3]");
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        request.writeEntity(written);
+        assertThat(written.toString("UTF-8")).isEqualTo("[1,2,3]");
+    }
+
+    @Test
+    void entityWriterIsGzippedWhileWritten() throws Throwable {
+        AtomicReference<HttpSender.Request> sent = new AtomicReference<>();
+        HttpSender sender = request -> {
+            sent.set(request);
+            return new HttpSender.Response(200, null);
+        };
+        List<String> lines = Arrays.asList("first", "second");
+
+        HttpSender.Request.build("https://micrometer.io/", sender)
+                .withPlainText(HttpSender.Request.EntityWriter.joining(lines::stream, "\n", "", "")).compress().send();
+
+        assertThat(sent.get().getContentLength()).isEqualTo(-1);
+        assertThat(gunzip(sent.get().getEntity())).isEqualTo("first\nsecond");
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toString("UTF-8");
+    }
+
 }
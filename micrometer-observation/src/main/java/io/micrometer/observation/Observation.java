@@ -21,9 +21,8 @@ import io.micrometer.common.lang.NonNull;
 import io.micrometer.common.lang.Nullable;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
 import java.util.concurrent.Callable;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -777,7 +776,17 @@ public interface Observation extends ObservationView {
     @SuppressWarnings("unchecked")
     class Context implements ContextView {
 
-        private final Map<Object, Object> map = new HashMap<>();
+        private static final int INITIAL_CAPACITY = 4;
+
+        // Entries are kept in two parallel arrays, allocated on the first put and
+        // searched linearly, since a context usually holds only a few of them
+        @Nullable
+        private Object[] keys;
+
+        @Nullable
+        private Object[] values;
+
+        private int size;
 
         private String name;
 
@@ -790,9 +799,11 @@ public interface Observation extends ObservationView {
         @Nullable
         private ObservationView parentObservation;
 
-        private final Map<String, KeyValue> lowCardinalityKeyValues = new LinkedHashMap<>();
+        // Key values are kept sorted by key, as immutable KeyValues that adding to
+        // replaces, so that reading them needs no copy
+        private KeyValues lowCardinalityKeyValues = KeyValues.empty();
 
-        private final Map<String, KeyValue> highCardinalityKeyValues = new LinkedHashMap<>();
+        private KeyValues highCardinalityKeyValues = KeyValues.empty();
 
         /**
          * The observation name.
@@ -871,7 +882,13 @@ public interface Observation extends ObservationView {
          * @return this for chaining
          */
         public <T> Context put(Object key, T object) {
-            this.map.put(key, object);
+            int index = indexOf(key);
+            if (index >= 0) {
+                this.values[index] = object;
+            }
+            else {
+                add(key, object);
+            }
             return this;
         }
 
@@ -884,7 +901,8 @@ public interface Observation extends ObservationView {
         @Override
         @Nullable
         public <T> T get(Object key) {
-            return (T) this.map.get(key);
+            int index = indexOf(key);
+            return index >= 0 ? (T) this.values[index] : null;
         }
 
         /**
@@ -894,7 +912,18 @@ public interface Observation extends ObservationView {
          * mapping for the key
          */
         public Object remove(Object key) {
-            return this.map.remove(key);
+            int index = indexOf(key);
+            if (index < 0) {
+                return null;
+            }
+            Object previous = this.values[index];
+            int moved = this.size - index - 1;
+            System.arraycopy(this.keys, index + 1, this.keys, index, moved);
+            System.arraycopy(this.values, index + 1, this.values, index, moved);
+            this.size--;
+            this.keys[this.size] = null;
+            this.values[this.size] = null;
+            return previous;
         }
 
         /**
@@ -907,7 +936,7 @@ public interface Observation extends ObservationView {
         @Override
         @NonNull
         public <T> T getRequired(Object key) {
-            T object = (T) this.map.get(key);
+            T object = get(key);
             if (object == null) {
                 throw new IllegalArgumentException("Context does not have an entry for key [" + key + "]");
             }
@@ -921,7 +950,7 @@ public interface Observation extends ObservationView {
          */
         @Override
         public boolean containsKey(Object key) {
-            return this.map.containsKey(key);
+            return indexOf(key) >= 0;
         }
 
         /**
@@ -933,7 +962,8 @@ public interface Observation extends ObservationView {
          */
         @Override
         public <T> T getOrDefault(Object key, T defaultObject) {
-            return (T) this.map.getOrDefault(key, defaultObject);
+            int index = indexOf(key);
+            return index >= 0 ? (T) this.values[index] : defaultObject;
         }
 
         /**
@@ -945,14 +975,51 @@ public interface Observation extends ObservationView {
          * @return object or one derived from the mapping function if not present
          */
         public <T> T computeIfAbsent(Object key, Function<Object, ? extends T> mappingFunction) {
-            return (T) this.map.computeIfAbsent(key, mappingFunction);
+            int index = indexOf(key);
+            if (index >= 0 && this.values[index] != null) {
+                return (T) this.values[index];
+            }
+            T object = mappingFunction.apply(key);
+            if (object != null) {
+                // the function may have changed the entries
+                put(key, object);
+            }
+            return object;
         }
 
         /**
          * Clears the entries from the context.
          */
         public void clear() {
-            this.map.clear();
+            if (this.size > 0) {
+                Arrays.fill(this.keys, 0, this.size, null);
+                Arrays.fill(this.values, 0, this.size, null);
+                this.size = 0;
+            }
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < this.size; i++) {
+                Object candidate = this.keys[i];
+                if (Objects.equals(candidate, key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void add(Object key, @Nullable Object object) {
+            if (this.keys == null) {
+                this.keys = new Object[INITIAL_CAPACITY];
+                this.values = new Object[INITIAL_CAPACITY];
+            }
+            else if (this.size == this.keys.length) {
+                this.keys = Arrays.copyOf(this.keys, this.size * 2);
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.keys[this.size] = key;
+            this.values[this.size] = object;
+            this.size++;
         }
 
         /**
@@ -962,7 +1029,7 @@ public interface Observation extends ObservationView {
          * @return this context
          */
         public Context addLowCardinalityKeyValue(KeyValue keyValue) {
-            this.lowCardinalityKeyValues.put(keyValue.getKey(), keyValue);
+            this.lowCardinalityKeyValues = this.lowCardinalityKeyValues.and(keyValue);
             return this;
         }
 
@@ -974,7 +1041,7 @@ public interface Observation extends ObservationView {
          * @return this context
          */
         public Context addHighCardinalityKeyValue(KeyValue keyValue) {
-            this.highCardinalityKeyValues.put(keyValue.getKey(), keyValue);
+            this.highCardinalityKeyValues = this.highCardinalityKeyValues.and(keyValue);
             return this;
         }
 
@@ -987,7 +1054,7 @@ public interface Observation extends ObservationView {
          * @since 1.10.1
          */
         public Context removeLowCardinalityKeyValue(String keyName) {
-            this.lowCardinalityKeyValues.remove(keyName);
+            this.lowCardinalityKeyValues = without(this.lowCardinalityKeyValues, keyName);
             return this;
         }
 
@@ -1000,7 +1067,7 @@ public interface Observation extends ObservationView {
          * @since 1.10.1
          */
         public Context removeHighCardinalityKeyValue(String keyName) {
-            this.highCardinalityKeyValues.remove(keyName);
+            this.highCardinalityKeyValues = without(this.highCardinalityKeyValues, keyName);
             return this;
         }
 
@@ -1010,7 +1077,7 @@ public interface Observation extends ObservationView {
          * @return this context
          */
         public Context addLowCardinalityKeyValues(KeyValues keyValues) {
-            keyValues.stream().forEach(this::addLowCardinalityKeyValue);
+            this.lowCardinalityKeyValues = this.lowCardinalityKeyValues.and(keyValues);
             return this;
         }
 
@@ -1020,7 +1087,7 @@ public interface Observation extends ObservationView {
          * @return this context
          */
         public Context addHighCardinalityKeyValues(KeyValues keyValues) {
-            keyValues.stream().forEach(this::addHighCardinalityKeyValue);
+            this.highCardinalityKeyValues = this.highCardinalityKeyValues.and(keyValues);
             return this;
         }
 
@@ -1049,23 +1116,41 @@ public interface Observation extends ObservationView {
         @NonNull
         @Override
         public KeyValues getLowCardinalityKeyValues() {
-            return KeyValues.of(this.lowCardinalityKeyValues.values());
+            return this.lowCardinalityKeyValues;
         }
 
         @NonNull
         @Override
         public KeyValues getHighCardinalityKeyValues() {
-            return KeyValues.of(this.highCardinalityKeyValues.values());
+            return this.highCardinalityKeyValues;
         }
 
         @Override
         public KeyValue getLowCardinalityKeyValue(String key) {
-            return this.lowCardinalityKeyValues.get(key);
+            return find(this.lowCardinalityKeyValues, key);
         }
 
         @Override
         public KeyValue getHighCardinalityKeyValue(String key) {
-            return this.highCardinalityKeyValues.get(key);
+            return find(this.highCardinalityKeyValues, key);
+        }
+
+        @Nullable
+        private static KeyValue find(KeyValues keyValues, String key) {
+            for (KeyValue keyValue : keyValues) {
+                if (keyValue.getKey().equals(key)) {
+                    return keyValue;
+                }
+            }
+            return null;
+        }
+
+        private static KeyValues without(KeyValues keyValues, String key) {
+            if (find(keyValues, key) == null) {
+                return keyValues;
+            }
+            return KeyValues.of(keyValues.stream().filter(keyValue -> !keyValue.getKey().equals(key))
+                    .collect(Collectors.toList()));
         }
 
         @NonNull
@@ -1078,8 +1163,8 @@ public interface Observation extends ObservationView {
         public String toString() {
             return "name='" + name + '\'' + ", contextualName='" + contextualName + '\'' + ", error='" + error + '\''
                     + ", lowCardinalityKeyValues=" + toString(getLowCardinalityKeyValues())
-                    + ", highCardinalityKeyValues=" + toString(getHighCardinalityKeyValues()) + ", map=" + toString(map)
-                    + ", parentObservation=" + parentObservation;
+                    + ", highCardinalityKeyValues=" + toString(getHighCardinalityKeyValues()) + ", map="
+                    + entriesToString() + ", parentObservation=" + parentObservation;
         }
 
         private String toString(KeyValues keyValues) {
@@ -1087,9 +1172,12 @@ public interface Observation extends ObservationView {
                     .collect(Collectors.joining(", ", "[", "]"));
         }
 
-        private String toString(Map<Object, Object> map) {
-            return map.entrySet().stream().map(entry -> String.format("%s='%s'", entry.getKey(), entry.getValue()))
-                    .collect(Collectors.joining(", ", "[", "]"));
+        private String entriesToString() {
+            StringJoiner joiner = new StringJoiner(", ", "[", "]");
+            for (int i = 0; i < this.size; i++) {
+                joiner.add(String.format("%s='%s'", this.keys[i], this.values[i]));
+            }
+            return joiner.toString();
         }
 
     }
@@ -94,6 +94,8 @@ public interface ObservationRegistry {
      */
     class ObservationConfig {
 
+        private static final ObservationHandler<?>[] NO_HANDLERS = new ObservationHandler<?>[0];
+
         private final List<ObservationHandler<?>> observationHandlers = new CopyOnWriteArrayList<>();
 
         private final List<ObservationPredicate> observationPredicates = new CopyOnWriteArrayList<>();
@@ -102,13 +104,26 @@ public interface ObservationRegistry {
 
         private final List<ObservationFilter> observationFilters = new CopyOnWriteArrayList<>();
 
+        // Snapshots of the lists above, replaced whenever one changes, so that creating
+        // and stopping observations iterates over arrays instead of streaming the lists
+        private volatile ObservationHandler<?>[] observationHandlerArray = NO_HANDLERS;
+
+        private volatile ObservationPredicate[] observationPredicateArray = new ObservationPredicate[0];
+
+        private volatile ObservationConvention<?>[] observationConventionArray = new ObservationConvention<?>[0];
+
+        private volatile ObservationFilter[] observationFilterArray = new ObservationFilter[0];
+
         /**
          * Register a handler for the {@link Observation observations}.
          * @param handler handler to add to the current configuration
          * @return This configuration instance
          */
         public ObservationConfig observationHandler(ObservationHandler<?> handler) {
-            this.observationHandlers.add(handler);
+            synchronized (this.observationHandlers) {
+                this.observationHandlers.add(handler);
+                this.observationHandlerArray = this.observationHandlers.toArray(NO_HANDLERS);
+            }
             return this;
         }
 
@@ -119,7 +134,10 @@ public interface ObservationRegistry {
          * @return This configuration instance
          */
         public ObservationConfig observationPredicate(ObservationPredicate predicate) {
-            this.observationPredicates.add(predicate);
+            synchronized (this.observationPredicates) {
+                this.observationPredicates.add(predicate);
+                this.observationPredicateArray = this.observationPredicates.toArray(new ObservationPredicate[0]);
+            }
             return this;
         }
 
@@ -130,7 +148,10 @@ public interface ObservationRegistry {
          * @return This configuration instance
          */
         public ObservationConfig observationFilter(ObservationFilter observationFilter) {
-            this.observationFilters.add(observationFilter);
+            synchronized (this.observationFilters) {
+                this.observationFilters.add(observationFilter);
+                this.observationFilterArray = this.observationFilters.toArray(new ObservationFilter[0]);
+            }
             return this;
         }
 
@@ -145,7 +166,11 @@ public interface ObservationRegistry {
          * @return This configuration instance
          */
         public ObservationConfig observationConvention(GlobalObservationConvention<?> observationConvention) {
-            this.observationConventions.add(observationConvention);
+            synchronized (this.observationConventions) {
+                this.observationConventions.add(observationConvention);
+                this.observationConventionArray = this.observationConventions
+                        .toArray(new ObservationConvention<?>[0]);
+            }
             return this;
         }
 
@@ -160,9 +185,13 @@ public interface ObservationRegistry {
         @SuppressWarnings("unchecked")
         <T extends Observation.Context> ObservationConvention<T> getObservationConvention(T context,
                 ObservationConvention<T> defaultConvention) {
-            return (ObservationConvention<T>) this.observationConventions.stream()
-                    .filter(convention -> convention.supportsContext(context)).findFirst().orElse(Objects
-                            .requireNonNull(defaultConvention, "Default ObservationConvention must not be null"));
+            Objects.requireNonNull(defaultConvention, "Default ObservationConvention must not be null");
+            for (ObservationConvention<?> convention : this.observationConventionArray) {
+                if (convention.supportsContext(context)) {
+                    return (ObservationConvention<T>) convention;
+                }
+            }
+            return defaultConvention;
         }
 
         /**
@@ -173,7 +202,12 @@ public interface ObservationRegistry {
          * @return {@code true} when observation is enabled
          */
         boolean isObservationEnabled(String name, @Nullable Observation.Context context) {
-            return this.observationPredicates.stream().allMatch(predicate -> predicate.test(name, context));
+            for (ObservationPredicate predicate : this.observationPredicateArray) {
+                if (!predicate.test(name, context)) {
+                    return false;
+                }
+            }
+            return true;
         }
 
         // package-private for minimal visibility
@@ -189,6 +223,18 @@ public interface ObservationRegistry {
             return observationConventions;
         }
 
+        ObservationHandler<?>[] getObservationHandlerArray() {
+            return observationHandlerArray;
+        }
+
+        ObservationFilter[] getObservationFilterArray() {
+            return observationFilterArray;
+        }
+
+        ObservationConvention<?>[] getObservationConventionArray() {
+            return observationConventionArray;
+        }
+
     }
 
 }
@@ -19,10 +19,7 @@ import io.micrometer.common.KeyValue;
 import io.micrometer.common.lang.Nullable;
 import io.micrometer.common.util.StringUtils;
 
-import java.util.ArrayDeque;
-import java.util.Collection;
-import java.util.Deque;
-import java.util.stream.Collectors;
+import java.util.Arrays;
 
 /**
  * Default implementation of {@link Observation}.
@@ -43,9 +40,7 @@ class SimpleObservation implements Observation {
     private ObservationConvention convention;
 
     @SuppressWarnings("rawtypes")
-    private final Deque<ObservationHandler> handlers;
-
-    private final Collection<ObservationFilter> filters;
+    private final ObservationHandler[] handlers;
 
     SimpleObservation(@Nullable String name, ObservationRegistry registry, Context context) {
         this.registry = registry;
@@ -53,7 +48,6 @@ class SimpleObservation implements Observation {
         this.context.setName(name);
         this.convention = getConventionFromConfig(registry, context);
         this.handlers = getHandlersFromConfig(registry, context);
-        this.filters = registry.observationConfig().getObservationFilters();
     }
 
     SimpleObservation(ObservationConvention<? extends Context> convention, ObservationRegistry registry,
@@ -62,7 +56,6 @@ class SimpleObservation implements Observation {
         this.context = context;
         // name is set later in start()
         this.handlers = getHandlersFromConfig(registry, context);
-        this.filters = registry.observationConfig().getObservationFilters();
         if (convention.supportsContext(context)) {
             this.convention = convention;
         }
@@ -74,13 +67,33 @@ class SimpleObservation implements Observation {
 
     @Nullable
     private static ObservationConvention getConventionFromConfig(ObservationRegistry registry, Context context) {
-        return registry.observationConfig().getObservationConventions().stream()
-                .filter(convention -> convention.supportsContext(context)).findFirst().orElse(null);
+        for (ObservationConvention<?> convention : registry.observationConfig().getObservationConventionArray()) {
+            if (convention.supportsContext(context)) {
+                return convention;
+            }
+        }
+        return null;
     }
 
-    private static Deque<ObservationHandler> getHandlersFromConfig(ObservationRegistry registry, Context context) {
-        return registry.observationConfig().getObservationHandlers().stream()
-                .filter(handler -> handler.supportsContext(context)).collect(Collectors.toCollection(ArrayDeque::new));
+    // Usually every configured handler supports the context and the configuration's own
+    // array is shared; a new one is only allocated when some of them do not.
+    private static ObservationHandler<?>[] getHandlersFromConfig(ObservationRegistry registry, Context context) {
+        ObservationHandler<?>[] configured = registry.observationConfig().getObservationHandlerArray();
+        ObservationHandler<?>[] supported = configured;
+        int count = 0;
+        for (ObservationHandler<?> handler : configured) {
+            if (handler.supportsContext(context)) {
+                if (supported != configured) {
+                    supported[count] = handler;
+                }
+                count++;
+            }
+            else if (supported == configured) {
+                // the handlers before this one are all supported
+                supported = Arrays.copyOf(configured, configured.length - 1);
+            }
+        }
+        return count == supported.length ? supported : Arrays.copyOf(supported, count);
     }
 
     @Override
@@ -163,7 +176,7 @@ class SimpleObservation implements Observation {
         }
 
         Observation.Context modifiedContext = this.context;
-        for (ObservationFilter filter : this.filters) {
+        for (ObservationFilter filter : this.registry.observationConfig().getObservationFilterArray()) {
             modifiedContext = filter.map(modifiedContext);
         }
 
@@ -185,36 +198,48 @@ class SimpleObservation implements Observation {
 
     @SuppressWarnings("unchecked")
     private void notifyOnObservationStarted() {
-        this.handlers.forEach(handler -> handler.onStart(this.context));
+        for (ObservationHandler handler : this.handlers) {
+            handler.onStart(this.context);
+        }
     }
 
     @SuppressWarnings("unchecked")
     private void notifyOnError() {
-        this.handlers.forEach(handler -> handler.onError(this.context));
+        for (ObservationHandler handler : this.handlers) {
+            handler.onError(this.context);
+        }
     }
 
     @SuppressWarnings("unchecked")
     private void notifyOnEvent(Event event) {
-        this.handlers.forEach(handler -> handler.onEvent(event, this.context));
+        for (ObservationHandler handler : this.handlers) {
+            handler.onEvent(event, this.context);
+        }
     }
 
     @SuppressWarnings("unchecked")
     private void notifyOnScopeOpened() {
-        this.handlers.forEach(handler -> handler.onScopeOpened(this.context));
+        for (ObservationHandler handler : this.handlers) {
+            handler.onScopeOpened(this.context);
+        }
     }
 
     @SuppressWarnings("unchecked")
     private void notifyOnScopeClosed() {
         // We're closing from end till the beginning - e.g. we opened scope with handlers
         // with ids 1,2,3 and we need to close the scope in order 3,2,1
-        this.handlers.descendingIterator().forEachRemaining(handler -> handler.onScopeClosed(this.context));
+        for (int i = this.handlers.length - 1; i >= 0; i--) {
+            this.handlers[i].onScopeClosed(this.context);
+        }
     }
 
     @SuppressWarnings("unchecked")
     private void notifyOnObservationStopped(Observation.Context context) {
         // We're closing from end till the beginning - e.g. we started with handlers with
         // ids 1,2,3 and we need to call close on 3,2,1
-        this.handlers.descendingIterator().forEachRemaining(handler -> handler.onStop(context));
+        for (int i = this.handlers.length - 1; i >= 0; i--) {
+            this.handlers[i].onStop(context);
+        }
     }
 
     static class SimpleScope implements Scope {
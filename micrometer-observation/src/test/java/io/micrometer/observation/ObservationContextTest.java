@@ -111,6 +111,49 @@ class ObservationContextTest {
         context.clear();
     }
 
+    @Test
+    void manyItemsShouldBeKeptAndRemoved() {
+        for (int i = 0; i < 20; i++) {
+            context.put("key" + i, i);
+        }
+        context.remove("key0");
+        context.remove("key10");
+
+        assertThat(context.containsKey("key0")).isFalse();
+        assertThat(context.containsKey("key10")).isFalse();
+        assertThat((Integer) context.get("key9")).isEqualTo(9);
+        assertThat((Integer) context.get("key19")).isEqualTo(19);
+    }
+
+    @Test
+    void nullKeyShouldBeKept() {
+        context.put(null, "null key").put("key", "value");
+
+        assertThat((String) context.get(null)).isEqualTo("null key");
+        assertThat((String) context.get("key")).isEqualTo("value");
+        assertThat(context.containsKey("other")).isFalse();
+    }
+
+    @Test
+    void computeIfAbsentShouldNotPutNullValue() {
+        assertThat((String) context.computeIfAbsent(String.class, clazz -> null)).isNull();
+        assertThat(context.containsKey(String.class)).isFalse();
+    }
+
+    @Test
+    void keyValuesShouldBeSortedAndNotAffectedByLaterChanges() {
+        context.addLowCardinalityKeyValue(KeyValue.of("b", "2")).addLowCardinalityKeyValue(KeyValue.of("a", "1"));
+        KeyValues keyValues = context.getLowCardinalityKeyValues();
+
+        assertThat(context.getLowCardinalityKeyValues()).isSameAs(keyValues);
+        assertThat(keyValues).containsExactly(KeyValue.of("a", "1"), KeyValue.of("b", "2"));
+
+        context.addLowCardinalityKeyValue(KeyValue.of("c", "3")).removeLowCardinalityKeyValue("a");
+
+        assertThat(keyValues).containsExactly(KeyValue.of("a", "1"), KeyValue.of("b", "2"));
+        assertThat(context.getLowCardinalityKeyValues()).containsExactly(KeyValue.of("b", "2"), KeyValue.of("c", "3"));
+    }
+
     @Test
     void sameKeyShouldOverrideKeyValue() {
         KeyValue low = KeyValue.of("low", "LOW");
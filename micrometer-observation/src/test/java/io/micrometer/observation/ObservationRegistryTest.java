@@ -19,6 +19,9 @@ import io.micrometer.common.KeyValue;
 import io.micrometer.common.KeyValues;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static io.micrometer.observation.Observation.NOOP;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.BDDAssertions.then;
@@ -61,6 +64,34 @@ class ObservationRegistryTest {
         assertThat(registry.observationConfig().getObservationHandlers()).containsExactlyInAnyOrder(handler1, handler2);
     }
 
+    @Test
+    void onlyHandlersSupportingTheContextShouldBeNotifiedInOrder() {
+        List<String> notifications = new ArrayList<>();
+        registry.observationConfig().observationHandler(new RecordingHandler("first", notifications, true))
+                .observationHandler(new RecordingHandler("unsupported", notifications, false))
+                .observationHandler(new RecordingHandler("last", notifications, true));
+
+        Observation observation = Observation.start("test.timer", registry);
+        observation.openScope().close();
+        observation.stop();
+
+        assertThat(notifications).containsExactly("first.start", "last.start", "first.scopeOpened",
+                "last.scopeOpened", "last.scopeClosed", "first.scopeClosed", "last.stop", "first.stop");
+    }
+
+    @Test
+    void observationFiltersAddedAfterCreationShouldBeApplied() {
+        registry.observationConfig().observationHandler(c -> true);
+        Observation observation = Observation.start("test.timer", registry);
+
+        registry.observationConfig()
+                .observationFilter(context -> context.addLowCardinalityKeyValue(KeyValue.of("filtered", "true")));
+        observation.stop();
+
+        assertThat(observation.getContext().getLowCardinalityKeyValues())
+                .containsExactly(KeyValue.of("filtered", "true"));
+    }
+
     @Test
     void observationShouldBeNoopWhenPredicateApplicable() {
         registry.observationConfig().observationPredicate((name, context) -> !name.equals("test.timer"));
@@ -111,6 +142,47 @@ class ObservationRegistryTest {
         then(myContext.getName()).isEqualTo("new name");
     }
 
+    static class RecordingHandler implements ObservationHandler<Observation.Context> {
+
+        private final String name;
+
+        private final List<String> notifications;
+
+        private final boolean supported;
+
+        RecordingHandler(String name, List<String> notifications, boolean supported) {
+            this.name = name;
+            this.notifications = notifications;
+            this.supported = supported;
+        }
+
+        @Override
+        public void onStart(Observation.Context context) {
+            notifications.add(name + ".start");
+        }
+
+        @Override
+        public void onStop(Observation.Context context) {
+            notifications.add(name + ".stop");
+        }
+
+        @Override
+        public void onScopeOpened(Observation.Context context) {
+            notifications.add(name + ".scopeOpened");
+        }
+
+        @Override
+        public void onScopeClosed(Observation.Context context) {
+            notifications.add(name + ".scopeClosed");
+        }
+
+        @Override
+        public boolean supportsContext(Observation.Context context) {
+            return supported;
+        }
+
+    }
+
     static class MessagingContext extends Observation.Context {
 
     }
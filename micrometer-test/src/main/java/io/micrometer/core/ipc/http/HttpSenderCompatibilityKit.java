@@ -27,6 +27,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import ru.lanwen.wiremock.ext.WiremockResolver;
 
+import java.util.stream.Stream;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -98,6 +100,28 @@ public abstract class HttpSenderCompatibilityKit {
                 .withRequestBody(equalTo("this is a line")));
     }
 
+    @ParameterizedTest
+    @DisplayName("successfully send a request with a body written while it is sent")
+    @EnumSource(value = HttpSender.Method.class, names = { "POST", "PUT" })
+    void successfulRequestSentWithEntityWriter(HttpSender.Method method,
+            @WiremockResolver.Wiremock WireMockServer server) throws Throwable {
+        server.stubFor(any(urlEqualTo("/metrics")).willReturn(ok("a body")));
+
+        HttpSender.Response response = httpSender.newRequest(server.baseUrl() + "/metrics").withMethod(method)
+                .withPlainText(
+                        HttpSender.Request.EntityWriter.joining(() -> Stream.of("first", "second"), "\n", "", ""))
+                .send();
+
+        assertThat(response.code()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("a body");
+
+        server.verify(WireMock
+                .requestMadeFor(request -> MatchResult.aggregate(
+                        MatchResult.of(request.getMethod().getName().equals(method.name())),
+                        MatchResult.of(request.getUrl().equals("/metrics"))))
+                .withRequestBody(equalTo("first\nsecond")));
+    }
+
     @ParameterizedTest
     @DisplayName("receive an error response")
     @EnumSource(HttpSender.Method.class)
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 VMware, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micrometer.core.ipc.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdkHttpClientSenderTest extends HttpSenderCompatibilityKit {
+
+    @Override
+    public HttpSender httpClient() {
+        return new JdkHttpClientSender();
+    }
+
+    @Test
+    void streamedBodyStopsBeingWrittenWhenTheServerNeverReadsIt() throws Exception {
+        List<Socket> connections = new CopyOnWriteArrayList<>();
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            // accepts connections but never reads from them
+            Thread acceptor = new Thread(() -> {
+                try {
+                    while (true) {
+                        connections.add(server.accept());
+                    }
+                }
+                catch (IOException ignored) {
+                    // the server was closed
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            CountDownLatch writerDone = new CountDownLatch(1);
+            HttpSender sender = new JdkHttpClientSender(HttpClient.newHttpClient(), Duration.ofMillis(500), 1);
+            assertThatThrownBy(() -> sender.post("http://127.0.0.1:" + server.getLocalPort() + "/metrics")
+                    .withPlainText(out -> {
+                        try {
+                            byte[] chunk = new byte[64 * 1024];
+                            while (true) {
+                                out.write(chunk);
+                            }
+                        }
+                        finally {
+                            writerDone.countDown();
+                        }
+                    }).send()).isInstanceOf(HttpTimeoutException.class);
+
+            assertThat(writerDone.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+        finally {
+            for (Socket connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+}